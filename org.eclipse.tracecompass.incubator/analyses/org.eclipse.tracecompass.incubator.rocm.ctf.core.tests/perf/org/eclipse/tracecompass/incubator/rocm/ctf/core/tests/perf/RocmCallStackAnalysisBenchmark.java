@@ -0,0 +1,247 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.rocm.ctf.core.tests.perf;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.analysis.RocmCtfCallStackAnalysis;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.converter.RocmCtfMetadata;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.converter.RocmCtfMetadata.StreamDescription;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.converter.RocmCtfStreamWriter;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.converter.RocmField;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.converter.RocmTable;
+import org.eclipse.tracecompass.incubator.rocm.ctf.core.trace.RocmCtfTrace;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfAnalysisException;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
+import org.eclipse.tracecompass.tmf.core.tests.shared.TmfTestHelper;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
+import org.eclipse.tracecompass.tmf.ctf.core.event.CtfTmfEvent;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Benchmarks the build of the ROCm call stack state system from a synthetic
+ * CTF trace, written with the same layout as the converted rocprof
+ * databases. The trace has a stream of kernels dispatched on the queues of a
+ * few GPUs, a stream of HIP API calls and a stream of memory copies.
+ */
+public class RocmCallStackAnalysisBenchmark {
+
+    private static final String TEST_ID = "org.eclipse.tracecompass.incubator#ROCm#";
+    private static final String TEST_BUILD = "Call stack state system build";
+
+    private static final int LOOP_COUNT = 5;
+    private static final int ROWS_PER_STREAM = 200000;
+    private static final int NB_GPUS = 4;
+    private static final int NB_QUEUES = 4;
+    /* Time between two rows of a stream, in ns */
+    private static final long ROW_INTERVAL = 100;
+
+    private static final String[] KERNEL_NAMES = { "_Z10gemm_kernelPfS_S_i", "_Z11relu_forwardPfi", "_Z13softmax_kernelPKfPfi", "_Z9reduce_addPfS_i" };
+    private static final String[] HIP_FUNCTIONS = { "hipLaunchKernel", "hipMemcpyAsync", "hipStreamSynchronize", "hipEventRecord" };
+
+    private static @Nullable Path fTraceDirectory;
+
+    /**
+     * Values of the fields of a synthetic row
+     */
+    @FunctionalInterface
+    private interface RowValues {
+        /**
+         * @return The value of a field, a String or a Long
+         */
+        Object get(RocmField field, int row);
+    }
+
+    /**
+     * Write the synthetic trace
+     *
+     * @throws IOException
+     *             If the trace cannot be written
+     */
+    @BeforeClass
+    public static void createTrace() throws IOException {
+        Path traceDirectory = Files.createTempDirectory("rocmctf");
+        List<StreamDescription> streams = ImmutableList.of(
+                new StreamDescription(0, RocmTable.COMPUTE_KERNELS, RocmTable.COMPUTE_KERNELS.getFields()),
+                new StreamDescription(1, RocmTable.HIP_API, RocmTable.HIP_API.getFields()),
+                new StreamDescription(2, RocmTable.ASYNC_COPY, RocmTable.ASYNC_COPY.getFields()));
+        RocmCtfMetadata.write(traceDirectory, 0, streams);
+
+        /* Each queue runs its kernels one after the other */
+        long kernelDuration = NB_GPUS * NB_QUEUES * ROW_INTERVAL - 1;
+        writeStream(traceDirectory, streams.get(0), kernelDuration, (field, row) -> {
+            int queue = row % (NB_GPUS * NB_QUEUES);
+            switch (field.getName()) {
+            case "kernel_name":
+                return KERNEL_NAMES[row % KERNEL_NAMES.length];
+            case "kernel_dispatch_id":
+                return (long) row;
+            case "gpu_id":
+                return (long) (queue / NB_QUEUES);
+            case "queue_id":
+                return (long) (queue % NB_QUEUES);
+            default:
+                return field.isString() ? "" : 0L;
+            }
+        });
+        writeStream(traceDirectory, streams.get(1), ROW_INTERVAL / 2, (field, row) -> {
+            if (field.isNameField()) {
+                return HIP_FUNCTIONS[row % HIP_FUNCTIONS.length];
+            }
+            return field.isString() ? "" : 0L;
+        });
+        writeStream(traceDirectory, streams.get(2), ROW_INTERVAL - 1, (field, row) -> {
+            String constant = field.getConstant();
+            if (constant != null) {
+                return constant;
+            }
+            return field.isString() ? "" : (long) row;
+        });
+        fTraceDirectory = traceDirectory;
+    }
+
+    /**
+     * Write the rows of a stream, each row gives an enter event and an exit
+     * event after the given duration
+     */
+    private static void writeStream(Path traceDirectory, StreamDescription stream, long duration, RowValues values) throws IOException {
+        Deque<Long> exitTimes = new ArrayDeque<>();
+        Deque<ByteBuffer> exitPayloads = new ArrayDeque<>();
+        try (RocmCtfStreamWriter writer = new RocmCtfStreamWriter(traceDirectory.resolve("stream_" + stream.getId()), stream.getId(), RocmCtfStreamWriter.DEFAULT_PACKET_SIZE)) {
+            for (int row = 0; row < ROWS_PER_STREAM; row++) {
+                long begin = row * ROW_INTERVAL;
+                while (!exitTimes.isEmpty() && exitTimes.peekFirst() <= begin) {
+                    writer.writeEvent(0, exitTimes.removeFirst(), exitPayloads.removeFirst());
+                }
+                writer.writeEvent(0, begin, encode(stream.getFields(), values, row, "_enter"));
+                exitTimes.addLast(begin + duration);
+                exitPayloads.addLast(encode(stream.getFields(), values, row, "_exit"));
+            }
+            while (!exitTimes.isEmpty()) {
+                writer.writeEvent(0, exitTimes.removeFirst(), exitPayloads.removeFirst());
+            }
+        }
+    }
+
+    private static ByteBuffer encode(List<RocmField> fields, RowValues values, int row, String nameSuffix) {
+        List<byte[]> strings = new ArrayList<>();
+        int size = 0;
+        for (RocmField field : fields) {
+            if (field.isString()) {
+                String value = (String) values.get(field, row) + (field.isNameField() ? nameSuffix : "");
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                strings.add(bytes);
+                size += bytes.length + 1;
+            } else {
+                size += Long.BYTES;
+            }
+        }
+        ByteBuffer payload = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        int string = 0;
+        for (RocmField field : fields) {
+            if (field.isString()) {
+                payload.put(strings.get(string++)).put((byte) 0);
+            } else {
+                payload.putLong((Long) values.get(field, row));
+            }
+        }
+        payload.flip();
+        return payload;
+    }
+
+    /**
+     * Delete the synthetic trace
+     */
+    @AfterClass
+    public static void deleteTrace() {
+        Path traceDirectory = fTraceDirectory;
+        if (traceDirectory != null) {
+            FileUtils.deleteQuietly(traceDirectory.toFile());
+        }
+    }
+
+    /**
+     * Run the state system build benchmark
+     */
+    @Test
+    public void testCallStackBuild() {
+        Path traceDirectory = fTraceDirectory;
+        assertNotNull(traceDirectory);
+        Performance perf = Performance.getDefault();
+        PerformanceMeter pm = perf.createPerformanceMeter(TEST_ID + TEST_BUILD);
+        perf.tagAsSummary(pm, "ROCm " + TEST_BUILD, Dimension.CPU_TIME);
+
+        /* Three streams, each row gives an enter and an exit event */
+        long nbEvents = 3L * 2 * ROWS_PER_STREAM;
+        for (int i = 0; i < LOOP_COUNT; i++) {
+            RocmCtfTrace trace = null;
+            RocmCtfCallStackAnalysis module = null;
+            try {
+                trace = new RocmCtfTrace();
+                module = new RocmCtfCallStackAnalysis();
+                module.setId("test");
+                trace.initTrace(null, traceDirectory.toString(), CtfTmfEvent.class);
+                module.setTrace(trace);
+
+                pm.start();
+                long start = System.nanoTime();
+                TmfTestHelper.executeAnalysis(module);
+                long elapsed = System.nanoTime() - start;
+                pm.stop();
+                if (i == 0) {
+                    System.out.println(String.format("%d events/s", nbEvents * 1000000000L / Math.max(1, elapsed)));
+                }
+
+                /*
+                 * Delete the supplementary files, so that the next iteration
+                 * rebuilds the state system.
+                 */
+                File suppDir = new File(TmfTraceManager.getSupplementaryFileDir(trace));
+                for (File file : suppDir.listFiles()) {
+                    file.delete();
+                }
+            } catch (TmfAnalysisException | TmfTraceException e) {
+                fail(e.getMessage());
+            } finally {
+                if (module != null) {
+                    module.dispose();
+                }
+                if (trace != null) {
+                    trace.dispose();
+                }
+            }
+        }
+        pm.commit();
+    }
+}
@@ -0,0 +1,226 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.rocm.ctf.core.tests.perf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.converter.RocmCtfConverter;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Benchmarks the conversion of a synthetic rocprof database to CTF with
+ * {@link RocmCtfConverter}, with an increasing number of worker threads. The
+ * database has the same number of rows in each table, so the conversion time
+ * should scale with the number of threads up to the number of tables.
+ *
+ * This benchmark needs a SQLite JDBC driver, it is skipped otherwise.
+ */
+@RunWith(Parameterized.class)
+public class RocmCtfConverterBenchmark {
+
+    private static final String TEST_ID = "org.eclipse.tracecompass.incubator#ROCm#";
+    private static final String TEST_CONVERT = "ROCm to CTF conversion (%d threads)";
+
+    private static final int LOOP_COUNT = 5;
+    private static final int ROWS_PER_TABLE = 200000;
+    private static final long SEED = 2020L;
+
+    /* Columns of the synthetic tables, as rocprof writes them */
+    private static final Map<String, List<String>> TABLES = ImmutableMap.<String, List<String>> builder()
+            .put("A", ImmutableList.of("Index", "KernelName", "gpu-id", "queue-id", "queue-index", "pid", "tid", "grd", "wgr", "lds", "scr", "vgpr", "sgpr", "fbar", "sig", "obj",
+                    "DispatchNs", "BeginNs", "EndNs", "CompleteNs", "DurationNs", "SQ_WAVES", "GRBM_COUNT"))
+            .put("OPS", ImmutableList.of("Index", "Name", "dev-id", "queue-id", "proc-id", "tid", "BeginNs", "EndNs"))
+            .put("COPY", ImmutableList.of("Index", "BeginNs", "EndNs"))
+            .put("HSA", ImmutableList.of("tid", "Name", "args", "BeginNs", "EndNs"))
+            .put("HIP", ImmutableList.of("tid", "Name", "args", "BeginNs", "EndNs"))
+            .put("KFD", ImmutableList.of("tid", "Name", "args", "BeginNs", "EndNs"))
+            .put("rocTX", ImmutableList.of("pid", "tid", "Name", "BeginNs"))
+            .build();
+
+    private static final List<String> STRING_COLUMNS = ImmutableList.of("KernelName", "Name", "args", "sig", "obj");
+
+    private static @Nullable Path fDatabase;
+
+    private final int fNbThreads;
+
+    /**
+     * Get the number of threads to benchmark
+     *
+     * @return The arrays of parameters
+     */
+    @Parameters(name = "{index}: {0} threads")
+    public static Iterable<Object[]> getParameters() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<Object[]> parameters = new ArrayList<>();
+        for (int nbThreads = 1; nbThreads < Math.min(cores, TABLES.size()); nbThreads *= 2) {
+            parameters.add(new Object[] { nbThreads });
+        }
+        parameters.add(new Object[] { Math.min(cores, TABLES.size()) });
+        return parameters;
+    }
+
+    /**
+     * Constructor
+     *
+     * @param nbThreads
+     *            The number of threads used by the converter
+     */
+    public RocmCtfConverterBenchmark(int nbThreads) {
+        fNbThreads = nbThreads;
+    }
+
+    /**
+     * Create the synthetic database
+     *
+     * @throws IOException
+     *             If the temporary file cannot be created
+     * @throws SQLException
+     *             If the database cannot be written
+     * @throws ClassNotFoundException
+     *             If the SQLite JDBC driver is missing
+     */
+    @BeforeClass
+    public static void createDatabase() throws IOException, SQLException, ClassNotFoundException {
+        Class.forName("org.sqlite.JDBC");
+        Path database = Files.createTempFile("rocprof", ".db");
+        Random random = new Random(SEED);
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + database.toAbsolutePath())) {
+            connection.setAutoCommit(false);
+            for (Map.Entry<String, List<String>> table : TABLES.entrySet()) {
+                fillTable(connection, table.getKey(), table.getValue(), random);
+            }
+            connection.commit();
+        }
+        fDatabase = database;
+    }
+
+    private static void fillTable(Connection connection, String table, List<String> columns, Random random) throws SQLException {
+        StringBuilder create = new StringBuilder("CREATE TABLE \"").append(table).append("\" (");
+        StringBuilder insert = new StringBuilder("INSERT INTO \"").append(table).append("\" VALUES (");
+        for (int i = 0; i < columns.size(); i++) {
+            String column = columns.get(i);
+            create.append(i == 0 ? "" : ", ").append('"').append(column).append('"').append(STRING_COLUMNS.contains(column) ? " TEXT" : " INTEGER");
+            insert.append(i == 0 ? "?" : ", ?");
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(create.append(')').toString());
+        }
+        try (PreparedStatement statement = connection.prepareStatement(insert.append(')').toString())) {
+            long begin = 0;
+            for (int row = 0; row < ROWS_PER_TABLE; row++) {
+                begin += 1 + random.nextInt(1000);
+                long end = begin + 1 + random.nextInt(5000);
+                for (int i = 0; i < columns.size(); i++) {
+                    String column = columns.get(i);
+                    if (column.equals("BeginNs")) {
+                        statement.setLong(i + 1, begin);
+                    } else if (column.equals("EndNs") || column.equals("CompleteNs")) {
+                        statement.setLong(i + 1, end);
+                    } else if (column.equals("Index")) {
+                        statement.setLong(i + 1, row);
+                    } else if (STRING_COLUMNS.contains(column)) {
+                        statement.setString(i + 1, "_Z" + column + "_function_" + random.nextInt(100) + "PfS_S_i");
+                    } else {
+                        statement.setLong(i + 1, random.nextInt(8));
+                    }
+                }
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    /**
+     * Delete the synthetic database
+     *
+     * @throws IOException
+     *             If the file cannot be deleted
+     */
+    @AfterClass
+    public static void deleteDatabase() throws IOException {
+        Path database = fDatabase;
+        if (database != null) {
+            Files.deleteIfExists(database);
+        }
+    }
+
+    /**
+     * Run the conversion benchmark
+     */
+    @Test
+    public void testConversion() {
+        Path database = fDatabase;
+        assertNotNull(database);
+        if (database == null) {
+            return;
+        }
+        Performance perf = Performance.getDefault();
+        PerformanceMeter pm = perf.createPerformanceMeter(TEST_ID + String.format(TEST_CONVERT, fNbThreads));
+        perf.tagAsSummary(pm, String.format(TEST_CONVERT, fNbThreads), Dimension.CPU_TIME);
+
+        /* Each row gives an enter and an exit event, except for roctx */
+        long expectedEvents = (2L * TABLES.size() - 1) * ROWS_PER_TABLE;
+        for (int i = 0; i < LOOP_COUNT; i++) {
+            File traceDirectory = null;
+            try {
+                traceDirectory = Files.createTempDirectory("rocmctf").toFile();
+                RocmCtfConverter converter = new RocmCtfConverter(database);
+                pm.start();
+                long start = System.nanoTime();
+                long nbEvents = converter.convert(traceDirectory.toPath(), fNbThreads);
+                long elapsed = System.nanoTime() - start;
+                pm.stop();
+                assertEquals(expectedEvents, nbEvents);
+                if (i == 0) {
+                    System.out.println(String.format("%d threads: %d events/s", fNbThreads, nbEvents * 1000000000L / Math.max(1, elapsed)));
+                }
+            } catch (IOException e) {
+                fail(e.getMessage());
+            } finally {
+                if (traceDirectory != null) {
+                    FileUtils.deleteQuietly(traceDirectory);
+                }
+            }
+        }
+        pm.commit();
+    }
+
+}
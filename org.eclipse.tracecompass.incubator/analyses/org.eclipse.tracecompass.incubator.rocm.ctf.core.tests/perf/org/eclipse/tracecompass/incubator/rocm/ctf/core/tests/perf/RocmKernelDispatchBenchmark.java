@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.rocm.ctf.core.tests.perf;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.analysis.RocmCtfCallStackStateProvider;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
+import org.eclipse.tracecompass.statesystem.core.StateSystemFactory;
+import org.eclipse.tracecompass.statesystem.core.backend.StateHistoryBackendFactory;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEventField;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEventType;
+import org.eclipse.tracecompass.tmf.core.event.TmfEvent;
+import org.eclipse.tracecompass.tmf.core.event.TmfEventField;
+import org.eclipse.tracecompass.tmf.core.event.TmfEventType;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.tests.stubs.trace.TmfTraceStub;
+import org.junit.Test;
+
+/**
+ * Benchmarks the kernel events handling of the ROCm call stack state provider
+ * with synthetic streams of an increasing number of kernels. The time per
+ * kernel should stay the same when the number of kernels grows.
+ *
+ * Kernels are dispatched round-robin on the queues of a few GPUs, and each
+ * queue runs its kernels one after the other, like a training run does.
+ */
+public class RocmKernelDispatchBenchmark {
+
+    private static final String TEST_ID = "org.eclipse.tracecompass.incubator#ROCm#";
+    private static final String TEST_DISPATCH = "Kernel dispatch tracking (%d kernels)";
+
+    private static final int LOOP_COUNT = 5;
+    private static final int[] KERNEL_COUNTS = { 125000, 250000, 500000, 1000000 };
+    private static final int NB_GPUS = 4;
+    private static final int NB_QUEUES = 4;
+    /* Time between two dispatches, and duration of a kernel, in ns */
+    private static final long DISPATCH_INTERVAL = 100;
+    private static final long KERNEL_DURATION = NB_GPUS * NB_QUEUES * DISPATCH_INTERVAL - 1;
+
+    private static final String KERNEL_EVENT = "compute_kernels_hsa";
+    private static final String[] FIELD_NAMES = { "kernel_name", "gpu_id", "queue_id", "kernel_dispatch_id" };
+    private static final String[] KERNEL_NAMES = { "_Z10gemm_kernelPfS_S_i", "_Z11relu_forwardPfi", "_Z13softmax_kernelPKfPfi", "_Z9reduce_addPfS_i" };
+
+    /**
+     * Run the benchmark for all the kernel counts
+     */
+    @Test
+    public void testKernelDispatch() {
+        ITmfTrace trace = new TmfTraceStub();
+        try {
+            for (int nbKernels : KERNEL_COUNTS) {
+                benchmark(trace, nbKernels);
+            }
+        } finally {
+            trace.dispose();
+        }
+    }
+
+    private static void benchmark(ITmfTrace trace, int nbKernels) {
+        Performance perf = Performance.getDefault();
+        PerformanceMeter pm = perf.createPerformanceMeter(TEST_ID + String.format(TEST_DISPATCH, nbKernels));
+        perf.tagAsSummary(pm, String.format(TEST_DISPATCH, nbKernels), Dimension.CPU_TIME);
+
+        ITmfEventType type = new TmfEventType(KERNEL_EVENT, new TmfEventField(ITmfEventField.ROOT_FIELD_ID, null, null));
+        for (int i = 0; i < LOOP_COUNT; i++) {
+            ITmfStateSystemBuilder ssb = StateSystemFactory.newStateSystem(StateHistoryBackendFactory.createNullBackend("rocm-bench"));
+            RocmCtfCallStackStateProvider provider = new RocmCtfCallStackStateProvider(trace);
+            provider.assignTargetStateSystem(ssb);
+
+            pm.start();
+            long start = System.nanoTime();
+            replayKernels(trace, provider, type, nbKernels);
+            /* Wait for the event handler thread to process all the events */
+            provider.dispose();
+            long elapsed = System.nanoTime() - start;
+            pm.stop();
+
+            assertEquals(NB_GPUS * NB_QUEUES, ssb.getQuarks("Processes", "GPU Activity", "*").size());
+            if (i == 0) {
+                System.out.println(String.format("%d kernels: %d ns/kernel", nbKernels, elapsed / nbKernels));
+            }
+        }
+        pm.commit();
+    }
+
+    /**
+     * Send the begin and end events of the kernels to the provider, in time
+     * order. A kernel ends before the next kernel of its queue begins.
+     */
+    private static void replayKernels(ITmfTrace trace, RocmCtfCallStackStateProvider provider, ITmfEventType type, int nbKernels) {
+        Deque<ITmfEventField> running = new ArrayDeque<>();
+        Deque<Long> ends = new ArrayDeque<>();
+        long rank = 0;
+        for (int dispatchId = 0; dispatchId < nbKernels; dispatchId++) {
+            long begin = dispatchId * DISPATCH_INTERVAL;
+            while (!ends.isEmpty() && ends.peekFirst() <= begin) {
+                provider.processEvent(new TmfEvent(trace, rank++, TmfTimestamp.fromNanos(ends.removeFirst()), type, running.removeFirst()));
+            }
+            int queue = dispatchId % (NB_GPUS * NB_QUEUES);
+            ITmfEventField content = kernelContent(dispatchId, queue / NB_QUEUES, queue % NB_QUEUES);
+            provider.processEvent(new TmfEvent(trace, rank++, TmfTimestamp.fromNanos(begin), type, content));
+            running.addLast(content);
+            ends.addLast(begin + KERNEL_DURATION);
+        }
+        while (!ends.isEmpty()) {
+            provider.processEvent(new TmfEvent(trace, rank++, TmfTimestamp.fromNanos(ends.removeFirst()), type, running.removeFirst()));
+        }
+    }
+
+    private static ITmfEventField kernelContent(long dispatchId, long gpuId, long queueId) {
+        Object[] values = { KERNEL_NAMES[(int) (dispatchId % KERNEL_NAMES.length)], gpuId, queueId, dispatchId };
+        ITmfEventField[] fields = new ITmfEventField[FIELD_NAMES.length];
+        Arrays.setAll(fields, i -> new TmfEventField(FIELD_NAMES[i], values[i], null));
+        return new TmfEventField(ITmfEventField.ROOT_FIELD_ID, null, fields);
+    }
+}
@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.rocm.ctf.core.tests.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.analysis.LongHashSet;
+import org.junit.Test;
+
+/**
+ * Test the {@link LongHashSet}
+ */
+public class LongHashSetTest {
+
+    /**
+     * Test the key 0, which marks the empty slots of the table and is kept
+     * apart
+     */
+    @Test
+    public void testZeroKey() {
+        LongHashSet set = new LongHashSet();
+        assertFalse(set.contains(0));
+        assertFalse(set.remove(0));
+        assertTrue(set.add(0));
+        assertFalse(set.add(0));
+        assertTrue(set.contains(0));
+        assertEquals(1, set.size());
+
+        assertTrue(set.add(16));
+        assertEquals(2, set.size());
+        assertTrue(set.remove(0));
+        assertFalse(set.contains(0));
+        assertTrue(set.contains(16));
+        assertEquals(1, set.size());
+
+        set.add(0);
+        set.clear();
+        assertFalse(set.contains(0));
+        assertTrue(set.isEmpty());
+    }
+
+    /**
+     * Test that the keys after a removed key in its probe sequence are still
+     * found. The keys are many multiples of the capacity, so the probe
+     * sequences overlap, and every other key is removed.
+     */
+    @Test
+    public void testRemoveShiftsBack() {
+        LongHashSet set = new LongHashSet();
+        for (long key = 1; key <= 8; key++) {
+            assertTrue(set.add(key * 16));
+        }
+        for (long key = 1; key <= 8; key += 2) {
+            assertTrue(set.remove(key * 16));
+            assertFalse(set.remove(key * 16));
+        }
+        for (long key = 1; key <= 8; key++) {
+            assertEquals(String.valueOf(key), key % 2 == 0, set.contains(key * 16));
+        }
+        assertEquals(4, set.size());
+    }
+
+    /**
+     * Test that the set keeps the same keys as a {@link HashSet} while many
+     * keys of a small range, including 0 and negative keys, are added and
+     * removed, so the clusters of the table are shifted back all the time
+     */
+    @Test
+    public void testChurn() {
+        LongHashSet set = new LongHashSet();
+        Set<Long> expected = new HashSet<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            long key = random.nextInt(200) - 100;
+            if (random.nextBoolean()) {
+                assertEquals(expected.add(key), set.add(key));
+            } else {
+                assertEquals(expected.remove(key), set.remove(key));
+            }
+            assertEquals(expected.size(), set.size());
+        }
+        for (long key = -100; key < 100; key++) {
+            assertEquals(String.valueOf(key), expected.contains(key), set.contains(key));
+        }
+    }
+
+    /**
+     * Test that the keys are kept when the table grows many times, and that
+     * they can all be removed
+     */
+    @Test
+    public void testRehash() {
+        LongHashSet set = new LongHashSet(1);
+        int nbKeys = 100000;
+        for (long key = 0; key < nbKeys; key++) {
+            assertTrue(set.add(key * 31));
+        }
+        assertEquals(nbKeys, set.size());
+        for (long key = 0; key < nbKeys; key++) {
+            assertTrue(set.contains(key * 31));
+            assertFalse(set.contains(key * 31 + 1));
+        }
+        for (long key = 0; key < nbKeys; key++) {
+            assertTrue(set.remove(key * 31));
+        }
+        assertTrue(set.isEmpty());
+        assertTrue(set.add(Long.MIN_VALUE));
+        assertTrue(set.contains(Long.MIN_VALUE));
+    }
+}
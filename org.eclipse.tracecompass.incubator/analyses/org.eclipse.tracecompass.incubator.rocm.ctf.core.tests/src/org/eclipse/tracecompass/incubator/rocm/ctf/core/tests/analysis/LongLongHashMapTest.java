@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.rocm.ctf.core.tests.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.analysis.LongLongHashMap;
+import org.junit.Test;
+
+/**
+ * Test the {@link LongLongHashMap}
+ */
+public class LongLongHashMapTest {
+
+    private static final long NONE = -1L;
+
+    /**
+     * Test the key 0, which marks the empty slots of the table and is kept
+     * apart with its value
+     */
+    @Test
+    public void testZeroKey() {
+        LongLongHashMap map = new LongLongHashMap();
+        assertFalse(map.containsKey(0));
+        assertEquals(NONE, map.get(0, NONE));
+        assertEquals(NONE, map.remove(0, NONE));
+
+        map.put(0, 5);
+        map.put(16, 6);
+        assertTrue(map.containsKey(0));
+        assertEquals(5, map.get(0, NONE));
+        map.put(0, 7);
+        assertEquals(7, map.get(0, NONE));
+        assertEquals(2, map.size());
+
+        assertEquals(7, map.remove(0, NONE));
+        assertFalse(map.containsKey(0));
+        assertEquals(6, map.get(16, NONE));
+        assertEquals(1, map.size());
+
+        /* A value of 0 is not an empty slot */
+        map.put(32, 0);
+        assertTrue(map.containsKey(32));
+        assertEquals(0, map.get(32, NONE));
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertEquals(NONE, map.get(16, NONE));
+    }
+
+    /**
+     * Test that the entries after a removed entry in its probe sequence are
+     * still found with their values. The keys are many multiples of the
+     * capacity, so the probe sequences overlap, and every other key is
+     * removed.
+     */
+    @Test
+    public void testRemoveShiftsBack() {
+        LongLongHashMap map = new LongLongHashMap();
+        for (long key = 1; key <= 8; key++) {
+            map.put(key * 16, key);
+        }
+        for (long key = 1; key <= 8; key += 2) {
+            assertEquals(key, map.remove(key * 16, NONE));
+            assertEquals(NONE, map.remove(key * 16, NONE));
+        }
+        for (long key = 1; key <= 8; key++) {
+            assertEquals(String.valueOf(key), key % 2 == 0 ? key : NONE, map.get(key * 16, NONE));
+        }
+        assertEquals(4, map.size());
+    }
+
+    /**
+     * Test that the map keeps the same entries as a {@link HashMap} while many
+     * keys of a small range, including 0 and negative keys, are put and
+     * removed, so the clusters of the table are shifted back all the time
+     */
+    @Test
+    public void testChurn() {
+        LongLongHashMap map = new LongLongHashMap();
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            long key = random.nextInt(200) - 100;
+            if (random.nextBoolean()) {
+                long value = random.nextLong();
+                expected.put(key, value);
+                map.put(key, value);
+            } else {
+                assertEquals(expected.getOrDefault(key, NONE).longValue(), map.remove(key, NONE));
+                expected.remove(key);
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        for (long key = -100; key < 100; key++) {
+            assertEquals(String.valueOf(key), expected.getOrDefault(key, NONE).longValue(), map.get(key, NONE));
+        }
+    }
+
+    /**
+     * Test that the entries are kept with their values when the table grows
+     * many times, and that they can all be removed
+     */
+    @Test
+    public void testRehash() {
+        LongLongHashMap map = new LongLongHashMap(1);
+        int nbKeys = 100000;
+        for (long key = 0; key < nbKeys; key++) {
+            map.put(key * 31, -key);
+        }
+        assertEquals(nbKeys, map.size());
+        for (long key = 0; key < nbKeys; key++) {
+            assertEquals(-key, map.get(key * 31, NONE));
+            assertFalse(map.containsKey(key * 31 + 1));
+        }
+        for (long key = 0; key < nbKeys; key++) {
+            assertEquals(-key, map.remove(key * 31, NONE));
+        }
+        assertTrue(map.isEmpty());
+    }
+}
@@ -0,0 +1,220 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.rocm.ctf.core.tests.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.analysis.os.linux.core.model.HostThread;
+import org.eclipse.tracecompass.incubator.callstack.core.base.EdgeStateValue;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.analysis.RocmCtfCallStackStateProvider;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
+import org.eclipse.tracecompass.statesystem.core.StateSystemFactory;
+import org.eclipse.tracecompass.statesystem.core.backend.StateHistoryBackendFactory;
+import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEventField;
+import org.eclipse.tracecompass.tmf.core.event.TmfEvent;
+import org.eclipse.tracecompass.tmf.core.event.TmfEventField;
+import org.eclipse.tracecompass.tmf.core.event.TmfEventType;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.tests.stubs.trace.TmfTraceStub;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Test the flow edges of the {@link RocmCtfCallStackStateProvider} between
+ * the HIP API calls and the HCC operations they launch
+ */
+public class RocmCtfCallStackStateProviderTest {
+
+    /* A correlation id that does not fit in an int */
+    private static final long LONG_ID = (1L << 33) + 9;
+
+    private static final String[] HIP_LANE = { "Processes", "System", "HIP_API" };
+    private static final String[] OPS_LANE = { "Processes", "GPU Activity", "GPU Kernels" };
+
+    private static ITmfTrace fTrace = new TmfTraceStub();
+    private static ITmfStateSystem fStateSystem;
+    private static long fRank = 0;
+
+    /**
+     * Build the state system from three HIP calls and the operations, kernels
+     * and copies they launch. The third launch overlaps the second one.
+     */
+    @BeforeClass
+    public static void init() {
+        ITmfStateSystemBuilder ssb = StateSystemFactory.newStateSystem(StateHistoryBackendFactory.createInMemoryBackend("rocm-test", 0));
+        RocmCtfCallStackStateProvider provider = new RocmCtfCallStackStateProvider(fTrace);
+        provider.assignTargetStateSystem(ssb);
+
+        provider.processEvent(hip(10, "hipLaunchKernel_enter", 7L));
+        provider.processEvent(hip(20, "hipLaunchKernel_exit", 7L));
+        provider.processEvent(op(25, "KernelExecution_enter", 7));
+        provider.processEvent(kernel(26, "kernelA", 7));
+        provider.processEvent(hip(30, "hipMemcpyAsync_enter", 8L));
+        provider.processEvent(op(35, "KernelExecution_exit", 7));
+        provider.processEvent(kernel(36, "kernelA", 7));
+        provider.processEvent(hip(40, "hipMemcpyAsync_exit", 8L));
+        provider.processEvent(hip(42, "hipLaunchKernel_enter", LONG_ID));
+        provider.processEvent(hip(44, "hipLaunchKernel_exit", LONG_ID));
+        /* A call without correlation id does not give an edge */
+        provider.processEvent(hip(45, "hipStreamSynchronize_enter", null));
+        /* Nor does a call that launches nothing */
+        provider.processEvent(hip(46, "hipGetDevice_enter", 9L));
+        provider.processEvent(hip(46, "hipGetDevice_exit", 9L));
+        provider.processEvent(op(45, "CopyHostToDevice_enter", 8));
+        provider.processEvent(copy(46, "async-copy_enter", 8));
+        provider.processEvent(op(47, "KernelExecution_enter", LONG_ID));
+        provider.processEvent(kernel(48, "kernelB", LONG_ID));
+        provider.processEvent(op(50, "KernelExecution_exit", LONG_ID));
+        provider.processEvent(kernel(51, "kernelB", LONG_ID));
+        provider.processEvent(op(52, "CopyHostToDevice_exit", 8));
+        provider.processEvent(copy(53, "async-copy_exit", 8));
+        provider.processEvent(hip(55, "hipStreamSynchronize_exit", null));
+        provider.dispose();
+        ssb.waitUntilBuilt();
+        fStateSystem = ssb;
+    }
+
+    /**
+     * Dispose the trace
+     */
+    @AfterClass
+    public static void cleanup() {
+        fTrace.dispose();
+    }
+
+    private static TmfEvent hip(long ts, String name, @Nullable Long correlationId) {
+        ITmfEventField[] fields = (correlationId == null) ?
+                new ITmfEventField[] { new TmfEventField("name", name, null) } :
+                new ITmfEventField[] { new TmfEventField("name", name, null), new TmfEventField("correlation_id", correlationId, null) };
+        return event(ts, "hip_api", fields);
+    }
+
+    private static TmfEvent op(long ts, String name, long index) {
+        ITmfEventField[] fields = {
+                new TmfEventField("name", name, null),
+                new TmfEventField("index", index, null) };
+        return event(ts, "hcc_ops", fields);
+    }
+
+    private static TmfEvent kernel(long ts, String name, long dispatchId) {
+        ITmfEventField[] fields = {
+                new TmfEventField("kernel_name", name, null),
+                new TmfEventField("kernel_dispatch_id", dispatchId, null),
+                new TmfEventField("gpu_id", 0L, null),
+                new TmfEventField("queue_id", 1L, null) };
+        return event(ts, "compute_kernels_hsa", fields);
+    }
+
+    private static TmfEvent copy(long ts, String name, long index) {
+        ITmfEventField[] fields = {
+                new TmfEventField("name", name, null),
+                new TmfEventField("index", index, null) };
+        return event(ts, "async_copy", fields);
+    }
+
+    private static TmfEvent event(long ts, String name, ITmfEventField[] fields) {
+        TmfEventType type = new TmfEventType(name, new TmfEventField(ITmfEventField.ROOT_FIELD_ID, null, null));
+        return new TmfEvent(fTrace, fRank++, TmfTimestamp.fromNanos(ts), type, new TmfEventField(ITmfEventField.ROOT_FIELD_ID, null, fields));
+    }
+
+    private static HostThread getLaneThread(String... path) throws StateSystemDisposedException {
+        int quark = fStateSystem.optQuarkAbsolute(path);
+        Object tid = fStateSystem.querySingleState(fStateSystem.getStartTime(), quark).getValue();
+        return new HostThread(fTrace.getHostId(), (Integer) tid);
+    }
+
+    /**
+     * Get the edges of all the edge lanes, by start and end time
+     */
+    private static List<ITmfStateInterval> getEdges() throws StateSystemDisposedException {
+        List<Integer> quarks = fStateSystem.getSubAttributes(fStateSystem.optQuarkAbsolute("EDGES"), false);
+        List<ITmfStateInterval> edges = new ArrayList<>();
+        for (ITmfStateInterval interval : fStateSystem.query2D(quarks, fStateSystem.getStartTime(), fStateSystem.getCurrentEndTime())) {
+            if (interval.getValue() != null) {
+                edges.add(interval);
+            }
+        }
+        edges.sort(Comparator.comparingLong(ITmfStateInterval::getStartTime).thenComparingLong(ITmfStateInterval::getEndTime));
+        return edges;
+    }
+
+    private static void assertEdge(long id, String[] dstLane, long start, long end, ITmfStateInterval interval) throws StateSystemDisposedException {
+        assertEquals(new EdgeStateValue(id, getLaneThread(HIP_LANE), getLaneThread(dstLane)), interval.getValue());
+        assertEquals(start, interval.getStartTime());
+        assertEquals(end, interval.getEndTime() + 1);
+    }
+
+    /**
+     * Test that each launch has an edge from the HIP call to its operation,
+     * with the full correlation id, and that the kernels and copies have none
+     *
+     * @throws StateSystemDisposedException
+     *             Should not happen
+     */
+    @Test
+    public void testEdges() throws StateSystemDisposedException {
+        List<ITmfStateInterval> edges = getEdges();
+        assertEquals(3, edges.size());
+        assertEdge(7, OPS_LANE, 10, 25, edges.get(0));
+        assertEdge(8, OPS_LANE, 30, 45, edges.get(1));
+        assertEdge(LONG_ID, OPS_LANE, 42, 47, edges.get(2));
+    }
+
+    /**
+     * Test that an edge lane is reused once its last edge ended, so there are
+     * only as many lanes as edges at the same time
+     *
+     * @throws StateSystemDisposedException
+     *             Should not happen
+     */
+    @Test
+    public void testEdgeLanes() throws StateSystemDisposedException {
+        /* The edges of the last two launches overlap in [42, 45] */
+        assertEquals(2, fStateSystem.getSubAttributes(fStateSystem.optQuarkAbsolute("EDGES"), false).size());
+        int lane0 = fStateSystem.optQuarkAbsolute("EDGES", "0");
+        List<ITmfStateInterval> edges = new ArrayList<>();
+        for (ITmfStateInterval interval : fStateSystem.query2D(Arrays.asList(lane0), fStateSystem.getStartTime(), fStateSystem.getCurrentEndTime())) {
+            if (interval.getValue() != null) {
+                edges.add(interval);
+            }
+        }
+        assertEquals(2, edges.size());
+    }
+
+    /**
+     * Test that the lanes have distinct pseudo thread ids
+     *
+     * @throws StateSystemDisposedException
+     *             Should not happen
+     */
+    @Test
+    public void testLaneThreads() throws StateSystemDisposedException {
+        HostThread hip = getLaneThread(HIP_LANE);
+        HostThread ops = getLaneThread(OPS_LANE);
+        assertEquals(hip.getHost(), ops.getHost());
+        assertNull(fStateSystem.querySingleState(fStateSystem.getStartTime(), fStateSystem.optQuarkAbsolute("Processes", "System")).getValue());
+        assertNotEquals(hip, ops);
+    }
+}
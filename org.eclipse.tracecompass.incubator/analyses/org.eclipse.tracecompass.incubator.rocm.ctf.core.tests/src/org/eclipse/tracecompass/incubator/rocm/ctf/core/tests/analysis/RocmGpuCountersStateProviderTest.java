@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.rocm.ctf.core.tests.analysis;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.analysis.RocmGpuCountersStateProvider;
+import org.eclipse.tracecompass.internal.tmf.core.statesystem.mipmap.TmfStateSystemOperations;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
+import org.eclipse.tracecompass.statesystem.core.StateSystemFactory;
+import org.eclipse.tracecompass.statesystem.core.backend.StateHistoryBackendFactory;
+import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEventField;
+import org.eclipse.tracecompass.tmf.core.event.TmfEvent;
+import org.eclipse.tracecompass.tmf.core.event.TmfEventField;
+import org.eclipse.tracecompass.tmf.core.event.TmfEventType;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.tests.stubs.trace.TmfTraceStub;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Test the {@link RocmGpuCountersStateProvider} with a few kernels and copies
+ */
+public class RocmGpuCountersStateProviderTest {
+
+    private static final double DELTA = 0.0001;
+
+    private static ITmfTrace fTrace = new TmfTraceStub();
+    private static ITmfStateSystem fStateSystem;
+    private static long fRank = 0;
+
+    /**
+     * Build the state system from the events of two overlapping kernels on
+     * two queues of GPU 1, and three copies. The sizes of the first two copies
+     * are in the arguments of their HIP calls, counted when the HCC operation
+     * with the correlation id of the call ends, the last one has no call. The
+     * last memory copy call has no operation before it returns.
+     */
+    @BeforeClass
+    public static void init() {
+        ITmfStateSystemBuilder ssb = StateSystemFactory.newStateSystem(StateHistoryBackendFactory.createInMemoryBackend("rocm-test", 0));
+        RocmGpuCountersStateProvider provider = new RocmGpuCountersStateProvider(fTrace);
+        provider.assignTargetStateSystem(ssb);
+
+        provider.processEvent(kernel(10, 0, 1, 0));
+        provider.processEvent(hip(12, "hipMemcpyAsync_enter", "dst=0x7f00, src=0x7f40, sizeBytes=4096, kind=1, stream=0", 5));
+        provider.processEvent(hip(14, "hipMemcpyAsync_exit", "", 5));
+        provider.processEvent(op(15, "CopyHostToDevice_enter", 5));
+        provider.processEvent(copy(15, "async-copy_enter", 0));
+        provider.processEvent(kernel(20, 1, 1, 1));
+        provider.processEvent(kernel(30, 0, 1, 0));
+        provider.processEvent(op(35, "CopyHostToDevice_exit", 5));
+        provider.processEvent(copy(35, "async-copy_exit", 0));
+        provider.processEvent(hip(36, "hipMemcpy_enter", "dst(0x7f00) src(0x7f40) sizeBytes(1024) kind(2)", 6));
+        provider.processEvent(op(37, "CopyDeviceToHost_enter", 6));
+        provider.processEvent(copy(37, "async-copy_enter", 1));
+        provider.processEvent(op(38, "CopyDeviceToHost_exit", 6));
+        provider.processEvent(copy(38, "async-copy_exit", 1));
+        provider.processEvent(hip(38, "hipMemcpy_exit", "", 6));
+        provider.processEvent(copy(39, "async-copy_enter", 2));
+        provider.processEvent(kernel(40, 1, 1, 1));
+        provider.processEvent(copy(41, "async-copy_exit", 2));
+        provider.processEvent(hip(42, "hipMemcpy_enter", "dst(0x7f00) src(0x7f40) sizeBytes(512) kind(0)", 8));
+        provider.processEvent(hip(43, "hipMemcpy_exit", "", 8));
+        provider.processEvent(op(44, "CopyHostToHost_enter", 8));
+        provider.processEvent(op(45, "CopyHostToHost_exit", 8));
+        provider.processEvent(kernel(50, 2, 1, 0));
+        provider.processEvent(kernel(60, 2, 1, 0));
+        provider.dispose();
+        ssb.waitUntilBuilt();
+        fStateSystem = ssb;
+    }
+
+    /**
+     * Dispose the trace
+     */
+    @AfterClass
+    public static void cleanup() {
+        fTrace.dispose();
+    }
+
+    private static TmfEvent kernel(long ts, long dispatchId, long gpuId, long queueId) {
+        ITmfEventField[] fields = {
+                new TmfEventField("kernel_name", "_Z6kernelPf", null),
+                new TmfEventField("kernel_dispatch_id", dispatchId, null),
+                new TmfEventField("gpu_id", gpuId, null),
+                new TmfEventField("queue_id", queueId, null) };
+        return event(ts, "compute_kernels_hsa", fields);
+    }
+
+    private static TmfEvent op(long ts, String name, long index) {
+        ITmfEventField[] fields = {
+                new TmfEventField("name", name, null),
+                new TmfEventField("stream_id", 0L, null),
+                new TmfEventField("index", index, null) };
+        return event(ts, "hcc_ops", fields);
+    }
+
+    private static TmfEvent copy(long ts, String name, long index) {
+        ITmfEventField[] fields = {
+                new TmfEventField("name", name, null),
+                new TmfEventField("index", index, null) };
+        return event(ts, "async_copy", fields);
+    }
+
+    private static TmfEvent hip(long ts, String name, String args, long correlationId) {
+        ITmfEventField[] fields = {
+                new TmfEventField("tid", 100L, null),
+                new TmfEventField("name", name, null),
+                new TmfEventField("args", args, null),
+                new TmfEventField("correlation_id", correlationId, null) };
+        return event(ts, "hip_api", fields);
+    }
+
+    private static TmfEvent event(long ts, String name, ITmfEventField[] fields) {
+        TmfEventType type = new TmfEventType(name, new TmfEventField(ITmfEventField.ROOT_FIELD_ID, null, null));
+        return new TmfEvent(fTrace, fRank++, TmfTimestamp.fromNanos(ts), type, new TmfEventField(ITmfEventField.ROOT_FIELD_ID, null, fields));
+    }
+
+    private static List<@Nullable Object> getValues(long[] times, String... path) throws StateSystemDisposedException {
+        int quark = fStateSystem.optQuarkAbsolute(path);
+        List<@Nullable Object> values = new ArrayList<>();
+        for (long time : times) {
+            values.add(fStateSystem.querySingleState(time, quark).getValue());
+        }
+        return values;
+    }
+
+    /**
+     * Test the number of kernels in flight and the busy state of the GPU and
+     * its queues
+     *
+     * @throws StateSystemDisposedException
+     *             Should not happen
+     */
+    @Test
+    public void testKernelsInFlight() throws StateSystemDisposedException {
+        long[] times = { 10, 20, 30, 40, 50, 60 };
+        assertEquals(Arrays.asList(1, 2, 1, 0, 1, 0), getValues(times, "GPUs", "GPU 1", "Active"));
+        assertEquals(Arrays.asList(1, 1, 1, 0, 1, 0), getValues(times, "GPUs", "GPU 1", "Busy"));
+        assertEquals(Arrays.asList(1, 1, 0, 0, 1, 0), getValues(times, "GPUs", "GPU 1", "Queues", "Queue 0", "Active"));
+        assertEquals(Arrays.asList(1, 1, 0), getValues(new long[] { 20, 30, 40 }, "GPUs", "GPU 1", "Queues", "Queue 1", "Active"));
+    }
+
+    /**
+     * Test the busy ratio, read from the mipmap of the busy attribute
+     *
+     * @throws Exception
+     *             Should not happen
+     */
+    @Test
+    public void testBusyRatio() throws Exception {
+        int busyQuark = fStateSystem.getQuarkAbsolute("GPUs", "GPU 1", "Busy");
+        /* Busy from 10 to 40 and from 50 to 60 */
+        assertEquals(0.8, TmfStateSystemOperations.queryRangeAverage(fStateSystem, 10, 60, busyQuark), DELTA);
+        assertEquals(1.0, TmfStateSystemOperations.queryRangeAverage(fStateSystem, 10, 40, busyQuark), DELTA);
+        assertEquals(0.0, TmfStateSystemOperations.queryRangeAverage(fStateSystem, 40, 50, busyQuark), DELTA);
+    }
+
+    /**
+     * Test the copies in flight and the bytes copied, read from the HIP calls
+     * of the operations that end
+     *
+     * @throws StateSystemDisposedException
+     *             Should not happen
+     */
+    @Test
+    public void testCopies() throws StateSystemDisposedException {
+        assertEquals(Arrays.asList(1, 0, 1, 0, 1, 0), getValues(new long[] { 15, 35, 37, 38, 39, 41 }, "Memory Transfers", "Active"));
+        assertEquals(Arrays.asList(null, 4096L, 4096L, 5120L, 5120L, 5120L), getValues(new long[] { 34, 35, 37, 38, 41, 45 }, "Memory Transfers", "Bytes"));
+    }
+}
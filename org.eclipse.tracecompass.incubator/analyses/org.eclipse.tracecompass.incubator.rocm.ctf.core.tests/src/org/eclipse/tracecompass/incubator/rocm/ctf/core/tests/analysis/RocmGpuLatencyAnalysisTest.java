@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.rocm.ctf.core.tests.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.analysis.RocmGpuLatencyAnalysis;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.analysis.RocmGpuSegment;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.converter.RocmCtfConverter;
+import org.eclipse.tracecompass.incubator.rocm.ctf.core.tests.shared.RocmTestDatabase;
+import org.eclipse.tracecompass.incubator.rocm.ctf.core.trace.RocmCtfTrace;
+import org.eclipse.tracecompass.segmentstore.core.ISegment;
+import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfAnalysisException;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
+import org.eclipse.tracecompass.tmf.ctf.core.event.CtfTmfEvent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test the segments of the {@link RocmGpuLatencyAnalysis} on the CTF trace
+ * converted from the test database
+ */
+public class RocmGpuLatencyAnalysisTest {
+
+    private Path fDatabase;
+    private Path fTraceDirectory;
+    private RocmCtfTrace fTrace;
+    private RocmGpuLatencyAnalysis fModule;
+
+    /**
+     * Create the database, convert it, open the trace and run the analysis
+     *
+     * @throws IOException
+     *             If the database cannot be written or converted
+     * @throws TmfTraceException
+     *             If the trace cannot be opened
+     * @throws TmfAnalysisException
+     *             If the analysis cannot be set on the trace
+     */
+    @Before
+    public void setUp() throws IOException, TmfTraceException, TmfAnalysisException {
+        fDatabase = RocmTestDatabase.create();
+        fTraceDirectory = Files.createTempDirectory("rocmctf");
+        new RocmCtfConverter(fDatabase).convert(fTraceDirectory, 1);
+        RocmCtfTrace trace = new RocmCtfTrace();
+        trace.initTrace(null, fTraceDirectory.toString(), CtfTmfEvent.class);
+        fTrace = trace;
+        RocmGpuLatencyAnalysis module = new RocmGpuLatencyAnalysis();
+        fModule = module;
+        module.setTrace(trace);
+        module.schedule();
+        assertTrue(module.waitForCompletion());
+    }
+
+    /**
+     * Dispose the analysis and the trace, and delete the trace and the
+     * database
+     *
+     * @throws IOException
+     *             If the database cannot be deleted
+     */
+    @After
+    public void tearDown() throws IOException {
+        if (fModule != null) {
+            fModule.dispose();
+        }
+        if (fTrace != null) {
+            TmfTraceManager.deleteSupplementaryFolder(fTrace);
+            fTrace.dispose();
+        }
+        if (fTraceDirectory != null) {
+            FileUtils.deleteQuietly(fTraceDirectory.toFile());
+        }
+        if (fDatabase != null) {
+            Files.deleteIfExists(fDatabase);
+        }
+    }
+
+    /**
+     * Test that each kernel and copy is a segment from its start to its end,
+     * the kernels with their queue and dispatch latency. The times of the
+     * trace are those of the database, after the clock offset of the trace.
+     */
+    @Test
+    public void testSegments() {
+        long offset = fTrace.timestampCyclesToNanos(0);
+        ISegmentStore<ISegment> store = fModule.getSegmentStore();
+        assertNotNull(store);
+        List<RocmGpuSegment> segments = new ArrayList<>();
+        for (ISegment segment : store) {
+            segments.add((RocmGpuSegment) segment);
+        }
+        segments.sort(Comparator.comparingLong(RocmGpuSegment::getStart));
+        assertEquals(3, segments.size());
+
+        RocmGpuSegment kernelA = segments.get(0);
+        assertEquals("kernelA", kernelA.getName());
+        assertEquals(1150, kernelA.getStart() - offset);
+        assertEquals(1600, kernelA.getEnd() - offset);
+        assertEquals(0, kernelA.getGpuId());
+        assertEquals(0, kernelA.getQueueId());
+        assertEquals(256, kernelA.getGridSize());
+        assertEquals(30, kernelA.getDispatchLatency());
+
+        RocmGpuSegment copy = segments.get(1);
+        assertEquals("async-copy", copy.getName());
+        assertEquals(1350, copy.getStart() - offset);
+        assertEquals(1400, copy.getEnd() - offset);
+        assertEquals(RocmGpuSegment.UNKNOWN, copy.getQueueId());
+
+        /* The second kernel starts when the first one ends */
+        RocmGpuSegment kernelB = segments.get(2);
+        assertEquals("kernelB", kernelB.getName());
+        assertEquals(1600, kernelB.getStart() - offset);
+        assertEquals(1700, kernelB.getEnd() - offset);
+        assertEquals(0, kernelB.getGpuId());
+        assertEquals(1, kernelB.getQueueId());
+        assertEquals(512, kernelB.getGridSize());
+        assertEquals(40, kernelB.getDispatchLatency());
+    }
+}
@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.rocm.ctf.core.tests.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+
+import org.eclipse.tracecompass.datastore.core.serialization.SafeByteBufferFactory;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.analysis.RocmGpuSegment;
+import org.eclipse.tracecompass.segmentstore.core.ISegment;
+import org.junit.Test;
+
+/**
+ * Test the serialization of the {@link RocmGpuSegment}, which is stored in an
+ * on-disk segment store
+ */
+public class RocmGpuSegmentTest {
+
+    /**
+     * Test that a segment read back from its serialized form is the same
+     */
+    @Test
+    public void testSerialization() {
+        RocmGpuSegment segment = new RocmGpuSegment(10, 42, "_Z6kernelPf", 1, 3, 65536, 1200);
+        int size = segment.getSizeOnDisk();
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        segment.writeSegment(SafeByteBufferFactory.wrapWriter(buffer, size));
+        buffer.flip();
+
+        ISegment read = RocmGpuSegment.READER.readInterval(SafeByteBufferFactory.wrapReader(buffer, size));
+        assertTrue(read instanceof RocmGpuSegment);
+        RocmGpuSegment readSegment = (RocmGpuSegment) read;
+        assertEquals(10, readSegment.getStart());
+        assertEquals(42, readSegment.getEnd());
+        assertEquals("_Z6kernelPf", readSegment.getName());
+        assertEquals(1, readSegment.getGpuId());
+        assertEquals(3, readSegment.getQueueId());
+        assertEquals(65536, readSegment.getGridSize());
+        assertEquals(1200, readSegment.getDispatchLatency());
+        assertEquals(0, segment.compareTo(readSegment));
+    }
+}
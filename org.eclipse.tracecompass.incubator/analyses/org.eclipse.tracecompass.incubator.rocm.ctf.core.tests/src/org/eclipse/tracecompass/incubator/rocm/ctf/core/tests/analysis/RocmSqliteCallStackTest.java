@@ -0,0 +1,211 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.rocm.ctf.core.tests.analysis;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.callstack.core.base.EdgeStateValue;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.analysis.RocmCtfCallStackStateProvider;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.converter.RocmCtfConverter;
+import org.eclipse.tracecompass.incubator.rocm.ctf.core.tests.shared.RocmTestDatabase;
+import org.eclipse.tracecompass.incubator.rocm.ctf.core.trace.RocmCtfTrace;
+import org.eclipse.tracecompass.incubator.rocm.ctf.core.trace.RocmSqliteTrace;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
+import org.eclipse.tracecompass.statesystem.core.StateSystemFactory;
+import org.eclipse.tracecompass.statesystem.core.StateSystemUtils;
+import org.eclipse.tracecompass.statesystem.core.backend.StateHistoryBackendFactory;
+import org.eclipse.tracecompass.statesystem.core.exceptions.AttributeNotFoundException;
+import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
+import org.eclipse.tracecompass.tmf.core.trace.location.ITmfLocation;
+import org.eclipse.tracecompass.tmf.ctf.core.event.CtfTmfEvent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test that the {@link RocmCtfCallStackStateProvider} builds the same state
+ * system from a rocprof database read with the {@link RocmSqliteTrace} as from
+ * the CTF trace converted from this database
+ */
+public class RocmSqliteCallStackTest {
+
+    private static final String CALL_STACK = "CallStack";
+    private static final String EDGES = "EDGES";
+
+    private Path fDatabase;
+    private Path fTraceDirectory;
+    private RocmSqliteTrace fSqliteTrace;
+    private RocmCtfTrace fCtfTrace;
+
+    /**
+     * Create the database, convert it and open both traces
+     *
+     * @throws IOException
+     *             If the database cannot be written or converted
+     * @throws TmfTraceException
+     *             If a trace cannot be opened
+     */
+    @Before
+    public void setUp() throws IOException, TmfTraceException {
+        fDatabase = RocmTestDatabase.create();
+        RocmSqliteTrace sqliteTrace = new RocmSqliteTrace();
+        sqliteTrace.initTrace(null, fDatabase.toString(), ITmfEvent.class);
+        fSqliteTrace = sqliteTrace;
+
+        /* The edges are between threads of the host of the trace */
+        fTraceDirectory = Files.createTempDirectory("rocmctf");
+        RocmCtfConverter converter = new RocmCtfConverter(fDatabase);
+        converter.setHostname(sqliteTrace.getHostId());
+        converter.convert(fTraceDirectory, 1);
+        RocmCtfTrace ctfTrace = new RocmCtfTrace();
+        ctfTrace.initTrace(null, fTraceDirectory.toString(), CtfTmfEvent.class);
+        fCtfTrace = ctfTrace;
+    }
+
+    /**
+     * Dispose the traces and delete their files
+     *
+     * @throws IOException
+     *             If the database cannot be deleted
+     */
+    @After
+    public void tearDown() throws IOException {
+        for (ITmfTrace trace : new ITmfTrace[] { fSqliteTrace, fCtfTrace }) {
+            if (trace != null) {
+                TmfTraceManager.deleteSupplementaryFolder(trace);
+                trace.dispose();
+            }
+        }
+        if (fTraceDirectory != null) {
+            FileUtils.deleteQuietly(fTraceDirectory.toFile());
+        }
+        if (fDatabase != null) {
+            Files.deleteIfExists(fDatabase);
+        }
+    }
+
+    private static ITmfStateSystem build(ITmfTrace trace) {
+        trace.indexTrace(true);
+        ITmfStateSystemBuilder ssb = StateSystemFactory.newStateSystem(StateHistoryBackendFactory.createInMemoryBackend("rocm-test", trace.getStartTime().toNanos()));
+        RocmCtfCallStackStateProvider provider = new RocmCtfCallStackStateProvider(trace);
+        provider.assignTargetStateSystem(ssb);
+        ITmfContext context = trace.seekEvent((ITmfLocation) null);
+        for (ITmfEvent event = trace.getNext(context); event != null; event = trace.getNext(context)) {
+            provider.processEvent(event);
+        }
+        context.dispose();
+        provider.dispose();
+        ssb.waitUntilBuilt();
+        return ssb;
+    }
+
+    /**
+     * Test that the state systems have the same attributes and intervals. The
+     * CTF trace has a clock offset, and the events at the same time in
+     * different tables may not come in the same order, so the attributes are
+     * compared by path and the pseudo thread ids of the lanes, which are
+     * quarks, by the path of their lane. For the same reason, the edges may
+     * not be in the same edge lanes, they are compared all together.
+     *
+     * @throws Exception
+     *             If the state systems cannot be queried
+     */
+    @Test
+    public void testSameStateSystem() throws Exception {
+        ITmfStateSystem expected = build(fCtfTrace);
+        ITmfStateSystem actual = build(fSqliteTrace);
+        long offset = expected.getStartTime() - actual.getStartTime();
+        assertEquals(RocmTestDatabase.START_TIME, actual.getStartTime());
+        assertEquals(RocmTestDatabase.END_TIME, actual.getCurrentEndTime());
+        assertEquals(expected.getCurrentEndTime() - offset, actual.getCurrentEndTime());
+        assertEquals(expected.getNbAttributes(), actual.getNbAttributes());
+
+        /*
+         * The three launches of the database have an edge to their operation,
+         * the synchronization has none
+         */
+        List<String> edges = getEdges(actual, 0);
+        assertEquals(3, edges.size());
+        assertEquals(getEdges(expected, offset), edges);
+
+        for (int quark = 0; quark < expected.getNbAttributes(); quark++) {
+            String[] path = expected.getFullAttributePathArray(quark);
+            if (path[0].equals(EDGES)) {
+                continue;
+            }
+            String msg = Arrays.toString(path);
+            List<String> expectedIntervals = getIntervals(expected, quark, offset);
+            List<String> actualIntervals = getIntervals(actual, actual.getQuarkAbsolute(path), 0);
+            assertEquals(msg, expectedIntervals, actualIntervals);
+        }
+        expected.dispose();
+        actual.dispose();
+    }
+
+    /**
+     * Get the intervals of an attribute, with the times of the database
+     */
+    private static List<String> getIntervals(ITmfStateSystem ss, int quark, long offset) throws AttributeNotFoundException, StateSystemDisposedException {
+        boolean isLane = ss.optQuarkRelative(quark, CALL_STACK) != ITmfStateSystem.INVALID_ATTRIBUTE;
+        List<String> intervals = new ArrayList<>();
+        for (ITmfStateInterval interval : StateSystemUtils.queryHistoryRange(ss, quark, ss.getStartTime(), ss.getCurrentEndTime())) {
+            intervals.add((interval.getStartTime() - offset) + "-" + (interval.getEndTime() - offset) + ": " + normalize(ss, interval.getValue(), isLane));
+        }
+        return intervals;
+    }
+
+    /**
+     * Get the edges of all the edge lanes, with the times of the database, in
+     * order
+     */
+    private static List<String> getEdges(ITmfStateSystem ss, long offset) throws AttributeNotFoundException, StateSystemDisposedException {
+        List<String> edges = new ArrayList<>();
+        for (int quark : ss.getSubAttributes(ss.getQuarkAbsolute(EDGES), false)) {
+            for (String interval : getIntervals(ss, quark, offset)) {
+                if (!interval.endsWith(": null")) {
+                    edges.add(interval);
+                }
+            }
+        }
+        Collections.sort(edges);
+        return edges;
+    }
+
+    private static @Nullable Object normalize(ITmfStateSystem ss, @Nullable Object value, boolean isLane) {
+        if (value instanceof EdgeStateValue) {
+            EdgeStateValue edge = (EdgeStateValue) value;
+            return "edge " + edge.getId() + ' ' + edge.getSource().getHost() + ' ' + ss.getFullAttributePath(edge.getSource().getTid())
+                    + " -> " + edge.getDestination().getHost() + ' ' + ss.getFullAttributePath(edge.getDestination().getTid());
+        }
+        if (isLane && value instanceof Integer) {
+            return ss.getFullAttributePath((Integer) value);
+        }
+        return value;
+    }
+}
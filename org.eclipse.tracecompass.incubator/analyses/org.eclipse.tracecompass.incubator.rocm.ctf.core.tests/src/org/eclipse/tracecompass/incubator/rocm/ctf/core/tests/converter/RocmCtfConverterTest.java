@@ -0,0 +1,277 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.rocm.ctf.core.tests.converter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.IEventDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.ICompositeDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.IDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.StringDefinition;
+import org.eclipse.tracecompass.ctf.core.trace.CTFTrace;
+import org.eclipse.tracecompass.ctf.core.trace.CTFTraceReader;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.converter.RocmCtfConverter;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.converter.RocmCtfMetadata;
+import org.eclipse.tracecompass.incubator.rocm.ctf.core.tests.shared.RocmTestDatabase;
+import org.eclipse.tracecompass.incubator.rocm.ctf.core.trace.RocmCtfTrace;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
+import org.eclipse.tracecompass.tmf.core.trace.location.ITmfLocation;
+import org.eclipse.tracecompass.tmf.ctf.core.event.CtfTmfEvent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test the conversion of the test database to CTF with the
+ * {@link RocmCtfConverter}
+ */
+public class RocmCtfConverterTest {
+
+    /* Small packets, so that the larger streams have more than one */
+    private static final int PACKET_SIZE = 512;
+    private static final String HOSTNAME = "node0";
+    private static final int RANK = 3;
+
+    private Path fDatabase;
+    private Path fTraceDirectory;
+    private long fNbEvents;
+
+    /**
+     * Create the database and convert it
+     *
+     * @throws IOException
+     *             If the database cannot be written or converted
+     */
+    @Before
+    public void setUp() throws IOException {
+        fDatabase = RocmTestDatabase.create();
+        fTraceDirectory = Files.createTempDirectory("rocmctf");
+        RocmCtfConverter converter = new RocmCtfConverter(fDatabase);
+        converter.setPacketSize(PACKET_SIZE);
+        converter.setHostname(HOSTNAME);
+        converter.setRank(RANK);
+        fNbEvents = converter.convert(fTraceDirectory, 2);
+    }
+
+    /**
+     * Delete the database and the trace
+     *
+     * @throws IOException
+     *             If the database cannot be deleted
+     */
+    @After
+    public void tearDown() throws IOException {
+        if (fTraceDirectory != null) {
+            FileUtils.deleteQuietly(fTraceDirectory.toFile());
+        }
+        if (fDatabase != null) {
+            Files.deleteIfExists(fDatabase);
+        }
+    }
+
+    private static @Nullable Object getValue(IEventDefinition event, String field) {
+        ICompositeDefinition fields = event.getFields();
+        IDefinition definition = (fields == null) ? null : fields.getDefinition(field);
+        if (definition instanceof StringDefinition) {
+            return ((StringDefinition) definition).getValue();
+        }
+        if (definition instanceof IntegerDefinition) {
+            return ((IntegerDefinition) definition).getValue();
+        }
+        return null;
+    }
+
+    /**
+     * Describe a CTF event like {@link RocmTestDatabase#describe}, with its
+     * raw timestamp which is the one of the database
+     */
+    private static String describe(IEventDefinition event) {
+        Object name = getValue(event, "name");
+        if (name == null) {
+            name = getValue(event, "kernel_name");
+        }
+        return event.getTimestamp() + " " + event.getDeclaration().getName() + " " + name;
+    }
+
+    /**
+     * Read the events of the trace, by stream id
+     */
+    private Map<Long, List<IEventDefinition>> readStreams() throws CTFException {
+        Map<Long, List<IEventDefinition>> streams = new HashMap<>();
+        CTFTrace trace = new CTFTrace(fTraceDirectory.toFile());
+        try (CTFTraceReader reader = new CTFTraceReader(trace)) {
+            while (reader.hasMoreEvents()) {
+                IEventDefinition event = reader.getCurrentEventDef();
+                assertNotNull(event);
+                streams.computeIfAbsent(event.getDeclaration().getStream().getId(), id -> new ArrayList<>()).add(event);
+                reader.advance();
+            }
+        }
+        return streams;
+    }
+
+    /**
+     * Test that each row gives an enter and an exit event, but the markers
+     * which only have an enter event, in one stream per table
+     *
+     * @throws CTFException
+     *             If the trace cannot be read
+     */
+    @Test
+    public void testEventCount() throws CTFException {
+        assertEquals(RocmTestDatabase.EVENTS.size(), fNbEvents);
+        Map<Long, List<IEventDefinition>> streams = readStreams();
+        assertEquals(5, streams.size());
+        assertEquals(8, streams.get(0L).size());
+        assertEquals(6, streams.get(1L).size());
+        assertEquals(4, streams.get(2L).size());
+        assertEquals(2, streams.get(3L).size());
+        assertEquals(1, streams.get(4L).size());
+    }
+
+    /**
+     * Test that the events of each stream are in time order, and are the
+     * events of its table in the database order
+     *
+     * @throws CTFException
+     *             If the trace cannot be read
+     */
+    @Test
+    public void testStreamOrder() throws CTFException {
+        for (List<IEventDefinition> events : readStreams().values()) {
+            String eventName = events.get(0).getDeclaration().getName();
+            List<String> expected = new ArrayList<>();
+            for (String event : RocmTestDatabase.EVENTS) {
+                if (event.contains(' ' + eventName + ' ')) {
+                    expected.add(event);
+                }
+            }
+            List<String> actual = new ArrayList<>();
+            long previous = Long.MIN_VALUE;
+            for (IEventDefinition event : events) {
+                assertTrue(eventName, event.getTimestamp() >= previous);
+                previous = event.getTimestamp();
+                actual.add(describe(event));
+            }
+            assertEquals(eventName, expected, actual);
+        }
+    }
+
+    /**
+     * Test the fields of the events of each table
+     *
+     * @throws CTFException
+     *             If the trace cannot be read
+     */
+    @Test
+    public void testFields() throws CTFException {
+        Map<Long, List<IEventDefinition>> streams = readStreams();
+
+        IEventDefinition hip = streams.get(0L).get(2);
+        assertEquals("hipMemcpyAsync_enter", getValue(hip, "name"));
+        assertEquals(100L, getValue(hip, "tid"));
+        assertEquals("", getValue(hip, "args"));
+        assertEquals(2L, getValue(hip, "correlation_id"));
+
+        IEventDefinition op = streams.get(1L).get(4);
+        assertEquals(1600L, op.getTimestamp());
+        assertEquals("KernelExecution_enter", getValue(op, "name"));
+        assertEquals(3L, getValue(op, "index"));
+        assertEquals(RocmTestDatabase.PID, getValue(op, "pid"));
+
+        IEventDefinition kernel = streams.get(2L).get(0);
+        assertEquals("kernelA", getValue(kernel, "kernel_name"));
+        assertEquals(1L, getValue(kernel, "kernel_dispatch_id"));
+        assertEquals(256L, getValue(kernel, "grd"));
+        assertEquals("0x7f00", getValue(kernel, "obj"));
+        assertEquals(1120L, getValue(kernel, "dipatch_time"));
+        assertEquals(1610L, getValue(kernel, "complete_time"));
+        /* The counters are fields too, the other columns are not */
+        assertEquals(4L, getValue(kernel, "SQ_WAVES"));
+        assertEquals(null, getValue(kernel, "DurationNs"));
+
+        IEventDefinition copy = streams.get(3L).get(1);
+        assertEquals("async-copy_exit", getValue(copy, "name"));
+        assertEquals(2L, getValue(copy, "index"));
+    }
+
+    /**
+     * Test the environment of the trace
+     *
+     * @throws CTFException
+     *             If the trace cannot be read
+     */
+    @Test
+    public void testEnvironment() throws CTFException {
+        Map<String, String> environment = new CTFTrace(fTraceDirectory.toFile()).getEnvironment();
+        assertEquals("\"roctracer\"", environment.get("tracer_name"));
+        assertEquals('"' + HOSTNAME + '"', environment.get(RocmCtfMetadata.ENV_HOSTNAME));
+        assertEquals(String.valueOf(RANK), environment.get(RocmCtfMetadata.ENV_RANK));
+        assertEquals(String.valueOf(RocmTestDatabase.PID), environment.get(RocmCtfMetadata.ENV_PID));
+    }
+
+    /**
+     * Test that the trace opens as a ROCm CTF trace, with the events of the
+     * database. The events of different streams at the same time may come in
+     * any order, so the events are compared sorted.
+     *
+     * @throws TmfTraceException
+     *             If the trace cannot be opened
+     */
+    @Test
+    public void testRocmCtfTrace() throws TmfTraceException {
+        RocmCtfTrace trace = new RocmCtfTrace();
+        try {
+            assertTrue(trace.validate(null, fTraceDirectory.toString()).isOK());
+            trace.initTrace(null, fTraceDirectory.toString(), CtfTmfEvent.class);
+            assertEquals(RANK, trace.getRank());
+            assertEquals(RocmTestDatabase.PID, trace.getPid());
+            assertEquals(HOSTNAME, trace.getHostId());
+
+            ITmfContext context = trace.seekEvent((ITmfLocation) null);
+            List<String> events = new ArrayList<>();
+            long offset = 0;
+            for (ITmfEvent event = trace.getNext(context); event != null; event = trace.getNext(context)) {
+                if (events.isEmpty()) {
+                    offset = event.getTimestamp().toNanos() - RocmTestDatabase.START_TIME;
+                }
+                events.add(RocmTestDatabase.describe(event, offset));
+            }
+            context.dispose();
+            List<String> expected = new ArrayList<>(RocmTestDatabase.EVENTS);
+            Collections.sort(expected);
+            Collections.sort(events);
+            assertEquals(expected, events);
+        } finally {
+            TmfTraceManager.deleteSupplementaryFolder(trace);
+            trace.dispose();
+        }
+    }
+}
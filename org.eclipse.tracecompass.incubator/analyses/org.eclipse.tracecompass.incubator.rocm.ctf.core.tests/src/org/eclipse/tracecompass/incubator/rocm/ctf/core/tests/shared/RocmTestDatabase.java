@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.rocm.ctf.core.tests.shared;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.converter.RocmDatabase;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEventField;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * A small rocprof database for the tests of the ROCm traces, with one table of
+ * each kind but KFD and HSA.
+ *
+ * <pre>
+ * HIP    hipLaunchKernel      [1000, 1100]  correlation 1
+ *        hipMemcpyAsync       [1200, 1300]  correlation 2
+ *        hipLaunchKernel      [1400, 1450]  correlation 3
+ *        hipDeviceSynchronize [1500, 2500]  correlation 4
+ * OPS    KernelExecution      [1150, 1600]  index 1
+ *        CopyHostToDevice     [1350, 1400]  index 2
+ *        KernelExecution      [1600, 1700]  index 3
+ * A      kernelA              [1150, 1600]  dispatch 1  queue 0
+ *        kernelB              [1600, 1700]  dispatch 3  queue 1
+ * COPY   async-copy           [1350, 1400]  index 2
+ * rocTX  marker               1000
+ * </pre>
+ *
+ * Some events of different tables have the same timestamp, and an operation
+ * starts when the previous one ends, to test the order of the events. The
+ * tables are created in the order above, which is the order of their
+ * streams.
+ */
+public final class RocmTestDatabase {
+
+    /** The events of the database in time order, as {@link #describe} gives them */
+    public static final List<String> EVENTS = ImmutableList.of(
+            "1000 hip_api hipLaunchKernel_enter",
+            "1000 roctx marker_enter",
+            "1100 hip_api hipLaunchKernel_exit",
+            "1150 hcc_ops KernelExecution_enter",
+            "1150 compute_kernels_hsa kernelA",
+            "1200 hip_api hipMemcpyAsync_enter",
+            "1300 hip_api hipMemcpyAsync_exit",
+            "1350 hcc_ops CopyHostToDevice_enter",
+            "1350 async_copy async-copy_enter",
+            "1400 hip_api hipLaunchKernel_enter",
+            "1400 hcc_ops CopyHostToDevice_exit",
+            "1400 async_copy async-copy_exit",
+            "1450 hip_api hipLaunchKernel_exit",
+            "1500 hip_api hipDeviceSynchronize_enter",
+            "1600 hcc_ops KernelExecution_exit",
+            "1600 hcc_ops KernelExecution_enter",
+            "1600 compute_kernels_hsa kernelA",
+            "1600 compute_kernels_hsa kernelB",
+            "1700 hcc_ops KernelExecution_exit",
+            "1700 compute_kernels_hsa kernelB",
+            "2500 hip_api hipDeviceSynchronize_exit");
+
+    /** Begin time of the first row */
+    public static final long START_TIME = 1000;
+
+    /** End time of the last row */
+    public static final long END_TIME = 2500;
+
+    /** PID of the profiled process */
+    public static final long PID = 42;
+
+    private RocmTestDatabase() {
+        // Do nothing
+    }
+
+    /**
+     * Write the database in a new temporary file
+     *
+     * @return The path to the database, to be deleted by the caller
+     * @throws IOException
+     *             If the file cannot be created or written
+     */
+    public static Path create() throws IOException {
+        RocmDatabase.loadDriver();
+        Path database = Files.createTempFile("rocprof", ".db");
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + database.toAbsolutePath())) {
+            connection.setAutoCommit(false);
+            createTable(connection, "HIP", "tid INTEGER, Name TEXT, args TEXT, BeginNs INTEGER, EndNs INTEGER, \"Index\" INTEGER",
+                    new Object[] { 100, "hipLaunchKernel", "", 1000, 1100, 1 },
+                    new Object[] { 100, "hipMemcpyAsync", "", 1200, 1300, 2 },
+                    new Object[] { 100, "hipLaunchKernel", "", 1400, 1450, 3 },
+                    new Object[] { 100, "hipDeviceSynchronize", "", 1500, 2500, 4 });
+            createTable(connection, "OPS", "\"Index\" INTEGER, Name TEXT, \"dev-id\" INTEGER, \"queue-id\" INTEGER, \"proc-id\" INTEGER, tid INTEGER, BeginNs INTEGER, EndNs INTEGER",
+                    new Object[] { 1, "KernelExecution", 0, 0, PID, 100, 1150, 1600 },
+                    new Object[] { 2, "CopyHostToDevice", 0, 0, PID, 100, 1350, 1400 },
+                    new Object[] { 3, "KernelExecution", 0, 0, PID, 100, 1600, 1700 });
+            createTable(connection, "A", "\"Index\" INTEGER, KernelName TEXT, \"gpu-id\" INTEGER, \"queue-id\" INTEGER, \"queue-index\" INTEGER, pid INTEGER, tid INTEGER, "
+                    + "grd INTEGER, wgr INTEGER, lds INTEGER, scr INTEGER, vgpr INTEGER, sgpr INTEGER, fbar INTEGER, sig TEXT, obj TEXT, "
+                    + "DispatchNs INTEGER, BeginNs INTEGER, EndNs INTEGER, CompleteNs INTEGER, DurationNs INTEGER, SQ_WAVES INTEGER",
+                    new Object[] { 1, "kernelA", 0, 0, 0, PID, 100, 256, 64, 0, 0, 8, 16, 0, "0x1", "0x7f00", 1120, 1150, 1600, 1610, 450, 4 },
+                    new Object[] { 3, "kernelB", 0, 1, 1, PID, 100, 512, 64, 0, 0, 12, 24, 0, "0x2", "0x7f40", 1560, 1600, 1700, 1710, 100, 8 });
+            createTable(connection, "COPY", "\"Index\" INTEGER, BeginNs INTEGER, EndNs INTEGER",
+                    new Object[] { 2, 1350, 1400 });
+            createTable(connection, "rocTX", "pid INTEGER, tid INTEGER, Name TEXT, BeginNs INTEGER",
+                    new Object[] { PID, 100, "marker", 1000 });
+            connection.commit();
+        } catch (SQLException e) {
+            Files.deleteIfExists(database);
+            throw new IOException("Cannot write the test database", e);
+        }
+        return database;
+    }
+
+    private static void createTable(Connection connection, String table, String columns, Object[]... rows) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE \"" + table + "\" (" + columns + ")");
+        }
+        StringBuilder insert = new StringBuilder("INSERT INTO \"").append(table).append("\" VALUES (");
+        for (int i = 0; i < rows[0].length; i++) {
+            insert.append(i == 0 ? "?" : ", ?");
+        }
+        try (PreparedStatement statement = connection.prepareStatement(insert.append(')').toString())) {
+            for (Object[] row : rows) {
+                for (int i = 0; i < row.length; i++) {
+                    statement.setObject(i + 1, row[i]);
+                }
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    /**
+     * Describe an event by its timestamp, its type and its name field, or the
+     * kernel name for the kernel events
+     *
+     * @param event
+     *            The event
+     * @param offset
+     *            The offset of the timestamps of the trace from the ones of
+     *            the database, in nanoseconds
+     * @return The description of the event, as in {@link #EVENTS}
+     */
+    public static String describe(ITmfEvent event, long offset) {
+        ITmfEventField content = event.getContent();
+        Object name = content.getFieldValue(Object.class, "name");
+        if (name == null) {
+            name = content.getFieldValue(Object.class, "kernel_name");
+        }
+        return (event.getTimestamp().toNanos() - offset) + " " + event.getName() + " " + name;
+    }
+}
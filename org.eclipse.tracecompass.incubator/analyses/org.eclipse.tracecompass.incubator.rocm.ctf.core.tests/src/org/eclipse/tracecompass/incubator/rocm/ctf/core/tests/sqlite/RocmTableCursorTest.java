@@ -0,0 +1,256 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.rocm.ctf.core.tests.sqlite;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.converter.RocmCtfMetadata.StreamDescription;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.converter.RocmField;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.converter.RocmTable;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.sqlite.RocmSqliteIndex;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.sqlite.RocmSqliteReader;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.sqlite.RocmTableCursor;
+import org.eclipse.tracecompass.incubator.rocm.ctf.core.tests.shared.RocmTestDatabase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test the {@link RocmTableCursor} and the {@link RocmSqliteReader} which
+ * merges them, on the test database
+ */
+public class RocmTableCursorTest {
+
+    private Path fDatabase;
+    private Path fIndexFile;
+    private RocmSqliteIndex fIndex;
+    private Connection fConnection;
+
+    /**
+     * Create the database and its index
+     *
+     * @throws IOException
+     *             If the database cannot be written or indexed
+     * @throws SQLException
+     *             If the database cannot be opened
+     */
+    @Before
+    public void setUp() throws IOException, SQLException {
+        fDatabase = RocmTestDatabase.create();
+        fIndexFile = Files.createTempFile("rocm-index", ".db");
+        fIndex = RocmSqliteIndex.open(fDatabase, fIndexFile);
+        fConnection = fIndex.openConnection();
+    }
+
+    /**
+     * Close the connection and delete the files
+     *
+     * @throws IOException
+     *             If a file cannot be deleted
+     * @throws SQLException
+     *             If the connection cannot be closed
+     */
+    @After
+    public void tearDown() throws IOException, SQLException {
+        if (fConnection != null) {
+            fConnection.close();
+        }
+        if (fDatabase != null) {
+            Files.deleteIfExists(fDatabase);
+            Files.deleteIfExists(fIndexFile);
+        }
+    }
+
+    private RocmTableCursor createCursor(RocmTable table) throws SQLException {
+        for (StreamDescription stream : fIndex.getStreams()) {
+            if (stream.getTable() == table) {
+                return new RocmTableCursor(fConnection, stream, fIndex.getMaxDuration(stream.getId()));
+            }
+        }
+        throw new IllegalArgumentException("No stream for table " + table);
+    }
+
+    /**
+     * Read the events of the cursor from its current one, each one as its
+     * timestamp, whether it is an exit and the value of a field
+     */
+    private static List<String> readAll(RocmTableCursor cursor, String fieldName) throws SQLException {
+        List<RocmField> fields = cursor.getStream().getFields();
+        int field = 0;
+        while (!fields.get(field).getName().equals(fieldName)) {
+            field++;
+        }
+        List<String> events = new ArrayList<>();
+        if (!cursor.hasEvent()) {
+            return events;
+        }
+        do {
+            events.add(cursor.getTimestamp() + (cursor.isExit() ? " exit " : " enter ") + cursor.getValues()[field]);
+        } while (cursor.advance());
+        return events;
+    }
+
+    /**
+     * Test that the index has the streams and the time range of the database
+     */
+    @Test
+    public void testIndex() {
+        List<StreamDescription> streams = fIndex.getStreams();
+        assertEquals(5, streams.size());
+        assertEquals(RocmTable.HIP_API, streams.get(0).getTable());
+        assertEquals(RocmTable.ROCTX, streams.get(4).getTable());
+        assertEquals(RocmTestDatabase.START_TIME, fIndex.getStartTime());
+        assertEquals(RocmTestDatabase.END_TIME, fIndex.getEndTime());
+        /* The longest rows: hipDeviceSynchronize, the first kernel execution */
+        assertEquals(1000, fIndex.getMaxDuration(0));
+        assertEquals(450, fIndex.getMaxDuration(1));
+        assertEquals(0, fIndex.getMaxDuration(4));
+    }
+
+    /**
+     * Test that the index is reused while the database is unchanged and
+     * rebuilt when it changes
+     *
+     * @throws Exception
+     *             If the database cannot be read or written
+     */
+    @Test
+    public void testIndexUpToDate() throws Exception {
+        long size = Files.size(fDatabase);
+        long modified = Files.getLastModifiedTime(fDatabase).toMillis();
+        long indexModified = Files.getLastModifiedTime(fIndexFile).toMillis();
+        RocmSqliteIndex index = RocmSqliteIndex.open(fDatabase, fIndexFile);
+        assertEquals(RocmTestDatabase.END_TIME, index.getEndTime());
+        assertEquals(indexModified, Files.getLastModifiedTime(fIndexFile).toMillis());
+        /* The database itself is never written */
+        assertEquals(size, Files.size(fDatabase));
+        assertEquals(modified, Files.getLastModifiedTime(fDatabase).toMillis());
+
+        fConnection.close();
+        try (Connection connection = index.openConnection();
+                Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO HIP VALUES (100, 'hipFree', '', 3000, 3500, 5);");
+        }
+        /* Make sure the change is seen, whatever the precision of the file times */
+        Files.setLastModifiedTime(fDatabase, FileTime.fromMillis(modified + 2000));
+        index = RocmSqliteIndex.open(fDatabase, fIndexFile);
+        assertEquals(3500, index.getEndTime());
+        fConnection = index.openConnection();
+    }
+
+    /**
+     * Test that a cursor reads the enter and exit events of its table in time
+     * order, the exit of a row before the enter of the row starting at the
+     * same time
+     *
+     * @throws SQLException
+     *             If the database cannot be read
+     */
+    @Test
+    public void testReadTable() throws SQLException {
+        try (RocmTableCursor cursor = createCursor(RocmTable.HCC_OPS)) {
+            cursor.seek(0);
+            List<String> expected = new ArrayList<>();
+            expected.add("1150 enter 1");
+            expected.add("1350 enter 2");
+            expected.add("1400 exit 2");
+            expected.add("1600 exit 1");
+            expected.add("1600 enter 3");
+            expected.add("1700 exit 3");
+            assertEquals(expected, readAll(cursor, "index"));
+        }
+    }
+
+    /**
+     * Test that a seek in the middle of the table gives the exit events of the
+     * rows that are still running at that time
+     *
+     * @throws SQLException
+     *             If the database cannot be read
+     */
+    @Test
+    public void testSeekRunning() throws SQLException {
+        try (RocmTableCursor cursor = createCursor(RocmTable.HCC_OPS)) {
+            cursor.seek(1360);
+            List<String> expected = new ArrayList<>();
+            expected.add("1400 exit 2");
+            expected.add("1600 exit 1");
+            expected.add("1600 enter 3");
+            expected.add("1700 exit 3");
+            assertEquals(expected, readAll(cursor, "index"));
+
+            /* The first row ended at the seek time */
+            cursor.seek(1600);
+            assertEquals(expected.subList(1, 4), readAll(cursor, "index"));
+
+            assertFalse(cursor.seek(1701));
+            assertFalse(cursor.hasEvent());
+        }
+    }
+
+    /**
+     * Test a table whose rows have no end
+     *
+     * @throws SQLException
+     *             If the database cannot be read
+     */
+    @Test
+    public void testTableWithoutEnd() throws SQLException {
+        try (RocmTableCursor cursor = createCursor(RocmTable.ROCTX)) {
+            cursor.seek(0);
+            List<String> expected = new ArrayList<>();
+            expected.add("1000 enter marker");
+            assertEquals(expected, readAll(cursor, "name"));
+            assertFalse(cursor.seek(1001));
+        }
+    }
+
+    /**
+     * Test that the reader merges the tables in time order, the tables with
+     * the lowest stream id first at the same time
+     *
+     * @throws SQLException
+     *             If the database cannot be read
+     */
+    @Test
+    public void testMergeTables() throws SQLException {
+        try (RocmSqliteReader reader = new RocmSqliteReader(fIndex)) {
+            List<Long> timestamps = new ArrayList<>();
+            List<Integer> streams = new ArrayList<>();
+            reader.seek(0);
+            for (RocmTableCursor cursor = reader.getCurrentCursor(); cursor != null; cursor = reader.getCurrentCursor()) {
+                timestamps.add(cursor.getTimestamp());
+                streams.add(cursor.getStream().getId());
+                reader.advance();
+            }
+            assertEquals(RocmTestDatabase.EVENTS.size(), timestamps.size());
+            for (int i = 0; i < timestamps.size(); i++) {
+                String expected = RocmTestDatabase.EVENTS.get(i);
+                assertEquals(expected, Long.parseLong(expected.substring(0, expected.indexOf(' '))), (long) timestamps.get(i));
+                if (i > 0 && timestamps.get(i).equals(timestamps.get(i - 1))) {
+                    assertFalse(expected, streams.get(i) < streams.get(i - 1));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.rocm.ctf.core.tests.trace;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.converter.RocmCtfMetadata;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.converter.RocmCtfMetadata.StreamDescription;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.converter.RocmCtfStreamWriter;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.converter.RocmTable;
+import org.eclipse.tracecompass.incubator.rocm.ctf.core.trace.RocmCtfTrace;
+import org.eclipse.tracecompass.incubator.rocm.ctf.core.trace.RocmExperiment;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
+import org.eclipse.tracecompass.tmf.core.synchronization.TimestampTransformFactory;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.ctf.core.event.CtfTmfEvent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Test the experiments with the traces of the ranks of an MPI job
+ */
+public class RocmExperimentTest {
+
+    private static final long CLOCK_OFFSET = 1500000000000000000L;
+
+    private final List<Path> fTraceDirectories = new ArrayList<>();
+    private final List<RocmCtfTrace> fTraces = new ArrayList<>();
+
+    /**
+     * Write and open the traces of three ranks, two on the same node
+     *
+     * @throws IOException
+     *             If a trace cannot be written
+     * @throws TmfTraceException
+     *             If a trace cannot be opened
+     */
+    @Before
+    public void init() throws IOException, TmfTraceException {
+        fTraces.add(createTrace("node0", 0, 100, CLOCK_OFFSET + 1000));
+        fTraces.add(createTrace("node0", 1, 101, CLOCK_OFFSET + 3000));
+        fTraces.add(createTrace("node1", 2, 200, CLOCK_OFFSET + 10000));
+    }
+
+    /**
+     * Delete the traces
+     */
+    @After
+    public void cleanup() {
+        fTraces.forEach(ITmfTrace::dispose);
+        fTraces.clear();
+        fTraceDirectories.forEach(directory -> FileUtils.deleteQuietly(directory.toFile()));
+        fTraceDirectories.clear();
+    }
+
+    private RocmCtfTrace createTrace(String hostname, int rank, long pid, long clockOffset) throws IOException, TmfTraceException {
+        Path traceDirectory = Files.createTempDirectory("rocmexp");
+        fTraceDirectories.add(traceDirectory);
+        StreamDescription stream = new StreamDescription(0, RocmTable.ROCTX, RocmTable.ROCTX.getFields());
+        Map<String, Object> environment = ImmutableMap.of(RocmCtfMetadata.ENV_HOSTNAME, hostname,
+                RocmCtfMetadata.ENV_RANK, rank, RocmCtfMetadata.ENV_PID, pid);
+        RocmCtfMetadata.write(traceDirectory, clockOffset, environment, ImmutableList.of(stream));
+
+        /* A single marker, with the pid, tid and name fields */
+        byte[] name = "marker".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer payload = ByteBuffer.allocate(2 * Long.BYTES + name.length + 1).order(ByteOrder.LITTLE_ENDIAN);
+        payload.putLong(pid).putLong(pid).put(name).put((byte) 0);
+        payload.flip();
+        try (RocmCtfStreamWriter writer = new RocmCtfStreamWriter(traceDirectory.resolve("stream_0"), 0, RocmCtfStreamWriter.DEFAULT_PACKET_SIZE)) {
+            writer.writeEvent(0, 10, payload);
+        }
+
+        RocmCtfTrace trace = new RocmCtfTrace();
+        trace.initTrace(null, traceDirectory.toString(), CtfTmfEvent.class);
+        return trace;
+    }
+
+    /**
+     * Test that the rank, PID and host are read from the environment
+     */
+    @Test
+    public void testEnvironment() {
+        RocmCtfTrace trace = fTraces.get(1);
+        assertEquals(1, trace.getRank());
+        assertEquals(101, trace.getPid());
+        assertEquals("node0", trace.getHostId());
+        assertEquals("node1", fTraces.get(2).getHostId());
+    }
+
+    /**
+     * Test that the clock offsets of the traces of the same node are averaged
+     * when they are opened in an experiment
+     */
+    @Test
+    public void testClockOffsets() {
+        Set<ITmfTrace> traces = new LinkedHashSet<>(fTraces);
+        RocmExperiment experiment = new RocmExperiment("rocm-mpi", traces);
+        try {
+            assertEquals(TimestampTransformFactory.createWithOffset(1000), fTraces.get(0).getTimestampTransform());
+            assertEquals(TimestampTransformFactory.createWithOffset(-1000), fTraces.get(1).getTimestampTransform());
+            /* The only trace of its node is not shifted */
+            assertEquals(TimestampTransformFactory.getDefaultTransform(), fTraces.get(2).getTimestampTransform());
+        } finally {
+            /* The experiment disposes its traces */
+            experiment.dispose();
+            fTraces.clear();
+        }
+    }
+}
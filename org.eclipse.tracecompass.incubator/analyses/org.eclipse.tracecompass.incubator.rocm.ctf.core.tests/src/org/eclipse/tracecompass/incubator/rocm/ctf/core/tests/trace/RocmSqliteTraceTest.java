@@ -0,0 +1,231 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.rocm.ctf.core.tests.trace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.sqlite.RocmSqliteContext;
+import org.eclipse.tracecompass.incubator.rocm.ctf.core.tests.shared.RocmTestDatabase;
+import org.eclipse.tracecompass.incubator.rocm.ctf.core.trace.RocmSqliteTrace;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
+import org.eclipse.tracecompass.tmf.core.trace.location.ITmfLocation;
+import org.eclipse.tracecompass.tmf.ctf.core.context.CtfLocation;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test the {@link RocmSqliteTrace} and its {@link RocmSqliteContext} on the
+ * test database
+ */
+public class RocmSqliteTraceTest {
+
+    private Path fDatabase;
+    private RocmSqliteTrace fTrace;
+
+    /**
+     * Create the database and open the trace
+     *
+     * @throws IOException
+     *             If the database cannot be written
+     * @throws TmfTraceException
+     *             If the trace cannot be opened
+     */
+    @Before
+    public void setUp() throws IOException, TmfTraceException {
+        fDatabase = RocmTestDatabase.create();
+        RocmSqliteTrace trace = new RocmSqliteTrace();
+        trace.initTrace(null, fDatabase.toString(), ITmfEvent.class);
+        fTrace = trace;
+    }
+
+    /**
+     * Dispose the trace and delete the database and the index
+     *
+     * @throws IOException
+     *             If the database cannot be deleted
+     */
+    @After
+    public void tearDown() throws IOException {
+        RocmSqliteTrace trace = fTrace;
+        if (trace != null) {
+            TmfTraceManager.deleteSupplementaryFolder(trace);
+            trace.dispose();
+        }
+        if (fDatabase != null) {
+            Files.deleteIfExists(fDatabase);
+        }
+    }
+
+    /**
+     * Read the events of a context until the end of the trace
+     */
+    private List<String> readAll(ITmfContext context) {
+        List<String> events = new ArrayList<>();
+        for (ITmfEvent event = fTrace.getNext(context); event != null; event = fTrace.getNext(context)) {
+            events.add(RocmTestDatabase.describe(event, 0));
+        }
+        context.dispose();
+        return events;
+    }
+
+    private String readOne(ITmfLocation location) {
+        ITmfContext context = fTrace.seekEvent(location);
+        ITmfEvent event = fTrace.getNext(context);
+        context.dispose();
+        assertNotNull(event);
+        return RocmTestDatabase.describe(event, 0);
+    }
+
+    /**
+     * Test the validation of the database
+     *
+     * @throws IOException
+     *             If the file which is not a database cannot be written
+     */
+    @Test
+    public void testValidate() throws IOException {
+        assertTrue(fTrace.validate(null, fDatabase.toString()).isOK());
+        Path notDatabase = Files.createTempFile("rocprof", ".txt");
+        try {
+            Files.write(notDatabase, "Not a database".getBytes());
+            assertFalse(fTrace.validate(null, notDatabase.toString()).isOK());
+        } finally {
+            Files.delete(notDatabase);
+        }
+    }
+
+    /**
+     * Test that the events of all the tables are read in time order, with
+     * their ranks
+     */
+    @Test
+    public void testReadAll() {
+        ITmfContext context = fTrace.seekEvent((ITmfLocation) null);
+        assertEquals(0, context.getRank());
+        List<String> events = new ArrayList<>();
+        for (ITmfEvent event = fTrace.getNext(context); event != null; event = fTrace.getNext(context)) {
+            assertEquals(events.size(), event.getRank());
+            events.add(RocmTestDatabase.describe(event, 0));
+        }
+        context.dispose();
+        assertEquals(RocmTestDatabase.EVENTS, events);
+    }
+
+    /**
+     * Test the fields of the events, which are the ones of the converted CTF
+     * trace
+     */
+    @Test
+    public void testFields() {
+        ITmfContext context = fTrace.seekEvent(new CtfLocation(1150L, 1L));
+        ITmfEvent event = fTrace.getNext(context);
+        context.dispose();
+        assertNotNull(event);
+        assertEquals("compute_kernels_hsa", event.getName());
+        assertEquals("kernelA", event.getContent().getFieldValue(String.class, "kernel_name"));
+        assertEquals(Long.valueOf(1), event.getContent().getFieldValue(Long.class, "kernel_dispatch_id"));
+        assertEquals(Long.valueOf(1610), event.getContent().getFieldValue(Long.class, "complete_time"));
+        assertEquals("0x7f00", event.getContent().getFieldValue(String.class, "obj"));
+        /* The counters are fields too */
+        assertEquals(Long.valueOf(4), event.getContent().getFieldValue(Long.class, "SQ_WAVES"));
+    }
+
+    /**
+     * Test a seek to a location, which is a timestamp and the number of events
+     * to skip at this timestamp
+     */
+    @Test
+    public void testSeekLocation() {
+        assertEquals(RocmTestDatabase.EVENTS.get(0), readOne(new CtfLocation(0L, 0L)));
+        assertEquals(RocmTestDatabase.EVENTS.get(1), readOne(new CtfLocation(1000L, 1L)));
+        /* The events running at the time of the seek are not missed */
+        assertEquals(RocmTestDatabase.EVENTS.get(14), readOne(new CtfLocation(1550L, 0L)));
+        assertEquals(RocmTestDatabase.EVENTS.get(16), readOne(new CtfLocation(1600L, 2L)));
+        assertEquals(RocmTestDatabase.EVENTS.get(20), readOne(new CtfLocation(1700L, 2L)));
+
+        ITmfContext context = fTrace.seekEvent(new CtfLocation(2501L, 0L));
+        assertNull(fTrace.getNext(context));
+        context.dispose();
+    }
+
+    /**
+     * Test that a context created at the location of another context reads
+     * the same events, from any event of the trace
+     */
+    @Test
+    public void testReposition() {
+        int nbEvents = RocmTestDatabase.EVENTS.size();
+        for (int i = 0; i <= nbEvents; i++) {
+            ITmfContext context = fTrace.seekEvent((ITmfLocation) null);
+            for (int j = 0; j < i; j++) {
+                assertNotNull(fTrace.getNext(context));
+            }
+            ITmfContext other = fTrace.seekEvent(context.getLocation());
+            List<String> expected = RocmTestDatabase.EVENTS.subList(i, nbEvents);
+            assertEquals(String.valueOf(i), expected, readAll(other));
+            assertEquals(String.valueOf(i), expected, readAll(context));
+        }
+    }
+
+    /**
+     * Test that the contexts read the same events when their reads are
+     * interleaved, each one keeping its own position in the tables
+     */
+    @Test
+    public void testInterleavedContexts() {
+        ITmfContext first = fTrace.seekEvent((ITmfLocation) null);
+        ITmfContext second = fTrace.seekEvent(new CtfLocation(1400L, 0L));
+        List<String> firstEvents = new ArrayList<>();
+        List<String> secondEvents = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            firstEvents.add(RocmTestDatabase.describe(fTrace.getNext(first), 0));
+            secondEvents.add(RocmTestDatabase.describe(fTrace.getNext(second), 0));
+        }
+        first.dispose();
+        second.dispose();
+        assertEquals(RocmTestDatabase.EVENTS.subList(0, 5), firstEvents);
+        assertEquals(RocmTestDatabase.EVENTS.subList(9, 14), secondEvents);
+    }
+
+    /**
+     * Test a seek to a rank, once the trace is indexed
+     */
+    @Test
+    public void testSeekRank() {
+        fTrace.indexTrace(true);
+        assertEquals(RocmTestDatabase.EVENTS.size(), fTrace.getNbEvents());
+        assertEquals(RocmTestDatabase.START_TIME, fTrace.getStartTime().toNanos());
+        assertEquals(RocmTestDatabase.END_TIME, fTrace.getEndTime().toNanos());
+        for (int rank = 0; rank < RocmTestDatabase.EVENTS.size(); rank++) {
+            ITmfContext context = fTrace.seekEvent(rank);
+            assertEquals(rank, context.getRank());
+            ITmfEvent event = fTrace.getNext(context);
+            context.dispose();
+            assertNotNull(event);
+            assertEquals(RocmTestDatabase.EVENTS.get(rank), RocmTestDatabase.describe(event, 0));
+        }
+    }
+}
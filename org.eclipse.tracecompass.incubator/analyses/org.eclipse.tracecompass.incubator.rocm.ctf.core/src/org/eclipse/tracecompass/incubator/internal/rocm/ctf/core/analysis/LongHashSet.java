@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.analysis;
+
+/**
+ * Set of primitive longs, with open addressing and linear probing. Removed
+ * keys are not replaced by tombstones: the following keys of the probe
+ * sequence are shifted back instead, so a set where keys are added and
+ * removed all the time does not degrade.
+ *
+ * This class is not thread-safe.
+ */
+public final class LongHashSet extends LongHashTable {
+
+    private boolean fHasEmptyKey = false;
+
+    /**
+     * Constructor
+     */
+    public LongHashSet() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param expectedSize
+     *            The number of keys the set should hold without resizing
+     */
+    public LongHashSet(int expectedSize) {
+        super(expectedSize, false);
+    }
+
+    /**
+     * Add a key to the set
+     *
+     * @param key
+     *            The key to add
+     * @return <code>true</code> if the key was not already in the set
+     */
+    public boolean add(long key) {
+        if (key == EMPTY) {
+            if (fHasEmptyKey) {
+                return false;
+            }
+            fHasEmptyKey = true;
+            addToSize(1);
+            return true;
+        }
+        int slot = find(key);
+        if (slot >= 0) {
+            return false;
+        }
+        insert(~slot, key, 0L);
+        return true;
+    }
+
+    /**
+     * Get whether a key is in the set
+     *
+     * @param key
+     *            The key
+     * @return <code>true</code> if the key is in the set
+     */
+    public boolean contains(long key) {
+        if (key == EMPTY) {
+            return fHasEmptyKey;
+        }
+        return find(key) >= 0;
+    }
+
+    /**
+     * Remove a key from the set
+     *
+     * @param key
+     *            The key to remove
+     * @return <code>true</code> if the key was in the set
+     */
+    public boolean remove(long key) {
+        if (key == EMPTY) {
+            if (!fHasEmptyKey) {
+                return false;
+            }
+            fHasEmptyKey = false;
+            addToSize(-1);
+            return true;
+        }
+        int slot = find(key);
+        if (slot < 0) {
+            return false;
+        }
+        removeSlot(slot);
+        return true;
+    }
+
+    /**
+     * Remove all the keys from the set
+     */
+    public void clear() {
+        clearTable();
+        fHasEmptyKey = false;
+    }
+}
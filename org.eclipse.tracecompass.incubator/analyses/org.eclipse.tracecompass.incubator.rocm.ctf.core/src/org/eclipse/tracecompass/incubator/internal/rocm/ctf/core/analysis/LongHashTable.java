@@ -0,0 +1,223 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.analysis;
+
+import java.util.Arrays;
+
+/**
+ * Table of primitive long keys, with open addressing and linear probing, and
+ * optionally a primitive long value per key. It holds the probing shared by
+ * {@link LongHashSet} and {@link LongLongHashMap}.
+ *
+ * Removed keys are not replaced by tombstones: the following keys of the probe
+ * sequence are shifted back instead, so a table where keys are added and
+ * removed all the time does not degrade. The key 0 marks the empty slots, the
+ * subclasses keep it apart.
+ *
+ * This class is not thread-safe.
+ */
+abstract class LongHashTable {
+
+    /** Smallest capacity of the table */
+    protected static final int MIN_CAPACITY = 16;
+    /** Marks empty slots, the key 0 is tracked separately */
+    protected static final long EMPTY = 0L;
+
+    private static final long[] NO_VALUES = new long[0];
+
+    private final boolean fHasValues;
+    private long[] fKeys;
+    private long[] fValues;
+    private int fMask;
+    private int fSize = 0;
+
+    /**
+     * Constructor
+     *
+     * @param expectedSize
+     *            The number of keys the table should hold without resizing
+     * @param hasValues
+     *            Whether the table holds a value for each key
+     */
+    protected LongHashTable(int expectedSize, boolean hasValues) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        fHasValues = hasValues;
+        fKeys = new long[capacity];
+        fValues = hasValues ? new long[capacity] : NO_VALUES;
+        fMask = capacity - 1;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Find the slot of a key
+     *
+     * @param key
+     *            The key, which is not {@link #EMPTY}
+     * @return The slot of the key if it is in the table, or else the
+     *         complement (<code>~slot</code>) of the slot where it would be
+     *         inserted
+     */
+    protected final int find(long key) {
+        long[] keys = fKeys;
+        int slot = hash(key) & fMask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & fMask;
+        }
+        return ~slot;
+    }
+
+    /**
+     * Insert a key in a free slot, and grow the table if it gets too full
+     *
+     * @param slot
+     *            The free slot, from {@link #find(long)}
+     * @param key
+     *            The key
+     * @param value
+     *            The value of the key, ignored if the table has no values
+     */
+    protected final void insert(int slot, long key, long value) {
+        fKeys[slot] = key;
+        if (fHasValues) {
+            fValues[slot] = value;
+        }
+        fSize++;
+        /* Keep the load factor under 1/2 */
+        if (fSize * 2 > fKeys.length) {
+            rehash(fKeys.length * 2);
+        }
+    }
+
+    /**
+     * Get the value in a slot
+     *
+     * @param slot
+     *            The slot of a key, from {@link #find(long)}
+     * @return The value
+     */
+    protected final long getValue(int slot) {
+        return fValues[slot];
+    }
+
+    /**
+     * Set the value in a slot
+     *
+     * @param slot
+     *            The slot of a key, from {@link #find(long)}
+     * @param value
+     *            The value
+     */
+    protected final void setValue(int slot, long value) {
+        fValues[slot] = value;
+    }
+
+    /**
+     * Remove the key of a slot, and shift back the following keys of the
+     * probe sequence that would no longer be found once this slot is empty
+     *
+     * @param slot
+     *            The slot of a key, from {@link #find(long)}
+     */
+    protected final void removeSlot(int slot) {
+        long[] keys = fKeys;
+        long[] values = fValues;
+        int mask = fMask;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int ideal = hash(keys[next]) & mask;
+            /* Distance from the ideal slot, compared to the hole's */
+            if (((next - ideal) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                if (fHasValues) {
+                    values[hole] = values[next];
+                }
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = EMPTY;
+        fSize--;
+    }
+
+    /**
+     * Count a key kept apart from the table, like {@link #EMPTY}
+     *
+     * @param delta
+     *            1 if the key was added, -1 if it was removed
+     */
+    protected final void addToSize(int delta) {
+        fSize += delta;
+    }
+
+    /**
+     * @return The number of keys
+     */
+    public int size() {
+        return fSize;
+    }
+
+    /**
+     * @return Whether there are no keys
+     */
+    public boolean isEmpty() {
+        return fSize == 0;
+    }
+
+    /**
+     * Remove all the keys of the table
+     */
+    protected void clearTable() {
+        if (fKeys.length > MIN_CAPACITY) {
+            fKeys = new long[MIN_CAPACITY];
+            fValues = fHasValues ? new long[MIN_CAPACITY] : NO_VALUES;
+            fMask = MIN_CAPACITY - 1;
+        } else {
+            Arrays.fill(fKeys, EMPTY);
+        }
+        fSize = 0;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = fKeys;
+        long[] oldValues = fValues;
+        long[] keys = new long[capacity];
+        long[] values = fHasValues ? new long[capacity] : NO_VALUES;
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != EMPTY) {
+                int slot = hash(key) & mask;
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                if (fHasValues) {
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+        fKeys = keys;
+        fValues = values;
+        fMask = mask;
+    }
+}
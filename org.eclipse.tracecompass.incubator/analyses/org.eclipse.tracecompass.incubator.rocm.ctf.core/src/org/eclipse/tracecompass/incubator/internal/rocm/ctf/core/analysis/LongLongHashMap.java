@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.analysis;
+
+/**
+ * Map of primitive longs to primitive longs, with open addressing and linear
+ * probing. Like {@link LongHashSet}, removed entries are not replaced by
+ * tombstones, the following entries of the probe sequence are shifted back
+ * instead.
+ *
+ * This class is not thread-safe.
+ */
+public final class LongLongHashMap extends LongHashTable {
+
+    private boolean fHasEmptyKey = false;
+    private long fEmptyKeyValue = 0L;
+
+    /**
+     * Constructor
+     */
+    public LongLongHashMap() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param expectedSize
+     *            The number of entries the map should hold without resizing
+     */
+    public LongLongHashMap(int expectedSize) {
+        super(expectedSize, true);
+    }
+
+    /**
+     * Get the value of a key
+     *
+     * @param key
+     *            The key
+     * @param defaultValue
+     *            The value to return if the key is not in the map
+     * @return The value of the key, or the default value
+     */
+    public long get(long key, long defaultValue) {
+        if (key == EMPTY) {
+            return fHasEmptyKey ? fEmptyKeyValue : defaultValue;
+        }
+        int slot = find(key);
+        return (slot >= 0) ? getValue(slot) : defaultValue;
+    }
+
+    /**
+     * Get whether a key is in the map
+     *
+     * @param key
+     *            The key
+     * @return <code>true</code> if the key is in the map
+     */
+    public boolean containsKey(long key) {
+        if (key == EMPTY) {
+            return fHasEmptyKey;
+        }
+        return find(key) >= 0;
+    }
+
+    /**
+     * Set the value of a key
+     *
+     * @param key
+     *            The key
+     * @param value
+     *            The value
+     */
+    public void put(long key, long value) {
+        if (key == EMPTY) {
+            if (!fHasEmptyKey) {
+                fHasEmptyKey = true;
+                addToSize(1);
+            }
+            fEmptyKeyValue = value;
+            return;
+        }
+        int slot = find(key);
+        if (slot >= 0) {
+            setValue(slot, value);
+        } else {
+            insert(~slot, key, value);
+        }
+    }
+
+    /**
+     * Remove a key from the map
+     *
+     * @param key
+     *            The key to remove
+     * @param defaultValue
+     *            The value to return if the key is not in the map
+     * @return The value the key had, or the default value
+     */
+    public long remove(long key, long defaultValue) {
+        if (key == EMPTY) {
+            if (!fHasEmptyKey) {
+                return defaultValue;
+            }
+            fHasEmptyKey = false;
+            addToSize(-1);
+            return fEmptyKeyValue;
+        }
+        int slot = find(key);
+        if (slot < 0) {
+            return defaultValue;
+        }
+        long value = getValue(slot);
+        removeSlot(slot);
+        return value;
+    }
+
+    /**
+     * Remove all the entries from the map
+     */
+    public void clear() {
+        clearTable();
+        fHasEmptyKey = false;
+    }
+}
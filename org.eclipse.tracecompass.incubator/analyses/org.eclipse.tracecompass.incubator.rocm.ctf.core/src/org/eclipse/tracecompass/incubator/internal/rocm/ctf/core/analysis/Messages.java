@@ -0,0 +1,58 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.analysis;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.osgi.util.NLS;
+
+/**
+ * Messages for the ROCm analyses
+ */
+public class Messages extends NLS {
+
+    private static final String BUNDLE_NAME = "org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.analysis.messages"; //$NON-NLS-1$
+
+    /** Kernel name aspect name */
+    public static @Nullable String RocmGpuLatency_NameAspect;
+    /** Kernel name aspect help text */
+    public static @Nullable String RocmGpuLatency_NameAspectHelp;
+    /** GPU aspect name */
+    public static @Nullable String RocmGpuLatency_GpuAspect;
+    /** GPU aspect help text */
+    public static @Nullable String RocmGpuLatency_GpuAspectHelp;
+    /** Queue aspect name */
+    public static @Nullable String RocmGpuLatency_QueueAspect;
+    /** Queue aspect help text */
+    public static @Nullable String RocmGpuLatency_QueueAspectHelp;
+    /** Grid size aspect name */
+    public static @Nullable String RocmGpuLatency_GridSizeAspect;
+    /** Grid size aspect help text */
+    public static @Nullable String RocmGpuLatency_GridSizeAspectHelp;
+    /** Dispatch latency aspect name */
+    public static @Nullable String RocmGpuLatency_DispatchLatencyAspect;
+    /** Dispatch latency aspect help text */
+    public static @Nullable String RocmGpuLatency_DispatchLatencyAspectHelp;
+
+    static {
+        NLS.initializeMessages(BUNDLE_NAME, Messages.class);
+    }
+
+    private Messages() {
+    }
+
+    /**
+     * Helper method to expose externalized strings as non-null objects.
+     */
+    static String getMessage(@Nullable String msg) {
+        return (msg == null) ? "" : msg; //$NON-NLS-1$
+    }
+}
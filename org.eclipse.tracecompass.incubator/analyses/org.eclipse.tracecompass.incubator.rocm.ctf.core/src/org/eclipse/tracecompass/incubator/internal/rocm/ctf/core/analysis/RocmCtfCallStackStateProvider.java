@@ -8,20 +8,42 @@
  *******************************************************************************/
 package org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.analysis;
 
-import java.util.List;
-import java.util.LinkedList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.analysis.os.linux.core.model.HostThread;
+import org.eclipse.tracecompass.incubator.callstack.core.base.EdgeStateValue;
+import org.eclipse.tracecompass.incubator.rocm.ctf.core.trace.RocmCtfTrace;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
-import org.eclipse.tracecompass.tmf.core.event.ITmfEventField;
 import org.eclipse.tracecompass.tmf.core.statesystem.AbstractTmfStateProvider;
 import org.eclipse.tracecompass.tmf.core.statesystem.ITmfStateProvider;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTraceWithPreDefinedEvents;
+import org.eclipse.tracecompass.tmf.core.trace.TmfEventTypeCollectionHelper;
+import org.eclipse.tracecompass.tmf.core.trace.experiment.TmfExperiment;
 
 /**
- * @author Arnaud Fiorini
+ * State provider of the ROCm call stacks.
+ *
+ * Each lane of the call stacks has a pseudo thread id, the quark of the lane,
+ * so that the flow arrows can be attached to it. When the HIP API calls have
+ * the correlation id of the operations they launch, arrows are added to the
+ * {@link #EDGES_LANE} from each launching call to the start of the HCC
+ * operation with the same id, so the length of the arrows is the launch
+ * latency. The kernels and the copies have no link to the calls in the
+ * trace, they have no arrows.
  *
+ * When the trace is an experiment with the traces of the ranks of an MPI job,
+ * the API calls of each rank are in their own process and the GPUs are grouped
+ * by node, with a lane per queue and rank.
+ *
+ * @author Arnaud Fiorini
  */
 public class RocmCtfCallStackStateProvider extends AbstractTmfStateProvider {
 
@@ -38,7 +60,108 @@ public class RocmCtfCallStackStateProvider extends AbstractTmfStateProvider {
     static final @NonNull String ROCTX = "roctx"; //$NON-NLS-1$
     static final @NonNull String ASYNC_COPY = "async_copy"; //$NON-NLS-1$
 
-    final List<Long> currentKernelDispatched = new LinkedList<>();
+    private static final int NO_QUARK = -1;
+    private static final String CALL_STACK = "CallStack"; //$NON-NLS-1$
+    private static final String GPU_ACTIVITY = "GPU Activity"; //$NON-NLS-1$
+    private static final String SYSTEM = "System"; //$NON-NLS-1$
+
+    /* Fields of the kernel events */
+    private static final int KERNEL_NAME = 0;
+    private static final int KERNEL_DISPATCH_ID = 1;
+    private static final int GPU_ID = 2;
+    private static final int QUEUE_ID = 3;
+    /* Fields of the other events */
+    private static final int NAME = 0;
+    private static final int CORRELATION_ID = 1;
+    private static final long NO_ID = -1;
+
+    /* Prefixes and part of the names of the HIP calls that enqueue an operation */
+    private static final String MEMCPY_PREFIX = "hipMemcpy"; //$NON-NLS-1$
+    private static final String MEMSET_PREFIX = "hipMemset"; //$NON-NLS-1$
+    private static final String LAUNCH = "Launch"; //$NON-NLS-1$
+
+    private static final int ID_BITS = 32;
+    private static final long MAX_ID = (1L << ID_BITS) - 1;
+
+    private final RocmFieldReader fKernelFields = new RocmFieldReader("kernel_name", "kernel_dispatch_id", "gpu_id", "queue_id"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+    private final RocmFieldReader fNameField = new RocmFieldReader("name"); //$NON-NLS-1$
+    private final RocmFieldReader fHipFields = new RocmFieldReader("name", "correlation_id"); //$NON-NLS-1$ //$NON-NLS-2$
+    private final RocmFieldReader fOpsFields = new RocmFieldReader("name", "index"); //$NON-NLS-1$ //$NON-NLS-2$
+
+    /*
+     * The quarks of the edge lanes and the end time of their last edge, in a
+     * binary min-heap by end time. A lane can hold a new edge that starts after
+     * this time, so the lane at the top of the heap is free if any lane is.
+     */
+    private int[] fEdgeQuarks = new int[0];
+    private long[] fEdgeEnds = new long[0];
+    private int fEdgeRootQuark = NO_QUARK;
+
+    /*
+     * The state of each trace of an experiment. The events of a trace tend to
+     * come in bursts, so the state of the last trace is kept at hand.
+     */
+    private final Map<ITmfTrace, TraceState> fTraceStates = new HashMap<>();
+    private @Nullable ITmfTrace fLastTrace;
+    private @Nullable TraceState fLastState;
+
+    /**
+     * The state of the call stacks of a single trace, that is of a single
+     * process
+     */
+    private static final class TraceState {
+
+        /* Names of the processes and suffix of the GPU lanes */
+        private final String fSystemName;
+        private final String fGpuActivityName;
+        private final String fLaneSuffix;
+
+        /**
+         * Dispatch ids of the kernels that are running. A kernel has an event
+         * when it starts and one when it ends, with the same dispatch id, so
+         * the id is removed when the end is seen and the set only holds the
+         * kernels in flight.
+         */
+        private final LongHashSet fRunningKernels = new LongHashSet();
+
+        /**
+         * Start time of the HIP API calls that enqueue an operation, by
+         * correlation id, until the operation starts. The other calls have no
+         * operation to remove their time.
+         */
+        private final LongLongHashMap fLaunchTimes = new LongLongHashMap();
+
+        /*
+         * Whether the trace has the operations, the launch times are only kept
+         * if they can be removed
+         */
+        private final boolean fHasOps;
+
+        /*
+         * The quarks of the call stacks, resolved the first time they are
+         * needed. The quarks of the queues are keyed by the GPU id in the high
+         * bits and the queue id in the low bits.
+         */
+        private final LongLongHashMap fQueueQuarks = new LongLongHashMap();
+        private int fGpuActivityQuark = NO_QUARK;
+        private int fGpuKernelsQuark = NO_QUARK;
+        private int fMemoryTransfersQuark = NO_QUARK;
+        private int fHsaApiQuark = NO_QUARK;
+        private int fHipApiQuark = NO_QUARK;
+        private int fKfdApiQuark = NO_QUARK;
+
+        public TraceState(ITmfTrace trace, String systemName, String gpuActivityName, String laneSuffix) {
+            fSystemName = systemName;
+            fGpuActivityName = gpuActivityName;
+            fLaneSuffix = laneSuffix;
+            if (trace instanceof ITmfTraceWithPreDefinedEvents) {
+                Set<String> eventNames = TmfEventTypeCollectionHelper.getEventNames(((ITmfTraceWithPreDefinedEvents) trace).getContainedEventTypes());
+                fHasOps = eventNames.contains(HCC_OPS);
+            } else {
+                fHasOps = true;
+            }
+        }
+    }
 
     /**
      * @param trace Trace to follow
@@ -49,7 +172,7 @@ public class RocmCtfCallStackStateProvider extends AbstractTmfStateProvider {
 
     @Override
     public int getVersion() {
-        return 1;
+        return 4;
     }
 
     @Override
@@ -59,80 +182,266 @@ public class RocmCtfCallStackStateProvider extends AbstractTmfStateProvider {
 
     @Override
     protected void eventHandle(ITmfEvent event) {
-        ITmfEventField content = event.getContent();
-        if (content == null) {
-            return;
-        }
         ITmfStateSystemBuilder ssb = getStateSystemBuilder();
         if (ssb == null) {
             return;
         }
-        int callStackQuark = getCorrectQuark(ssb, event);
-        if (callStackQuark == -1) {
-            return;
-        }
+        TraceState state = getTraceState(event.getTrace());
         long timestamp = event.getTimestamp().toNanos();
-        String eventName;
-        if (event.getName().equals(GPU_KERNEL)) {
-            eventName = (String) content.getField("kernel_name").getValue(); //$NON-NLS-1$
-            long eventDispatchId = (long) content.getField("kernel_dispatch_id").getValue(); //$NON-NLS-1$
-            if (currentKernelDispatched.contains(eventDispatchId)) {
-                ssb.popAttribute(timestamp, callStackQuark);
-            } else {
-                currentKernelDispatched.add(eventDispatchId);
-                ssb.pushAttribute(timestamp, eventName, callStackQuark);
-            }
-        } else {
-            eventName = (String) content.getField("name").getValue(); //$NON-NLS-1$
-            if (eventName.endsWith("_exit")) { //$NON-NLS-1$
-                ssb.popAttribute(timestamp, callStackQuark);
-            } else {
-                ssb.pushAttribute(timestamp, eventName.substring(0, eventName.length()-6), callStackQuark);
-            }
-        }
-
-    }
-
-    private static int getCorrectQuark(ITmfStateSystemBuilder ssb, @NonNull ITmfEvent event) {
         switch (event.getName()) {
+        case GPU_KERNEL:
+            handleKernel(ssb, state, event, timestamp);
+            break;
         case HSA_API:
+            if (state.fHsaApiQuark == NO_QUARK) {
+                state.fHsaApiQuark = getApiCallStackQuark(ssb, state, HSA_API);
+            }
+            handleApi(ssb, event, timestamp, state.fHsaApiQuark);
+            break;
         case HIP_API:
+            if (state.fHipApiQuark == NO_QUARK) {
+                state.fHipApiQuark = getApiCallStackQuark(ssb, state, HIP_API);
+            }
+            fHipFields.read(event);
+            if (handleCall(ssb, fHipFields, timestamp, state.fHipApiQuark) && state.fHasOps && isLaunch(fHipFields.getString(NAME))) {
+                long correlationId = fHipFields.getLong(CORRELATION_ID, NO_ID);
+                if (correlationId != NO_ID) {
+                    state.fLaunchTimes.put(correlationId, timestamp);
+                }
+            }
+            break;
         case KFD_API:
-            return getApiCallStackQuark(ssb, event);
-        case ASYNC_COPY:
-        case GPU_KERNEL:
+            if (state.fKfdApiQuark == NO_QUARK) {
+                state.fKfdApiQuark = getApiCallStackQuark(ssb, state, KFD_API);
+            }
+            handleApi(ssb, event, timestamp, state.fKfdApiQuark);
+            break;
         case HCC_OPS:
+            if (state.fGpuKernelsQuark == NO_QUARK) {
+                state.fGpuKernelsQuark = getGpuActivityCallStackQuark(ssb, state, "GPU Kernels"); //$NON-NLS-1$
+            }
+            fOpsFields.read(event);
+            if (handleCall(ssb, fOpsFields, timestamp, state.fGpuKernelsQuark) && state.fHipApiQuark != NO_QUARK) {
+                long correlationId = fOpsFields.getLong(CORRELATION_ID, NO_ID);
+                long launchTime = state.fLaunchTimes.remove(correlationId, NO_ID);
+                if (launchTime != NO_ID) {
+                    addEdge(ssb, correlationId, state.fHipApiQuark, launchTime, state.fGpuKernelsQuark, timestamp);
+                }
+            }
+            break;
+        case ASYNC_COPY:
+            if (state.fMemoryTransfersQuark == NO_QUARK) {
+                state.fMemoryTransfersQuark = getGpuActivityCallStackQuark(ssb, state, "Memory Transfers"); //$NON-NLS-1$
+            }
+            handleApi(ssb, event, timestamp, state.fMemoryTransfersQuark);
+            break;
         case ROCTX:
-            return getGpuActivityCallStackQuark(ssb, event);
+            if (state.fMemoryTransfersQuark == NO_QUARK) {
+                state.fMemoryTransfersQuark = getGpuActivityCallStackQuark(ssb, state, "Memory Transfers"); //$NON-NLS-1$
+            }
+            handleApi(ssb, event, timestamp, state.fMemoryTransfersQuark);
+            break;
         default:
-            return -1;
-        }
-    }
-
-    private static int getGpuActivityCallStackQuark(ITmfStateSystemBuilder ssb, @NonNull ITmfEvent event) {
-        int gpuActivity = ssb.getQuarkAbsoluteAndAdd(PROCESSES, "GPU Activity"); //$NON-NLS-1$
-        if (event.getName().equals(GPU_KERNEL)) {
-            long queueId = (long) event.getContent().getField("queue_id").getValue(); //$NON-NLS-1$
-            long gpuId = (long) event.getContent().getField("gpu_id").getValue(); //$NON-NLS-1$
-            int queueQuark = ssb.getQuarkRelativeAndAdd(gpuActivity, "GPU " + Long.toString(gpuId)  //$NON-NLS-1$
-                + " Queue " + Long.toString(queueId)); //$NON-NLS-1$
-            int callStackQuark = ssb.getQuarkRelativeAndAdd(queueQuark, "CallStack"); //$NON-NLS-1$
-            return callStackQuark;
-        } else if (event.getName().equals(HCC_OPS)) {
-            int gpuQuark = ssb.getQuarkRelativeAndAdd(gpuActivity, "GPU Kernels"); //$NON-NLS-1$
-            int callStackQuark = ssb.getQuarkRelativeAndAdd(gpuQuark, "CallStack"); //$NON-NLS-1$
-            return callStackQuark;
-        }
-        int copyQuark = ssb.getQuarkRelativeAndAdd(gpuActivity, "Memory Transfers"); //$NON-NLS-1$
-        int callStackQuark = ssb.getQuarkRelativeAndAdd(copyQuark, "CallStack"); //$NON-NLS-1$
-        return callStackQuark;
+            break;
+        }
+    }
+
+    private TraceState getTraceState(ITmfTrace trace) {
+        TraceState state = fLastState;
+        if (state != null && trace == fLastTrace) {
+            return state;
+        }
+        state = fTraceStates.computeIfAbsent(trace, this::createTraceState);
+        fLastTrace = trace;
+        fLastState = state;
+        return state;
+    }
+
+    private TraceState createTraceState(ITmfTrace trace) {
+        if (!(getTrace() instanceof TmfExperiment)) {
+            return new TraceState(trace, SYSTEM, GPU_ACTIVITY, ""); //$NON-NLS-1$
+        }
+        /*
+         * The ranks of a node share its GPUs, so the GPU activity is grouped by
+         * node and each rank has its own lanes.
+         */
+        int rank = (trace instanceof RocmCtfTrace) ? ((RocmCtfTrace) trace).getRank() : -1;
+        String process = (rank >= 0) ? "rank " + rank : trace.getName(); //$NON-NLS-1$
+        return new TraceState(trace, SYSTEM + " (" + process + ')', //$NON-NLS-1$
+                GPU_ACTIVITY + " (" + trace.getHostId() + ')', //$NON-NLS-1$
+                " (" + process + ')'); //$NON-NLS-1$
+    }
+
+    private void handleKernel(ITmfStateSystemBuilder ssb, TraceState state, ITmfEvent event, long timestamp) {
+        RocmFieldReader fields = fKernelFields;
+        fields.read(event);
+        int callStackQuark = getQueueCallStackQuark(ssb, state, fields.getLong(GPU_ID, 0), fields.getLong(QUEUE_ID, 0));
+        long eventDispatchId = fields.getLong(KERNEL_DISPATCH_ID, -1);
+        if (state.fRunningKernels.remove(eventDispatchId)) {
+            ssb.popAttribute(timestamp, callStackQuark);
+        } else {
+            state.fRunningKernels.add(eventDispatchId);
+            String kernelName = fields.getString(KERNEL_NAME);
+            ssb.pushAttribute(timestamp, (kernelName == null) ? "" : kernelName, callStackQuark); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Whether a HIP call enqueues an operation: a kernel launch, a copy or a
+     * fill of memory
+     */
+    private static boolean isLaunch(@Nullable String callName) {
+        return callName != null && (callName.startsWith(MEMCPY_PREFIX) || callName.startsWith(MEMSET_PREFIX) || callName.contains(LAUNCH));
+    }
+
+    private void handleApi(ITmfStateSystemBuilder ssb, ITmfEvent event, long timestamp, int callStackQuark) {
+        fNameField.read(event);
+        handleCall(ssb, fNameField, timestamp, callStackQuark);
+    }
+
+    /**
+     * Push or pop a call from the name field of the event last read by the
+     * reader
+     *
+     * @return Whether the call was pushed
+     */
+    private static boolean handleCall(ITmfStateSystemBuilder ssb, RocmFieldReader fields, long timestamp, int callStackQuark) {
+        String eventName = fields.getString(NAME);
+        if (eventName == null) {
+            return false;
+        }
+        if (eventName.endsWith("_exit")) { //$NON-NLS-1$
+            ssb.popAttribute(timestamp, callStackQuark);
+            return false;
+        }
+        ssb.pushAttribute(timestamp, eventName.substring(0, eventName.length()-6), callStackQuark);
+        return true;
+    }
+
+    /**
+     * Add an edge between the lanes of two call stacks. Each edge lane holds
+     * one edge at a time, so the edges intersecting a time range are read with
+     * a single 2D query on the edge lanes.
+     */
+    private void addEdge(ITmfStateSystemBuilder ssb, long id, int srcCallStackQuark, long srcTime, int dstCallStackQuark, long dstTime) {
+        int edgeQuark = getAvailableEdgeQuark(ssb, srcTime, dstTime);
+        String hostId = getTrace().getHostId();
+        HostThread src = new HostThread(hostId, ssb.getParentAttributeQuark(srcCallStackQuark));
+        HostThread dst = new HostThread(hostId, ssb.getParentAttributeQuark(dstCallStackQuark));
+        ssb.modifyAttribute(srcTime, new EdgeStateValue(id, src, dst), edgeQuark);
+        ssb.modifyAttribute(dstTime, (Object) null, edgeQuark);
+    }
+
+    private int getAvailableEdgeQuark(ITmfStateSystemBuilder ssb, long startTime, long endTime) {
+        int[] quarks = fEdgeQuarks;
+        if (quarks.length > 0 && fEdgeEnds[0] <= startTime) {
+            int quark = quarks[0];
+            replaceTopEdgeLane(quark, endTime);
+            return quark;
+        }
+        if (fEdgeRootQuark == NO_QUARK) {
+            fEdgeRootQuark = ssb.getQuarkAbsoluteAndAdd(EDGES_LANE);
+        }
+        int quark = ssb.getQuarkRelativeAndAdd(fEdgeRootQuark, Integer.toString(quarks.length));
+        fEdgeQuarks = Arrays.copyOf(quarks, quarks.length + 1);
+        fEdgeEnds = Arrays.copyOf(fEdgeEnds, quarks.length + 1);
+        addEdgeLane(quarks.length, quark, endTime);
+        return quark;
+    }
+
+    /**
+     * Put a new lane at the end of the heap and move it up to its place
+     */
+    private void addEdgeLane(int index, int quark, long endTime) {
+        int[] quarks = fEdgeQuarks;
+        long[] ends = fEdgeEnds;
+        int i = index;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (ends[parent] <= endTime) {
+                break;
+            }
+            quarks[i] = quarks[parent];
+            ends[i] = ends[parent];
+            i = parent;
+        }
+        quarks[i] = quark;
+        ends[i] = endTime;
+    }
+
+    /**
+     * Replace the end time of the lane at the top of the heap, which can only
+     * grow, and move the lane down to its place
+     */
+    private void replaceTopEdgeLane(int quark, long endTime) {
+        int[] quarks = fEdgeQuarks;
+        long[] ends = fEdgeEnds;
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= quarks.length) {
+                break;
+            }
+            if (child + 1 < quarks.length && ends[child + 1] < ends[child]) {
+                child++;
+            }
+            if (endTime <= ends[child]) {
+                break;
+            }
+            quarks[i] = quarks[child];
+            ends[i] = ends[child];
+            i = child;
+        }
+        quarks[i] = quark;
+        ends[i] = endTime;
+    }
+
+    /**
+     * Get the call stack quark of a lane, creating the lane if needed. The
+     * value of the lane is its pseudo thread id.
+     */
+    private static int getLaneCallStackQuark(ITmfStateSystemBuilder ssb, int parentQuark, String lane) {
+        int laneQuark = ssb.optQuarkRelative(parentQuark, lane);
+        if (laneQuark == ITmfStateSystem.INVALID_ATTRIBUTE) {
+            laneQuark = ssb.getQuarkRelativeAndAdd(parentQuark, lane);
+            ssb.modifyAttribute(ssb.getStartTime(), laneQuark, laneQuark);
+        }
+        return ssb.getQuarkRelativeAndAdd(laneQuark, CALL_STACK);
     }
 
-    private static int getApiCallStackQuark(ITmfStateSystemBuilder ssb, @NonNull ITmfEvent event) {
-        int systemQuark = ssb.getQuarkAbsoluteAndAdd(PROCESSES, "System"); //$NON-NLS-1$
-        int apiQuark = ssb.getQuarkRelativeAndAdd(systemQuark, event.getName().toUpperCase());
-        int callStackQuark = ssb.getQuarkRelativeAndAdd(apiQuark, "CallStack"); //$NON-NLS-1$
+    private static int getGpuActivityQuark(ITmfStateSystemBuilder ssb, TraceState state) {
+        if (state.fGpuActivityQuark == NO_QUARK) {
+            state.fGpuActivityQuark = ssb.getQuarkAbsoluteAndAdd(PROCESSES, state.fGpuActivityName);
+        }
+        return state.fGpuActivityQuark;
+    }
+
+    private static int getQueueCallStackQuark(ITmfStateSystemBuilder ssb, TraceState state, long gpuId, long queueId) {
+        if (gpuId < 0 || gpuId > MAX_ID || queueId < 0 || queueId > MAX_ID) {
+            /* The ids do not fit in the key, do not cache this queue */
+            return createQueueCallStackQuark(ssb, state, gpuId, queueId);
+        }
+        long key = (gpuId << ID_BITS) | queueId;
+        int callStackQuark = (int) state.fQueueQuarks.get(key, NO_QUARK);
+        if (callStackQuark == NO_QUARK) {
+            callStackQuark = createQueueCallStackQuark(ssb, state, gpuId, queueId);
+            state.fQueueQuarks.put(key, callStackQuark);
+        }
         return callStackQuark;
     }
 
+    private static int createQueueCallStackQuark(ITmfStateSystemBuilder ssb, TraceState state, long gpuId, long queueId) {
+        return getLaneCallStackQuark(ssb, getGpuActivityQuark(ssb, state), "GPU " + Long.toString(gpuId)  //$NON-NLS-1$
+            + " Queue " + Long.toString(queueId) + state.fLaneSuffix); //$NON-NLS-1$
+    }
+
+    private static int getGpuActivityCallStackQuark(ITmfStateSystemBuilder ssb, TraceState state, String activity) {
+        return getLaneCallStackQuark(ssb, getGpuActivityQuark(ssb, state), activity + state.fLaneSuffix);
+    }
+
+    private static int getApiCallStackQuark(ITmfStateSystemBuilder ssb, TraceState state, String eventName) {
+        int systemQuark = ssb.getQuarkAbsoluteAndAdd(PROCESSES, state.fSystemName);
+        return getLaneCallStackQuark(ssb, systemQuark, eventName.toUpperCase());
+    }
+
 }
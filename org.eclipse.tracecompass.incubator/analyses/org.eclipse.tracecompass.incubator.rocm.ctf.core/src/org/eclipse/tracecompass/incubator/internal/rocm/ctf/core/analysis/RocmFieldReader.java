@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.analysis;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.ctf.core.event.types.Definition;
+import org.eclipse.tracecompass.ctf.core.event.types.ICompositeDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.StringDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDefinition;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEventField;
+import org.eclipse.tracecompass.tmf.ctf.core.event.CtfTmfEvent;
+
+/**
+ * Reads a fixed set of payload fields from ROCm events.
+ *
+ * Getting the content of a CTF event converts all its fields, and looking up a
+ * field by name builds a map of the fields, for each event. For CTF events,
+ * this reader resolves the position of its fields once per event declaration
+ * and then reads the values directly from the event definition. Other events
+ * are read from their content.
+ *
+ * This class is not thread-safe, the values are those of the last event
+ * passed to {@link #read(ITmfEvent)}.
+ */
+final class RocmFieldReader {
+
+    private final String[] fNames;
+    /* Position of the fields in each event declaration, -1 if absent */
+    private final Map<StructDeclaration, int[]> fPositions = new IdentityHashMap<>();
+
+    private @Nullable StructDeclaration fLastDeclaration = null;
+    private int[] fLastPositions = new int[0];
+
+    private @Nullable StructDefinition fFields = null;
+    private @Nullable ITmfEventField fContent = null;
+
+    /**
+     * Constructor
+     *
+     * @param names
+     *            The names of the fields to read, they are then accessed by
+     *            their position in this array
+     */
+    public RocmFieldReader(String... names) {
+        fNames = names;
+    }
+
+    /**
+     * Prepare to read the fields of an event
+     *
+     * @param event
+     *            The event to read
+     */
+    public void read(ITmfEvent event) {
+        fFields = null;
+        fContent = null;
+        if (event instanceof CtfTmfEvent) {
+            ICompositeDefinition fields = ((CtfTmfEvent) event).getEventFields();
+            if (fields instanceof StructDefinition) {
+                StructDefinition struct = (StructDefinition) fields;
+                StructDeclaration declaration = struct.getDeclaration();
+                if (declaration != fLastDeclaration) {
+                    fLastPositions = fPositions.computeIfAbsent(declaration, d -> resolve(struct.getFieldNames()));
+                    fLastDeclaration = declaration;
+                }
+                fFields = struct;
+                return;
+            }
+        }
+        fContent = event.getContent();
+    }
+
+    private int[] resolve(List<String> fieldNames) {
+        int[] positions = new int[fNames.length];
+        for (int i = 0; i < fNames.length; i++) {
+            positions[i] = fieldNames.indexOf(fNames[i]);
+        }
+        return positions;
+    }
+
+    private @Nullable Object getContentValue(int field) {
+        ITmfEventField content = fContent;
+        if (content == null) {
+            return null;
+        }
+        ITmfEventField eventField = content.getField(fNames[field]);
+        return (eventField == null) ? null : eventField.getValue();
+    }
+
+    private @Nullable Definition getDefinition(StructDefinition fields, int field) {
+        int position = fLastPositions[field];
+        return (position < 0) ? null : fields.getDefinition(position);
+    }
+
+    /**
+     * Get the value of an integer field of the current event
+     *
+     * @param field
+     *            The position of the field in the names given to the
+     *            constructor
+     * @param defaultValue
+     *            The value to return if the event does not have this integer
+     *            field
+     * @return The value of the field
+     */
+    public long getLong(int field, long defaultValue) {
+        StructDefinition fields = fFields;
+        if (fields != null) {
+            Definition definition = getDefinition(fields, field);
+            return (definition instanceof IntegerDefinition) ? ((IntegerDefinition) definition).getValue() : defaultValue;
+        }
+        Object value = getContentValue(field);
+        return (value instanceof Number) ? ((Number) value).longValue() : defaultValue;
+    }
+
+    /**
+     * Get the value of a string field of the current event
+     *
+     * @param field
+     *            The position of the field in the names given to the
+     *            constructor
+     * @return The value of the field, or <code>null</code> if the event does
+     *         not have this string field
+     */
+    public @Nullable String getString(int field) {
+        StructDefinition fields = fFields;
+        if (fields != null) {
+            Definition definition = getDefinition(fields, field);
+            return (definition instanceof StringDefinition) ? ((StringDefinition) definition).getValue() : null;
+        }
+        Object value = getContentValue(field);
+        return (value instanceof String) ? (String) value : null;
+    }
+}
@@ -0,0 +1,42 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.analysis;
+
+import java.util.Objects;
+
+import org.eclipse.tracecompass.tmf.core.statesystem.ITmfStateProvider;
+import org.eclipse.tracecompass.tmf.core.statesystem.TmfStateSystemAnalysisModule;
+
+/**
+ * GPU occupancy analysis of ROCm traces: the number of kernels, HCC
+ * operations and memory copies in flight, and whether the GPUs are busy, over
+ * time.
+ *
+ * @see RocmGpuCountersStateProvider
+ */
+public class RocmGpuCountersAnalysis extends TmfStateSystemAnalysisModule {
+
+    /**
+     * GPU counters analysis ID
+     */
+    public static final String ID = "org.eclipse.tracecompass.incubator.rocm.ctf.core.analysis.gpucounters"; //$NON-NLS-1$
+
+    @Override
+    protected ITmfStateProvider createStateProvider() {
+        return new RocmGpuCountersStateProvider(Objects.requireNonNull(getTrace()));
+    }
+
+    @Override
+    public String getId() {
+        return ID;
+    }
+}
@@ -0,0 +1,192 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.analysis;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.internal.tmf.core.model.filters.FetchParametersUtils;
+import org.eclipse.tracecompass.internal.tmf.core.model.xy.AbstractTreeCommonXDataProvider;
+import org.eclipse.tracecompass.internal.tmf.core.statesystem.mipmap.AbstractTmfMipmapStateProvider;
+import org.eclipse.tracecompass.internal.tmf.core.statesystem.mipmap.TmfStateSystemOperations;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
+import org.eclipse.tracecompass.statesystem.core.exceptions.AttributeNotFoundException;
+import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
+import org.eclipse.tracecompass.statesystem.core.exceptions.StateValueTypeException;
+import org.eclipse.tracecompass.tmf.core.model.YModel;
+import org.eclipse.tracecompass.tmf.core.model.filters.SelectionTimeQueryFilter;
+import org.eclipse.tracecompass.tmf.core.model.tree.TmfTreeDataModel;
+import org.eclipse.tracecompass.tmf.core.model.tree.TmfTreeModel;
+import org.eclipse.tracecompass.tmf.core.model.xy.IYModel;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceUtils;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+
+/**
+ * XY data provider of the GPU counters of a ROCm trace.
+ *
+ * The value of a mipmapped counter at a requested time is its average since
+ * the previous requested time, so the busy attributes give the busy ratio of
+ * each interval. Averages are read from the mipmap levels, so the cost of a
+ * query does not depend on the number of kernels in the range. The value of
+ * the cumulative byte counter is the number of bytes copied since the
+ * previous requested time.
+ */
+@SuppressWarnings("restriction")
+public class RocmGpuCountersDataProvider extends AbstractTreeCommonXDataProvider<RocmGpuCountersAnalysis, TmfTreeDataModel> {
+
+    /**
+     * This data provider's extension point ID
+     */
+    public static final String ID = "org.eclipse.tracecompass.incubator.rocm.ctf.core.analysis.gpucounters.dataprovider"; //$NON-NLS-1$
+
+    /** Chart title */
+    static final String TITLE = "ROCm GPU Counters"; //$NON-NLS-1$
+
+    /* Sub-attributes of the mipmapped attributes, they are not series */
+    private static final Collection<String> MIPMAP_ATTRIBUTES = ImmutableSet.of(AbstractTmfMipmapStateProvider.MAX_STRING,
+            AbstractTmfMipmapStateProvider.MIN_STRING, AbstractTmfMipmapStateProvider.AVG_STRING);
+
+    /**
+     * Create an instance of {@link RocmGpuCountersDataProvider}
+     *
+     * @param trace
+     *            A trace on which we are interested to fetch a model
+     * @return The data provider, or <code>null</code> if the trace does not
+     *         have the GPU counters analysis
+     */
+    public static @Nullable RocmGpuCountersDataProvider create(ITmfTrace trace) {
+        RocmGpuCountersAnalysis module = TmfTraceUtils.getAnalysisModuleOfClass(trace, RocmGpuCountersAnalysis.class, RocmGpuCountersAnalysis.ID);
+        if (module == null) {
+            return null;
+        }
+        module.schedule();
+        return new RocmGpuCountersDataProvider(trace, module);
+    }
+
+    private RocmGpuCountersDataProvider(ITmfTrace trace, RocmGpuCountersAnalysis analysis) {
+        super(trace, analysis);
+    }
+
+    @Override
+    protected TmfTreeModel<TmfTreeDataModel> getTree(ITmfStateSystem ss, Map<String, Object> parameters, @Nullable IProgressMonitor monitor) {
+        List<TmfTreeDataModel> entries = new ArrayList<>();
+        long rootId = getId(ITmfStateSystem.ROOT_ATTRIBUTE);
+        entries.add(new TmfTreeDataModel(rootId, -1, Collections.singletonList(getTrace().getName())));
+        addEntries(ss, rootId, ITmfStateSystem.ROOT_ATTRIBUTE, entries);
+        return new TmfTreeModel<>(Collections.emptyList(), entries);
+    }
+
+    private void addEntries(ITmfStateSystem ss, long parentId, int quark, List<TmfTreeDataModel> entries) {
+        for (int childQuark : ss.getSubAttributes(quark, false)) {
+            String name = ss.getAttributeName(childQuark);
+            if (MIPMAP_ATTRIBUTES.contains(name)) {
+                continue;
+            }
+            long id = getId(childQuark);
+            entries.add(new TmfTreeDataModel(id, parentId, Collections.singletonList(name)));
+            addEntries(ss, id, childQuark, entries);
+        }
+    }
+
+    @Deprecated
+    @Override
+    protected @Nullable Map<String, IYModel> getYModels(ITmfStateSystem ss, Map<String, Object> fetchParameters, @Nullable IProgressMonitor monitor) throws StateSystemDisposedException {
+        Collection<IYModel> models = getYSeriesModels(ss, fetchParameters, monitor);
+        return (models == null) ? null : Maps.uniqueIndex(models, IYModel::getName);
+    }
+
+    @Override
+    protected @Nullable Collection<IYModel> getYSeriesModels(ITmfStateSystem ss, Map<String, Object> fetchParameters, @Nullable IProgressMonitor monitor) throws StateSystemDisposedException {
+        SelectionTimeQueryFilter filter = FetchParametersUtils.createSelectionTimeQuery(fetchParameters);
+        if (filter == null) {
+            return Collections.emptyList();
+        }
+        long[] times = filter.getTimesRequested();
+        List<IYModel> models = new ArrayList<>();
+        for (Entry<Long, Integer> entry : getSelectedEntries(filter).entrySet()) {
+            if (monitor != null && monitor.isCanceled()) {
+                return null;
+            }
+            int quark = entry.getValue();
+            double[] values;
+            if (ss.optQuarkRelative(quark, AbstractTmfMipmapStateProvider.AVG_STRING) != ITmfStateSystem.INVALID_ATTRIBUTE) {
+                values = getAverages(ss, quark, times);
+            } else if (ss.getAttributeName(quark).equals(RocmGpuCountersStateProvider.BYTES)) {
+                values = getDeltas(ss, quark, times);
+            } else {
+                continue;
+            }
+            models.add(new YModel(entry.getKey(), getTrace().getName() + '/' + ss.getFullAttributePath(quark), values));
+        }
+        return models;
+    }
+
+    private static double[] getAverages(ITmfStateSystem ss, int quark, long[] times) throws StateSystemDisposedException {
+        double[] values = new double[times.length];
+        long start = ss.getStartTime();
+        long end = ss.getCurrentEndTime();
+        for (int i = 0; i < times.length; i++) {
+            long t1 = Math.max(start, (i == 0) ? times[i] : times[i - 1]);
+            long t2 = Math.min(end, times[i]);
+            if (t1 > t2) {
+                continue;
+            }
+            try {
+                values[i] = TmfStateSystemOperations.queryRangeAverage(ss, t1, t2, quark);
+            } catch (AttributeNotFoundException | StateValueTypeException e) {
+                values[i] = 0;
+            }
+        }
+        return values;
+    }
+
+    private static double[] getDeltas(ITmfStateSystem ss, int quark, long[] times) throws StateSystemDisposedException {
+        double[] values = new double[times.length];
+        long start = ss.getStartTime();
+        long end = ss.getCurrentEndTime();
+        long previous = 0;
+        for (int i = 0; i < times.length; i++) {
+            long bytes = previous;
+            if (times[i] >= start) {
+                Object value = ss.querySingleState(Math.min(end, times[i]), quark).getValue();
+                bytes = (value instanceof Number) ? ((Number) value).longValue() : 0;
+            }
+            values[i] = (i == 0) ? 0 : bytes - previous;
+            previous = bytes;
+        }
+        return values;
+    }
+
+    @Override
+    protected String getTitle() {
+        return TITLE;
+    }
+
+    @Override
+    public String getId() {
+        return ID;
+    }
+
+    @Override
+    protected boolean isCacheable() {
+        return true;
+    }
+}
@@ -0,0 +1,61 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.analysis;
+
+import java.util.Collection;
+import java.util.Collections;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.internal.tmf.core.model.DataProviderDescriptor;
+import org.eclipse.tracecompass.internal.tmf.core.model.xy.TmfTreeXYCompositeDataProvider;
+import org.eclipse.tracecompass.tmf.core.dataprovider.IDataProviderDescriptor;
+import org.eclipse.tracecompass.tmf.core.dataprovider.IDataProviderDescriptor.ProviderType;
+import org.eclipse.tracecompass.tmf.core.dataprovider.IDataProviderFactory;
+import org.eclipse.tracecompass.tmf.core.model.tree.ITmfTreeDataModel;
+import org.eclipse.tracecompass.tmf.core.model.tree.ITmfTreeDataProvider;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceUtils;
+
+/**
+ * Factory of the ROCm GPU counters data provider
+ */
+@SuppressWarnings("restriction")
+public class RocmGpuCountersDataProviderFactory implements IDataProviderFactory {
+
+    private static final IDataProviderDescriptor DESCRIPTOR = new DataProviderDescriptor.Builder()
+            .setId(RocmGpuCountersDataProvider.ID)
+            .setName(RocmGpuCountersDataProvider.TITLE)
+            .setDescription("Shows the kernels in flight and the busy ratio of the GPUs, queues and copy engines over time") //$NON-NLS-1$
+            .setProviderType(ProviderType.TREE_TIME_XY)
+            .build();
+
+    @Override
+    public @Nullable ITmfTreeDataProvider<? extends ITmfTreeDataModel> createProvider(ITmfTrace trace) {
+        Collection<@NonNull ITmfTrace> traces = TmfTraceManager.getTraceSet(trace);
+        if (traces.size() == 1) {
+            return RocmGpuCountersDataProvider.create(trace);
+        }
+        return TmfTreeXYCompositeDataProvider.create(traces, RocmGpuCountersDataProvider.TITLE, RocmGpuCountersDataProvider.ID);
+    }
+
+    @Override
+    public Collection<IDataProviderDescriptor> getDescriptors(@NonNull ITmfTrace trace) {
+        for (ITmfTrace subTrace : TmfTraceManager.getTraceSet(trace)) {
+            if (TmfTraceUtils.getAnalysisModuleOfClass(subTrace, RocmGpuCountersAnalysis.class, RocmGpuCountersAnalysis.ID) != null) {
+                return Collections.singletonList(DESCRIPTOR);
+            }
+        }
+        return Collections.emptyList();
+    }
+}
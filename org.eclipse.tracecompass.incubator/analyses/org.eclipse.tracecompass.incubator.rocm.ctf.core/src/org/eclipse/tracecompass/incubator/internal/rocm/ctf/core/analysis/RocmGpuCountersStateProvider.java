@@ -0,0 +1,374 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.analysis;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.internal.tmf.core.statesystem.mipmap.AbstractTmfMipmapStateProvider;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
+import org.eclipse.tracecompass.statesystem.core.statevalue.TmfStateValue;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.statesystem.ITmfStateProvider;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+
+/**
+ * State provider of the GPU counters of a ROCm trace. For each GPU, each queue
+ * of a GPU, each HCC device and for the memory transfers, it tracks the number
+ * of operations in flight and whether at least one is running. Those are
+ * mipmapped attributes, so the average over any time range, which is the busy
+ * ratio for the busy attributes, is read from the mipmap levels.
+ *
+ * The attribute tree is:
+ *
+ * <pre>
+ * GPUs
+ *   |- GPU &lt;gpu_id&gt;
+ *   |    |- Active, Busy
+ *   |    |- Queues
+ *   |         |- Queue &lt;queue_id&gt;
+ *   |              |- Active, Busy
+ * HCC Devices
+ *   |- Device &lt;stream_id&gt;
+ *   |    |- Active, Busy
+ * Memory Transfers
+ *   |- Active, Busy, Bytes
+ * </pre>
+ *
+ * Bytes is the cumulative number of bytes copied. The rocprof copy table does
+ * not have the size of the copies, it is read from the
+ * <code>sizeBytes</code> argument of the HIP memory copy call and counted when
+ * the HCC operation of the call ends. The index of an HCC operation is the
+ * correlation id of the HIP call that enqueued it, the copies themselves have
+ * no link to the calls.
+ */
+public class RocmGpuCountersStateProvider extends AbstractTmfMipmapStateProvider {
+
+    private static final String ID = "org.eclipse.tracecompass.incubator.rocm.ctf.gpucountersstateprovider"; //$NON-NLS-1$
+
+    /** Root attribute of the GPUs */
+    public static final String GPUS = "GPUs"; //$NON-NLS-1$
+    /** Root attribute of the HCC devices */
+    public static final String HCC_DEVICES = "HCC Devices"; //$NON-NLS-1$
+    /** Root attribute of the memory transfers */
+    public static final String MEMORY_TRANSFERS = "Memory Transfers"; //$NON-NLS-1$
+    /** Attribute of the queues of a GPU */
+    public static final String QUEUES = "Queues"; //$NON-NLS-1$
+    /** Attribute of the number of operations in flight */
+    public static final String ACTIVE = "Active"; //$NON-NLS-1$
+    /** Attribute that is 1 when at least one operation is in flight, 0 otherwise */
+    public static final String BUSY = "Busy"; //$NON-NLS-1$
+    /** Attribute of the cumulative number of bytes copied */
+    public static final String BYTES = "Bytes"; //$NON-NLS-1$
+
+    private static final int MIPMAP_RESOLUTION = 16;
+    private static final int MIPMAP_FEATURES = MAX | MIN | AVG;
+
+    private static final String EXIT_SUFFIX = "_exit"; //$NON-NLS-1$
+    private static final String MEMCPY_PREFIX = "hipMemcpy"; //$NON-NLS-1$
+    private static final String ASYNC = "Async"; //$NON-NLS-1$
+    private static final String DEVICE_SYNCHRONIZE = "hipDeviceSynchronize"; //$NON-NLS-1$
+    private static final String SIZE_ARGUMENT = "sizeBytes"; //$NON-NLS-1$
+
+    /* Fields of the kernel events */
+    private static final int KERNEL_DISPATCH_ID = 0;
+    private static final int GPU_ID = 1;
+    private static final int QUEUE_ID = 2;
+    /* Fields of the HCC operations */
+    private static final int OP_NAME = 0;
+    private static final int OP_DEVICE = 1;
+    private static final int OP_INDEX = 2;
+    /* Fields of the copies */
+    private static final int COPY_NAME = 0;
+    /* Fields of the HIP calls */
+    private static final int HIP_NAME = 0;
+    private static final int HIP_ARGS = 1;
+    private static final int HIP_CORRELATION_ID = 2;
+
+    private static final int ID_BITS = 32;
+    private static final long MAX_ID = (1L << ID_BITS) - 1;
+    private static final long NO_COUNTER = -1;
+    private static final long NO_SIZE = -1;
+    private static final long NO_ID = -1;
+    /* The sizes with more digits may not fit in a long */
+    private static final int MAX_SIZE_DIGITS = 18;
+
+    private final RocmFieldReader fKernelFields = new RocmFieldReader("kernel_dispatch_id", "gpu_id", "queue_id"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+    private final RocmFieldReader fOpFields = new RocmFieldReader("name", "stream_id", "index"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+    private final RocmFieldReader fCopyFields = new RocmFieldReader("name"); //$NON-NLS-1$
+    private final RocmFieldReader fHipFields = new RocmFieldReader("name", "args", "correlation_id"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+    /* Dispatch ids of the kernels in flight, see RocmCtfCallStackStateProvider */
+    private final LongHashSet fRunningKernels = new LongHashSet();
+
+    /*
+     * Size of the memory copy calls, by correlation id, until their operation
+     * ends. The copy of a synchronous call ends before the call returns and
+     * all the copies end before a device synchronization returns, so the sizes
+     * left after that are of copies without operation and are removed.
+     */
+    private final LongLongHashMap fCopySizes = new LongLongHashMap();
+
+    /*
+     * The counters, with maps from the GPU id, the GPU and queue ids and the
+     * device id to their position in the list
+     */
+    private final List<ActivityCounter> fCounters = new ArrayList<>();
+    private final LongLongHashMap fGpuCounters = new LongLongHashMap();
+    private final LongLongHashMap fQueueCounters = new LongLongHashMap();
+    private final LongLongHashMap fDeviceCounters = new LongLongHashMap();
+    private @Nullable ActivityCounter fCopyCounter = null;
+    private int fBytesQuark = -1;
+    private long fBytes = 0;
+
+    /**
+     * Number of operations in flight on a GPU, queue, device or copy engine
+     */
+    private final class ActivityCounter {
+        private final int fActiveQuark;
+        private final int fBusyQuark;
+        private int fInFlight = 0;
+
+        public ActivityCounter(ITmfStateSystemBuilder ssb, int parentQuark) {
+            fActiveQuark = ssb.getQuarkRelativeAndAdd(parentQuark, ACTIVE);
+            fBusyQuark = ssb.getQuarkRelativeAndAdd(parentQuark, BUSY);
+        }
+
+        public void begin(long ts) {
+            fInFlight++;
+            modifyMipmapAttribute(ts, TmfStateValue.newValueInt(fInFlight), fActiveQuark, MIPMAP_FEATURES, MIPMAP_RESOLUTION);
+            if (fInFlight == 1) {
+                modifyMipmapAttribute(ts, TmfStateValue.newValueInt(1), fBusyQuark, MIPMAP_FEATURES, MIPMAP_RESOLUTION);
+            }
+        }
+
+        public void end(long ts) {
+            if (fInFlight == 0) {
+                /* The operation began before the start of the trace */
+                return;
+            }
+            fInFlight--;
+            modifyMipmapAttribute(ts, TmfStateValue.newValueInt(fInFlight), fActiveQuark, MIPMAP_FEATURES, MIPMAP_RESOLUTION);
+            if (fInFlight == 0) {
+                modifyMipmapAttribute(ts, TmfStateValue.newValueInt(0), fBusyQuark, MIPMAP_FEATURES, MIPMAP_RESOLUTION);
+            }
+        }
+    }
+
+    /**
+     * Constructor
+     *
+     * @param trace
+     *            Trace to follow
+     */
+    public RocmGpuCountersStateProvider(ITmfTrace trace) {
+        super(trace, ID);
+    }
+
+    @Override
+    public int getVersion() {
+        return 3;
+    }
+
+    @Override
+    public ITmfStateProvider getNewInstance() {
+        return new RocmGpuCountersStateProvider(getTrace());
+    }
+
+    @Override
+    protected void eventHandle(ITmfEvent event) {
+        ITmfStateSystemBuilder ssb = getStateSystemBuilder();
+        if (ssb == null) {
+            return;
+        }
+        long ts = event.getTimestamp().toNanos();
+        switch (event.getName()) {
+        case RocmCtfCallStackStateProvider.GPU_KERNEL:
+            handleKernel(ssb, event, ts);
+            break;
+        case RocmCtfCallStackStateProvider.HCC_OPS:
+            handleOperation(ssb, event, ts);
+            break;
+        case RocmCtfCallStackStateProvider.ASYNC_COPY:
+            handleCopy(ssb, event, ts);
+            break;
+        case RocmCtfCallStackStateProvider.HIP_API:
+            handleHipCall(event);
+            break;
+        default:
+            break;
+        }
+    }
+
+    private void handleKernel(ITmfStateSystemBuilder ssb, ITmfEvent event, long ts) {
+        RocmFieldReader fields = fKernelFields;
+        fields.read(event);
+        long gpuId = fields.getLong(GPU_ID, 0);
+        long queueId = fields.getLong(QUEUE_ID, 0);
+        if (gpuId < 0 || gpuId > MAX_ID || queueId < 0 || queueId > MAX_ID) {
+            return;
+        }
+        ActivityCounter gpu = getGpuCounter(ssb, gpuId);
+        ActivityCounter queue = getQueueCounter(ssb, gpuId, queueId);
+        long dispatchId = fields.getLong(KERNEL_DISPATCH_ID, -1);
+        if (fRunningKernels.remove(dispatchId)) {
+            queue.end(ts);
+            gpu.end(ts);
+        } else {
+            fRunningKernels.add(dispatchId);
+            gpu.begin(ts);
+            queue.begin(ts);
+        }
+    }
+
+    private void handleOperation(ITmfStateSystemBuilder ssb, ITmfEvent event, long ts) {
+        RocmFieldReader fields = fOpFields;
+        fields.read(event);
+        String name = fields.getString(OP_NAME);
+        long deviceId = fields.getLong(OP_DEVICE, 0);
+        if (name == null) {
+            return;
+        }
+        ActivityCounter device = getDeviceCounter(ssb, deviceId);
+        if (!name.endsWith(EXIT_SUFFIX)) {
+            device.begin(ts);
+            return;
+        }
+        device.end(ts);
+        long bytes = fCopySizes.remove(fields.getLong(OP_INDEX, NO_ID), NO_SIZE);
+        if (bytes > 0) {
+            if (fBytesQuark < 0) {
+                fBytesQuark = ssb.getQuarkAbsoluteAndAdd(MEMORY_TRANSFERS, BYTES);
+            }
+            fBytes += bytes;
+            ssb.modifyAttribute(ts, fBytes, fBytesQuark);
+        }
+    }
+
+    private void handleCopy(ITmfStateSystemBuilder ssb, ITmfEvent event, long ts) {
+        RocmFieldReader fields = fCopyFields;
+        fields.read(event);
+        String name = fields.getString(COPY_NAME);
+        if (name == null) {
+            return;
+        }
+        ActivityCounter copies = fCopyCounter;
+        if (copies == null) {
+            int copyQuark = ssb.getQuarkAbsoluteAndAdd(MEMORY_TRANSFERS);
+            copies = new ActivityCounter(ssb, copyQuark);
+            fCopyCounter = copies;
+        }
+        if (name.endsWith(EXIT_SUFFIX)) {
+            copies.end(ts);
+        } else {
+            copies.begin(ts);
+        }
+    }
+
+    private void handleHipCall(ITmfEvent event) {
+        RocmFieldReader fields = fHipFields;
+        fields.read(event);
+        String name = fields.getString(HIP_NAME);
+        if (name == null) {
+            return;
+        }
+        if (name.endsWith(EXIT_SUFFIX)) {
+            if (name.startsWith(DEVICE_SYNCHRONIZE)) {
+                fCopySizes.clear();
+            } else if (name.startsWith(MEMCPY_PREFIX) && !name.contains(ASYNC)) {
+                fCopySizes.remove(fields.getLong(HIP_CORRELATION_ID, NO_ID), NO_SIZE);
+            }
+            return;
+        }
+        if (!name.startsWith(MEMCPY_PREFIX)) {
+            return;
+        }
+        long correlationId = fields.getLong(HIP_CORRELATION_ID, NO_ID);
+        String args = fields.getString(HIP_ARGS);
+        long size = (args == null) ? NO_SIZE : parseSize(args);
+        if (correlationId != NO_ID && size > 0) {
+            fCopySizes.put(correlationId, size);
+        }
+    }
+
+    /**
+     * Read the size argument of a memory copy call, written as
+     * <code>sizeBytes=4096</code> or <code>sizeBytes(4096)</code> by the
+     * tracers
+     */
+    private static long parseSize(String args) {
+        int start = args.indexOf(SIZE_ARGUMENT);
+        if (start < 0) {
+            return NO_SIZE;
+        }
+        int i = start + SIZE_ARGUMENT.length();
+        while (i < args.length() && !Character.isDigit(args.charAt(i))) {
+            char c = args.charAt(i);
+            if (c != '=' && c != '(' && c != ':' && c != ' ') {
+                return NO_SIZE;
+            }
+            i++;
+        }
+        int end = i;
+        while (end < args.length() && Character.isDigit(args.charAt(end))) {
+            end++;
+        }
+        if (end == i || end - i > MAX_SIZE_DIGITS) {
+            return NO_SIZE;
+        }
+        return Long.parseLong(args.substring(i, end));
+    }
+
+    private @Nullable ActivityCounter getCounter(LongLongHashMap counters, long key) {
+        int index = (int) counters.get(key, NO_COUNTER);
+        return (index < 0) ? null : fCounters.get(index);
+    }
+
+    private ActivityCounter addCounter(LongLongHashMap counters, long key, ActivityCounter counter) {
+        counters.put(key, fCounters.size());
+        fCounters.add(counter);
+        return counter;
+    }
+
+    private ActivityCounter getGpuCounter(ITmfStateSystemBuilder ssb, long gpuId) {
+        ActivityCounter counter = getCounter(fGpuCounters, gpuId);
+        if (counter == null) {
+            int gpuQuark = ssb.getQuarkAbsoluteAndAdd(GPUS, getGpuName(gpuId));
+            counter = addCounter(fGpuCounters, gpuId, new ActivityCounter(ssb, gpuQuark));
+        }
+        return counter;
+    }
+
+    private ActivityCounter getQueueCounter(ITmfStateSystemBuilder ssb, long gpuId, long queueId) {
+        long key = (gpuId << ID_BITS) | queueId;
+        ActivityCounter counter = getCounter(fQueueCounters, key);
+        if (counter == null) {
+            int queueQuark = ssb.getQuarkAbsoluteAndAdd(GPUS, getGpuName(gpuId), QUEUES, "Queue " + queueId); //$NON-NLS-1$
+            counter = addCounter(fQueueCounters, key, new ActivityCounter(ssb, queueQuark));
+        }
+        return counter;
+    }
+
+    private ActivityCounter getDeviceCounter(ITmfStateSystemBuilder ssb, long deviceId) {
+        ActivityCounter counter = getCounter(fDeviceCounters, deviceId);
+        if (counter == null) {
+            int deviceQuark = ssb.getQuarkAbsoluteAndAdd(HCC_DEVICES, "Device " + deviceId); //$NON-NLS-1$
+            counter = addCounter(fDeviceCounters, deviceId, new ActivityCounter(ssb, deviceQuark));
+        }
+        return counter;
+    }
+
+    private static String getGpuName(long gpuId) {
+        return "GPU " + gpuId; //$NON-NLS-1$
+    }
+}
@@ -0,0 +1,287 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.analysis;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.function.Function;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.analysis.timing.core.segmentstore.AbstractSegmentStoreAnalysisEventBasedModule;
+import org.eclipse.tracecompass.datastore.core.interval.IHTIntervalReader;
+import org.eclipse.tracecompass.segmentstore.core.ISegment;
+import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
+import org.eclipse.tracecompass.segmentstore.core.SegmentStoreFactory.SegmentStoreType;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.segment.ISegmentAspect;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.ctf.core.trace.CtfTmfTrace;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Analysis of the executions of the kernels and memory copies of a ROCm
+ * trace. Each execution is a {@link RocmGpuSegment}, so the generic segment
+ * store table, statistics, scatter and density views can show them.
+ *
+ * The segments are kept in an on-disk segment store, so traces with millions
+ * of kernels do not need to keep them all in memory.
+ */
+public class RocmGpuLatencyAnalysis extends AbstractSegmentStoreAnalysisEventBasedModule {
+
+    /**
+     * The ID of this analysis
+     */
+    public static final String ID = "org.eclipse.tracecompass.incubator.rocm.ctf.core.analysis.gpulatency"; //$NON-NLS-1$
+
+    private static final int VERSION = 1;
+
+    private static final long NO_SLOT = -1L;
+    private static final int INITIAL_SLOTS = 16;
+
+    private static final String ENTER_SUFFIX = "_enter"; //$NON-NLS-1$
+    private static final String EXIT_SUFFIX = "_exit"; //$NON-NLS-1$
+
+    /* Fields of the kernel events */
+    private static final int KERNEL_NAME = 0;
+    private static final int KERNEL_DISPATCH_ID = 1;
+    private static final int GPU_ID = 2;
+    private static final int QUEUE_ID = 3;
+    private static final int GRID_SIZE = 4;
+    private static final int DISPATCH_TIME = 5;
+    /* Fields of the copy events */
+    private static final int NAME = 0;
+    private static final int INDEX = 1;
+
+    private static final Collection<ISegmentAspect> ASPECTS = ImmutableList.of(
+            new RocmGpuSegmentAspect(Messages.getMessage(Messages.RocmGpuLatency_NameAspect), Messages.getMessage(Messages.RocmGpuLatency_NameAspectHelp), RocmGpuSegment::getName),
+            new RocmGpuSegmentAspect(Messages.getMessage(Messages.RocmGpuLatency_GpuAspect), Messages.getMessage(Messages.RocmGpuLatency_GpuAspectHelp), RocmGpuSegment::getGpuId),
+            new RocmGpuSegmentAspect(Messages.getMessage(Messages.RocmGpuLatency_QueueAspect), Messages.getMessage(Messages.RocmGpuLatency_QueueAspectHelp), RocmGpuSegment::getQueueId),
+            new RocmGpuSegmentAspect(Messages.getMessage(Messages.RocmGpuLatency_GridSizeAspect), Messages.getMessage(Messages.RocmGpuLatency_GridSizeAspectHelp), RocmGpuSegment::getGridSize),
+            new RocmGpuSegmentAspect(Messages.getMessage(Messages.RocmGpuLatency_DispatchLatencyAspect), Messages.getMessage(Messages.RocmGpuLatency_DispatchLatencyAspectHelp), RocmGpuSegment::getDispatchLatency));
+
+    @Override
+    public String getId() {
+        return ID;
+    }
+
+    @Override
+    public Iterable<ISegmentAspect> getSegmentAspects() {
+        return ASPECTS;
+    }
+
+    @Override
+    protected int getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    protected SegmentStoreType getSegmentStoreType() {
+        return SegmentStoreType.OnDisk;
+    }
+
+    @Override
+    protected IHTIntervalReader<ISegment> getSegmentReader() {
+        return RocmGpuSegment.READER;
+    }
+
+    @Override
+    protected AbstractSegmentStoreAnalysisRequest createAnalysisRequest(ISegmentStore<ISegment> segmentStore, IProgressMonitor monitor) {
+        return new RocmGpuLatencyAnalysisRequest(segmentStore);
+    }
+
+    /**
+     * The information of a kernel that is known when it starts. The objects
+     * are reused for the next kernels once the kernel ends.
+     */
+    private static final class KernelStart {
+        private long fStartTime;
+        private String fName = ""; //$NON-NLS-1$
+        private int fGpuId;
+        private int fQueueId;
+        private long fGridSize;
+        private long fDispatchLatency;
+
+        public void set(long startTime, String name, int gpuId, int queueId, long gridSize, long dispatchLatency) {
+            fStartTime = startTime;
+            fName = name;
+            fGpuId = gpuId;
+            fQueueId = queueId;
+            fGridSize = gridSize;
+            fDispatchLatency = dispatchLatency;
+        }
+
+        public RocmGpuSegment toSegment(long endTime) {
+            return new RocmGpuSegment(fStartTime, endTime, fName, fGpuId, fQueueId, fGridSize, fDispatchLatency);
+        }
+    }
+
+    private class RocmGpuLatencyAnalysisRequest extends AbstractSegmentStoreAnalysisRequest {
+
+        /* The slot of the start of the kernels in flight, by dispatch id */
+        private final LongLongHashMap fRunningKernels = new LongLongHashMap();
+        /* The starts of the kernels, the free slots are reused */
+        private KernelStart[] fKernelStarts = new KernelStart[0];
+        private int[] fFreeSlots = new int[0];
+        private int fNbFreeSlots = 0;
+        /* The start time of the copies in flight, by index */
+        private final LongLongHashMap fRunningCopies = new LongLongHashMap();
+
+        private final RocmFieldReader fKernelFields = new RocmFieldReader("kernel_name", "kernel_dispatch_id", "gpu_id", "queue_id", "grd", "dipatch_time"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+        private final RocmFieldReader fCopyFields = new RocmFieldReader("name", "index"); //$NON-NLS-1$ //$NON-NLS-2$
+
+        public RocmGpuLatencyAnalysisRequest(ISegmentStore<ISegment> segmentStore) {
+            super(segmentStore);
+        }
+
+        @Override
+        public void handleData(ITmfEvent event) {
+            super.handleData(event);
+            switch (event.getName()) {
+            case RocmCtfCallStackStateProvider.GPU_KERNEL:
+                handleKernel(event);
+                break;
+            case RocmCtfCallStackStateProvider.ASYNC_COPY:
+                handleCopy(event);
+                break;
+            default:
+                break;
+            }
+        }
+
+        private void handleKernel(ITmfEvent event) {
+            RocmFieldReader fields = fKernelFields;
+            fields.read(event);
+            long timestamp = event.getTimestamp().toNanos();
+            long dispatchId = fields.getLong(KERNEL_DISPATCH_ID, -1);
+            int slot = (int) fRunningKernels.remove(dispatchId, NO_SLOT);
+            if (slot != NO_SLOT) {
+                getSegmentStore().add(fKernelStarts[slot].toSegment(timestamp));
+                fFreeSlots[fNbFreeSlots++] = slot;
+                return;
+            }
+            String name = fields.getString(KERNEL_NAME);
+            long dispatchTime = fields.getLong(DISPATCH_TIME, 0);
+            long dispatchLatency = RocmGpuSegment.UNKNOWN;
+            if (dispatchTime > 0) {
+                long latency = timestamp - toTraceTime(event.getTrace(), dispatchTime);
+                dispatchLatency = (latency >= 0) ? latency : RocmGpuSegment.UNKNOWN;
+            }
+            slot = allocateSlot();
+            fKernelStarts[slot].set(timestamp, (name == null) ? "" : name.intern(), //$NON-NLS-1$
+                    toId(fields.getLong(GPU_ID, RocmGpuSegment.UNKNOWN)), toId(fields.getLong(QUEUE_ID, RocmGpuSegment.UNKNOWN)),
+                    fields.getLong(GRID_SIZE, 0), dispatchLatency);
+            fRunningKernels.put(dispatchId, slot);
+        }
+
+        /**
+         * Get a free slot of the kernel starts, there are more slots when all
+         * of them are used by kernels in flight
+         */
+        private int allocateSlot() {
+            if (fNbFreeSlots == 0) {
+                int nbSlots = fKernelStarts.length;
+                int capacity = Math.max(INITIAL_SLOTS, nbSlots * 2);
+                KernelStart[] starts = Arrays.copyOf(fKernelStarts, capacity);
+                int[] freeSlots = new int[capacity];
+                /* All the slots are in use, only the new ones are free */
+                for (int slot = capacity - 1; slot >= nbSlots; slot--) {
+                    starts[slot] = new KernelStart();
+                    freeSlots[fNbFreeSlots++] = slot;
+                }
+                fKernelStarts = starts;
+                fFreeSlots = freeSlots;
+            }
+            return fFreeSlots[--fNbFreeSlots];
+        }
+
+        private void handleCopy(ITmfEvent event) {
+            RocmFieldReader fields = fCopyFields;
+            fields.read(event);
+            String name = fields.getString(NAME);
+            if (name == null) {
+                return;
+            }
+            long timestamp = event.getTimestamp().toNanos();
+            long index = fields.getLong(INDEX, -1);
+            if (name.endsWith(ENTER_SUFFIX)) {
+                fRunningCopies.put(index, timestamp);
+            } else if (name.endsWith(EXIT_SUFFIX) && fRunningCopies.containsKey(index)) {
+                long startTime = fRunningCopies.remove(index, timestamp);
+                String copyName = name.substring(0, name.length() - EXIT_SUFFIX.length()).intern();
+                getSegmentStore().add(new RocmGpuSegment(startTime, timestamp, copyName, RocmGpuSegment.UNKNOWN, RocmGpuSegment.UNKNOWN, 0, RocmGpuSegment.UNKNOWN));
+            }
+        }
+
+        @Override
+        public void handleCompleted() {
+            fRunningKernels.clear();
+            fKernelStarts = new KernelStart[0];
+            fFreeSlots = new int[0];
+            fNbFreeSlots = 0;
+            fRunningCopies.clear();
+            super.handleCompleted();
+        }
+    }
+
+    /**
+     * Convert a time of the rocprof clock read from a field to the time of the
+     * events. The converted CTF traces have a clock offset that the SQLite
+     * databases do not have.
+     */
+    private static long toTraceTime(ITmfTrace trace, long time) {
+        long nanos = (trace instanceof CtfTmfTrace) ? ((CtfTmfTrace) trace).timestampCyclesToNanos(time) : time;
+        return trace.createTimestamp(nanos).toNanos();
+    }
+
+    private static int toId(long id) {
+        return (id < 0 || id > Integer.MAX_VALUE) ? RocmGpuSegment.UNKNOWN : (int) id;
+    }
+
+    private static final class RocmGpuSegmentAspect implements ISegmentAspect {
+
+        private final String fName;
+        private final String fHelpText;
+        private final Function<RocmGpuSegment, Object> fResolver;
+
+        public RocmGpuSegmentAspect(String name, String helpText, Function<RocmGpuSegment, Object> resolver) {
+            fName = name;
+            fHelpText = helpText;
+            fResolver = resolver;
+        }
+
+        @Override
+        public String getName() {
+            return fName;
+        }
+
+        @Override
+        public String getHelpText() {
+            return fHelpText;
+        }
+
+        @Override
+        public @Nullable Comparator<?> getComparator() {
+            return null;
+        }
+
+        @Override
+        public @Nullable Object resolve(ISegment segment) {
+            if (segment instanceof RocmGpuSegment) {
+                return fResolver.apply((RocmGpuSegment) segment);
+            }
+            return null;
+        }
+    }
+}
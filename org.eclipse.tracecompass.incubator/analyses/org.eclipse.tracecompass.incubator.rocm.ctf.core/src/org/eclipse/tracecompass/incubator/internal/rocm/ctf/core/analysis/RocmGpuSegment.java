@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.analysis;
+
+import org.eclipse.tracecompass.datastore.core.interval.IHTIntervalReader;
+import org.eclipse.tracecompass.datastore.core.serialization.ISafeByteBufferWriter;
+import org.eclipse.tracecompass.datastore.core.serialization.SafeByteBufferFactory;
+import org.eclipse.tracecompass.segmentstore.core.ISegment;
+import org.eclipse.tracecompass.segmentstore.core.segment.interfaces.INamedSegment;
+
+/**
+ * The execution of a kernel or a memory copy on a GPU, represented as an
+ * {@link ISegment}. The name of the segment is the name of the kernel, so the
+ * statistics are grouped by kernel.
+ */
+public final class RocmGpuSegment implements INamedSegment {
+
+    private static final long serialVersionUID = -2580727446359683117L;
+
+    /** Value of the ids and of the latency when they are not known */
+    public static final int UNKNOWN = -1;
+
+    /**
+     * The reader for this segment class
+     */
+    public static final IHTIntervalReader<ISegment> READER = buffer -> new RocmGpuSegment(buffer.getLong(), buffer.getLong(), buffer.getString(),
+            buffer.getInt(), buffer.getInt(), buffer.getLong(), buffer.getLong());
+
+    private final long fStartTime;
+    private final long fEndTime;
+    private final String fName;
+    private final int fGpuId;
+    private final int fQueueId;
+    private final long fGridSize;
+    private final long fDispatchLatency;
+
+    /**
+     * Constructor
+     *
+     * @param startTime
+     *            The start time of the execution
+     * @param endTime
+     *            The end time of the execution
+     * @param name
+     *            The name of the kernel, or of the copy
+     * @param gpuId
+     *            The GPU that ran the kernel, or {@link #UNKNOWN}
+     * @param queueId
+     *            The queue of the kernel, or {@link #UNKNOWN}
+     * @param gridSize
+     *            The number of work-items of the kernel, 0 for copies
+     * @param dispatchLatency
+     *            The time between the dispatch of the kernel and its start,
+     *            or {@link #UNKNOWN}
+     */
+    public RocmGpuSegment(long startTime, long endTime, String name, int gpuId, int queueId, long gridSize, long dispatchLatency) {
+        fStartTime = startTime;
+        fEndTime = endTime;
+        fName = name;
+        fGpuId = gpuId;
+        fQueueId = queueId;
+        fGridSize = gridSize;
+        fDispatchLatency = dispatchLatency;
+    }
+
+    @Override
+    public long getStart() {
+        return fStartTime;
+    }
+
+    @Override
+    public long getEnd() {
+        return fEndTime;
+    }
+
+    @Override
+    public String getName() {
+        return fName;
+    }
+
+    /**
+     * @return The GPU that ran the kernel, or {@link #UNKNOWN}
+     */
+    public int getGpuId() {
+        return fGpuId;
+    }
+
+    /**
+     * @return The queue of the kernel, or {@link #UNKNOWN}
+     */
+    public int getQueueId() {
+        return fQueueId;
+    }
+
+    /**
+     * @return The number of work-items of the kernel, 0 for copies
+     */
+    public long getGridSize() {
+        return fGridSize;
+    }
+
+    /**
+     * @return The time between the dispatch of the kernel and its start, or
+     *         {@link #UNKNOWN}
+     */
+    public long getDispatchLatency() {
+        return fDispatchLatency;
+    }
+
+    @Override
+    public int getSizeOnDisk() {
+        return 4 * Long.BYTES + SafeByteBufferFactory.getStringSizeInBuffer(fName) + 2 * Integer.BYTES;
+    }
+
+    @Override
+    public void writeSegment(ISafeByteBufferWriter buffer) {
+        buffer.putLong(fStartTime);
+        buffer.putLong(fEndTime);
+        buffer.putString(fName);
+        buffer.putInt(fGpuId);
+        buffer.putInt(fQueueId);
+        buffer.putLong(fGridSize);
+        buffer.putLong(fDispatchLatency);
+    }
+
+    @Override
+    public int compareTo(ISegment o) {
+        int ret = INamedSegment.super.compareTo(o);
+        if (ret != 0) {
+            return ret;
+        }
+        return toString().compareTo(o.toString());
+    }
+
+    @Override
+    public String toString() {
+        return "Start Time = " + getStart() + //$NON-NLS-1$
+                "; End Time = " + getEnd() + //$NON-NLS-1$
+                "; Duration = " + getLength() + //$NON-NLS-1$
+                "; Name = " + getName() + //$NON-NLS-1$
+                "; GPU = " + getGpuId() + //$NON-NLS-1$
+                "; Queue = " + getQueueId(); //$NON-NLS-1$
+    }
+}
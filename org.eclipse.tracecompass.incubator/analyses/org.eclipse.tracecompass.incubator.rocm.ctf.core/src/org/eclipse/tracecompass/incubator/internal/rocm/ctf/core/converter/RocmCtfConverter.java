@@ -0,0 +1,275 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.converter;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.converter.RocmCtfMetadata.StreamDescription;
+
+/**
+ * Converts a rocprof SQLite database to a CTF trace that can be opened as a
+ * {@link org.eclipse.tracecompass.incubator.rocm.ctf.core.trace.RocmCtfTrace}.
+ *
+ * This is the Java equivalent of ctftrace.py and bt_plugin_rocm.py. Instead of
+ * muxing all the tables in a single babeltrace graph, each table is converted
+ * to its own CTF stream by a worker thread, with its own connection to the
+ * database. The CTF reader does the merge of the streams when the trace is
+ * read, so the tables never need to be ordered with respect to each other.
+ *
+ * The environment of the trace has the hostname, the MPI rank and the PID of
+ * the profiled process, so the traces of the ranks of an MPI job can be opened
+ * together in a
+ * {@link org.eclipse.tracecompass.incubator.rocm.ctf.core.trace.RocmExperiment}.
+ *
+ * A SQLite JDBC driver (org.sqlite.JDBC) must be available at runtime.
+ */
+public class RocmCtfConverter {
+
+    private static final String STREAM_FILE_PREFIX = "stream_"; //$NON-NLS-1$
+    private static final String TRACE_DIRECTORY_DATE_FORMAT = "yyyyMMdd-HHmmss"; //$NON-NLS-1$
+
+    /* Environment variables set by the MPI launchers, in order of preference */
+    private static final String[] RANK_VARIABLES = { "OMPI_COMM_WORLD_RANK", "PMI_RANK", "PMIX_RANK", "SLURM_PROCID" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+
+    private final Path fDatabase;
+    private int fPacketSize = RocmCtfStreamWriter.DEFAULT_PACKET_SIZE;
+    private @Nullable String fHostname = getLocalHostname();
+    private int fRank = getLaunchRank();
+
+    /**
+     * Constructor
+     *
+     * @param database
+     *            The path to the rocprof database
+     */
+    public RocmCtfConverter(Path database) {
+        fDatabase = database;
+    }
+
+    /**
+     * Set the maximum size of the packets of the streams
+     *
+     * @param packetSize
+     *            The maximum size of a packet, in bytes
+     */
+    public void setPacketSize(int packetSize) {
+        fPacketSize = packetSize;
+    }
+
+    /**
+     * Set the name of the node where the database was recorded. By default,
+     * it is the name of the local host.
+     *
+     * @param hostname
+     *            The name of the node, or <code>null</code> to not write it
+     */
+    public void setHostname(@Nullable String hostname) {
+        fHostname = hostname;
+    }
+
+    /**
+     * Set the MPI rank of the profiled process. By default, it is read from
+     * the environment variables of the MPI launchers, so that a conversion
+     * done by each rank of the job records its own rank.
+     *
+     * @param rank
+     *            The rank, or a negative value to not write it
+     */
+    public void setRank(int rank) {
+        fRank = rank;
+    }
+
+    /**
+     * Get the default directory of the trace converted from a database. Like
+     * ctftrace.py, it is named after the database file followed by the current
+     * date, <code>&lt;db name&gt;.YYYYMMDD-hhmmss</code>.
+     *
+     * @param database
+     *            The path to the rocprof database
+     * @return The path to the trace directory
+     */
+    public static Path getDefaultTraceDirectory(Path database) {
+        String name = String.valueOf(database.getFileName());
+        int extension = name.lastIndexOf('.');
+        if (extension > 0) {
+            name = name.substring(0, extension);
+        }
+        String date = new SimpleDateFormat(TRACE_DIRECTORY_DATE_FORMAT).format(new Date());
+        return database.resolveSibling(name + '.' + date);
+    }
+
+    /**
+     * Convert the database, using one worker thread per available processor
+     *
+     * @param traceDirectory
+     *            The directory of the CTF trace to create. It must not exist
+     *            or be empty.
+     * @return The number of events written to the trace
+     * @throws IOException
+     *             If the database cannot be read or the trace cannot be
+     *             written
+     */
+    public long convert(Path traceDirectory) throws IOException {
+        return convert(traceDirectory, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Convert the database
+     *
+     * @param traceDirectory
+     *            The directory of the CTF trace to create. It must not exist
+     *            or be empty.
+     * @param nbThreads
+     *            The maximum number of tables to convert in parallel
+     * @return The number of events written to the trace
+     * @throws IOException
+     *             If the database cannot be read or the trace cannot be
+     *             written
+     */
+    public long convert(Path traceDirectory, int nbThreads) throws IOException {
+        if (!Files.isRegularFile(fDatabase)) {
+            throw new IOException("Database does not exist: " + fDatabase); //$NON-NLS-1$
+        }
+        RocmDatabase.loadDriver();
+        if (Files.isDirectory(traceDirectory)) {
+            try (Stream<Path> files = Files.list(traceDirectory)) {
+                if (files.findAny().isPresent()) {
+                    throw new IOException("Trace directory is not empty: " + traceDirectory); //$NON-NLS-1$
+                }
+            }
+        }
+        Files.createDirectories(traceDirectory);
+
+        List<StreamDescription> streams;
+        Map<String, Object> environment = new LinkedHashMap<>();
+        try (Connection connection = openConnection()) {
+            streams = RocmDatabase.detectStreams(connection);
+            String hostname = fHostname;
+            if (hostname != null) {
+                environment.put(RocmCtfMetadata.ENV_HOSTNAME, hostname);
+            }
+            if (fRank >= 0) {
+                environment.put(RocmCtfMetadata.ENV_RANK, fRank);
+            }
+            Long pid = RocmDatabase.findProcessId(connection, streams);
+            if (pid != null) {
+                environment.put(RocmCtfMetadata.ENV_PID, pid);
+            }
+        } catch (SQLException e) {
+            throw new IOException("Error reading the tables of " + fDatabase, e); //$NON-NLS-1$
+        }
+        /*
+         * The rocprof timestamps are from the monotonic clock, which is what
+         * System.nanoTime() uses. The offset to the epoch is taken now, as
+         * ctftrace.py does.
+         */
+        long clockOffset = System.currentTimeMillis() * 1000000L - System.nanoTime();
+        RocmCtfMetadata.write(traceDirectory, clockOffset, environment, streams);
+
+        if (streams.isEmpty()) {
+            return 0;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(nbThreads, streams.size())));
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (StreamDescription stream : streams) {
+                Path streamFile = traceDirectory.resolve(STREAM_FILE_PREFIX + stream.getId());
+                results.add(executor.submit(new RocmTableConverter(this::openConnection, stream, streamFile, fPacketSize)));
+            }
+            long nbEvents = 0;
+            for (Future<Long> result : results) {
+                nbEvents += result.get();
+            }
+            return nbEvents;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Conversion interrupted", e); //$NON-NLS-1$
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Error converting " + fDatabase, cause); //$NON-NLS-1$
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Connection openConnection() throws SQLException {
+        return RocmDatabase.openConnection(fDatabase);
+    }
+
+    private static @Nullable String getLocalHostname() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    private static int getLaunchRank() {
+        for (String variable : RANK_VARIABLES) {
+            String value = System.getenv(variable);
+            if (value == null) {
+                continue;
+            }
+            try {
+                return Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                // Try the next variable
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Convert a rocprof database from the command line
+     *
+     * @param args
+     *            The path to the database, optionally followed by the trace
+     *            directory and the number of threads
+     * @throws IOException
+     *             If the conversion fails
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 3) {
+            System.err.println("Usage: RocmCtfConverter <input DB file> [<output trace directory>] [<threads>]"); //$NON-NLS-1$
+            return;
+        }
+        Path database = Paths.get(args[0]);
+        Path traceDirectory = (args.length > 1) ? Paths.get(args[1]) : getDefaultTraceDirectory(database);
+        int nbThreads = (args.length > 2) ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        long start = System.nanoTime();
+        long nbEvents = new RocmCtfConverter(database).convert(traceDirectory, nbThreads);
+        long elapsed = System.nanoTime() - start;
+        System.out.println("Wrote " + nbEvents + " events to " + traceDirectory + " in " + elapsed / 1000000L + " ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+    }
+}
@@ -0,0 +1,203 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.converter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Generates the TSDL metadata of a converted ROCm trace. There is one stream
+ * per converted table, and each stream has a single event type with ID 0.
+ *
+ * All types are byte aligned and little endian, which is what
+ * {@link RocmCtfStreamWriter} writes.
+ */
+public final class RocmCtfMetadata {
+
+    /** Name of the metadata file in the trace directory */
+    static final String METADATA_FILE = "metadata"; //$NON-NLS-1$
+
+    /** Name of the clock of the trace */
+    static final String CLOCK_NAME = "rocm_monotonic"; //$NON-NLS-1$
+
+    /** Value of the tracer_name environment variable of a ROCm trace */
+    static final String TRACER_NAME = "roctracer"; //$NON-NLS-1$
+
+    /** Environment variable with the name of the node that was profiled */
+    public static final String ENV_HOSTNAME = "hostname"; //$NON-NLS-1$
+    /** Environment variable with the MPI rank of the profiled process */
+    public static final String ENV_RANK = "rank"; //$NON-NLS-1$
+    /** Environment variable with the PID of the profiled process */
+    public static final String ENV_PID = "pid"; //$NON-NLS-1$
+
+    private static final long NANOS_PER_SECOND = 1000000000L;
+
+    private RocmCtfMetadata() {
+        // Do nothing
+    }
+
+    /**
+     * Description of one stream of the trace
+     */
+    public static final class StreamDescription {
+        private final int fId;
+        private final RocmTable fTable;
+        private final List<RocmField> fFields;
+
+        /**
+         * Constructor
+         *
+         * @param id
+         *            The stream ID
+         * @param table
+         *            The table converted in this stream
+         * @param fields
+         *            All the payload fields of the event, including the
+         *            performance counters
+         */
+        public StreamDescription(int id, RocmTable table, List<RocmField> fields) {
+            fId = id;
+            fTable = table;
+            fFields = fields;
+        }
+
+        public int getId() {
+            return fId;
+        }
+
+        public RocmTable getTable() {
+            return fTable;
+        }
+
+        public List<RocmField> getFields() {
+            return fFields;
+        }
+    }
+
+    /**
+     * Write the metadata file of a trace
+     *
+     * @param traceDirectory
+     *            The directory of the trace
+     * @param clockOffset
+     *            The offset of the clock, in nanoseconds since the epoch
+     * @param streams
+     *            The streams of the trace
+     * @throws IOException
+     *             If the file cannot be written
+     */
+    public static void write(Path traceDirectory, long clockOffset, List<StreamDescription> streams) throws IOException {
+        write(traceDirectory, clockOffset, Collections.emptyMap(), streams);
+    }
+
+    /**
+     * Write the metadata file of a trace, with additional environment
+     * variables
+     *
+     * @param traceDirectory
+     *            The directory of the trace
+     * @param clockOffset
+     *            The offset of the clock, in nanoseconds since the epoch
+     * @param environment
+     *            The environment variables to add to the tracer name. The
+     *            values are numbers or strings.
+     * @param streams
+     *            The streams of the trace
+     * @throws IOException
+     *             If the file cannot be written
+     */
+    public static void write(Path traceDirectory, long clockOffset, Map<String, Object> environment, List<StreamDescription> streams) throws IOException {
+        Files.write(traceDirectory.resolve(METADATA_FILE), generate(clockOffset, environment, streams).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Generate the TSDL metadata of a trace
+     *
+     * @param clockOffset
+     *            The offset of the clock, in nanoseconds since the epoch
+     * @param environment
+     *            The additional environment variables
+     * @param streams
+     *            The streams of the trace
+     * @return The metadata text
+     */
+    static String generate(long clockOffset, Map<String, Object> environment, List<StreamDescription> streams) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("/* CTF 1.8 */\n\n") //$NON-NLS-1$
+                .append("typealias integer { size = 32; align = 8; signed = false; } := uint32_t;\n") //$NON-NLS-1$
+                .append("typealias integer { size = 64; align = 8; signed = false; } := uint64_t;\n") //$NON-NLS-1$
+                .append("typealias integer { size = 64; align = 8; signed = false; map = clock.").append(CLOCK_NAME).append(".value; } := uint64_clock_t;\n\n") //$NON-NLS-1$ //$NON-NLS-2$
+                .append("trace {\n") //$NON-NLS-1$
+                .append("    major = 1;\n") //$NON-NLS-1$
+                .append("    minor = 8;\n") //$NON-NLS-1$
+                .append("    byte_order = le;\n") //$NON-NLS-1$
+                .append("    packet.header := struct {\n") //$NON-NLS-1$
+                .append("        uint32_t magic;\n") //$NON-NLS-1$
+                .append("        uint32_t stream_id;\n") //$NON-NLS-1$
+                .append("    };\n") //$NON-NLS-1$
+                .append("};\n\n") //$NON-NLS-1$
+                .append("env {\n") //$NON-NLS-1$
+                .append("    tracer_name = \"").append(TRACER_NAME).append("\";\n"); //$NON-NLS-1$ //$NON-NLS-2$
+        for (Entry<String, Object> variable : environment.entrySet()) {
+            sb.append("    ").append(variable.getKey()).append(" = ").append(toTsdlValue(variable.getValue())).append(";\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        }
+        sb.append("};\n\n") //$NON-NLS-1$
+                .append("clock {\n") //$NON-NLS-1$
+                .append("    name = ").append(CLOCK_NAME).append(";\n") //$NON-NLS-1$ //$NON-NLS-2$
+                .append("    freq = ").append(NANOS_PER_SECOND).append(";\n") //$NON-NLS-1$ //$NON-NLS-2$
+                .append("    precision = 1;\n") //$NON-NLS-1$
+                .append("    offset_s = ").append(clockOffset / NANOS_PER_SECOND).append(";\n") //$NON-NLS-1$ //$NON-NLS-2$
+                .append("    offset = ").append(clockOffset % NANOS_PER_SECOND).append(";\n") //$NON-NLS-1$ //$NON-NLS-2$
+                .append("    absolute = TRUE;\n") //$NON-NLS-1$
+                .append("};\n"); //$NON-NLS-1$
+        for (StreamDescription stream : streams) {
+            sb.append('\n')
+                    .append("stream {\n") //$NON-NLS-1$
+                    .append("    id = ").append(stream.getId()).append(";\n") //$NON-NLS-1$ //$NON-NLS-2$
+                    .append("    packet.context := struct {\n") //$NON-NLS-1$
+                    .append("        uint64_clock_t timestamp_begin;\n") //$NON-NLS-1$
+                    .append("        uint64_clock_t timestamp_end;\n") //$NON-NLS-1$
+                    .append("        uint64_t content_size;\n") //$NON-NLS-1$
+                    .append("        uint64_t packet_size;\n") //$NON-NLS-1$
+                    .append("    };\n") //$NON-NLS-1$
+                    .append("    event.header := struct {\n") //$NON-NLS-1$
+                    .append("        uint32_t id;\n") //$NON-NLS-1$
+                    .append("        uint64_clock_t timestamp;\n") //$NON-NLS-1$
+                    .append("    };\n") //$NON-NLS-1$
+                    .append("};\n\n") //$NON-NLS-1$
+                    .append("event {\n") //$NON-NLS-1$
+                    .append("    name = \"").append(stream.getTable().getEventName()).append("\";\n") //$NON-NLS-1$ //$NON-NLS-2$
+                    .append("    id = 0;\n") //$NON-NLS-1$
+                    .append("    stream_id = ").append(stream.getId()).append(";\n") //$NON-NLS-1$ //$NON-NLS-2$
+                    .append("    fields := struct {\n"); //$NON-NLS-1$
+            for (RocmField field : stream.getFields()) {
+                sb.append("        ").append(field.toTsdl()).append('\n'); //$NON-NLS-1$
+            }
+            sb.append("    };\n") //$NON-NLS-1$
+                    .append("};\n"); //$NON-NLS-1$
+        }
+        return sb.toString();
+    }
+
+    private static String toTsdlValue(Object value) {
+        if (value instanceof Number) {
+            return value.toString();
+        }
+        return '"' + value.toString().replace("\\", "\\\\").replace("\"", "\\\"") + '"'; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+    }
+}
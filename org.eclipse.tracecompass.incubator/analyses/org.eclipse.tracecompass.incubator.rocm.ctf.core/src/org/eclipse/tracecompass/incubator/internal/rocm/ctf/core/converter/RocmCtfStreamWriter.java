@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.converter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes the packets of one CTF stream file. The layout of the packets is the
+ * one declared by {@link RocmCtfMetadata}: every field is byte aligned and
+ * little endian, so events are appended to the packet buffer as is.
+ *
+ * A packet is flushed to the file when the next event does not fit in it. The
+ * packet size is the content size, so there is no padding at the end of the
+ * packets.
+ */
+public class RocmCtfStreamWriter implements AutoCloseable {
+
+    /** The CTF magic number */
+    static final int CTF_MAGIC = 0xC1FC1FC1;
+
+    /** Default maximum size of a packet, in bytes */
+    public static final int DEFAULT_PACKET_SIZE = 1 << 20;
+
+    /** Size of the packet header: magic and stream id */
+    private static final int PACKET_HEADER_SIZE = 2 * Integer.BYTES;
+
+    /**
+     * Size of the packet context: timestamp_begin, timestamp_end, content_size
+     * and packet_size
+     */
+    private static final int PACKET_CONTEXT_SIZE = 4 * Long.BYTES;
+
+    /** Size of the event header: event id and timestamp */
+    private static final int EVENT_HEADER_SIZE = Integer.BYTES + Long.BYTES;
+
+    private static final int PAYLOAD_START = PACKET_HEADER_SIZE + PACKET_CONTEXT_SIZE;
+
+    private final FileChannel fChannel;
+    private final int fStreamId;
+    private final int fPacketSize;
+    private ByteBuffer fPacket;
+
+    private long fPacketBegin;
+    private long fPacketEnd;
+    private int fPacketEvents = 0;
+    private long fEventCount = 0;
+
+    /**
+     * Constructor
+     *
+     * @param file
+     *            The stream file to create
+     * @param streamId
+     *            The ID of the stream, as declared in the metadata
+     * @param packetSize
+     *            The maximum size of the packets, in bytes
+     * @throws IOException
+     *             If the file cannot be created
+     */
+    public RocmCtfStreamWriter(Path file, int streamId, int packetSize) throws IOException {
+        fChannel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        fStreamId = streamId;
+        fPacketSize = packetSize;
+        fPacket = allocate(packetSize);
+        fPacket.position(PAYLOAD_START);
+    }
+
+    private static ByteBuffer allocate(int size) {
+        return ByteBuffer.allocateDirect(size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Append an event to the stream. Events must be written in timestamp
+     * order.
+     *
+     * @param eventId
+     *            The ID of the event type
+     * @param timestamp
+     *            The timestamp of the event, in clock cycles
+     * @param payload
+     *            The encoded payload of the event, from its position to its
+     *            limit. The buffer's position is moved to its limit.
+     * @throws IOException
+     *             If a packet cannot be written
+     */
+    public void writeEvent(int eventId, long timestamp, ByteBuffer payload) throws IOException {
+        int eventSize = EVENT_HEADER_SIZE + payload.remaining();
+        if (fPacket.remaining() < eventSize) {
+            flushPacket();
+            if (fPacket.remaining() < eventSize) {
+                /* Huge event, it gets a packet of its own */
+                fPacket = allocate(PAYLOAD_START + eventSize);
+                fPacket.position(PAYLOAD_START);
+            }
+        }
+        if (fPacketEvents == 0) {
+            fPacketBegin = timestamp;
+        }
+        fPacketEnd = timestamp;
+        fPacket.putInt(eventId);
+        fPacket.putLong(timestamp);
+        fPacket.put(payload);
+        fPacketEvents++;
+        fEventCount++;
+    }
+
+    private void flushPacket() throws IOException {
+        if (fPacketEvents == 0) {
+            return;
+        }
+        ByteBuffer packet = fPacket;
+        long sizeBits = (long) packet.position() * Byte.SIZE;
+        packet.putInt(0, CTF_MAGIC);
+        packet.putInt(Integer.BYTES, fStreamId);
+        packet.putLong(PACKET_HEADER_SIZE, fPacketBegin);
+        packet.putLong(PACKET_HEADER_SIZE + Long.BYTES, fPacketEnd);
+        /* content_size and packet_size */
+        packet.putLong(PACKET_HEADER_SIZE + 2 * Long.BYTES, sizeBits);
+        packet.putLong(PACKET_HEADER_SIZE + 3 * Long.BYTES, sizeBits);
+        packet.flip();
+        while (packet.hasRemaining()) {
+            fChannel.write(packet);
+        }
+        if (packet.capacity() != fPacketSize) {
+            fPacket = allocate(fPacketSize);
+        }
+        fPacket.clear();
+        fPacket.position(PAYLOAD_START);
+        fPacketEvents = 0;
+    }
+
+    /**
+     * @return The number of events written to this stream
+     */
+    public long getEventCount() {
+        return fEventCount;
+    }
+
+    /**
+     * Flush the last packet and close the file
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flushPacket();
+        } finally {
+            fChannel.close();
+        }
+    }
+}
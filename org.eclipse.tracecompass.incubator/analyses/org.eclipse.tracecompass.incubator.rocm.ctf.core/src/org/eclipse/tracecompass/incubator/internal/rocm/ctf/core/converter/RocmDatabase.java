@@ -0,0 +1,174 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.converter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.converter.RocmCtfMetadata.StreamDescription;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Access to a rocprof SQLite database, shared by the CTF converter and the
+ * trace type that reads the database directly.
+ *
+ * A SQLite JDBC driver (org.sqlite.JDBC) must be available at runtime.
+ */
+public final class RocmDatabase {
+
+    private static final String SQLITE_DRIVER = "org.sqlite.JDBC"; //$NON-NLS-1$
+    private static final String SQLITE_URL_PREFIX = "jdbc:sqlite:"; //$NON-NLS-1$
+    private static final String PID_FIELD = "pid"; //$NON-NLS-1$
+
+    private RocmDatabase() {
+        // Do nothing
+    }
+
+    /**
+     * Make sure the SQLite JDBC driver is loaded
+     *
+     * @throws IOException
+     *             If no driver is available
+     */
+    public static void loadDriver() throws IOException {
+        try {
+            Class.forName(SQLITE_DRIVER);
+        } catch (ClassNotFoundException e) {
+            throw new IOException("No SQLite JDBC driver available", e); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Open a new connection to a database
+     *
+     * @param database
+     *            The path to the database file
+     * @return The connection, to be closed by the caller
+     * @throws SQLException
+     *             If the database cannot be opened
+     */
+    public static Connection openConnection(Path database) throws SQLException {
+        return DriverManager.getConnection(SQLITE_URL_PREFIX + database.toAbsolutePath());
+    }
+
+    /**
+     * Get the non-empty known tables of the database and the fields of their
+     * events. The streams are numbered in the order of the tables in the
+     * database.
+     *
+     * @param connection
+     *            The connection to the database
+     * @return The description of the stream of each table
+     * @throws SQLException
+     *             If the tables cannot be read
+     */
+    public static List<StreamDescription> detectStreams(Connection connection) throws SQLException {
+        List<String> tableNames = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery("SELECT name FROM sqlite_master WHERE type='table';")) { //$NON-NLS-1$
+            while (rs.next()) {
+                tableNames.add(rs.getString(1));
+            }
+        }
+        List<StreamDescription> streams = new ArrayList<>();
+        for (String tableName : tableNames) {
+            RocmTable table = RocmTable.fromTableName(tableName);
+            if (table == null || isEmpty(connection, table)) {
+                continue;
+            }
+            List<String> columns = getColumns(connection, table);
+            ImmutableList.Builder<RocmField> fields = ImmutableList.builder();
+            for (RocmField field : table.getFields()) {
+                if (!field.isOptional() || columns.contains(field.getColumn())) {
+                    fields.add(field);
+                }
+            }
+            for (String column : columns) {
+                if (table.isCounterColumn(column)) {
+                    fields.add(RocmField.integer(toIdentifier(column), column));
+                }
+            }
+            streams.add(new StreamDescription(streams.size(), table, fields.build()));
+        }
+        return streams;
+    }
+
+    /**
+     * Get the PID of the profiled process, from the first row of the first
+     * stream that has a PID field
+     *
+     * @param connection
+     *            The connection to the database
+     * @param streams
+     *            The streams of the database
+     * @return The PID, or <code>null</code> if no table has one
+     * @throws SQLException
+     *             If the tables cannot be read
+     */
+    public static @Nullable Long findProcessId(Connection connection, List<StreamDescription> streams) throws SQLException {
+        for (StreamDescription stream : streams) {
+            for (RocmField field : stream.getFields()) {
+                if (!field.getName().equals(PID_FIELD)) {
+                    continue;
+                }
+                try (Statement statement = connection.createStatement();
+                        ResultSet rs = statement.executeQuery("SELECT \"" + field.getColumn() + "\" FROM \"" + stream.getTable().getTableName() + "\" LIMIT 1;")) { //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                    if (rs.next()) {
+                        return rs.getLong(1);
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean isEmpty(Connection connection, RocmTable table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery("SELECT 1 FROM \"" + table.getTableName() + "\" LIMIT 1;")) { //$NON-NLS-1$ //$NON-NLS-2$
+            return !rs.next();
+        }
+    }
+
+    private static List<String> getColumns(Connection connection, RocmTable table) throws SQLException {
+        List<String> columns = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery("PRAGMA table_info(\"" + table.getTableName() + "\");")) { //$NON-NLS-1$ //$NON-NLS-2$
+            while (rs.next()) {
+                String column = rs.getString("name"); //$NON-NLS-1$
+                if (column != null) {
+                    columns.add(column);
+                }
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Make a valid TSDL identifier out of a column name
+     */
+    private static String toIdentifier(String column) {
+        String identifier = column.replaceAll("[^A-Za-z0-9_]", "_"); //$NON-NLS-1$ //$NON-NLS-2$
+        if (identifier.isEmpty() || Character.isDigit(identifier.charAt(0))) {
+            identifier = '_' + identifier;
+        }
+        return identifier;
+    }
+}
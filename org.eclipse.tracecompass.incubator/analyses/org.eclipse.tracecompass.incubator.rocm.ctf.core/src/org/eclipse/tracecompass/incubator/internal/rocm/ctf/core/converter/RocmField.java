@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.converter;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Description of one payload field of a ROCm event, and where its value comes
+ * from in the rocprof database.
+ */
+public final class RocmField {
+
+    /** Name of the payload field that receives the enter/exit suffix */
+    public static final String NAME_FIELD = "name"; //$NON-NLS-1$
+
+    private final String fName;
+    private final @Nullable String fColumn;
+    private final @Nullable String fConstant;
+    private final boolean fIsString;
+    private final boolean fIsOptional;
+
+    private RocmField(String name, @Nullable String column, @Nullable String constant, boolean isString, boolean isOptional) {
+        fName = name;
+        fColumn = column;
+        fConstant = constant;
+        fIsString = isString;
+        fIsOptional = isOptional;
+    }
+
+    /**
+     * Create an unsigned integer field read from a column
+     *
+     * @param name
+     *            The name of the CTF field
+     * @param column
+     *            The name of the SQLite column
+     * @return The field
+     */
+    static RocmField integer(String name, String column) {
+        return new RocmField(name, column, null, false, false);
+    }
+
+    /**
+     * Create an unsigned integer field read from a column that only some
+     * versions of rocprof write. The field is left out of the event when the
+     * table does not have the column.
+     *
+     * @param name
+     *            The name of the CTF field
+     * @param column
+     *            The name of the SQLite column
+     * @return The field
+     */
+    static RocmField optionalInteger(String name, String column) {
+        return new RocmField(name, column, null, false, true);
+    }
+
+    /**
+     * Create a string field read from a column
+     *
+     * @param name
+     *            The name of the CTF field
+     * @param column
+     *            The name of the SQLite column
+     * @return The field
+     */
+    static RocmField string(String name, String column) {
+        return new RocmField(name, column, null, true, false);
+    }
+
+    /**
+     * Create a string field that has the same value for every row
+     *
+     * @param name
+     *            The name of the CTF field
+     * @param value
+     *            The value of the field
+     * @return The field
+     */
+    static RocmField constant(String name, String value) {
+        return new RocmField(name, null, value, true, false);
+    }
+
+    /**
+     * @return The name of the CTF field
+     */
+    public String getName() {
+        return fName;
+    }
+
+    /**
+     * @return The SQLite column this field is read from, or <code>null</code>
+     *         for constant fields
+     */
+    public @Nullable String getColumn() {
+        return fColumn;
+    }
+
+    /**
+     * @return The value of a constant field, <code>null</code> otherwise
+     */
+    public @Nullable String getConstant() {
+        return fConstant;
+    }
+
+    /**
+     * @return Whether this field is a string, otherwise it is an unsigned
+     *         64-bit integer
+     */
+    public boolean isString() {
+        return fIsString;
+    }
+
+    /**
+     * @return Whether this field is left out when its column is missing
+     */
+    public boolean isOptional() {
+        return fIsOptional;
+    }
+
+    /**
+     * @return Whether this field is the event name that gets suffixed with
+     *         _enter and _exit
+     */
+    public boolean isNameField() {
+        return fIsString && NAME_FIELD.equals(fName);
+    }
+
+    /**
+     * @return The TSDL declaration of this field
+     */
+    String toTsdl() {
+        return (fIsString ? "string " : "uint64_t ") + fName + ';'; //$NON-NLS-1$ //$NON-NLS-2$
+    }
+}
@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.converter;
+
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * The tables of a rocprof database that can be converted to CTF, with the
+ * event type and payload fields they produce. The layout of the events is the
+ * same as the one produced by the babeltrace plugin (bt_plugin_rocm.py), so
+ * traces produced by either converter can be analyzed the same way.
+ */
+public enum RocmTable {
+
+    /** GPU kernel executions */
+    COMPUTE_KERNELS("A", "compute_kernels_hsa", true, ImmutableList.of( //$NON-NLS-1$ //$NON-NLS-2$
+            RocmField.string("kernel_name", "KernelName"), //$NON-NLS-1$ //$NON-NLS-2$
+            RocmField.integer("gpu_id", "gpu-id"), //$NON-NLS-1$ //$NON-NLS-2$
+            RocmField.integer("queue_id", "queue-id"), //$NON-NLS-1$ //$NON-NLS-2$
+            RocmField.integer("kernel_dispatch_id", "Index"), //$NON-NLS-1$ //$NON-NLS-2$
+            RocmField.integer("pid", "pid"), //$NON-NLS-1$ //$NON-NLS-2$
+            RocmField.integer("tid", "tid"), //$NON-NLS-1$ //$NON-NLS-2$
+            RocmField.integer("grd", "grd"), //$NON-NLS-1$ //$NON-NLS-2$
+            RocmField.integer("wgr", "wgr"), //$NON-NLS-1$ //$NON-NLS-2$
+            RocmField.integer("lds", "lds"), //$NON-NLS-1$ //$NON-NLS-2$
+            RocmField.integer("scr", "scr"), //$NON-NLS-1$ //$NON-NLS-2$
+            RocmField.integer("vgpr", "vgpr"), //$NON-NLS-1$ //$NON-NLS-2$
+            RocmField.integer("sgpr", "sgpr"), //$NON-NLS-1$ //$NON-NLS-2$
+            RocmField.integer("fbar", "fbar"), //$NON-NLS-1$ //$NON-NLS-2$
+            RocmField.string("sig", "sig"), //$NON-NLS-1$ //$NON-NLS-2$
+            RocmField.string("obj", "obj"), //$NON-NLS-1$ //$NON-NLS-2$
+            RocmField.integer("dipatch_time", "DispatchNs"), //$NON-NLS-1$ //$NON-NLS-2$
+            RocmField.integer("complete_time", "CompleteNs"))), //$NON-NLS-1$ //$NON-NLS-2$
+
+    /** HCC operations */
+    HCC_OPS("OPS", "hcc_ops", true, ImmutableList.of( //$NON-NLS-1$ //$NON-NLS-2$
+            RocmField.string(RocmField.NAME_FIELD, "Name"), //$NON-NLS-1$
+            RocmField.integer("queue_id", "queue-id"), //$NON-NLS-1$ //$NON-NLS-2$
+            RocmField.integer("tid", "tid"), //$NON-NLS-1$ //$NON-NLS-2$
+            RocmField.integer("pid", "proc-id"), //$NON-NLS-1$ //$NON-NLS-2$
+            RocmField.integer("stream_id", "dev-id"), //$NON-NLS-1$ //$NON-NLS-2$
+            RocmField.integer("index", "Index"))), //$NON-NLS-1$ //$NON-NLS-2$
+
+    /** Asynchronous memory copies */
+    ASYNC_COPY("COPY", "async_copy", true, ImmutableList.of( //$NON-NLS-1$ //$NON-NLS-2$
+            RocmField.constant(RocmField.NAME_FIELD, "async-copy"), //$NON-NLS-1$
+            RocmField.integer("index", "Index"))), //$NON-NLS-1$ //$NON-NLS-2$
+
+    /** HSA API calls */
+    HSA_API("HSA", "hsa_api", true, apiFields()), //$NON-NLS-1$ //$NON-NLS-2$
+
+    /**
+     * HIP API calls, with the correlation id of the HCC operation they launch
+     * when rocprof writes it
+     */
+    HIP_API("HIP", "hip_api", true, ImmutableList.<RocmField> builder() //$NON-NLS-1$ //$NON-NLS-2$
+            .addAll(apiFields())
+            .add(RocmField.optionalInteger("correlation_id", "Index")) //$NON-NLS-1$ //$NON-NLS-2$
+            .build()),
+
+    /** KFD API calls */
+    KFD_API("KFD", "kfd_api", true, apiFields()), //$NON-NLS-1$ //$NON-NLS-2$
+
+    /** ROCTX markers, they only have a begin time */
+    ROCTX("rocTX", "roctx", false, ImmutableList.of( //$NON-NLS-1$ //$NON-NLS-2$
+            RocmField.integer("pid", "pid"), //$NON-NLS-1$ //$NON-NLS-2$
+            RocmField.integer("tid", "tid"), //$NON-NLS-1$ //$NON-NLS-2$
+            RocmField.string(RocmField.NAME_FIELD, "Name"))); //$NON-NLS-1$
+
+    /** Column containing the begin time of a row, in nanoseconds */
+    public static final String BEGIN_COLUMN = "BeginNs"; //$NON-NLS-1$
+    /** Column containing the end time of a row, in nanoseconds */
+    public static final String END_COLUMN = "EndNs"; //$NON-NLS-1$
+
+    /**
+     * Columns of the kernel table that are never exported as performance
+     * counters, on top of the ones already mapped to a field
+     */
+    private static final Set<String> NOT_COUNTERS = ImmutableSet.of("queue-index", BEGIN_COLUMN, END_COLUMN, "DurationNs"); //$NON-NLS-1$ //$NON-NLS-2$
+
+    private final String fTableName;
+    private final String fEventName;
+    private final boolean fHasEnd;
+    private final List<RocmField> fFields;
+
+    private RocmTable(String tableName, String eventName, boolean hasEnd, List<RocmField> fields) {
+        fTableName = tableName;
+        fEventName = eventName;
+        fHasEnd = hasEnd;
+        fFields = fields;
+    }
+
+    private static List<RocmField> apiFields() {
+        return ImmutableList.of(
+                RocmField.integer("tid", "tid"), //$NON-NLS-1$ //$NON-NLS-2$
+                RocmField.string(RocmField.NAME_FIELD, "Name"), //$NON-NLS-1$
+                RocmField.string("args", "args")); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /**
+     * Get the table description from a SQLite table name
+     *
+     * @param tableName
+     *            The name of the table in the database
+     * @return The table, or <code>null</code> if this table is not a known
+     *         rocprof table
+     */
+    public static @Nullable RocmTable fromTableName(String tableName) {
+        for (RocmTable table : values()) {
+            if (table.fTableName.equals(tableName)) {
+                return table;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return The name of the table in the database
+     */
+    public String getTableName() {
+        return fTableName;
+    }
+
+    /**
+     * @return The name of the event produced for each row
+     */
+    public String getEventName() {
+        return fEventName;
+    }
+
+    /**
+     * @return Whether the rows have an end time, in which case each row
+     *         produces an enter and an exit event
+     */
+    public boolean hasEnd() {
+        return fHasEnd;
+    }
+
+    /**
+     * @return The fixed payload fields of this event type
+     */
+    public List<RocmField> getFields() {
+        return fFields;
+    }
+
+    /**
+     * Get whether a column of this table is a performance counter added by
+     * rocprof. Only the kernel table has such columns.
+     *
+     * @param column
+     *            The name of the column
+     * @return Whether this column should be exported as an additional field
+     */
+    public boolean isCounterColumn(String column) {
+        if (this != COMPUTE_KERNELS || NOT_COUNTERS.contains(column)) {
+            return false;
+        }
+        for (RocmField field : fFields) {
+            if (column.equals(field.getColumn()) || column.equals(field.getName())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,191 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.converter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.converter.RocmCtfMetadata.StreamDescription;
+
+/**
+ * Converts one table of the rocprof database to one CTF stream. Each worker
+ * has its own database connection and its own stream file, so tables are
+ * converted independently of each other.
+ *
+ * Rows are read in begin time order and each row produces an enter event at
+ * its begin time and an exit event at its end time. As rows overlap, exit
+ * events are kept in a priority queue until no future enter event can come
+ * before them.
+ */
+class RocmTableConverter implements Callable<Long> {
+
+    private static final byte[] ENTER_SUFFIX = "_enter".getBytes(StandardCharsets.UTF_8); //$NON-NLS-1$
+    private static final byte[] EXIT_SUFFIX = "_exit".getBytes(StandardCharsets.UTF_8); //$NON-NLS-1$
+    private static final byte[] NO_BYTES = new byte[0];
+    private static final int INITIAL_PAYLOAD_SIZE = 4096;
+
+    private final ConnectionFactory fConnectionFactory;
+    private final StreamDescription fStream;
+    private final Path fStreamFile;
+    private final int fPacketSize;
+
+    private ByteBuffer fPayload = ByteBuffer.allocate(INITIAL_PAYLOAD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+    /**
+     * Opens a new connection to the database for a worker
+     */
+    @FunctionalInterface
+    interface ConnectionFactory {
+        /**
+         * @return A new connection to the database
+         * @throws SQLException
+         *             If the database cannot be opened
+         */
+        Connection open() throws SQLException;
+    }
+
+    /**
+     * A pending exit event, ordered by timestamp, then by row order
+     */
+    private static final class PendingEvent implements Comparable<PendingEvent> {
+        private final long fTimestamp;
+        private final long fRank;
+        private final byte[] fPayload;
+
+        public PendingEvent(long timestamp, long rank, byte[] payload) {
+            fTimestamp = timestamp;
+            fRank = rank;
+            fPayload = payload;
+        }
+
+        @Override
+        public int compareTo(PendingEvent o) {
+            int cmp = Long.compare(fTimestamp, o.fTimestamp);
+            return (cmp != 0) ? cmp : Long.compare(fRank, o.fRank);
+        }
+    }
+
+    /**
+     * Constructor
+     *
+     * @param connectionFactory
+     *            Opens the connection to the database used by this worker
+     * @param stream
+     *            The description of the stream to write
+     * @param streamFile
+     *            The stream file to create
+     * @param packetSize
+     *            The maximum size of the packets, in bytes
+     */
+    public RocmTableConverter(ConnectionFactory connectionFactory, StreamDescription stream, Path streamFile, int packetSize) {
+        fConnectionFactory = connectionFactory;
+        fStream = stream;
+        fStreamFile = streamFile;
+        fPacketSize = packetSize;
+    }
+
+    /**
+     * Convert the table
+     *
+     * @return The number of events written to the stream
+     */
+    @Override
+    public Long call() throws IOException, SQLException {
+        RocmTable table = fStream.getTable();
+        List<RocmField> fields = fStream.getFields();
+        String query = "SELECT * FROM \"" + table.getTableName() + "\" ORDER BY " + RocmTable.BEGIN_COLUMN + ';'; //$NON-NLS-1$ //$NON-NLS-2$
+        try (Connection connection = fConnectionFactory.open();
+                Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery(query);
+                RocmCtfStreamWriter writer = new RocmCtfStreamWriter(fStreamFile, fStream.getId(), fPacketSize)) {
+            /* Resolve the column indexes once */
+            int[] columns = new int[fields.size()];
+            for (int i = 0; i < columns.length; i++) {
+                String column = fields.get(i).getColumn();
+                columns[i] = (column == null) ? -1 : rs.findColumn(column);
+            }
+            int beginColumn = rs.findColumn(RocmTable.BEGIN_COLUMN);
+            int endColumn = table.hasEnd() ? rs.findColumn(RocmTable.END_COLUMN) : -1;
+
+            PriorityQueue<PendingEvent> pending = new PriorityQueue<>();
+            long rank = 0;
+            while (rs.next()) {
+                long begin = rs.getLong(beginColumn);
+                /* Exit events that happen before this row begins */
+                writePending(writer, pending, begin);
+                writer.writeEvent(0, begin, encodePayload(rs, fields, columns, ENTER_SUFFIX));
+                if (endColumn > 0) {
+                    ByteBuffer exitPayload = encodePayload(rs, fields, columns, EXIT_SUFFIX);
+                    byte[] copy = new byte[exitPayload.remaining()];
+                    exitPayload.get(copy);
+                    pending.add(new PendingEvent(rs.getLong(endColumn), rank++, copy));
+                }
+            }
+            writePending(writer, pending, Long.MAX_VALUE);
+            return writer.getEventCount();
+        }
+    }
+
+    private static void writePending(RocmCtfStreamWriter writer, PriorityQueue<PendingEvent> pending, long upTo) throws IOException {
+        PendingEvent exit = pending.peek();
+        while (exit != null && exit.fTimestamp <= upTo) {
+            pending.poll();
+            writer.writeEvent(0, exit.fTimestamp, ByteBuffer.wrap(exit.fPayload));
+            exit = pending.peek();
+        }
+    }
+
+    /**
+     * Encode the payload of the current row in the reusable payload buffer.
+     * The returned buffer is valid until the next call.
+     */
+    private ByteBuffer encodePayload(ResultSet rs, List<RocmField> fields, int[] columns, byte[] nameSuffix) throws SQLException {
+        ByteBuffer payload = fPayload;
+        payload.clear();
+        for (int i = 0; i < columns.length; i++) {
+            RocmField field = fields.get(i);
+            if (field.isString()) {
+                String value = (columns[i] < 0) ? field.getConstant() : rs.getString(columns[i]);
+                byte[] bytes = (value == null) ? NO_BYTES : value.getBytes(StandardCharsets.UTF_8);
+                byte[] suffix = field.isNameField() ? nameSuffix : NO_BYTES;
+                payload = ensureRemaining(payload, bytes.length + suffix.length + 1);
+                payload.put(bytes).put(suffix).put((byte) 0);
+            } else {
+                payload = ensureRemaining(payload, Long.BYTES);
+                payload.putLong(rs.getLong(columns[i]));
+            }
+        }
+        payload.flip();
+        return payload;
+    }
+
+    private ByteBuffer ensureRemaining(ByteBuffer payload, int size) {
+        if (payload.remaining() >= size) {
+            return payload;
+        }
+        ByteBuffer bigger = ByteBuffer.allocate(Math.max(payload.capacity() * 2, payload.position() + size)).order(ByteOrder.LITTLE_ENDIAN);
+        payload.flip();
+        bigger.put(payload);
+        fPayload = bigger;
+        return bigger;
+    }
+}
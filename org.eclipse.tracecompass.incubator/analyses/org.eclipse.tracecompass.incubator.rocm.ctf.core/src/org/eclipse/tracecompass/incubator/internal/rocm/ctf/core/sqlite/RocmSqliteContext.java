@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.sqlite;
+
+import java.sql.SQLException;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.Activator;
+import org.eclipse.tracecompass.tmf.core.trace.TmfContext;
+import org.eclipse.tracecompass.tmf.core.trace.location.ITmfLocation;
+import org.eclipse.tracecompass.tmf.ctf.core.context.CtfLocation;
+import org.eclipse.tracecompass.tmf.ctf.core.context.CtfLocationInfo;
+
+/**
+ * Context of a rocprof database trace. The location is the same as a CTF
+ * location: a timestamp and the number of events to skip at that timestamp.
+ *
+ * The context owns a {@link RocmSqliteReader}, opened on the first read. The
+ * reader is only moved with a seek when the location of the context was
+ * changed from outside, otherwise events are read sequentially.
+ */
+public class RocmSqliteContext extends TmfContext {
+
+    private final RocmSqliteIndex fIndex;
+    private @Nullable RocmSqliteReader fReader = null;
+    private @Nullable CtfLocation fReaderLocation = null;
+
+    /**
+     * Constructor
+     *
+     * @param index
+     *            The index of the database
+     * @param location
+     *            The location of the context
+     * @param rank
+     *            The rank of the context
+     */
+    public RocmSqliteContext(RocmSqliteIndex index, CtfLocation location, long rank) {
+        super(location, rank);
+        fIndex = index;
+    }
+
+    /**
+     * Get the cursor positioned on the event at the location of this context
+     *
+     * @return The cursor of the table that has the event, or <code>null</code>
+     *         if there are no more events
+     * @throws SQLException
+     *             If the database cannot be read
+     */
+    public @Nullable RocmTableCursor getCurrentCursor() throws SQLException {
+        ITmfLocation location = getLocation();
+        if (!(location instanceof CtfLocation)) {
+            return null;
+        }
+        RocmSqliteReader reader = fReader;
+        if (reader == null) {
+            reader = new RocmSqliteReader(fIndex);
+            fReader = reader;
+        }
+        if (!location.equals(fReaderLocation)) {
+            CtfLocationInfo info = ((CtfLocation) location).getLocationInfo();
+            reader.seek(info.getTimestamp());
+            for (long i = 0; i < info.getIndex(); i++) {
+                RocmTableCursor cursor = reader.getCurrentCursor();
+                if (cursor == null || cursor.getTimestamp() != info.getTimestamp()) {
+                    break;
+                }
+                reader.advance();
+            }
+            fReaderLocation = (CtfLocation) location;
+        }
+        return reader.getCurrentCursor();
+    }
+
+    /**
+     * Move the reader past the current event
+     *
+     * @return The location of the next event
+     * @throws SQLException
+     *             If the database cannot be read
+     */
+    public @Nullable CtfLocation advance() throws SQLException {
+        RocmTableCursor cursor = getCurrentCursor();
+        RocmSqliteReader reader = fReader;
+        CtfLocation readerLocation = fReaderLocation;
+        if (cursor == null || reader == null || readerLocation == null) {
+            return null;
+        }
+        long timestamp = cursor.getTimestamp();
+        CtfLocationInfo info = readerLocation.getLocationInfo();
+        long index = (info.getTimestamp() == timestamp) ? info.getIndex() + 1 : 1;
+        reader.advance();
+        CtfLocation next = new CtfLocation(timestamp, index);
+        fReaderLocation = next;
+        return next;
+    }
+
+    @Override
+    public void dispose() {
+        RocmSqliteReader reader = fReader;
+        fReader = null;
+        fReaderLocation = null;
+        if (reader != null) {
+            try {
+                reader.close();
+            } catch (SQLException e) {
+                Activator.getInstance().logError("Error closing the database reader", e); //$NON-NLS-1$
+            }
+        }
+    }
+}
@@ -0,0 +1,253 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.sqlite;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.converter.RocmCtfMetadata.StreamDescription;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.converter.RocmDatabase;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.converter.RocmTable;
+
+/**
+ * Time index of a rocprof database, kept in a SQLite file of its own so the
+ * profile database is never modified.
+ *
+ * For each table, the index has a table of (rank, source row, begin, end)
+ * where the rank is the order of the row by begin time, with an SQL index on
+ * the begin time. The cursors of {@link RocmSqliteReader} use it to seek to
+ * any timestamp and to read the rows in time order without sorting the whole
+ * table. The index also keeps the longest duration of each table, which
+ * bounds how far back a seek must look for rows that are still running.
+ *
+ * The index is built the first time the database is opened and rebuilt when
+ * the database file changes.
+ */
+public final class RocmSqliteIndex {
+
+    /** Schema name of the index database, attached to the connections */
+    static final String SCHEMA = "idx"; //$NON-NLS-1$
+
+    private static final int INDEX_VERSION = 1;
+    private static final String INFO_TABLE = "rocm_index_info"; //$NON-NLS-1$
+    private static final String TABLES_TABLE = "rocm_index_tables"; //$NON-NLS-1$
+    private static final String KEY_VERSION = "version"; //$NON-NLS-1$
+    private static final String KEY_SIZE = "size"; //$NON-NLS-1$
+    private static final String KEY_MODIFIED = "modified"; //$NON-NLS-1$
+
+    private final Path fDatabase;
+    private final Path fIndexFile;
+    private final List<StreamDescription> fStreams;
+    private final long[] fMaxDurations;
+    private final long fStartTime;
+    private final long fEndTime;
+
+    private RocmSqliteIndex(Path database, Path indexFile, List<StreamDescription> streams, long[] maxDurations, long startTime, long endTime) {
+        fDatabase = database;
+        fIndexFile = indexFile;
+        fStreams = streams;
+        fMaxDurations = maxDurations;
+        fStartTime = startTime;
+        fEndTime = endTime;
+    }
+
+    /**
+     * Open the index of a database, building it if it does not exist or if
+     * it is out of date
+     *
+     * @param database
+     *            The path to the rocprof database
+     * @param indexFile
+     *            The path to the index file
+     * @return The index
+     * @throws IOException
+     *             If the database cannot be read or the index cannot be
+     *             written
+     */
+    public static RocmSqliteIndex open(Path database, Path indexFile) throws IOException {
+        RocmDatabase.loadDriver();
+        long size = Files.size(database);
+        long modified = Files.getLastModifiedTime(database).toMillis();
+        try {
+            if (!isUpToDate(database, indexFile, size, modified)) {
+                Files.deleteIfExists(indexFile);
+                build(database, indexFile, size, modified);
+            }
+            try (Connection connection = openConnection(database, indexFile)) {
+                List<StreamDescription> streams = RocmDatabase.detectStreams(connection);
+                long[] maxDurations = new long[streams.size()];
+                long startTime = Long.MAX_VALUE;
+                long endTime = Long.MIN_VALUE;
+                String query = "SELECT begin_ns, end_ns, max_duration FROM " + SCHEMA + '.' + TABLES_TABLE + " WHERE table_name = ?;"; //$NON-NLS-1$ //$NON-NLS-2$
+                try (PreparedStatement statement = connection.prepareStatement(query)) {
+                    for (StreamDescription stream : streams) {
+                        statement.setString(1, stream.getTable().getTableName());
+                        try (ResultSet rs = statement.executeQuery()) {
+                            if (!rs.next()) {
+                                throw new IOException("Index " + indexFile + " has no table " + stream.getTable().getTableName()); //$NON-NLS-1$ //$NON-NLS-2$
+                            }
+                            startTime = Math.min(startTime, rs.getLong(1));
+                            endTime = Math.max(endTime, rs.getLong(2));
+                            maxDurations[stream.getId()] = rs.getLong(3);
+                        }
+                    }
+                }
+                if (streams.isEmpty()) {
+                    startTime = 0;
+                    endTime = 0;
+                }
+                return new RocmSqliteIndex(database, indexFile, streams, maxDurations, startTime, endTime);
+            }
+        } catch (SQLException e) {
+            throw new IOException("Error indexing " + database, e); //$NON-NLS-1$
+        }
+    }
+
+    private static Connection openConnection(Path database, Path indexFile) throws SQLException {
+        Connection connection = RocmDatabase.openConnection(database);
+        try (PreparedStatement statement = connection.prepareStatement("ATTACH DATABASE ? AS " + SCHEMA + ';')) { //$NON-NLS-1$
+            statement.setString(1, indexFile.toAbsolutePath().toString());
+            statement.execute();
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        return connection;
+    }
+
+    private static boolean isUpToDate(Path database, Path indexFile, long size, long modified) throws SQLException {
+        if (!Files.isRegularFile(indexFile)) {
+            return false;
+        }
+        try (Connection connection = openConnection(database, indexFile);
+                Statement statement = connection.createStatement()) {
+            try (ResultSet rs = statement.executeQuery("SELECT 1 FROM " + SCHEMA + ".sqlite_master WHERE type='table' AND name='" + INFO_TABLE + "';")) { //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                if (!rs.next()) {
+                    return false;
+                }
+            }
+            long version = -1;
+            long indexedSize = -1;
+            long indexedModified = -1;
+            try (ResultSet rs = statement.executeQuery("SELECT key, value FROM " + SCHEMA + '.' + INFO_TABLE + ';')) { //$NON-NLS-1$
+                while (rs.next()) {
+                    String key = rs.getString(1);
+                    if (KEY_VERSION.equals(key)) {
+                        version = rs.getLong(2);
+                    } else if (KEY_SIZE.equals(key)) {
+                        indexedSize = rs.getLong(2);
+                    } else if (KEY_MODIFIED.equals(key)) {
+                        indexedModified = rs.getLong(2);
+                    }
+                }
+            }
+            return version == INDEX_VERSION && indexedSize == size && indexedModified == modified;
+        }
+    }
+
+    private static void build(Path database, Path indexFile, long size, long modified) throws SQLException {
+        try (Connection connection = openConnection(database, indexFile);
+                Statement statement = connection.createStatement()) {
+            connection.setAutoCommit(false);
+            statement.execute("CREATE TABLE " + SCHEMA + '.' + TABLES_TABLE + " (table_name TEXT PRIMARY KEY, begin_ns INTEGER, end_ns INTEGER, max_duration INTEGER);"); //$NON-NLS-1$ //$NON-NLS-2$
+            for (StreamDescription stream : RocmDatabase.detectStreams(connection)) {
+                RocmTable table = stream.getTable();
+                String tableName = table.getTableName();
+                String orderTable = getOrderTable(table);
+                String endColumn = table.hasEnd() ? RocmTable.END_COLUMN : RocmTable.BEGIN_COLUMN;
+                statement.execute("CREATE TABLE " + SCHEMA + ".\"" + orderTable + "\" (rank INTEGER PRIMARY KEY, source_row INTEGER NOT NULL, begin_ns INTEGER NOT NULL, end_ns INTEGER NOT NULL);"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                /* Rows are inserted in begin time order, so the rank follows it */
+                statement.execute("INSERT INTO " + SCHEMA + ".\"" + orderTable + "\" (source_row, begin_ns, end_ns) SELECT rowid, " + RocmTable.BEGIN_COLUMN + ", " + endColumn //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+                        + " FROM main.\"" + tableName + "\" ORDER BY " + RocmTable.BEGIN_COLUMN + ", rowid;"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                statement.execute("CREATE INDEX " + SCHEMA + ".\"" + orderTable + "_begin\" ON \"" + orderTable + "\" (begin_ns);"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+                statement.execute("INSERT INTO " + SCHEMA + '.' + TABLES_TABLE + " SELECT '" + tableName + "', min(begin_ns), max(end_ns), max(end_ns - begin_ns) FROM " + SCHEMA + ".\"" + orderTable + "\";"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+            }
+            /* The info is written last, an interrupted build is never used */
+            statement.execute("CREATE TABLE " + SCHEMA + '.' + INFO_TABLE + " (key TEXT PRIMARY KEY, value INTEGER);"); //$NON-NLS-1$ //$NON-NLS-2$
+            try (PreparedStatement info = connection.prepareStatement("INSERT INTO " + SCHEMA + '.' + INFO_TABLE + " VALUES (?, ?);")) { //$NON-NLS-1$ //$NON-NLS-2$
+                addInfo(info, KEY_VERSION, INDEX_VERSION);
+                addInfo(info, KEY_SIZE, size);
+                addInfo(info, KEY_MODIFIED, modified);
+                info.executeBatch();
+            }
+            connection.commit();
+        }
+    }
+
+    private static void addInfo(PreparedStatement info, String key, long value) throws SQLException {
+        info.setString(1, key);
+        info.setLong(2, value);
+        info.addBatch();
+    }
+
+    /**
+     * Get the name of the index table of a table
+     *
+     * @param table
+     *            The rocprof table
+     * @return The name of the table in the index schema
+     */
+    static String getOrderTable(RocmTable table) {
+        return table.getTableName() + "_order"; //$NON-NLS-1$
+    }
+
+    /**
+     * Open a new connection to the database, with the index attached as the
+     * {@link #SCHEMA} schema
+     *
+     * @return The connection, to be closed by the caller
+     * @throws SQLException
+     *             If the database cannot be opened
+     */
+    public Connection openConnection() throws SQLException {
+        return openConnection(fDatabase, fIndexFile);
+    }
+
+    /**
+     * @return The streams of the database, one per non-empty table
+     */
+    public List<StreamDescription> getStreams() {
+        return fStreams;
+    }
+
+    /**
+     * Get the longest duration of the rows of a stream
+     *
+     * @param streamId
+     *            The ID of the stream
+     * @return The longest duration, in nanoseconds
+     */
+    public long getMaxDuration(int streamId) {
+        return fMaxDurations[streamId];
+    }
+
+    /**
+     * @return The begin time of the first row, in nanoseconds
+     */
+    public long getStartTime() {
+        return fStartTime;
+    }
+
+    /**
+     * @return The end time of the last row, in nanoseconds
+     */
+    public long getEndTime() {
+        return fEndTime;
+    }
+}
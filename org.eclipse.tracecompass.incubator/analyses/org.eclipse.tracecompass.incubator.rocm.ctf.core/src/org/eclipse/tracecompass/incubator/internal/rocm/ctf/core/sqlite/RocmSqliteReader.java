@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.sqlite;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.converter.RocmCtfMetadata.StreamDescription;
+
+/**
+ * Reads the events of all the tables of a rocprof database in time order. It
+ * keeps one {@link RocmTableCursor} per table and merges them lazily with a
+ * priority queue, like the CTF trace reader merges its stream readers.
+ *
+ * Each reader has its own connection to the database, so readers can be used
+ * by different threads.
+ */
+public class RocmSqliteReader implements AutoCloseable {
+
+    private static final Comparator<RocmTableCursor> CURSOR_COMPARATOR = Comparator
+            .comparingLong(RocmTableCursor::getTimestamp)
+            .thenComparingInt(cursor -> cursor.getStream().getId());
+
+    private final Connection fConnection;
+    private final List<RocmTableCursor> fCursors = new ArrayList<>();
+    private final PriorityQueue<RocmTableCursor> fPrio;
+
+    /**
+     * Constructor
+     *
+     * @param index
+     *            The index of the database
+     * @throws SQLException
+     *             If the database cannot be opened
+     */
+    public RocmSqliteReader(RocmSqliteIndex index) throws SQLException {
+        fConnection = index.openConnection();
+        List<StreamDescription> streams = index.getStreams();
+        fPrio = new PriorityQueue<>(Math.max(1, streams.size()), CURSOR_COMPARATOR);
+        try {
+            for (StreamDescription stream : streams) {
+                fCursors.add(new RocmTableCursor(fConnection, stream, index.getMaxDuration(stream.getId())));
+            }
+        } catch (SQLException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Seek to the first event at or after a timestamp
+     *
+     * @param timestamp
+     *            The timestamp, in nanoseconds
+     * @return Whether there is an event at or after this timestamp
+     * @throws SQLException
+     *             If the database cannot be read
+     */
+    public boolean seek(long timestamp) throws SQLException {
+        fPrio.clear();
+        for (RocmTableCursor cursor : fCursors) {
+            if (cursor.seek(timestamp)) {
+                fPrio.add(cursor);
+            }
+        }
+        return !fPrio.isEmpty();
+    }
+
+    /**
+     * Get the cursor of the table that has the current event
+     *
+     * @return The cursor positioned on the current event, or <code>null</code>
+     *         if there are no more events
+     */
+    public @Nullable RocmTableCursor getCurrentCursor() {
+        return fPrio.peek();
+    }
+
+    /**
+     * Move to the next event
+     *
+     * @return Whether there is a next event
+     * @throws SQLException
+     *             If the database cannot be read
+     */
+    public boolean advance() throws SQLException {
+        RocmTableCursor top = fPrio.poll();
+        if (top != null && top.advance()) {
+            fPrio.add(top);
+        }
+        return !fPrio.isEmpty();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        fPrio.clear();
+        SQLException exception = null;
+        for (RocmTableCursor cursor : fCursors) {
+            try {
+                cursor.close();
+            } catch (SQLException e) {
+                exception = e;
+            }
+        }
+        fCursors.clear();
+        fConnection.close();
+        if (exception != null) {
+            throw exception;
+        }
+    }
+}
@@ -0,0 +1,276 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.sqlite;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.converter.RocmCtfMetadata.StreamDescription;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.converter.RocmField;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.converter.RocmTable;
+
+/**
+ * Cursor over the events of one table of a rocprof database, the equivalent
+ * of a CTF stream input reader.
+ *
+ * Rows are read in begin time order through the index and each row produces
+ * an enter event at its begin time and an exit event at its end time. Exit
+ * events wait in a priority queue until no enter event can come before them.
+ * This is the same order as the events of the stream written by the CTF
+ * converter for this table.
+ */
+public class RocmTableCursor implements AutoCloseable {
+
+    /* Columns of the index table, before the columns of the table */
+    private static final int RANK_COLUMN = 1;
+    private static final int BEGIN_COLUMN = 2;
+    private static final int END_COLUMN = 3;
+
+    private final StreamDescription fStream;
+    private final long fMaxDuration;
+    private final PreparedStatement fRunningStatement;
+    private final PreparedStatement fRowsStatement;
+    private final PriorityQueue<PendingExit> fPending = new PriorityQueue<>();
+
+    private @Nullable ResultSet fRows = null;
+    private int @Nullable [] fColumns = null;
+
+    /* The next row to read, if any */
+    private Object @Nullable [] fNextValues = null;
+    private long fNextBegin;
+    private long fNextEnd;
+    private long fNextRank;
+
+    /* The current event */
+    private Object[] fValues = new Object[0];
+    private long fTimestamp;
+    private boolean fExit;
+    private boolean fHasEvent = false;
+
+    /**
+     * An exit event waiting for its timestamp, ordered by timestamp then by
+     * row rank
+     */
+    private static final class PendingExit implements Comparable<PendingExit> {
+        private final long fTimestamp;
+        private final long fRank;
+        private final Object[] fValues;
+
+        public PendingExit(long timestamp, long rank, Object[] values) {
+            fTimestamp = timestamp;
+            fRank = rank;
+            fValues = values;
+        }
+
+        @Override
+        public int compareTo(PendingExit o) {
+            int cmp = Long.compare(fTimestamp, o.fTimestamp);
+            return (cmp != 0) ? cmp : Long.compare(fRank, o.fRank);
+        }
+    }
+
+    /**
+     * Constructor
+     *
+     * @param connection
+     *            The connection to the database, with the index attached
+     * @param stream
+     *            The description of the stream of the table
+     * @param maxDuration
+     *            The longest duration of the rows of the table
+     * @throws SQLException
+     *             If the queries cannot be prepared
+     */
+    public RocmTableCursor(Connection connection, StreamDescription stream, long maxDuration) throws SQLException {
+        fStream = stream;
+        fMaxDuration = maxDuration;
+        RocmTable table = stream.getTable();
+        String from = " FROM " + RocmSqliteIndex.SCHEMA + ".\"" + RocmSqliteIndex.getOrderTable(table) + "\" i JOIN main.\"" + table.getTableName() + "\" m ON m.rowid = i.source_row "; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+        String select = "SELECT i.rank, i.begin_ns, i.end_ns, m.*" + from; //$NON-NLS-1$
+        /* Rows that began before the seek time and are still running */
+        fRunningStatement = connection.prepareStatement(select + "WHERE i.begin_ns >= ? AND i.begin_ns < ? AND i.end_ns >= ? ORDER BY i.begin_ns, i.rank;"); //$NON-NLS-1$
+        fRowsStatement = connection.prepareStatement(select + "WHERE i.begin_ns >= ? ORDER BY i.begin_ns, i.rank;"); //$NON-NLS-1$
+    }
+
+    /**
+     * Seek to the first event at or after a timestamp. The cursor is then
+     * positioned on that event, if there is one.
+     *
+     * @param timestamp
+     *            The timestamp, in nanoseconds
+     * @return Whether there is an event at or after this timestamp
+     * @throws SQLException
+     *             If the table cannot be read
+     */
+    public boolean seek(long timestamp) throws SQLException {
+        closeRows();
+        fPending.clear();
+        if (fStream.getTable().hasEnd()) {
+            long earliest = (timestamp < Long.MIN_VALUE + fMaxDuration) ? Long.MIN_VALUE : timestamp - fMaxDuration;
+            fRunningStatement.setLong(1, earliest);
+            fRunningStatement.setLong(2, timestamp);
+            fRunningStatement.setLong(3, timestamp);
+            try (ResultSet rs = fRunningStatement.executeQuery()) {
+                int[] columns = resolveColumns(rs);
+                while (rs.next()) {
+                    fPending.add(new PendingExit(rs.getLong(END_COLUMN), rs.getLong(RANK_COLUMN), readValues(rs, columns)));
+                }
+            }
+        }
+        fRowsStatement.setLong(1, timestamp);
+        ResultSet rows = fRowsStatement.executeQuery();
+        fRows = rows;
+        fColumns = resolveColumns(rows);
+        readNextRow();
+        return advance();
+    }
+
+    /**
+     * Move to the next event of the table
+     *
+     * @return Whether there is a next event
+     * @throws SQLException
+     *             If the table cannot be read
+     */
+    public boolean advance() throws SQLException {
+        PendingExit exit = fPending.peek();
+        Object[] nextValues = fNextValues;
+        if (nextValues != null && (exit == null || fNextBegin < exit.fTimestamp)) {
+            setEvent(fNextBegin, nextValues, false);
+            if (fStream.getTable().hasEnd()) {
+                fPending.add(new PendingExit(fNextEnd, fNextRank, nextValues));
+            }
+            readNextRow();
+        } else if (exit != null) {
+            fPending.poll();
+            setEvent(exit.fTimestamp, exit.fValues, true);
+        } else {
+            fHasEvent = false;
+        }
+        return fHasEvent;
+    }
+
+    private void setEvent(long timestamp, Object[] values, boolean exit) {
+        fTimestamp = timestamp;
+        fValues = values;
+        fExit = exit;
+        fHasEvent = true;
+    }
+
+    private void readNextRow() throws SQLException {
+        ResultSet rows = fRows;
+        int[] columns = fColumns;
+        if (rows == null || columns == null || !rows.next()) {
+            fNextValues = null;
+            closeRows();
+            return;
+        }
+        fNextRank = rows.getLong(RANK_COLUMN);
+        fNextBegin = rows.getLong(BEGIN_COLUMN);
+        fNextEnd = rows.getLong(END_COLUMN);
+        fNextValues = readValues(rows, columns);
+    }
+
+    /**
+     * Resolve the column of each field once per query
+     */
+    private int[] resolveColumns(ResultSet rs) throws SQLException {
+        List<RocmField> fields = fStream.getFields();
+        int[] columns = new int[fields.size()];
+        for (int i = 0; i < columns.length; i++) {
+            String column = fields.get(i).getColumn();
+            columns[i] = (column == null) ? -1 : rs.findColumn(column);
+        }
+        return columns;
+    }
+
+    private Object[] readValues(ResultSet rs, int[] columns) throws SQLException {
+        List<RocmField> fields = fStream.getFields();
+        Object[] values = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            RocmField field = fields.get(i);
+            if (columns[i] < 0) {
+                values[i] = field.getConstant();
+            } else if (field.isString()) {
+                String value = rs.getString(columns[i]);
+                values[i] = (value == null) ? "" : value; //$NON-NLS-1$
+            } else {
+                values[i] = rs.getLong(columns[i]);
+            }
+        }
+        return values;
+    }
+
+    private void closeRows() throws SQLException {
+        ResultSet rows = fRows;
+        fRows = null;
+        fColumns = null;
+        if (rows != null) {
+            rows.close();
+        }
+    }
+
+    /**
+     * @return The description of the stream of this table
+     */
+    public StreamDescription getStream() {
+        return fStream;
+    }
+
+    /**
+     * @return Whether the cursor is on an event
+     */
+    public boolean hasEvent() {
+        return fHasEvent;
+    }
+
+    /**
+     * @return The timestamp of the current event, in nanoseconds
+     */
+    public long getTimestamp() {
+        return fTimestamp;
+    }
+
+    /**
+     * @return The values of the fields of the current event, in the order of
+     *         the fields of the stream. They are shared by the enter and exit
+     *         events of a row and must not be modified.
+     */
+    public Object[] getValues() {
+        return fValues;
+    }
+
+    /**
+     * @return Whether the current event is the exit event of its row
+     */
+    public boolean isExit() {
+        return fExit;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            closeRows();
+        } finally {
+            try {
+                fRunningStatement.close();
+            } finally {
+                fRowsStatement.close();
+            }
+        }
+    }
+}
@@ -9,6 +9,7 @@ import org.eclipse.core.runtime.Status;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.Activator;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.converter.RocmCtfMetadata;
 import org.eclipse.tracecompass.tmf.core.event.aspect.ITmfEventAspect;
 import org.eclipse.tracecompass.tmf.core.event.aspect.TmfBaseAspects;
 import org.eclipse.tracecompass.tmf.core.filter.ITmfFilter;
@@ -34,6 +35,57 @@ public class RocmCtfTrace extends CtfTmfTrace {
         super();
     }
 
+    /**
+     * Get the name of the node where the trace was recorded, if the converter
+     * wrote it in the environment of the trace. The traces of the same node
+     * share their clock, so their clock offsets are averaged when they are
+     * opened in the same experiment.
+     */
+    @Override
+    public String getHostId() {
+        String hostname = getEnvironmentString(RocmCtfMetadata.ENV_HOSTNAME);
+        return (hostname == null || hostname.isEmpty()) ? super.getHostId() : hostname;
+    }
+
+    /**
+     * Get the MPI rank of the profiled process
+     *
+     * @return The rank, or -1 if the trace does not have it
+     */
+    public int getRank() {
+        return (int) getEnvironmentLong(RocmCtfMetadata.ENV_RANK);
+    }
+
+    /**
+     * Get the PID of the profiled process
+     *
+     * @return The PID, or -1 if the trace does not have it
+     */
+    public long getPid() {
+        return getEnvironmentLong(RocmCtfMetadata.ENV_PID);
+    }
+
+    /* The string values of the environment are quoted */
+    private @Nullable String getEnvironmentString(String name) {
+        String value = getEnvironment().get(name);
+        if (value != null && value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) { //$NON-NLS-1$ //$NON-NLS-2$
+            return value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+
+    private long getEnvironmentLong(String name) {
+        String value = getEnvironmentString(name);
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
     @Override
     public Iterable<ITmfEventAspect<?>> getEventAspects() {
         return ROCM_CTF_ASPECTS;
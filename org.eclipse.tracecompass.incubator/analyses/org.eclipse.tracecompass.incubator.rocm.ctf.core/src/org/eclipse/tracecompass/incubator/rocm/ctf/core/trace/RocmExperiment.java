@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.rocm.ctf.core.trace;
+
+import java.util.Collections;
+import java.util.Set;
+
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.experiment.TmfExperiment;
+
+/**
+ * Experiment with the {@link RocmCtfTrace}s of the ranks of an MPI job, each
+ * rank profiled to its own database.
+ *
+ * The traces of a node share the same clock, so the experiment averages their
+ * clock offsets and applies the corrections as timestamp transforms of the
+ * traces, which are then merged in a single pass. The host of a trace is the
+ * hostname of its environment, see {@link RocmCtfTrace#getHostId()}.
+ */
+public class RocmExperiment extends TmfExperiment {
+
+    /**
+     * Default constructor. Needed by the extension point.
+     */
+    @SuppressWarnings("unchecked")
+    public RocmExperiment() {
+        this("", Collections.EMPTY_SET); //$NON-NLS-1$
+    }
+
+    /**
+     * Constructor with traces and id
+     *
+     * @param id
+     *            The ID of this experiment
+     * @param traces
+     *            The set of traces that are part of this experiment
+     */
+    public RocmExperiment(String id, Set<ITmfTrace> traces) {
+        super(ITmfEvent.class, id, traces.toArray(new ITmfTrace[traces.size()]), TmfExperiment.DEFAULT_INDEX_PAGE_SIZE, null);
+    }
+}
@@ -0,0 +1,235 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.rocm.ctf.core.trace;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.Activator;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.converter.RocmCtfMetadata.StreamDescription;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.converter.RocmDatabase;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.converter.RocmField;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.sqlite.RocmSqliteContext;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.sqlite.RocmSqliteIndex;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.sqlite.RocmTableCursor;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEventField;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEventType;
+import org.eclipse.tracecompass.tmf.core.event.TmfEvent;
+import org.eclipse.tracecompass.tmf.core.event.TmfEventField;
+import org.eclipse.tracecompass.tmf.core.event.TmfEventType;
+import org.eclipse.tracecompass.tmf.core.event.aspect.ITmfEventAspect;
+import org.eclipse.tracecompass.tmf.core.event.aspect.TmfBaseAspects;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTraceWithPreDefinedEvents;
+import org.eclipse.tracecompass.tmf.core.trace.TmfContext;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
+import org.eclipse.tracecompass.tmf.core.trace.TraceValidationStatus;
+import org.eclipse.tracecompass.tmf.core.trace.location.ITmfLocation;
+import org.eclipse.tracecompass.tmf.ctf.core.context.CtfLocation;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * ROCm trace read directly from the SQLite database written by rocprof,
+ * without converting it to CTF first.
+ *
+ * The events have the same names and fields as the ones of a
+ * {@link RocmCtfTrace} converted from the same database, so the ROCm analyses
+ * apply to both trace types. A time index of the database is built in the
+ * supplementary files the first time the trace is opened.
+ */
+public class RocmSqliteTrace extends TmfTrace implements ITmfTraceWithPreDefinedEvents {
+
+    private static final Collection<@NonNull ITmfEventAspect<?>> ROCM_SQLITE_ASPECTS = TmfBaseAspects.getBaseAspects();
+    private static final int CONFIDENCE = 100;
+    private static final String INDEX_FILE = "rocm-sqlite-index.db"; //$NON-NLS-1$
+    private static final byte[] SQLITE_MAGIC = "SQLite format 3\0".getBytes(StandardCharsets.US_ASCII); //$NON-NLS-1$
+    private static final String ENTER_SUFFIX = "_enter"; //$NON-NLS-1$
+    private static final String EXIT_SUFFIX = "_exit"; //$NON-NLS-1$
+
+    private @Nullable RocmSqliteIndex fIndex = null;
+    private ITmfEventType[] fEventTypes = new ITmfEventType[0];
+    private CtfLocation fCurrentLocation = new CtfLocation(0L, 0L);
+
+    /**
+     * Constructor
+     */
+    public RocmSqliteTrace() {
+        super();
+    }
+
+    @Override
+    public Iterable<ITmfEventAspect<?>> getEventAspects() {
+        return ROCM_SQLITE_ASPECTS;
+    }
+
+    @Override
+    public IStatus validate(@Nullable IProject project, @Nullable String path) {
+        if (path == null) {
+            return new Status(IStatus.ERROR, Activator.PLUGIN_ID, "No path"); //$NON-NLS-1$
+        }
+        Path database = Paths.get(path);
+        if (!Files.isRegularFile(database)) {
+            return new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Not a file: " + path); //$NON-NLS-1$
+        }
+        try {
+            byte[] header = new byte[SQLITE_MAGIC.length];
+            try (InputStream input = Files.newInputStream(database)) {
+                if (input.read(header) != header.length || !Arrays.equals(header, SQLITE_MAGIC)) {
+                    return new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Not a SQLite database: " + path); //$NON-NLS-1$
+                }
+            }
+            RocmDatabase.loadDriver();
+            try (Connection connection = RocmDatabase.openConnection(database)) {
+                if (RocmDatabase.detectStreams(connection).isEmpty()) {
+                    return new Status(IStatus.ERROR, Activator.PLUGIN_ID, "This database has no rocprof table"); //$NON-NLS-1$
+                }
+            }
+        } catch (IOException | SQLException e) {
+            return new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Cannot read database " + path, e); //$NON-NLS-1$
+        }
+        return new TraceValidationStatus(CONFIDENCE, Activator.PLUGIN_ID);
+    }
+
+    @Override
+    public void initTrace(@Nullable IResource resource, @Nullable String path, @Nullable Class<? extends ITmfEvent> type) throws TmfTraceException {
+        super.initTrace(resource, path, type);
+        if (path == null) {
+            throw new TmfTraceException("No path to the database"); //$NON-NLS-1$
+        }
+        RocmSqliteIndex index;
+        try {
+            index = RocmSqliteIndex.open(Paths.get(path), Paths.get(TmfTraceManager.getSupplementaryFileDir(this), INDEX_FILE));
+        } catch (IOException e) {
+            throw new TmfTraceException(e.getMessage(), e);
+        }
+        List<StreamDescription> streams = index.getStreams();
+        ITmfEventType[] eventTypes = new ITmfEventType[streams.size()];
+        for (StreamDescription stream : streams) {
+            List<RocmField> fields = stream.getFields();
+            ITmfEventField[] fieldTemplates = new ITmfEventField[fields.size()];
+            for (int i = 0; i < fieldTemplates.length; i++) {
+                fieldTemplates[i] = new TmfEventField(fields.get(i).getName(), null, null);
+            }
+            eventTypes[stream.getId()] = new TmfEventType(stream.getTable().getEventName(), new TmfEventField(ITmfEventField.ROOT_FIELD_ID, null, fieldTemplates));
+        }
+        fEventTypes = eventTypes;
+        fIndex = index;
+        fCurrentLocation = new CtfLocation(index.getStartTime(), 0L);
+    }
+
+    @Override
+    public Set<@NonNull ITmfEventType> getContainedEventTypes() {
+        return ImmutableSet.copyOf(fEventTypes);
+    }
+
+    @Override
+    public ITmfLocation getCurrentLocation() {
+        return fCurrentLocation;
+    }
+
+    @Override
+    public double getLocationRatio(@Nullable ITmfLocation location) {
+        RocmSqliteIndex index = fIndex;
+        if (index == null || !(location instanceof CtfLocation)) {
+            return 0;
+        }
+        long span = index.getEndTime() - index.getStartTime();
+        if (span <= 0) {
+            return 0;
+        }
+        long timestamp = ((CtfLocation) location).getLocationInfo().getTimestamp();
+        return (double) (timestamp - index.getStartTime()) / span;
+    }
+
+    @Override
+    public ITmfContext seekEvent(@Nullable ITmfLocation location) {
+        RocmSqliteIndex index = fIndex;
+        if (index == null) {
+            return new TmfContext(location, ITmfContext.UNKNOWN_RANK);
+        }
+        if (location instanceof CtfLocation) {
+            return new RocmSqliteContext(index, (CtfLocation) location, ITmfContext.UNKNOWN_RANK);
+        }
+        return new RocmSqliteContext(index, new CtfLocation(index.getStartTime(), 0L), 0L);
+    }
+
+    @Override
+    public ITmfContext seekEvent(double ratio) {
+        RocmSqliteIndex index = fIndex;
+        if (index == null) {
+            return seekEvent((ITmfLocation) null);
+        }
+        long span = index.getEndTime() - index.getStartTime();
+        return seekEvent(new CtfLocation(index.getStartTime() + (long) (ratio * span), 0L));
+    }
+
+    @Override
+    public synchronized @Nullable ITmfEvent parseEvent(@Nullable ITmfContext context) {
+        if (!(context instanceof RocmSqliteContext)) {
+            return null;
+        }
+        RocmSqliteContext sqliteContext = (RocmSqliteContext) context;
+        try {
+            RocmTableCursor cursor = sqliteContext.getCurrentCursor();
+            if (cursor == null) {
+                return null;
+            }
+            ITmfEvent event = createEvent(cursor, context.getRank());
+            CtfLocation next = sqliteContext.advance();
+            if (next != null) {
+                fCurrentLocation = next;
+            }
+            return event;
+        } catch (SQLException e) {
+            Activator.getInstance().logError("Error reading the database of trace " + getName(), e); //$NON-NLS-1$
+            return null;
+        }
+    }
+
+    private ITmfEvent createEvent(RocmTableCursor cursor, long rank) {
+        StreamDescription stream = cursor.getStream();
+        List<RocmField> fields = stream.getFields();
+        Object[] values = cursor.getValues();
+        ITmfEventField[] eventFields = new ITmfEventField[values.length];
+        for (int i = 0; i < values.length; i++) {
+            RocmField field = fields.get(i);
+            Object value = values[i];
+            if (field.isNameField()) {
+                value = String.valueOf(value) + (cursor.isExit() ? EXIT_SUFFIX : ENTER_SUFFIX);
+            }
+            eventFields[i] = new TmfEventField(field.getName(), value, null);
+        }
+        ITmfEventField content = new TmfEventField(ITmfEventField.ROOT_FIELD_ID, null, eventFields);
+        return new TmfEvent(this, rank, TmfTimestamp.fromNanos(cursor.getTimestamp()), fEventTypes[stream.getId()], content);
+    }
+}
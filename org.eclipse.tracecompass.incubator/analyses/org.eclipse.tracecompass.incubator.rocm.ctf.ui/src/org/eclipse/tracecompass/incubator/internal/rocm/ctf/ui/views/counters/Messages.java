@@ -0,0 +1,50 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.rocm.ctf.ui.views.counters;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.osgi.util.NLS;
+
+/**
+ * Messages for the ROCm GPU counters view
+ */
+public class Messages extends NLS {
+
+    private static final String BUNDLE_NAME = "org.eclipse.tracecompass.incubator.internal.rocm.ctf.ui.views.counters.messages"; //$NON-NLS-1$
+
+    /** Title of the view */
+    public static @Nullable String RocmGpuCountersView_Title;
+    /** Title of the chart */
+    public static @Nullable String RocmGpuCountersView_ChartTitle;
+    /** Title of the X axis */
+    public static @Nullable String RocmGpuCountersView_XAxis;
+    /** Title of the Y axis */
+    public static @Nullable String RocmGpuCountersView_YAxis;
+    /** Name column of the tree */
+    public static @Nullable String RocmGpuCountersView_NameColumn;
+    /** Legend column of the tree */
+    public static @Nullable String RocmGpuCountersView_LegendColumn;
+
+    static {
+        NLS.initializeMessages(BUNDLE_NAME, Messages.class);
+    }
+
+    private Messages() {
+    }
+
+    /**
+     * Helper method to expose externalized strings as non-null objects.
+     */
+    static String getMessage(@Nullable String msg) {
+        return (msg == null) ? "" : msg; //$NON-NLS-1$
+    }
+}
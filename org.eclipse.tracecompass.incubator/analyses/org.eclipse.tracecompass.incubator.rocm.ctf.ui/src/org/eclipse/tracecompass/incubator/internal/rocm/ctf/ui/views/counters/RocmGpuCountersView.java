@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.rocm.ctf.ui.views.counters;
+
+import java.util.Comparator;
+import java.util.Objects;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.analysis.RocmGpuCountersDataProvider;
+import org.eclipse.tracecompass.tmf.ui.viewers.TmfViewer;
+import org.eclipse.tracecompass.tmf.ui.viewers.tree.AbstractSelectTreeViewer2;
+import org.eclipse.tracecompass.tmf.ui.viewers.tree.ITmfTreeColumnDataProvider;
+import org.eclipse.tracecompass.tmf.ui.viewers.tree.TmfGenericTreeEntry;
+import org.eclipse.tracecompass.tmf.ui.viewers.tree.TmfTreeColumnData;
+import org.eclipse.tracecompass.tmf.ui.viewers.xychart.TmfXYChartViewer;
+import org.eclipse.tracecompass.tmf.ui.viewers.xychart.linechart.TmfFilteredXYChartViewer;
+import org.eclipse.tracecompass.tmf.ui.viewers.xychart.linechart.TmfXYChartSettings;
+import org.eclipse.tracecompass.tmf.ui.views.xychart.TmfChartView;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * XY view of the GPU counters of a ROCm trace: the operations in flight and
+ * the busy ratio of the GPUs, queues, HCC devices and copy engines, and the
+ * bytes copied. The tree on the left selects the counters to plot.
+ */
+public class RocmGpuCountersView extends TmfChartView {
+
+    /** The view's ID */
+    public static final String ID = "org.eclipse.tracecompass.incubator.rocm.ctf.ui.views.gpucounters"; //$NON-NLS-1$
+
+    /**
+     * Tree of the counters, with a legend column for the selected ones
+     */
+    private static final class CountersTreeViewer extends AbstractSelectTreeViewer2 {
+
+        public CountersTreeViewer(Composite parent) {
+            super(parent, 1, RocmGpuCountersDataProvider.ID);
+        }
+
+        @Override
+        protected ITmfTreeColumnDataProvider getColumnDataProvider() {
+            return () -> ImmutableList.of(
+                    createColumn(Messages.getMessage(Messages.RocmGpuCountersView_NameColumn), Comparator.comparing(TmfGenericTreeEntry::getName)),
+                    new TmfTreeColumnData(Messages.getMessage(Messages.RocmGpuCountersView_LegendColumn)));
+        }
+    }
+
+    /**
+     * Constructor
+     */
+    public RocmGpuCountersView() {
+        super(Messages.getMessage(Messages.RocmGpuCountersView_Title));
+    }
+
+    @Override
+    protected TmfXYChartViewer createChartViewer(Composite parent) {
+        TmfXYChartSettings settings = new TmfXYChartSettings(Messages.getMessage(Messages.RocmGpuCountersView_ChartTitle),
+                Messages.getMessage(Messages.RocmGpuCountersView_XAxis), Messages.getMessage(Messages.RocmGpuCountersView_YAxis), 1);
+        return new TmfFilteredXYChartViewer(parent, settings, RocmGpuCountersDataProvider.ID);
+    }
+
+    @Override
+    protected @NonNull TmfViewer createLeftChildViewer(@Nullable Composite parent) {
+        return new CountersTreeViewer(Objects.requireNonNull(parent));
+    }
+}
@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.rocm.ctf.ui.views.latency;
+
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.tracecompass.analysis.timing.ui.views.segmentstore.density2.AbstractSegmentStoreDensityView;
+import org.eclipse.tracecompass.analysis.timing.ui.views.segmentstore.density2.AbstractSegmentStoreDensityViewer;
+import org.eclipse.tracecompass.analysis.timing.ui.views.segmentstore.table.AbstractSegmentStoreTableViewer;
+import org.eclipse.tracecompass.analysis.timing.ui.views.segmentstore.table.SegmentStoreTableViewer;
+import org.eclipse.tracecompass.incubator.internal.rocm.ctf.core.analysis.RocmGpuLatencyAnalysis;
+
+/**
+ * Density view of the durations of the GPU kernels and memory copies
+ */
+public class RocmGpuLatencyDensityView extends AbstractSegmentStoreDensityView {
+
+    /** The view's ID */
+    public static final String ID = "org.eclipse.tracecompass.incubator.rocm.ctf.ui.views.gpulatency.density"; //$NON-NLS-1$
+
+    /**
+     * Constructs a new density view.
+     */
+    public RocmGpuLatencyDensityView() {
+        super(ID);
+    }
+
+    @Override
+    protected AbstractSegmentStoreTableViewer createSegmentStoreTableViewer(Composite parent) {
+        return new SegmentStoreTableViewer(new TableViewer(parent, SWT.FULL_SELECTION | SWT.VIRTUAL), RocmGpuLatencyAnalysis.ID, false);
+    }
+
+    @Override
+    protected AbstractSegmentStoreDensityViewer createSegmentStoreDensityViewer(Composite parent) {
+        return new RocmGpuLatencyDensityViewer(parent);
+    }
+
+}
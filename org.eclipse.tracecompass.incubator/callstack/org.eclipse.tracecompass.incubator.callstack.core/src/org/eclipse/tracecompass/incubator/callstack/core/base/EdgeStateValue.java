@@ -39,7 +39,7 @@ public class EdgeStateValue extends CustomStateValue {
     /**
      * The {@link CustomStateValueFactory} for {@link EdgeStateValue}s
      */
-    public static final CustomStateValueFactory EDGE_STATE_VALUE_FACTORY = b -> new EdgeStateValue(b.getInt(), readHostThread(b), readHostThread(b));
+    public static final CustomStateValueFactory EDGE_STATE_VALUE_FACTORY = b -> new EdgeStateValue(b.getLong(), readHostThread(b), readHostThread(b));
 
     private static final Charset CHARSET = Charset.forName("UTF-8"); //$NON-NLS-1$
 
@@ -56,7 +56,7 @@ public class EdgeStateValue extends CustomStateValue {
         return new HostThread(host, tid);
     }
 
-    private final int fId;
+    private final long fId;
     private final HostThread fSrc;
     private final HostThread fDst;
 
@@ -64,13 +64,13 @@ public class EdgeStateValue extends CustomStateValue {
      * Constructor
      *
      * @param id
-     *            edge ID
+     *            edge ID, like the correlation id of the events it links
      * @param src
      *            source {@link HostThread}
      * @param dst
      *            destination {@link HostThread}
      */
-    public EdgeStateValue(int id, HostThread src, HostThread dst) {
+    public EdgeStateValue(long id, HostThread src, HostThread dst) {
         fId = id;
         fSrc = src;
         fDst = dst;
@@ -81,7 +81,7 @@ public class EdgeStateValue extends CustomStateValue {
      *
      * @return the edge ID
      */
-    public int getId() {
+    public long getId() {
         return fId;
     }
 
@@ -119,7 +119,7 @@ public class EdgeStateValue extends CustomStateValue {
 
     @Override
     protected void serializeValue(@NonNull ISafeByteBufferWriter buffer) {
-        buffer.putInt(fId);
+        buffer.putLong(fId);
 
         // TODO deduplicate host name when applicable.
         serializeHostThread(fSrc, buffer);
@@ -133,7 +133,7 @@ public class EdgeStateValue extends CustomStateValue {
 
     @Override
     protected int getSerializedValueSize() {
-        int size = 3 * Integer.BYTES; // fId and TIDs
+        int size = Long.BYTES + 2 * Integer.BYTES; // fId and TIDs
         /*
          * String's length + 3 (2 bytes for size, 1 byte for \0 at the end)
          */
@@ -286,7 +286,8 @@ public class FlameChartDataProvider extends AbstractTmfTraceDataProvider impleme
             Long dst = findEntry(callstacks, edge.getDestination(), interval.getEndTime() + 1);
             if (src != null && dst != null) {
                 long duration = interval.getEndTime() - interval.getStartTime() + 1;
-                tgArrows.add(new TimeGraphArrow(src, dst, interval.getStartTime(), duration, edge.getId()));
+                /* The value of the arrow only selects its style */
+                tgArrows.add(new TimeGraphArrow(src, dst, interval.getStartTime(), duration, (int) edge.getId()));
             }
         }
 
@@ -49,6 +49,7 @@ import org.eclipse.tracecompass.internal.provisional.tmf.core.model.annotations.
 import org.eclipse.tracecompass.internal.tmf.core.analysis.callsite.CallsiteAnalysis;
 import org.eclipse.tracecompass.internal.tmf.core.model.filters.FetchParametersUtils;
 import org.eclipse.tracecompass.internal.tmf.core.model.timegraph.AbstractTimeGraphDataProvider;
+import org.eclipse.tracecompass.statesystem.core.ICloseableIterable;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
 import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
 import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
@@ -386,14 +387,16 @@ public class ResourcesStatusDataProvider extends AbstractTimeGraphDataProvider<@
         Map<@NonNull Long, @NonNull Integer> idsToQuark = getSelectedEntries(filter);
         /* Add the mapping for twin entries as they are not in the parent class BiMap */
         addTwinIrqIds(filter, idsToQuark);
-        Collection<Long> times = getTimes(filter, ss.getStartTime(), ss.getCurrentEndTime());
-        /* Do the actual query */
+        long[] times = getSampleTimes(filter, ss.getStartTime(), ss.getCurrentEndTime());
+        /* Do the actual query, closing it stops the search when canceled */
         Collection<@NonNull Integer> quarks = addThreadStatus(ss, idsToQuark.values());
-        for (ITmfStateInterval interval : ss.query2D(quarks, times)) {
-            if (monitor != null && monitor.isCanceled()) {
-                return null;
+        try (ICloseableIterable<@NonNull ITmfStateInterval> query = ss.query2DParallel(quarks, times)) {
+            for (ITmfStateInterval interval : query) {
+                if (monitor != null && monitor.isCanceled()) {
+                    return null;
+                }
+                intervals.put(interval.getAttribute(), interval);
             }
-            intervals.put(interval.getAttribute(), interval);
         }
 
         Map<@NonNull Integer, @NonNull Predicate<@NonNull Multimap<@NonNull String, @NonNull Object>>> predicates = new HashMap<>();
@@ -12,6 +12,7 @@
 package org.eclipse.tracecompass.internal.analysis.os.linux.core.threadstatus;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -47,6 +48,7 @@ import org.eclipse.tracecompass.internal.provisional.tmf.core.model.annotations.
 import org.eclipse.tracecompass.internal.tmf.core.analysis.callsite.CallsiteAnalysis;
 import org.eclipse.tracecompass.internal.tmf.core.model.AbstractTmfTraceDataProvider;
 import org.eclipse.tracecompass.internal.tmf.core.model.filters.FetchParametersUtils;
+import org.eclipse.tracecompass.statesystem.core.ICloseableIterable;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
 import org.eclipse.tracecompass.statesystem.core.StateSystemUtils.QuarkIterator;
 import org.eclipse.tracecompass.statesystem.core.exceptions.AttributeNotFoundException;
@@ -459,10 +461,10 @@ public class ThreadStatusDataProvider extends AbstractTmfTraceDataProvider imple
         SelectionTimeQueryFilter filter = FetchParametersUtils.createSelectionTimeQuery(fetchParameters);
         Map<Long, Integer> selectedIdsToQuarks = getSelectedIdsToQuarks(filter);
         Collection<Integer> stateAndSyscallQuarks = addSyscall(selectedIdsToQuarks.values(), ss);
-        Collection<Long> times = getTimes(ss, filter);
-        try {
-            /* Do the actual query */
-            for (ITmfStateInterval interval : ss.query2D(stateAndSyscallQuarks, times)) {
+        long[] times = getTimes(ss, filter);
+        /* Do the actual query, closing it stops the search when canceled */
+        try (ICloseableIterable<@NonNull ITmfStateInterval> query = ss.query2DParallel(stateAndSyscallQuarks, times)) {
+            for (ITmfStateInterval interval : query) {
                 if (monitor != null && monitor.isCanceled()) {
                     return new TmfModelResponse<>(null, ITmfResponse.Status.CANCELLED, CommonStatusMessage.TASK_CANCELLED);
                 }
@@ -521,25 +523,20 @@ public class ThreadStatusDataProvider extends AbstractTmfTraceDataProvider imple
     }
 
     /**
-     * Filter and deduplicate the time stamps for the statesystem
+     * Filter the time stamps for the statesystem
      *
      * @param ss
      *            this provider's {@link ITmfStateSystem}
      * @param filter
      *            the query object
-     * @return a Set of filtered timestamps that intersect the state system's time
+     * @return the sorted timestamps that intersect the state system's time
      *         range
      */
-    private static @NonNull Collection<@NonNull Long> getTimes(ITmfStateSystem ss, TimeQueryFilter filter) {
+    private static long[] getTimes(ITmfStateSystem ss, TimeQueryFilter filter) {
         long start = ss.getStartTime();
-        // use a HashSet to deduplicate time stamps
-        Collection<@NonNull Long> times = new HashSet<>();
-        for (long t : filter.getTimesRequested()) {
-            if (t >= start) {
-                times.add(t);
-            }
-        }
-        return times;
+        return Arrays.stream(filter.getTimesRequested())
+                .filter(t -> t >= start)
+                .toArray();
     }
 
     private static @NonNull ITimeGraphState createTimeGraphState(ITmfStateInterval interval, NavigableSet<ITmfStateInterval> syscalls) {
@@ -608,7 +605,7 @@ public class ThreadStatusDataProvider extends AbstractTmfTraceDataProvider imple
                 Comparator.comparing(ITmfStateInterval::getStartTime));
         List<Integer> quarks = ss.getQuarks(Attributes.CPUS, WILDCARD, Attributes.CURRENT_THREAD);
         TimeQueryFilter filter = FetchParametersUtils.createTimeQuery(fetchParameters);
-        Collection<Long> times = getTimes(ss, filter);
+        long[] times = getTimes(ss, filter);
         try {
             /* Do the actual query */
             for (ITmfStateInterval interval : ss.query2D(quarks, times)) {
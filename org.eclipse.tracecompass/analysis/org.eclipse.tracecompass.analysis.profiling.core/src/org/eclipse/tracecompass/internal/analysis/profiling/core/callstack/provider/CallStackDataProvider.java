@@ -30,6 +30,7 @@ import org.eclipse.tracecompass.analysis.profiling.core.callstack.CallStackAnaly
 import org.eclipse.tracecompass.internal.tmf.core.analysis.callsite.CallsiteAnalysis;
 import org.eclipse.tracecompass.internal.tmf.core.model.filters.FetchParametersUtils;
 import org.eclipse.tracecompass.internal.tmf.core.model.timegraph.AbstractTimeGraphDataProvider;
+import org.eclipse.tracecompass.statesystem.core.ICloseableIterable;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
 import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
 import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
@@ -250,13 +251,15 @@ public class CallStackDataProvider extends AbstractTimeGraphDataProvider<@NonNul
         SubMonitor subMonitor = SubMonitor.convert(monitor, "CallStackDataProvider#fetchRowModel", 2); //$NON-NLS-1$
 
         ArrayListMultimap<Integer, ITmfStateInterval> intervals = ArrayListMultimap.create();
-        Collection<Long> times = getTimes(filter, ss.getStartTime(), ss.getCurrentEndTime());
-        /* Do the actual query */
-        for (ITmfStateInterval interval : ss.query2D(entries.values(), times)) {
-            if (subMonitor.isCanceled()) {
-                return null;
+        long[] times = getSampleTimes(filter, ss.getStartTime(), ss.getCurrentEndTime());
+        /* Do the actual query, closing it stops the search when canceled */
+        try (ICloseableIterable<@NonNull ITmfStateInterval> query = ss.query2DParallel(entries.values(), times)) {
+            for (ITmfStateInterval interval : query) {
+                if (subMonitor.isCanceled()) {
+                    return null;
+                }
+                intervals.put(interval.getAttribute(), interval);
             }
-            intervals.put(interval.getAttribute(), interval);
         }
         subMonitor.worked(1);
 
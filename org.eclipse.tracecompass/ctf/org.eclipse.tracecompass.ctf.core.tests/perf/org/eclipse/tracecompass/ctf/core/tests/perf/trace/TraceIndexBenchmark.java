@@ -0,0 +1,72 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.tests.perf.trace;
+
+import static org.junit.Assert.fail;
+
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.tests.shared.CtfTestTraceUtils;
+import org.eclipse.tracecompass.ctf.core.trace.CTFTrace;
+import org.eclipse.tracecompass.ctf.core.trace.CTFTraceReader;
+import org.eclipse.tracecompass.testtraces.ctf.CtfTestTrace;
+import org.junit.Test;
+
+/**
+ * Benchmark of the opening of a trace, up to its end time. The packets of all
+ * the stream files are indexed, so the elapsed time depends on how many
+ * stream files are indexed at the same time.
+ */
+public class TraceIndexBenchmark {
+
+    private static final int LOOP_COUNT = 25;
+    private static final String TEST_SUITE_NAME = "CTF Index Benchmark";
+    private static final String TEST_ID = "org.eclipse.linuxtools#" + TEST_SUITE_NAME;
+
+    /**
+     * Run the benchmark scenario for the trace "kernel"
+     */
+    @Test
+    public void testKernelTrace() {
+        indexTrace(CtfTestTrace.KERNEL, "trace-kernel");
+    }
+
+    /**
+     * Run the benchmark scenario for the trace "kernel_vm"
+     */
+    @Test
+    public void testKernelVmTrace() {
+        indexTrace(CtfTestTrace.KERNEL_VM, "trace-kernel-vm");
+    }
+
+    private static void indexTrace(CtfTestTrace testTrace, String testName) {
+        Performance perf = Performance.getDefault();
+        PerformanceMeter pm = perf.createPerformanceMeter(TEST_ID + '#' + testName);
+        perf.tagAsSummary(pm, TEST_SUITE_NAME + ':' + testName, Dimension.ELAPSED_PROCESS);
+
+        for (int loop = 0; loop < LOOP_COUNT; loop++) {
+            pm.start();
+            try {
+                CTFTrace trace = CtfTestTraceUtils.getTrace(testTrace);
+                try (CTFTraceReader traceReader = new CTFTraceReader(trace)) {
+                    traceReader.goToLastEvent();
+                }
+            } catch (CTFException e) {
+                fail("Test failed at iteration " + loop + ':' + e.getMessage());
+            }
+            pm.stop();
+        }
+        pm.commit();
+    }
+}
@@ -17,14 +17,19 @@ package org.eclipse.tracecompass.ctf.core.tests.perf.trace;
 
 import static org.junit.Assert.fail;
 
+import java.io.IOException;
+
 import org.eclipse.test.performance.Dimension;
 import org.eclipse.test.performance.Performance;
 import org.eclipse.test.performance.PerformanceMeter;
 import org.eclipse.tracecompass.ctf.core.CTFException;
 import org.eclipse.tracecompass.ctf.core.event.IEventDefinition;
 import org.eclipse.tracecompass.ctf.core.tests.shared.CtfTestTraceUtils;
+import org.eclipse.tracecompass.ctf.core.trace.CTFEventCursor;
+import org.eclipse.tracecompass.ctf.core.trace.CTFStreamInput;
 import org.eclipse.tracecompass.ctf.core.trace.CTFTrace;
 import org.eclipse.tracecompass.ctf.core.trace.CTFTraceReader;
+import org.eclipse.tracecompass.ctf.core.trace.ICTFStream;
 import org.eclipse.tracecompass.testtraces.ctf.CtfTestTrace;
 import org.junit.Test;
 
@@ -45,7 +50,15 @@ public class TraceReadBenchmark {
      */
     @Test
     public void testKernelTrace() {
-        readTrace(CtfTestTrace.KERNEL, "trace-kernel", true);
+        readTrace(CtfTestTrace.KERNEL, "trace-kernel", true, false);
+    }
+
+    /**
+     * Benchmark reading the trace "kernel", decoding the packets in parallel
+     */
+    @Test
+    public void testKernelTraceParallel() {
+        readTrace(CtfTestTrace.KERNEL, "trace-kernel-parallel", false, true);
     }
 
     /**
@@ -53,10 +66,37 @@ public class TraceReadBenchmark {
      */
     @Test
     public void testKernelVmTrace() {
-        readTrace(CtfTestTrace.KERNEL_VM, "trace-kernel-vm", false);
+        readTrace(CtfTestTrace.KERNEL_VM, "trace-kernel-vm", false, false);
+    }
+
+    /**
+     * Benchmark reading the bigger trace "kernel_vm", decoding the packets in
+     * parallel
+     */
+    @Test
+    public void testKernelVmTraceParallel() {
+        readTrace(CtfTestTrace.KERNEL_VM, "trace-kernel-vm-parallel", false, true);
+    }
+
+    /**
+     * Benchmark reading the trace "kernel" with event cursors, without
+     * creating the definitions of the events
+     */
+    @Test
+    public void testKernelTraceCursor() {
+        readTraceWithCursors(CtfTestTrace.KERNEL, "trace-kernel-cursor");
+    }
+
+    /**
+     * Benchmark reading the bigger trace "kernel_vm" with event cursors,
+     * without creating the definitions of the events
+     */
+    @Test
+    public void testKernelVmTraceCursor() {
+        readTraceWithCursors(CtfTestTrace.KERNEL_VM, "trace-kernel-vm-cursor");
     }
 
-    private static void readTrace(CtfTestTrace testTrace, String testName, boolean inGlobalSummary) {
+    private static void readTrace(CtfTestTrace testTrace, String testName, boolean inGlobalSummary, boolean parallelDecoding) {
         Performance perf = Performance.getDefault();
         PerformanceMeter pm = perf.createPerformanceMeter(TEST_ID + '#' + testName);
         perf.tagAsSummary(pm, TEST_SUITE_NAME + ':' + testName, Dimension.CPU_TIME);
@@ -70,6 +110,7 @@ public class TraceReadBenchmark {
             try {
                 CTFTrace trace = CtfTestTraceUtils.getTrace(testTrace);
                 try (CTFTraceReader traceReader = new CTFTraceReader(trace);) {
+                    traceReader.setParallelDecoding(parallelDecoding);
 
                     while (traceReader.hasMoreEvents()) {
                         IEventDefinition ed = traceReader.getCurrentEventDef();
@@ -86,4 +127,31 @@ public class TraceReadBenchmark {
         }
         pm.commit();
     }
+
+    private static void readTraceWithCursors(CtfTestTrace testTrace, String testName) {
+        Performance perf = Performance.getDefault();
+        PerformanceMeter pm = perf.createPerformanceMeter(TEST_ID + '#' + testName);
+        perf.tagAsSummary(pm, TEST_SUITE_NAME + ':' + testName, Dimension.CPU_TIME);
+
+        for (int loop = 0; loop < LOOP_COUNT; loop++) {
+            pm.start();
+            try {
+                CTFTrace trace = CtfTestTraceUtils.getTrace(testTrace);
+                for (ICTFStream stream : trace.getStreams()) {
+                    for (CTFStreamInput streamInput : stream.getStreamInputs()) {
+                        try (CTFEventCursor cursor = new CTFEventCursor(streamInput)) {
+                            while (cursor.next()) {
+                                /* Do something with the event */
+                                cursor.getCPU();
+                            }
+                        }
+                    }
+                }
+            } catch (CTFException | IOException e) {
+                fail("Test failed at iteration " + loop + ':' + e.getMessage());
+            }
+            pm.stop();
+        }
+        pm.commit();
+    }
 }
@@ -0,0 +1,185 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.tests.perf.types;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.eclipse.tracecompass.common.core.NonNullUtils;
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.IEventDefinition;
+import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
+import org.eclipse.tracecompass.ctf.core.event.io.StringDictionary;
+import org.eclipse.tracecompass.ctf.core.event.types.ICompositeDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.IDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.StringDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StringDefinition;
+import org.eclipse.tracecompass.ctf.core.tests.shared.CtfTestTraceUtils;
+import org.eclipse.tracecompass.ctf.core.trace.CTFTrace;
+import org.eclipse.tracecompass.ctf.core.trace.CTFTraceReader;
+import org.eclipse.tracecompass.testtraces.ctf.CtfTestTrace;
+import org.junit.Test;
+
+/**
+ * Benchmark of the decoding of string fields, like the kernel and API names of
+ * ROCm traces, which are long and repeated. The CPU time gives the decoding
+ * throughput and the used Java heap the memory taken by the strings kept by
+ * the events.
+ *
+ * The strings are read from a synthetic buffer of mangled names, and from the
+ * events of a real trace of a Python web server, whose logging events are
+ * made of strings.
+ */
+public class StringReadBenchmark {
+
+    private static final String TEST_SUITE_NAME = "CTF String Read Benchmark";
+    private static final String TEST_ID = "org.eclipse.linuxtools#" + TEST_SUITE_NAME;
+    private static final int LOOP_COUNT = 25;
+    private static final int TRACE_LOOP_COUNT = 10;
+
+    private static final int STRING_COUNT = 200000;
+    private static final int NAME_COUNT = 100;
+    private static final String MANGLED_NAME = "_ZN2at6native29vectorized_elementwise_kernelILi4EZZZNS0_21copy_device_to_deviceERNS_14TensorIteratorEbENKUlvE0_clEvENKUlvE2_clEvEUlN3c107complexIfEEE_NS_6detail5ArrayIPcLi2EEEEEviT0_T1_"; //$NON-NLS-1$
+
+    private static @NonNull ByteBuffer createBuffer() {
+        Random random = new Random(42);
+        byte[][] names = new byte[NAME_COUNT][];
+        int maxLength = 0;
+        for (int i = 0; i < NAME_COUNT; i++) {
+            names[i] = (MANGLED_NAME + i).getBytes(StandardCharsets.ISO_8859_1);
+            maxLength = Math.max(maxLength, names[i].length);
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(STRING_COUNT * (maxLength + 1));
+        for (int i = 0; i < STRING_COUNT; i++) {
+            buffer.put(names[random.nextInt(NAME_COUNT)]);
+            buffer.put((byte) 0);
+        }
+        buffer.flip();
+        return NonNullUtils.checkNotNull(buffer);
+    }
+
+    /**
+     * Benchmark decoding every string
+     */
+    @Test
+    public void testReadStrings() {
+        readStrings("read-strings", false);
+    }
+
+    /**
+     * Benchmark reading the strings with a string dictionary
+     */
+    @Test
+    public void testReadStringsDictionary() {
+        readStrings("read-strings-dictionary", true);
+    }
+
+    /**
+     * Benchmark reading the strings of the events of a trace, decoding every
+     * string
+     */
+    @Test
+    public void testReadTraceStrings() {
+        readTraceStrings(CtfTestTrace.DJANGO_HTTPD, "read-trace-strings", false);
+    }
+
+    /**
+     * Benchmark reading the strings of the events of a trace with the string
+     * dictionary of the trace
+     */
+    @Test
+    public void testReadTraceStringsDictionary() {
+        readTraceStrings(CtfTestTrace.DJANGO_HTTPD, "read-trace-strings-dictionary", true);
+    }
+
+    private static void readStrings(String testName, boolean useDictionary) {
+        Performance perf = Performance.getDefault();
+        PerformanceMeter pm = perf.createPerformanceMeter(TEST_ID + '#' + testName);
+        perf.tagAsSummary(pm, TEST_SUITE_NAME + ':' + testName, Dimension.CPU_TIME);
+
+        ByteBuffer buffer = createBuffer();
+        StringDeclaration declaration = StringDeclaration.getStringDeclaration();
+        for (int loop = 0; loop < LOOP_COUNT; loop++) {
+            /* Keep the strings, as the events would */
+            String[] strings = new String[STRING_COUNT];
+            BitBuffer input = new BitBuffer(buffer);
+            if (useDictionary) {
+                input.setStringDictionary(new StringDictionary());
+            }
+            pm.start();
+            try {
+                for (int i = 0; i < STRING_COUNT; i++) {
+                    strings[i] = declaration.readValue(input);
+                }
+            } catch (CTFException e) {
+                fail("Test failed at iteration " + loop + ':' + e.getMessage());
+            }
+            pm.stop();
+            assertNotNull(strings[STRING_COUNT - 1]);
+        }
+        pm.commit();
+    }
+
+    private static void readTraceStrings(CtfTestTrace testTrace, String testName, boolean useDictionary) {
+        Performance perf = Performance.getDefault();
+        PerformanceMeter pm = perf.createPerformanceMeter(TEST_ID + '#' + testName);
+        perf.tagAsSummary(pm, TEST_SUITE_NAME + ':' + testName, Dimension.CPU_TIME);
+
+        for (int loop = 0; loop < TRACE_LOOP_COUNT; loop++) {
+            /* Keep the strings, as the events would */
+            List<String> strings = new ArrayList<>();
+            pm.start();
+            try {
+                CTFTrace trace = CtfTestTraceUtils.getTrace(testTrace);
+                if (!useDictionary) {
+                    trace.setStringDictionary(null);
+                }
+                try (CTFTraceReader traceReader = new CTFTraceReader(trace)) {
+                    while (traceReader.hasMoreEvents()) {
+                        IEventDefinition event = traceReader.getCurrentEventDef();
+                        addStrings(event.getContext(), strings);
+                        addStrings(event.getFields(), strings);
+                        traceReader.advance();
+                    }
+                }
+            } catch (CTFException e) {
+                fail("Test failed at iteration " + loop + ':' + e.getMessage());
+            }
+            pm.stop();
+            assertFalse(strings.isEmpty());
+        }
+        pm.commit();
+    }
+
+    private static void addStrings(@Nullable IDefinition definition, List<String> strings) {
+        if (definition instanceof StringDefinition) {
+            strings.add(((StringDefinition) definition).getValue());
+        } else if (definition instanceof ICompositeDefinition) {
+            ICompositeDefinition composite = (ICompositeDefinition) definition;
+            for (String fieldName : composite.getFieldNames()) {
+                addStrings(composite.getDefinition(fieldName), strings);
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.tests.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.nio.ByteBuffer;
+
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
+import org.eclipse.tracecompass.ctf.core.event.io.StringDictionary;
+import org.eclipse.tracecompass.ctf.core.event.types.StringDeclaration;
+import org.junit.Test;
+
+/**
+ * Test the {@link StringDictionary}
+ */
+public class StringDictionaryTest {
+
+    private static final String KERNEL_NAME = "_ZN2at6native18elementwise_kernelILi128ELi4EEEviT1_";
+    private static final String OTHER_NAME = "hipMemcpyAsync";
+
+    private static BitBuffer createBuffer(String... strings) {
+        int size = 0;
+        for (String string : strings) {
+            size += string.length() + 1;
+        }
+        ByteBuffer buffer = Util.testMemory(ByteBuffer.allocate(size));
+        for (String string : strings) {
+            for (int i = 0; i < string.length(); i++) {
+                buffer.put((byte) string.charAt(i));
+            }
+            buffer.put((byte) 0);
+        }
+        return new BitBuffer(buffer);
+    }
+
+    /**
+     * Test that a repeated string is returned as the same instance
+     *
+     * @throws CTFException
+     *             if the buffer cannot be read
+     */
+    @Test
+    public void testRepeatedString() throws CTFException {
+        StringDictionary dictionary = new StringDictionary();
+        BitBuffer input = createBuffer(KERNEL_NAME, OTHER_NAME, KERNEL_NAME);
+        String first = dictionary.read(input);
+        assertEquals(KERNEL_NAME, first);
+        assertEquals((KERNEL_NAME.length() + 1) * Byte.SIZE, input.position());
+        assertEquals(OTHER_NAME, dictionary.read(input));
+        assertSame(first, dictionary.read(input));
+        assertEquals(input.getByteBuffer().capacity() * Byte.SIZE, input.position());
+    }
+
+    /**
+     * Test that the strings are the same as the ones decoded by the string
+     * declaration without a dictionary, including the empty string and bytes
+     * over 127
+     *
+     * @throws CTFException
+     *             if the buffer cannot be read
+     */
+    @Test
+    public void testSameAsDeclaration() throws CTFException {
+        String[] strings = { "", "caf\u00e9", KERNEL_NAME };
+        BitBuffer expected = createBuffer(strings);
+        BitBuffer input = createBuffer(strings);
+        input.setStringDictionary(new StringDictionary());
+        StringDeclaration declaration = StringDeclaration.getStringDeclaration();
+        for (int i = 0; i < strings.length; i++) {
+            assertEquals(declaration.readValue(expected), declaration.readValue(input));
+            assertEquals(expected.position(), input.position());
+        }
+    }
+
+    /**
+     * Test strings that replace each other in a dictionary of one string
+     *
+     * @throws CTFException
+     *             if the buffer cannot be read
+     */
+    @Test
+    public void testReplacedString() throws CTFException {
+        StringDictionary dictionary = new StringDictionary(1);
+        BitBuffer input = createBuffer(KERNEL_NAME, OTHER_NAME, KERNEL_NAME, OTHER_NAME);
+        assertEquals(KERNEL_NAME, dictionary.read(input));
+        assertEquals(OTHER_NAME, dictionary.read(input));
+        assertEquals(KERNEL_NAME, dictionary.read(input));
+        assertEquals(OTHER_NAME, dictionary.read(input));
+    }
+
+    /**
+     * Test a string without a null terminator
+     *
+     * @throws CTFException
+     *             if the buffer cannot be read
+     */
+    @Test
+    public void testUnterminatedString() throws CTFException {
+        BitBuffer input = new BitBuffer(Util.testMemory(ByteBuffer.wrap(new byte[] { 'a', 'b' })));
+        assertNull(new StringDictionary().read(input));
+        assertEquals(0, input.position());
+    }
+}
@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.tests.trace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.IEventDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.EnumDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.ICompositeDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.IDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.StringDefinition;
+import org.eclipse.tracecompass.ctf.core.tests.shared.CtfTestTraceUtils;
+import org.eclipse.tracecompass.ctf.core.trace.CTFEventCursor;
+import org.eclipse.tracecompass.ctf.core.trace.CTFResponse;
+import org.eclipse.tracecompass.ctf.core.trace.CTFStreamInput;
+import org.eclipse.tracecompass.ctf.core.trace.CTFStreamInputReader;
+import org.eclipse.tracecompass.ctf.core.trace.CTFTrace;
+import org.eclipse.tracecompass.internal.ctf.core.event.LostEventDeclaration;
+import org.eclipse.tracecompass.testtraces.ctf.CtfTestTrace;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test the {@link CTFEventCursor} against the {@link CTFStreamInputReader}
+ */
+public class CTFEventCursorTest {
+
+    private static final CtfTestTrace TEST_TRACE = CtfTestTrace.KERNEL;
+
+    private CTFStreamInput fStreamInput;
+
+    /**
+     * Get the stream input of the CPU 0
+     *
+     * @throws CTFException
+     *             if the trace cannot be read
+     */
+    @Before
+    public void setUp() throws CTFException {
+        CTFTrace trace = CtfTestTraceUtils.getTrace(TEST_TRACE);
+        for (CTFStreamInput streamInput : trace.getStream(0L).getStreamInputs()) {
+            if (streamInput.getFilename().endsWith("0_0")) {
+                fStreamInput = streamInput;
+            }
+        }
+        assertNotNull(fStreamInput);
+    }
+
+    /**
+     * Test that the cursor reads the same events and field values as the
+     * stream input reader
+     *
+     * @throws CTFException
+     *             if the trace cannot be read
+     * @throws IOException
+     *             if the trace cannot be closed
+     */
+    @Test
+    public void testReadAll() throws CTFException, IOException {
+        int count = 0;
+        try (CTFStreamInputReader reader = new CTFStreamInputReader(fStreamInput);
+                CTFEventCursor cursor = new CTFEventCursor(fStreamInput)) {
+            while (reader.readNextEvent() == CTFResponse.OK) {
+                IEventDefinition event = reader.getCurrentEvent();
+                assertNotNull(event);
+                if (event.getDeclaration() == LostEventDeclaration.INSTANCE) {
+                    continue;
+                }
+                assertTrue(cursor.next());
+                assertSameEvent(event, cursor);
+                count++;
+            }
+            assertFalse(cursor.next());
+        }
+        assertTrue(count > 0);
+    }
+
+    /**
+     * Test seeking the cursor to the middle of the stream
+     *
+     * @throws CTFException
+     *             if the trace cannot be read
+     * @throws IOException
+     *             if the trace cannot be closed
+     */
+    @Test
+    public void testSeek() throws CTFException, IOException {
+        try (CTFStreamInputReader reader = new CTFStreamInputReader(fStreamInput);
+                CTFEventCursor cursor = new CTFEventCursor(fStreamInput)) {
+            assertTrue(cursor.next());
+            long start = cursor.getTimestamp();
+            long timestamp = start + (fStreamInput.getTimestampEnd() - start) / 2;
+            reader.seek(timestamp);
+            IEventDefinition event = reader.getCurrentEvent();
+            assertNotNull(event);
+            assertTrue(cursor.seek(timestamp));
+            assertSameEvent(event, cursor);
+            assertFalse(cursor.seek(Long.MAX_VALUE));
+        }
+    }
+
+    /**
+     * Test looking up a field that the event does not have
+     *
+     * @throws CTFException
+     *             if the trace cannot be read
+     * @throws IOException
+     *             if the trace cannot be closed
+     */
+    @Test
+    public void testMissingField() throws CTFException, IOException {
+        try (CTFEventCursor cursor = new CTFEventCursor(fStreamInput)) {
+            assertTrue(cursor.next());
+            assertEquals(-1, cursor.getFieldIndex("no_such_field"));
+        }
+    }
+
+    private static void assertSameEvent(IEventDefinition expected, CTFEventCursor cursor) throws CTFException {
+        assertEquals(expected.getDeclaration(), cursor.getDeclaration());
+        assertEquals(expected.getTimestamp(), cursor.getTimestamp());
+        assertEquals(expected.getCPU(), cursor.getCPU());
+        ICompositeDefinition fields = expected.getFields();
+        if (fields == null) {
+            return;
+        }
+        for (String name : fields.getFieldNames()) {
+            IDefinition field = fields.getDefinition(name);
+            int index = cursor.getFieldIndex(name);
+            if (field instanceof IntegerDefinition) {
+                assertEquals(name, ((IntegerDefinition) field).getValue(), cursor.getLong(index));
+            } else if (field instanceof EnumDefinition) {
+                assertEquals(name, ((EnumDefinition) field).getIntegerValue().longValue(), cursor.getLong(index));
+                assertEquals(name, ((EnumDefinition) field).getValue(), cursor.getString(index));
+            } else if (field instanceof StringDefinition) {
+                assertEquals(name, ((StringDefinition) field).getValue(), cursor.getString(index));
+            }
+        }
+    }
+}
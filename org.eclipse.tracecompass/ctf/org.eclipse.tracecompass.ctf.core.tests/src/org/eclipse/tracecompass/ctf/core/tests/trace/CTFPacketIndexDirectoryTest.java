@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.tests.trace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.IEventDefinition;
+import org.eclipse.tracecompass.ctf.core.tests.shared.CtfTestTraceUtils;
+import org.eclipse.tracecompass.ctf.core.trace.CTFResponse;
+import org.eclipse.tracecompass.ctf.core.trace.CTFStreamInput;
+import org.eclipse.tracecompass.ctf.core.trace.CTFStreamInputReader;
+import org.eclipse.tracecompass.ctf.core.trace.CTFTrace;
+import org.eclipse.tracecompass.testtraces.ctf.CtfTestTrace;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test the packet indexes saved with
+ * {@link CTFTrace#setPacketIndexDirectory(File)}
+ */
+public class CTFPacketIndexDirectoryTest {
+
+    private static final CtfTestTrace TEST_TRACE = CtfTestTrace.KERNEL;
+
+    private File fDirectory;
+
+    /**
+     * Create the index directory
+     *
+     * @throws IOException
+     *             if the directory cannot be created
+     */
+    @Before
+    public void setUp() throws IOException {
+        fDirectory = Files.createTempDirectory("ctf-packet-index").toFile();
+    }
+
+    /**
+     * Delete the index directory
+     *
+     * @throws IOException
+     *             if the directory cannot be deleted
+     */
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(fDirectory);
+    }
+
+    /**
+     * Test that a trace opened again reads its packets from the saved index
+     * and reads the same events
+     *
+     * @throws CTFException
+     *             if the trace cannot be read
+     * @throws IOException
+     *             if the readers cannot be closed
+     */
+    @Test
+    public void testReopen() throws CTFException, IOException {
+        CTFStreamInput first = getStreamInput();
+        List<Long> expected = readTimestamps(first);
+        while (first.addPacketHeaderIndex()) {
+            // Index the whole stream
+        }
+        assertEquals(1, fDirectory.list().length);
+
+        CTFStreamInput second = getStreamInput();
+        /* All the packets are already in the index */
+        assertFalse(second.addPacketHeaderIndex());
+        assertEquals(first.getTimestampEnd(), second.getTimestampEnd());
+        assertEquals(expected, readTimestamps(second));
+    }
+
+    /**
+     * Test that a corrupted index is ignored and the stream is indexed again
+     *
+     * @throws CTFException
+     *             if the trace cannot be read
+     * @throws IOException
+     *             if the index cannot be modified
+     */
+    @Test
+    public void testCorruptedIndex() throws CTFException, IOException {
+        CTFStreamInput first = getStreamInput();
+        while (first.addPacketHeaderIndex()) {
+            // Index the whole stream
+        }
+        File indexFile = fDirectory.listFiles()[0];
+        try (RandomAccessFile file = new RandomAccessFile(indexFile, "rw")) {
+            file.setLength(file.length() / 2);
+        }
+
+        CTFStreamInput second = getStreamInput();
+        assertTrue(second.addPacketHeaderIndex());
+        assertEquals(readTimestamps(first), readTimestamps(second));
+    }
+
+    private CTFStreamInput getStreamInput() throws CTFException {
+        CTFTrace trace = CtfTestTraceUtils.getTrace(TEST_TRACE);
+        trace.setPacketIndexDirectory(fDirectory);
+        CTFStreamInput streamInput = null;
+        for (CTFStreamInput input : trace.getStream(0L).getStreamInputs()) {
+            if (input.getFilename().endsWith("0_0")) {
+                streamInput = input;
+            }
+        }
+        assertNotNull(streamInput);
+        return streamInput;
+    }
+
+    private static List<Long> readTimestamps(CTFStreamInput streamInput) throws CTFException, IOException {
+        List<Long> timestamps = new ArrayList<>();
+        try (CTFStreamInputReader reader = new CTFStreamInputReader(streamInput)) {
+            while (reader.readNextEvent() == CTFResponse.OK) {
+                IEventDefinition event = reader.getCurrentEvent();
+                assertNotNull(event);
+                timestamps.add(event.getTimestamp());
+            }
+        }
+        return timestamps;
+    }
+}
@@ -231,4 +231,58 @@ public class CTFStreamInputReaderTest {
             fixture.setCurrentEvent(eventDefinition);
         }
     }
+
+    /**
+     * Test that the readers of a stream input share its file, and that closing
+     * one of them does not close it for the others
+     *
+     * @throws CTFException
+     *             error
+     * @throws IOException
+     *             file not there
+     */
+    @Test
+    public void testSharedFile() throws CTFException, IOException {
+        CTFStreamInput streamInput = null;
+        for (CTFStreamInput si : CtfTestTraceUtils.getTrace(testTrace).getStream((long) 0).getStreamInputs()) {
+            if (si.getFilename().endsWith("0_0")) {
+                streamInput = si;
+            }
+        }
+        assertNotNull(streamInput);
+        try (CTFStreamInputReader first = new CTFStreamInputReader(streamInput);
+                CTFStreamInputReader second = new CTFStreamInputReader(streamInput)) {
+            CTFStreamInputReader third = new CTFStreamInputReader(streamInput);
+            assertEquals(CTFResponse.OK, third.readNextEvent());
+            third.close();
+            /* Closing a reader twice does not release the file twice */
+            third.close();
+            first.seek(0L);
+            second.seek(0L);
+            IEventDefinition expected = first.getCurrentEvent();
+            IEventDefinition actual = second.getCurrentEvent();
+            assertNotNull(expected);
+            assertNotNull(actual);
+            assertEquals(expected.getTimestamp(), actual.getTimestamp());
+        }
+    }
+
+    /**
+     * Test that the stream file is not opened again to read a packet once its
+     * last reader is closed, as a packet decoding task still running would do
+     *
+     * @throws CTFException
+     *             expected
+     * @throws IOException
+     *             file not there
+     */
+    @Test(expected = CTFException.class)
+    public void testReadAfterClose() throws CTFException, IOException {
+        /* A new trace, so the stream input has no other reader */
+        CTFTrace trace = new CTFTrace(CtfTestTraceUtils.getTrace(testTrace).getPath());
+        CTFStreamInput streamInput = trace.getStream((long) 0).getStreamInputs().iterator().next();
+        CTFStreamInputReader reader = new CTFStreamInputReader(streamInput);
+        reader.close();
+        reader.getByteBufferAt(0, Byte.SIZE);
+    }
 }
@@ -14,8 +14,10 @@
 package org.eclipse.tracecompass.ctf.core.tests.trace;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.FileNotFoundException;
@@ -159,4 +161,35 @@ public class CTFTraceGrowingStreamTest {
             assertNull(reader.getCurrentEventDef());
         }
     }
+
+    /**
+     * Test indexing the new packets of a growing stream, a packet that is
+     * partially written is only indexed once complete
+     *
+     * @throws CTFException won't happen
+     * @throws IOException won't happen
+     */
+    @Test
+    public void testIndexNewPackets() throws CTFException, IOException {
+        assertTrue(fFixture.indexNewPackets());
+        assertFalse(fFixture.indexNewPackets());
+        int half = fPackets[1].length / 2;
+        try (FileOutputStream fos = new FileOutputStream(fGrowingStream, true)) {
+            fos.write(fPackets[1], 0, half);
+        }
+        assertFalse(fFixture.indexNewPackets());
+        try (CTFTraceReader reader = new CTFTraceReader(fFixture);) {
+            assertEquals("0x29", reader.getCurrentEventDef().getFields().getDefinition("f").toString());
+            reader.advance();
+            assertNull(reader.getCurrentEventDef());
+        }
+        try (FileOutputStream fos = new FileOutputStream(fGrowingStream, true)) {
+            fos.write(fPackets[1], half, fPackets[1].length - half);
+        }
+        assertTrue(fFixture.indexNewPackets());
+        try (CTFTraceReader reader = new CTFTraceReader(fFixture);) {
+            reader.advance();
+            assertEquals("0xbab4face", reader.getCurrentEventDef().getFields().getDefinition("f").toString());
+        }
+    }
 }
@@ -0,0 +1,346 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.tests.trace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.IEventDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.Definition;
+import org.eclipse.tracecompass.ctf.core.event.types.IDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.StringDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.VariantDefinition;
+import org.eclipse.tracecompass.ctf.core.trace.CTFTrace;
+import org.eclipse.tracecompass.ctf.core.trace.CTFTraceReader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test the parallel decoding of the packets of a trace whose events are made
+ * of variants. The decoders of the packets share the declarations of the
+ * trace, the events must be the same as with a serial read.
+ */
+public class CTFTraceParallelDecodingTest {
+
+    private static final int NB_STREAMS = 4;
+    private static final int NB_PACKETS = 16;
+    private static final int NB_READERS = 4;
+
+    private static final int PACKET_SIZE = 4096;
+    private static final int MAX_EVENT_SIZE = 64;
+    private static final int MAGIC = 0xc1fc1fc1;
+
+    private static final String METADATA = "/* CTF 1.8 */\n"
+            + "typealias integer { size = 8; align = 8; signed = false; } := uint8_t;\n"
+            + "typealias integer { size = 32; align = 32; signed = false; } := uint32_t;\n"
+            + "typealias integer { size = 64; align = 64; signed = false; } := uint64_t;\n"
+            + "typealias integer { size = 32; align = 32; signed = true; } := int32_t;\n"
+            + "trace {\n"
+            + " major = 1;\n"
+            + " minor = 8;\n"
+            + " byte_order = le;\n"
+            + " packet.header := struct {\n"
+            + "  uint32_t magic;\n"
+            + "  uint32_t stream_id;\n"
+            + " };\n"
+            + "};\n"
+            + "stream {\n"
+            + " id = 0;\n"
+            + " packet.context := struct {\n"
+            + "  uint64_t timestamp_begin;\n"
+            + "  uint64_t timestamp_end;\n"
+            + "  uint64_t content_size;\n"
+            + "  uint64_t packet_size;\n"
+            + "  uint32_t cpu_id;\n"
+            + " };\n"
+            + " event.header := struct {\n"
+            + "  uint64_t timestamp;\n"
+            + " };\n"
+            + "};\n"
+            + "event {\n"
+            + " name = \"sample\";\n"
+            + " id = 0;\n"
+            + " stream_id = 0;\n"
+            + " fields := struct {\n"
+            + "  enum : uint8_t { number = 0, text = 1, pair = 2 } tag;\n"
+            + "  variant <tag> {\n"
+            + "   int32_t number;\n"
+            + "   string text;\n"
+            + "   struct {\n"
+            + "    uint64_t first;\n"
+            + "    uint8_t second;\n"
+            + "   } pair;\n"
+            + "  } value;\n"
+            + " };\n"
+            + "};\n";
+
+    private File fDirectory;
+
+    /**
+     * Create the trace
+     *
+     * @throws IOException
+     *             if the trace cannot be written
+     */
+    @Before
+    public void setUp() throws IOException {
+        fDirectory = Files.createTempDirectory("ctf-variant-trace").toFile();
+        createTrace(fDirectory, NB_STREAMS, NB_PACKETS);
+    }
+
+    /**
+     * Delete the trace
+     *
+     * @throws IOException
+     *             if the trace cannot be deleted
+     */
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(fDirectory);
+    }
+
+    /**
+     * Test that the parallel decoding reads the same events as a serial read,
+     * and that the variants hold the values that were written
+     *
+     * @throws CTFException
+     *             if the trace cannot be read
+     */
+    @Test
+    public void testParallelMatchesSerial() throws CTFException {
+        CTFTrace trace = new CTFTrace(fDirectory);
+        int nbEvents = 0;
+        try (CTFTraceReader serial = new CTFTraceReader(trace);
+                CTFTraceReader parallel = new CTFTraceReader(trace);) {
+            parallel.setParallelDecoding(true);
+            long[] counts = new long[NB_STREAMS];
+            while (serial.hasMoreEvents()) {
+                assertTrue(parallel.hasMoreEvents());
+                IEventDefinition expected = serial.getCurrentEventDef();
+                IEventDefinition actual = parallel.getCurrentEventDef();
+                assertEquals(expected.getTimestamp(), actual.getTimestamp());
+                assertEquals(expected.getCPU(), actual.getCPU());
+                assertEquals(String.valueOf(expected.getFields()), String.valueOf(actual.getFields()));
+                assertEvent(actual, counts);
+                serial.advance();
+                parallel.advance();
+                nbEvents++;
+            }
+            assertFalse(parallel.hasMoreEvents());
+        }
+        assertTrue(nbEvents > NB_STREAMS * NB_PACKETS);
+    }
+
+    /**
+     * Test several readers decoding the packets of the same trace in parallel
+     * at the same time
+     *
+     * @throws CTFException
+     *             if the trace cannot be read
+     * @throws InterruptedException
+     *             if the test is interrupted
+     * @throws ExecutionException
+     *             if a reader fails
+     */
+    @Test
+    public void testConcurrentReaders() throws CTFException, InterruptedException, ExecutionException {
+        CTFTrace trace = new CTFTrace(fDirectory);
+        /* The readers only share the decoding, not the indexing */
+        try (CTFTraceReader reader = new CTFTraceReader(trace);) {
+            reader.populateIndex();
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(NB_READERS);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < NB_READERS; i++) {
+                results.add(executor.submit(() -> readAll(trace)));
+            }
+            int expected = results.get(0).get();
+            for (Future<Integer> result : results) {
+                assertEquals(expected, result.get().intValue());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static int readAll(CTFTrace trace) throws CTFException {
+        int nbEvents = 0;
+        try (CTFTraceReader reader = new CTFTraceReader(trace);) {
+            reader.setParallelDecoding(true);
+            long[] counts = new long[NB_STREAMS];
+            while (reader.hasMoreEvents()) {
+                assertEvent(reader.getCurrentEventDef(), counts);
+                reader.advance();
+                nbEvents++;
+            }
+        }
+        return nbEvents;
+    }
+
+    /**
+     * Check that an event has the values written for the next event of its
+     * stream
+     */
+    private static void assertEvent(IEventDefinition event, long[] counts) {
+        int stream = event.getCPU();
+        long index = counts[stream]++;
+        assertEquals(getTimestamp(stream, index, NB_STREAMS), event.getTimestamp());
+        IDefinition value = event.getFields().getDefinition("value");
+        assertTrue(value instanceof VariantDefinition);
+        VariantDefinition variant = (VariantDefinition) value;
+        Definition field = variant.getCurrentField();
+        switch (getTag(stream, index)) {
+        case 0:
+            assertEquals("number", variant.getCurrentFieldName());
+            assertEquals(getNumber(stream, index), ((IntegerDefinition) field).getValue());
+            break;
+        case 1:
+            assertEquals("text", variant.getCurrentFieldName());
+            assertEquals(getText(index), ((StringDefinition) field).getValue());
+            break;
+        default:
+            assertEquals("pair", variant.getCurrentFieldName());
+            StructDefinition pair = (StructDefinition) field;
+            IDefinition first = pair.getDefinition("first");
+            IDefinition second = pair.getDefinition("second");
+            assertNotNull(first);
+            assertNotNull(second);
+            assertEquals(getFirst(stream, index), ((IntegerDefinition) first).getValue());
+            assertEquals(index & 0xff, ((IntegerDefinition) second).getValue());
+            break;
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Trace generation
+    // ------------------------------------------------------------------------
+
+    /**
+     * Write a trace with a stream file per CPU. Each event holds a variant
+     * that alternates between an integer, a string and a structure, the
+     * values depend on the CPU and on the index of the event in its stream.
+     *
+     * @param directory
+     *            the directory of the trace
+     * @param nbStreams
+     *            the number of stream files
+     * @param nbPackets
+     *            the number of packets of each stream file
+     * @throws IOException
+     *             if the trace cannot be written
+     */
+    static void createTrace(File directory, int nbStreams, int nbPackets) throws IOException {
+        try (PrintWriter pw = new PrintWriter(new File(directory, "metadata"), StandardCharsets.UTF_8.name())) {
+            pw.print(METADATA);
+        }
+        for (int stream = 0; stream < nbStreams; stream++) {
+            try (FileOutputStream fos = new FileOutputStream(new File(directory, "channel_" + stream))) {
+                long index = 0;
+                for (int packet = 0; packet < nbPackets; packet++) {
+                    ByteBuffer buffer = ByteBuffer.allocate(PACKET_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                    index = writePacket(buffer, stream, index, nbStreams);
+                    fos.write(buffer.array());
+                }
+            }
+        }
+    }
+
+    private static long writePacket(ByteBuffer buffer, int stream, long firstIndex, int nbStreams) {
+        buffer.putInt(MAGIC);
+        buffer.putInt(0);
+        int contextPosition = buffer.position();
+        /* The context is written once the events are known */
+        buffer.position(contextPosition + 4 * Long.BYTES + Integer.BYTES);
+        long index = firstIndex;
+        while (align(buffer.position(), Long.BYTES) + MAX_EVENT_SIZE <= PACKET_SIZE) {
+            writeEvent(buffer, stream, index, nbStreams);
+            index++;
+        }
+        int contentSize = buffer.position();
+        buffer.position(contextPosition);
+        buffer.putLong(getTimestamp(stream, firstIndex, nbStreams));
+        buffer.putLong(getTimestamp(stream, index - 1, nbStreams));
+        buffer.putLong(contentSize * (long) Byte.SIZE);
+        buffer.putLong(PACKET_SIZE * (long) Byte.SIZE);
+        buffer.putInt(stream);
+        return index;
+    }
+
+    private static void writeEvent(ByteBuffer buffer, int stream, long index, int nbStreams) {
+        buffer.position(align(buffer.position(), Long.BYTES));
+        buffer.putLong(getTimestamp(stream, index, nbStreams));
+        int tag = getTag(stream, index);
+        buffer.put((byte) tag);
+        switch (tag) {
+        case 0:
+            buffer.position(align(buffer.position(), Integer.BYTES));
+            buffer.putInt((int) getNumber(stream, index));
+            break;
+        case 1:
+            buffer.put(getText(index).getBytes(StandardCharsets.UTF_8));
+            buffer.put((byte) 0);
+            break;
+        default:
+            buffer.position(align(buffer.position(), Long.BYTES));
+            buffer.putLong(getFirst(stream, index));
+            buffer.put((byte) index);
+            break;
+        }
+    }
+
+    private static int align(int position, int alignment) {
+        return (position + alignment - 1) / alignment * alignment;
+    }
+
+    private static long getTimestamp(int stream, long index, int nbStreams) {
+        return 1000 + (index * nbStreams + stream) * 10;
+    }
+
+    private static int getTag(int stream, long index) {
+        return (int) ((index * 7 + stream) % 3);
+    }
+
+    private static long getNumber(int stream, long index) {
+        return (int) (index * 31 - stream * 1000);
+    }
+
+    private static String getText(long index) {
+        return "text" + (index % 13);
+    }
+
+    private static long getFirst(int stream, long index) {
+        return ((long) stream << 32) | index;
+    }
+}
@@ -0,0 +1,172 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.tests.trace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.trace.CTFStreamInput;
+import org.eclipse.tracecompass.ctf.core.trace.CTFTrace;
+import org.eclipse.tracecompass.ctf.core.trace.CTFTraceReader;
+import org.eclipse.tracecompass.ctf.core.trace.ICTFPacketDescriptor;
+import org.eclipse.tracecompass.ctf.core.trace.ICTFStream;
+import org.eclipse.tracecompass.internal.ctf.core.trace.PacketIndexerPool;
+import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputPacketIndexFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test the parallel indexing of the packets of a trace with several stream
+ * files, by the {@link PacketIndexerPool}. The indexes of the stream files
+ * must be the same as when they are indexed one packet after the other.
+ *
+ * The indexes are compared as saved in the packet index directory of the
+ * trace, once each stream file is completely indexed.
+ */
+public class CTFTraceParallelIndexingTest {
+
+    private static final int NB_STREAMS = 4;
+    private static final int NB_PACKETS = 32;
+
+    private File fDirectory;
+    private File fSerialDirectory;
+    private File fParallelDirectory;
+
+    /**
+     * Create the trace and its index directories
+     *
+     * @throws IOException
+     *             if the trace cannot be written
+     */
+    @Before
+    public void setUp() throws IOException {
+        fDirectory = Files.createTempDirectory("ctf-indexing-trace").toFile();
+        CTFTraceParallelDecodingTest.createTrace(fDirectory, NB_STREAMS, NB_PACKETS);
+        fSerialDirectory = Files.createTempDirectory("ctf-serial-index").toFile();
+        fParallelDirectory = Files.createTempDirectory("ctf-parallel-index").toFile();
+    }
+
+    /**
+     * Delete the trace and its index directories
+     *
+     * @throws IOException
+     *             if a directory cannot be deleted
+     */
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(fDirectory);
+        FileUtils.deleteDirectory(fSerialDirectory);
+        FileUtils.deleteDirectory(fParallelDirectory);
+    }
+
+    /**
+     * Test that populating the index of the trace reader, which indexes the
+     * stream files in parallel first, gives the same packets as the serial
+     * indexing
+     *
+     * @throws CTFException
+     *             if the trace cannot be read
+     */
+    @Test
+    public void testPopulateIndex() throws CTFException {
+        indexSerially(openTrace(fSerialDirectory));
+        CTFTrace trace = openTrace(fParallelDirectory);
+        try (CTFTraceReader reader = new CTFTraceReader(trace);) {
+            reader.populateIndex();
+        }
+        assertSameIndexes(getStreamInputs(trace));
+    }
+
+    /**
+     * Test that the pool alone indexes all the packets of the stream files,
+     * the same as the serial indexing
+     *
+     * @throws CTFException
+     *             if the trace cannot be read
+     */
+    @Test
+    public void testIndexAll() throws CTFException {
+        indexSerially(openTrace(fSerialDirectory));
+        List<CTFStreamInput> streamInputs = getStreamInputs(openTrace(fParallelDirectory));
+        PacketIndexerPool.indexAll(streamInputs);
+        for (CTFStreamInput streamInput : streamInputs) {
+            /* All the packets are already in the index */
+            assertFalse(streamInput.addPacketHeaderIndex());
+        }
+        assertSameIndexes(streamInputs);
+    }
+
+    private CTFTrace openTrace(File indexDirectory) throws CTFException {
+        CTFTrace trace = new CTFTrace(fDirectory);
+        trace.setPacketIndexDirectory(indexDirectory);
+        return trace;
+    }
+
+    private static List<CTFStreamInput> getStreamInputs(CTFTrace trace) {
+        List<CTFStreamInput> streamInputs = new ArrayList<>();
+        for (ICTFStream stream : trace.getStreams()) {
+            streamInputs.addAll(stream.getStreamInputs());
+        }
+        assertEquals(NB_STREAMS, streamInputs.size());
+        return streamInputs;
+    }
+
+    private static void indexSerially(CTFTrace trace) throws CTFException {
+        for (CTFStreamInput streamInput : getStreamInputs(trace)) {
+            while (streamInput.addPacketHeaderIndex()) {
+                // Index the next packet
+            }
+        }
+    }
+
+    private void assertSameIndexes(List<CTFStreamInput> streamInputs) {
+        for (CTFStreamInput streamInput : streamInputs) {
+            File file = streamInput.getFile();
+            List<ICTFPacketDescriptor> expected = StreamInputPacketIndexFile.read(StreamInputPacketIndexFile.getIndexFile(fSerialDirectory, file), file);
+            List<ICTFPacketDescriptor> actual = StreamInputPacketIndexFile.read(StreamInputPacketIndexFile.getIndexFile(fParallelDirectory, file), file);
+            assertNotNull(expected);
+            assertNotNull(actual);
+            String name = file.getName();
+            assertEquals(name, NB_PACKETS, expected.size());
+            assertEquals(name, expected.size(), actual.size());
+            long previousEnd = Long.MIN_VALUE;
+            for (int i = 0; i < expected.size(); i++) {
+                ICTFPacketDescriptor expectedPacket = expected.get(i);
+                ICTFPacketDescriptor actualPacket = actual.get(i);
+                String msg = name + " packet " + i;
+                assertEquals(msg, expectedPacket.getOffsetBits(), actualPacket.getOffsetBits());
+                assertEquals(msg, expectedPacket.getOffsetBytes(), actualPacket.getOffsetBytes());
+                assertEquals(msg, expectedPacket.getPacketSizeBits(), actualPacket.getPacketSizeBits());
+                assertEquals(msg, expectedPacket.getContentSizeBits(), actualPacket.getContentSizeBits());
+                assertEquals(msg, expectedPacket.getPayloadStartBits(), actualPacket.getPayloadStartBits());
+                assertEquals(msg, expectedPacket.getTimestampBegin(), actualPacket.getTimestampBegin());
+                assertEquals(msg, expectedPacket.getTimestampEnd(), actualPacket.getTimestampEnd());
+                assertEquals(msg, expectedPacket.getLostEvents(), actualPacket.getLostEvents());
+                assertEquals(msg, expectedPacket.getTargetId(), actualPacket.getTargetId());
+                assertEquals(msg, expectedPacket.getAttributes(), actualPacket.getAttributes());
+                assertTrue(msg, actualPacket.getTimestampBegin() > previousEnd);
+                previousEnd = actualPacket.getTimestampEnd();
+            }
+        }
+    }
+}
@@ -300,6 +300,49 @@ public class CTFTraceReaderTest {
         assertTrue(result);
     }
 
+    /**
+     * Test that the parallel decoding of the packets reads the same events, in
+     * the same order, as the sequential read, including after a seek
+     *
+     * @throws CTFException
+     *             error
+     */
+    @Test
+    public void testParallelDecoding() throws CTFException {
+        CTFTrace trace = CtfTestTraceUtils.getTrace(testTrace);
+        try (CTFTraceReader serial = new CTFTraceReader(trace);
+                CTFTraceReader parallel = new CTFTraceReader(trace);) {
+            parallel.setParallelDecoding(true);
+            assertTrue(parallel.isParallelDecoding());
+            assertFalse(serial.isParallelDecoding());
+            assertSameEvents(serial, parallel);
+            assertEquals(serial.getEndTime(), parallel.getEndTime());
+
+            long seekTime = trace.timestampNanoToCycles((serial.getStartTime() + serial.getEndTime()) / 2);
+            serial.seek(seekTime);
+            parallel.seek(seekTime);
+            assertSameEvents(serial, parallel);
+        }
+    }
+
+    /**
+     * Read both readers until the end and compare their events
+     */
+    private static void assertSameEvents(CTFTraceReader expected, CTFTraceReader actual) throws CTFException {
+        while (expected.hasMoreEvents()) {
+            assertTrue(actual.hasMoreEvents());
+            IEventDefinition expectedEvent = expected.getCurrentEventDef();
+            IEventDefinition actualEvent = actual.getCurrentEventDef();
+            assertEquals(expectedEvent.getTimestamp(), actualEvent.getTimestamp());
+            assertEquals(expectedEvent.getDeclaration().getName(), actualEvent.getDeclaration().getName());
+            assertEquals(expectedEvent.getCPU(), actualEvent.getCPU());
+            assertEquals(String.valueOf(expectedEvent.getFields()), String.valueOf(actualEvent.getFields()));
+            expected.advance();
+            actual.advance();
+        }
+        assertFalse(actual.hasMoreEvents());
+    }
+
     /**
      * @return
      */
@@ -13,16 +13,24 @@
 
 package org.eclipse.tracecompass.ctf.core.tests.trace;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.nio.ByteOrder;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
+import org.apache.commons.io.FileUtils;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.ctf.core.CTFException;
 import org.eclipse.tracecompass.ctf.core.event.IEventDeclaration;
@@ -32,6 +40,7 @@ import org.eclipse.tracecompass.ctf.core.tests.shared.CtfTestTraceUtils;
 import org.eclipse.tracecompass.ctf.core.trace.CTFTrace;
 import org.eclipse.tracecompass.ctf.core.trace.ICTFStream;
 import org.eclipse.tracecompass.ctf.core.trace.Metadata;
+import org.eclipse.tracecompass.internal.ctf.core.event.metadata.MetadataTreeCache;
 import org.eclipse.tracecompass.testtraces.ctf.CtfTestTrace;
 import org.junit.Before;
 import org.junit.Test;
@@ -276,6 +285,117 @@ public class MetadataTest {
         assertEquals("bozo_the_clown", eventDeclarations.get(1).getName());
     }
 
+    /**
+     * Test that the metadata parsed again, from the trees kept in memory or
+     * saved to disk, gives the same declarations
+     *
+     * @throws CTFException
+     *             if the metadata cannot be parsed
+     * @throws IOException
+     *             if the cache directory cannot be created
+     */
+    @Test
+    public void testCachedTree() throws CTFException, IOException {
+        File directory = Files.createTempDirectory("metadata-cache").toFile();
+        MetadataTreeCache.setDirectory(directory);
+        try {
+            MetadataTreeCache.clear();
+            testSingleFragment();
+            assertEquals(1, directory.list().length);
+
+            /* From memory */
+            testSingleFragment();
+
+            /* From disk */
+            MetadataTreeCache.clear();
+            CTFTrace trace = testSingleFragment();
+            assertEquals("sched_switch", Iterables.getOnlyElement(trace.getEventDeclarations(0L)).getName());
+
+            /* The cached tree is not modified by a trace that adds fragments */
+            fixture.parseTextFragment(mdSecond);
+            testSingleFragment();
+        } finally {
+            MetadataTreeCache.setDirectory(null);
+            MetadataTreeCache.clear();
+            FileUtils.deleteDirectory(directory);
+        }
+    }
+
+    /**
+     * Test that a saved tree of another version of the parser is not read,
+     * the metadata is parsed again and the tree saved again
+     *
+     * @throws CTFException
+     *             if the metadata cannot be parsed
+     * @throws IOException
+     *             if the cache directory cannot be used
+     */
+    @Test
+    public void testCachedTreeOtherParser() throws CTFException, IOException {
+        File directory = Files.createTempDirectory("metadata-cache").toFile();
+        MetadataTreeCache.setDirectory(directory);
+        try {
+            MetadataTreeCache.clear();
+            testSingleFragment();
+            File file = new File(directory, MetadataTreeCache.getKey(mdStart) + ".tree");
+            assertTrue(file.isFile());
+
+            /* The grammar version follows the magic number and the version */
+            int otherGrammar;
+            try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+                out.seek(8);
+                otherGrammar = out.readInt() + 1;
+                out.seek(8);
+                out.writeInt(otherGrammar);
+            }
+
+            MetadataTreeCache.clear();
+            CTFTrace trace = testSingleFragment();
+            assertEquals("sched_switch", Iterables.getOnlyElement(trace.getEventDeclarations(0L)).getName());
+            try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+                in.seek(8);
+                assertNotEquals(otherGrammar, in.readInt());
+            }
+        } finally {
+            MetadataTreeCache.setDirectory(null);
+            MetadataTreeCache.clear();
+            FileUtils.deleteDirectory(directory);
+        }
+    }
+
+    /**
+     * Test that the least recently used trees are deleted when the cache
+     * directory is larger than its maximum size
+     *
+     * @throws CTFException
+     *             if the metadata cannot be parsed
+     * @throws IOException
+     *             if the cache directory cannot be used
+     */
+    @Test
+    public void testCachedTreeDirectorySize() throws CTFException, IOException {
+        File directory = Files.createTempDirectory("metadata-cache").toFile();
+        MetadataTreeCache.setDirectory(directory);
+        try {
+            MetadataTreeCache.clear();
+            testSingleFragment();
+            String otherMetadata = mdStart + "\n";
+            new Metadata().parseText(otherMetadata);
+            assertEquals(2, directory.list().length);
+
+            /* Only the tree just saved fits */
+            MetadataTreeCache.setMaxDirectorySize(1);
+            String lastMetadata = otherMetadata + "\n";
+            new Metadata().parseText(lastMetadata);
+            assertArrayEquals(new String[] { MetadataTreeCache.getKey(lastMetadata) + ".tree" }, directory.list());
+        } finally {
+            MetadataTreeCache.setMaxDirectorySize(16L * 1024 * 1024);
+            MetadataTreeCache.setDirectory(null);
+            MetadataTreeCache.clear();
+            FileUtils.deleteDirectory(directory);
+        }
+    }
+
     /**
      * Run the ByteOrder getDetectedByteOrder() method test.
      *
@@ -22,6 +22,7 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.ctf.core.CTFException;
 
 /**
@@ -56,6 +57,7 @@ public final class BitBuffer {
      */
     private long fPosition;
     private ByteOrder fByteOrder;
+    private @Nullable StringDictionary fStringDictionary = null;
 
     // ------------------------------------------------------------------------
     // Constructors
@@ -723,6 +725,28 @@ public final class BitBuffer {
         return fPosition;
     }
 
+    /**
+     * Sets the dictionary of the strings read from this buffer
+     *
+     * @param dictionary
+     *            the dictionary, usually the one of the trace, or null to
+     *            decode every string
+     * @since 4.2
+     */
+    public void setStringDictionary(@Nullable StringDictionary dictionary) {
+        fStringDictionary = dictionary;
+    }
+
+    /**
+     * Gets the dictionary of the strings read from this buffer
+     *
+     * @return the dictionary, or null if there is none
+     * @since 4.2
+     */
+    public @Nullable StringDictionary getStringDictionary() {
+        return fStringDictionary;
+    }
+
     /**
      * Gets the byte buffer
      *
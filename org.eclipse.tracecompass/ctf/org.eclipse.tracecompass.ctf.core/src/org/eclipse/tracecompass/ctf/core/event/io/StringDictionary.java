@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.event.io;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.ctf.core.CTFException;
+
+/**
+ * Dictionary of the strings read from the buffers of a trace. A string is
+ * looked up by its raw bytes, so a string that was already read is returned
+ * without being decoded again, and all the events with the same string share
+ * the same instance.
+ *
+ * The dictionary is a table of fixed size where a string replaces the one
+ * that was in its slot, so it stays small for traces with many unique
+ * strings. Long strings are not kept. The dictionary can be used by many
+ * threads at the same time, at worst a string is decoded twice.
+ *
+ * The bytes are decoded as in {@link java.nio.charset.StandardCharsets#ISO_8859_1},
+ * one character per byte.
+ *
+ * @since 4.2
+ */
+@NonNullByDefault
+public final class StringDictionary {
+
+    private static final int DEFAULT_SIZE = 1 << 14;
+    /* Strings longer than this, in bytes, are not kept */
+    private static final int MAX_LENGTH = 1024;
+
+    private final @Nullable Entry[] fEntries;
+    private final int fMask;
+
+    /**
+     * Constructor, with the default size
+     */
+    public StringDictionary() {
+        this(DEFAULT_SIZE);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param size
+     *            the maximum number of strings in the dictionary, rounded up
+     *            to a power of 2
+     */
+    public StringDictionary(int size) {
+        int capacity = Integer.highestOneBit(Math.max(1, size - 1)) << 1;
+        fEntries = new @Nullable Entry[capacity];
+        fMask = capacity - 1;
+    }
+
+    /**
+     * Read a null terminated string at the position of a buffer. The position
+     * must be on a byte boundary, it is moved after the null terminator.
+     *
+     * @param input
+     *            the buffer to read
+     * @return the string, or null if the buffer has no null terminator after
+     *         the position, in which case the position is not moved
+     * @throws CTFException
+     *             if the position cannot be moved
+     */
+    public @Nullable String read(BitBuffer input) throws CTFException {
+        ByteBuffer buffer = input.getByteBuffer();
+        long position = input.position();
+        int start = (int) (position / Byte.SIZE);
+        int limit = buffer.capacity();
+        int end = start;
+        int hash = 1;
+        while (end < limit) {
+            int b = buffer.get(end) & 0xff;
+            if (b == 0) {
+                break;
+            }
+            hash = 31 * hash + b;
+            end++;
+        }
+        if (end >= limit) {
+            return null;
+        }
+        int length = end - start;
+        String value = lookup(buffer, start, length, hash);
+        input.position(position + (length + 1L) * Byte.SIZE);
+        return value;
+    }
+
+    private String lookup(ByteBuffer buffer, int start, int length, int hash) {
+        if (length > MAX_LENGTH) {
+            return decode(buffer, start, length);
+        }
+        int slot = (hash ^ (hash >>> 16)) & fMask;
+        Entry entry = fEntries[slot];
+        if (entry != null && entry.matches(hash, buffer, start, length)) {
+            return entry.fValue;
+        }
+        String value = decode(buffer, start, length);
+        fEntries[slot] = new Entry(hash, value);
+        return value;
+    }
+
+    private static String decode(ByteBuffer buffer, int start, int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(start + i);
+        }
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * A string of the dictionary, the entries are immutable so they can be
+     * shared between threads
+     */
+    private static final class Entry {
+        private final int fHash;
+        private final String fValue;
+
+        public Entry(int hash, String value) {
+            fHash = hash;
+            fValue = value;
+        }
+
+        public boolean matches(int hash, ByteBuffer buffer, int start, int length) {
+            if (fHash != hash || fValue.length() != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (fValue.charAt(i) != (char) (buffer.get(start + i) & 0xff)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
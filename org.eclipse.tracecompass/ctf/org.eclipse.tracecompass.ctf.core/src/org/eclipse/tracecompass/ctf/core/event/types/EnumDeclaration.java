@@ -205,6 +205,23 @@ public final class EnumDeclaration extends Declaration implements ISimpleDatatyp
         return new EnumDefinition(this, definitionScope, fieldName, value);
     }
 
+    /**
+     * Read the integer value of an enumeration of this declaration, without
+     * creating its definition. The label of the value is given by
+     * {@link #query(long)}.
+     *
+     * @param input
+     *            the buffer to read, at the position of the enumeration
+     * @return the integer value of the enumeration
+     * @throws CTFException
+     *             if the enumeration cannot be read
+     * @since 4.2
+     */
+    public long readValue(BitBuffer input) throws CTFException {
+        alignRead(input);
+        return getContainerType().readValue(input);
+    }
+
     /**
      * Add a value. Do not overlap, this is <em><strong>not</strong></em> an
      * interval tree.
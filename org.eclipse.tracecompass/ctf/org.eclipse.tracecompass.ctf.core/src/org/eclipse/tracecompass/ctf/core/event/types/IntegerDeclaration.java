@@ -354,11 +354,27 @@ public final class IntegerDeclaration extends Declaration implements ISimpleData
     @Override
     public IntegerDefinition createDefinition(@Nullable IDefinitionScope definitionScope,
             String fieldName, BitBuffer input) throws CTFException {
+        long value = readValue(input);
+        return new IntegerDefinition(this, definitionScope, fieldName, value);
+    }
+
+    /**
+     * Read the value of an integer of this declaration, without creating its
+     * definition
+     *
+     * @param input
+     *            the buffer to read, at the position of the integer
+     * @return the value of the integer
+     * @throws CTFException
+     *             if the integer cannot be read
+     * @since 4.2
+     */
+    public long readValue(BitBuffer input) throws CTFException {
         ByteOrder byteOrder = input.getByteOrder();
         input.setByteOrder(fByteOrder);
         long value = read(input);
         input.setByteOrder(byteOrder);
-        return new IntegerDefinition(this, definitionScope, fieldName, value);
+        return value;
     }
 
     @Override
@@ -18,6 +18,7 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.ctf.core.CTFException;
 import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
+import org.eclipse.tracecompass.ctf.core.event.io.StringDictionary;
 import org.eclipse.tracecompass.ctf.core.event.scope.IDefinitionScope;
 
 /**
@@ -125,14 +126,57 @@ public class StringDeclaration extends Declaration {
     @Override
     public StringDefinition createDefinition(@Nullable IDefinitionScope definitionScope,
             String fieldName, BitBuffer input) throws CTFException {
-        String value = read(input);
+        String value = readValue(input);
         return new StringDefinition(this, definitionScope, fieldName, value);
     }
 
-    private String read(BitBuffer input) throws CTFException {
+    /**
+     * Skip a string of this declaration, without reading its characters
+     *
+     * @param input
+     *            the buffer to read, at the position of the string
+     * @return the position in bits of the first character of the string, where
+     *         {@link #readValue(BitBuffer)} can read it later
+     * @throws CTFException
+     *             if the string cannot be read
+     * @since 4.2
+     */
+    public long skip(BitBuffer input) throws CTFException {
         /* Offset the buffer position wrt the current alignment */
         alignRead(input);
 
+        long start = input.position();
+        long c = input.get(BITS_PER_BYTE, false);
+        while (c != 0) {
+            c = input.get(BITS_PER_BYTE, false);
+        }
+        return start;
+    }
+
+    /**
+     * Read a string of this declaration, without creating its definition. If
+     * the buffer has a {@link StringDictionary}, the string is looked up in
+     * it instead of being decoded.
+     *
+     * @param input
+     *            the buffer to read, at the position of the string
+     * @return the string
+     * @throws CTFException
+     *             if the string cannot be read
+     * @since 4.2
+     */
+    public String readValue(BitBuffer input) throws CTFException {
+        /* Offset the buffer position wrt the current alignment */
+        alignRead(input);
+
+        StringDictionary dictionary = input.getStringDictionary();
+        if (dictionary != null) {
+            String value = dictionary.read(input);
+            if (value != null) {
+                return value;
+            }
+        }
+
         StringBuilder sb = new StringBuilder();
         char c = (char) input.get(BITS_PER_BYTE, false);
         while (c != 0) {
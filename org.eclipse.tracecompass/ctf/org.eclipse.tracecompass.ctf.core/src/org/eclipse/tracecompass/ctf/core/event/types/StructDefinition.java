@@ -138,6 +138,23 @@ public final class StructDefinition extends ScopedDefinition implements IComposi
         return fFieldNames;
     }
 
+    /**
+     * Get the definition of a field from its position in the structure. This
+     * avoids building the map of the definitions by name, for readers that
+     * resolve the position of the fields they need once per declaration.
+     *
+     * @param index
+     *            The index of the field in {@link #getFieldNames()}
+     * @return The definition of the field, or <code>null</code> if the field
+     *         has no definition
+     * @throws IndexOutOfBoundsException
+     *             If there is no field at this index
+     * @since 4.1
+     */
+    public Definition getDefinition(int index) {
+        return fDefinitions[index];
+    }
+
     @Override
     public StructDeclaration getDeclaration() {
         return (StructDeclaration) super.getDeclaration();
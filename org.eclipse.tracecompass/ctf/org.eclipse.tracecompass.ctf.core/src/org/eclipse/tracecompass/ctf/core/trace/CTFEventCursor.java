@@ -0,0 +1,700 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.trace;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.CTFStrings;
+import org.eclipse.tracecompass.ctf.core.event.IEventDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.IEventDefinition;
+import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
+import org.eclipse.tracecompass.ctf.core.event.types.EnumDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.EnumDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.ICompositeDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.IDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.IDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.IEventHeaderDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.StringDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StringDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDeclaration;
+import org.eclipse.tracecompass.internal.ctf.core.event.EventDeclaration;
+import org.eclipse.tracecompass.internal.ctf.core.event.types.composite.EventHeaderCompactDeclaration;
+import org.eclipse.tracecompass.internal.ctf.core.event.types.composite.EventHeaderLargeDeclaration;
+import org.eclipse.tracecompass.internal.ctf.core.event.types.composite.EventHeaderValues;
+import org.eclipse.tracecompass.internal.ctf.core.trace.CTFPacketReader;
+import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputPacketIndex;
+
+/**
+ * Reusable cursor over the events of a stream input, that decodes the integer,
+ * enumeration and string fields of the events straight from the packets,
+ * without creating their definitions.
+ *
+ * The cursor is on one event at a time, see {@link #next()}. The fields of the
+ * payload of the current event are accessed by their index in the event
+ * declaration, see {@link #getFieldIndex(String)}, so a reader can look up the
+ * index of a field once per event type and then read it with
+ * {@link #getLong(int)} or {@link #getString(int)} for every event. The values
+ * are only valid until the cursor moves. Reading the integers and enumerations
+ * of an event does not allocate, strings are only decoded when they are read.
+ *
+ * Events with fields of other types, like floats, arrays, sequences, variants
+ * or structs, in their payload or contexts are decoded into definitions, as
+ * the {@link CTFStreamInputReader} does, so the accessors work for every event.
+ * The same goes for every event of a stream whose event header is a struct
+ * that is not only made of integers, enumerations and strings.
+ *
+ * Unlike the {@link CTFStreamInputReader}, the cursor does not return lost
+ * event records. The number of events lost in a packet is given by
+ * {@link ICTFPacketDescriptor#getLostEvents()}.
+ *
+ * This class is not thread safe.
+ *
+ * @since 4.2
+ */
+@NonNullByDefault
+public class CTFEventCursor implements AutoCloseable {
+
+    /* Kinds of fields */
+    private static final int INTEGER = 0;
+    private static final int ENUM = 1;
+    private static final int STRING = 2;
+    private static final int OTHER = 3;
+
+    private final CTFStreamInput fStreamInput;
+    private boolean fFileAcquired;
+    private final List<@Nullable IEventDeclaration> fDeclarations;
+    private final @Nullable EventLayout[] fLayouts;
+
+    /* The event header, when it is read without a definition */
+    private final @Nullable IDeclaration fEventHeaderDecl;
+    private final EventHeaderValues fEventHeaderValues = new EventHeaderValues();
+    private final @Nullable StructLayout fHeaderLayout;
+    private final long[] fHeaderValues;
+    private final int fHeaderId;
+    private final int fHeaderTimestamp;
+
+    private final @Nullable StructLayout fStreamContextLayout;
+    private final long[] fStreamContextValues;
+
+    /* The current packet */
+    private int fPacketIndex = -1;
+    private @Nullable ICTFPacketDescriptor fPacket = null;
+    private @Nullable BitBuffer fInput = null;
+    private @Nullable CTFPacketReader fPacketReader = null;
+    private long fLastTimestamp;
+
+    /* The current event */
+    private @Nullable EventLayout fEvent = null;
+    private @Nullable IEventDefinition fDefinition = null;
+    private long fTimestamp;
+
+    /**
+     * Constructor, the cursor is before the first event of the stream input
+     *
+     * @param streamInput
+     *            the stream input to read
+     * @throws CTFException
+     *             if the file of the stream input cannot be opened
+     */
+    public CTFEventCursor(CTFStreamInput streamInput) throws CTFException {
+        fStreamInput = streamInput;
+        ICTFStream stream = streamInput.getStream();
+        fDeclarations = stream.getEventDeclarations();
+        fLayouts = new @Nullable EventLayout[fDeclarations.size()];
+
+        IDeclaration eventHeaderDecl = stream.getEventHeaderDeclaration();
+        fEventHeaderDecl = eventHeaderDecl;
+        StructLayout headerLayout = null;
+        if (eventHeaderDecl instanceof StructDeclaration) {
+            StructLayout layout = new StructLayout((StructDeclaration) eventHeaderDecl);
+            headerLayout = layout.isFlat() ? layout : null;
+        }
+        fHeaderLayout = headerLayout;
+        fHeaderValues = new long[headerLayout == null ? 0 : headerLayout.size()];
+        fHeaderId = headerLayout == null ? -1 : headerLayout.indexOf(IEventHeaderDeclaration.ID);
+        fHeaderTimestamp = headerLayout == null ? -1 : headerLayout.indexOf(CTFStrings.TIMESTAMP);
+
+        StructDeclaration streamContextDecl = stream.getEventContextDecl();
+        StructLayout streamContextLayout = streamContextDecl == null ? null : new StructLayout(streamContextDecl);
+        fStreamContextLayout = streamContextLayout;
+        fStreamContextValues = new long[streamContextLayout == null ? 0 : streamContextLayout.size()];
+
+        try {
+            streamInput.acquireFileChannel();
+            fFileAcquired = true;
+        } catch (IOException e) {
+            throw new CTFIOException(e);
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Operations
+    // ------------------------------------------------------------------------
+
+    /**
+     * Move the cursor to the next event of the stream input
+     *
+     * @return true if the cursor is on an event, false if there are no more
+     *         events
+     * @throws CTFException
+     *             if the next event cannot be read
+     */
+    public boolean next() throws CTFException {
+        BitBuffer input = fInput;
+        ICTFPacketDescriptor packet = fPacket;
+        while (input == null || packet == null || input.position() >= packet.getContentSizeBits()) {
+            if (!goToPacket(fPacketIndex + 1)) {
+                fEvent = null;
+                fDefinition = null;
+                return false;
+            }
+            input = fInput;
+            packet = fPacket;
+        }
+        readEvent(input, packet);
+        return true;
+    }
+
+    /**
+     * Move the cursor to the first event with a timestamp greater or equal to
+     * the given timestamp
+     *
+     * @param timestamp
+     *            the timestamp to seek, in cycles
+     * @return true if the cursor is on an event, false if there are no events
+     *         at or after the timestamp
+     * @throws CTFException
+     *             if an event cannot be read
+     */
+    public boolean seek(long timestamp) throws CTFException {
+        StreamInputPacketIndex packetIndex = fStreamInput.getIndex();
+        /* Index the packets up to the one of the timestamp */
+        while (packetIndex.isEmpty() || packetIndex.lastElement().getTimestampEnd() < timestamp) {
+            if (!fStreamInput.addPacketHeaderIndex()) {
+                break;
+            }
+        }
+        fEvent = null;
+        fDefinition = null;
+        if (packetIndex.isEmpty() || !goToPacket(Math.max(0, packetIndex.search(timestamp)))) {
+            return false;
+        }
+        while (next()) {
+            if (fTimestamp >= timestamp) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Release the file of the stream input, it is closed once no reader uses it
+     *
+     * @throws IOException
+     *             if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (fFileAcquired) {
+            fFileAcquired = false;
+            fStreamInput.releaseFileChannel();
+        }
+        fPacket = null;
+        fInput = null;
+        fPacketReader = null;
+        fEvent = null;
+        fDefinition = null;
+    }
+
+    // ------------------------------------------------------------------------
+    // Getters
+    // ------------------------------------------------------------------------
+
+    /**
+     * Get the declaration of the current event
+     *
+     * @return the declaration of the event, or null if the cursor is not on an
+     *         event
+     */
+    public @Nullable IEventDeclaration getDeclaration() {
+        EventLayout event = fEvent;
+        return event == null ? null : event.getDeclaration();
+    }
+
+    /**
+     * Get the timestamp of the current event
+     *
+     * @return the timestamp of the event, in cycles
+     */
+    public long getTimestamp() {
+        getEvent();
+        return fTimestamp;
+    }
+
+    /**
+     * Get the packet of the current event
+     *
+     * @return the packet, or null if the cursor is not in a packet
+     */
+    public @Nullable ICTFPacketDescriptor getPacket() {
+        return fPacket;
+    }
+
+    /**
+     * Get the CPU of the current event
+     *
+     * @return the CPU of the packet of the event
+     */
+    public int getCPU() {
+        getEvent();
+        ICTFPacketDescriptor packet = fPacket;
+        return packet == null ? -1 : (int) packet.getTargetId();
+    }
+
+    /**
+     * Get the index of a field of the payload of the current event. The index
+     * is the same for every event of the same declaration.
+     *
+     * @param name
+     *            the name of the field
+     * @return the index of the field, or -1 if the event has no such field
+     */
+    public int getFieldIndex(String name) {
+        StructLayout fields = getEvent().getFields();
+        return fields == null ? -1 : fields.indexOf(name);
+    }
+
+    /**
+     * Get the value of an integer or enumeration field of the payload of the
+     * current event
+     *
+     * @param index
+     *            the index of the field, see {@link #getFieldIndex(String)}
+     * @return the value of the field
+     * @throws IllegalArgumentException
+     *             if the field is not an integer or an enumeration
+     */
+    public long getLong(int index) {
+        EventLayout event = getEvent();
+        StructLayout fields = getFields(event, index);
+        IEventDefinition definition = fDefinition;
+        if (definition != null) {
+            IDefinition field = getDefinition(definition, fields.getName(index));
+            if (field instanceof IntegerDefinition) {
+                return ((IntegerDefinition) field).getValue();
+            }
+            if (field instanceof EnumDefinition) {
+                return ((EnumDefinition) field).getIntegerValue();
+            }
+        } else if (fields.getKind(index) == INTEGER || fields.getKind(index) == ENUM) {
+            return event.getValues()[index];
+        }
+        throw new IllegalArgumentException("Field " + fields.getName(index) + " is not an integer or an enumeration"); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /**
+     * Get the value of a string field, or the label of an enumeration field, of
+     * the payload of the current event
+     *
+     * @param index
+     *            the index of the field, see {@link #getFieldIndex(String)}
+     * @return the string, or the label of the enumeration, or null if the
+     *         field is of another type or the value has no label
+     * @throws CTFException
+     *             if the string cannot be read
+     */
+    public @Nullable String getString(int index) throws CTFException {
+        EventLayout event = getEvent();
+        StructLayout fields = getFields(event, index);
+        IEventDefinition definition = fDefinition;
+        if (definition != null) {
+            IDefinition field = getDefinition(definition, fields.getName(index));
+            if (field instanceof StringDefinition) {
+                return ((StringDefinition) field).getValue();
+            }
+            if (field instanceof EnumDefinition) {
+                return ((EnumDefinition) field).getValue();
+            }
+            return null;
+        }
+        long value = event.getValues()[index];
+        switch (fields.getKind(index)) {
+        case STRING:
+            BitBuffer input = fInput;
+            if (input == null) {
+                return null;
+            }
+            long position = input.position();
+            input.position(value);
+            String string = ((StringDeclaration) fields.getField(index)).readValue(input);
+            input.position(position);
+            return string;
+        case ENUM:
+            return ((EnumDeclaration) fields.getField(index)).query(value);
+        default:
+            return null;
+        }
+    }
+
+    private EventLayout getEvent() {
+        EventLayout event = fEvent;
+        if (event == null) {
+            throw new IllegalStateException("The cursor is not on an event"); //$NON-NLS-1$
+        }
+        return event;
+    }
+
+    private static StructLayout getFields(EventLayout event, int index) {
+        StructLayout fields = event.getFields();
+        if (fields == null || index < 0 || index >= fields.size()) {
+            throw new IndexOutOfBoundsException("No field " + index + " in event " + event.getDeclaration().getName()); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        return fields;
+    }
+
+    private static @Nullable IDefinition getDefinition(IEventDefinition definition, String name) {
+        ICompositeDefinition fields = definition.getFields();
+        return fields == null ? null : fields.getDefinition(name);
+    }
+
+    // ------------------------------------------------------------------------
+    // Decoding
+    // ------------------------------------------------------------------------
+
+    private boolean goToPacket(int index) throws CTFException {
+        StreamInputPacketIndex packetIndex = fStreamInput.getIndex();
+        while (packetIndex.size() <= index) {
+            if (!fStreamInput.addPacketHeaderIndex()) {
+                return false;
+            }
+        }
+        ICTFPacketDescriptor packet = packetIndex.getElement(index);
+        long size = packet.getContentSizeBits();
+        if (size < 0) {
+            throw new CTFIOException("Cannot have negative sized buffers."); //$NON-NLS-1$
+        }
+        ByteBuffer buffer;
+        try {
+            buffer = fStreamInput.getMappedBuffer(packet.getOffsetBits() / Byte.SIZE, (size + Byte.SIZE - 1) / Byte.SIZE);
+        } catch (IOException e) {
+            throw new CTFIOException(e.getMessage(), e);
+        }
+        BitBuffer input = new BitBuffer(buffer);
+        input.position(packet.getPayloadStartBits());
+        input.setStringDictionary(fStreamInput.getStream().getTrace().getStringDictionary());
+        fPacketIndex = index;
+        fPacket = packet;
+        fInput = input;
+        fPacketReader = null;
+        fLastTimestamp = packet.getTimestampBegin();
+        return true;
+    }
+
+    private void readEvent(BitBuffer input, ICTFPacketDescriptor packet) throws CTFException {
+        final long posStart = input.position();
+        fDefinition = null;
+
+        /* Read the event header */
+        int eventId = (int) IEventDeclaration.UNSET_EVENT_ID;
+        IDeclaration eventHeaderDecl = fEventHeaderDecl;
+        StructLayout headerLayout = fHeaderLayout;
+        EventHeaderValues headerValues = null;
+        if (eventHeaderDecl instanceof EventHeaderCompactDeclaration) {
+            headerValues = fEventHeaderValues;
+            ((EventHeaderCompactDeclaration) eventHeaderDecl).read(input, headerValues);
+            eventId = headerValues.getId();
+        } else if (eventHeaderDecl instanceof EventHeaderLargeDeclaration) {
+            headerValues = fEventHeaderValues;
+            ((EventHeaderLargeDeclaration) eventHeaderDecl).read(input, headerValues);
+            eventId = headerValues.getId();
+        } else if (headerLayout != null) {
+            headerLayout.read(input, fHeaderValues);
+            if (fHeaderId >= 0) {
+                eventId = (int) fHeaderValues[fHeaderId];
+            }
+        } else if (eventHeaderDecl instanceof IEventHeaderDeclaration || eventHeaderDecl instanceof StructDeclaration) {
+            readDefinition(input, packet, posStart, null);
+            return;
+        }
+
+        /* Single event type in a trace */
+        if (eventId == IEventDeclaration.UNSET_EVENT_ID && fDeclarations.size() == 1) {
+            eventId = 0;
+        }
+        EventLayout event = getLayout(eventId, posStart, packet);
+        if (!event.isFlat()) {
+            readDefinition(input, packet, posStart, event);
+            return;
+        }
+
+        /* Read the contexts and the payload */
+        StructLayout streamContextLayout = fStreamContextLayout;
+        if (streamContextLayout != null) {
+            streamContextLayout.read(input, fStreamContextValues);
+        }
+        event.read(input);
+
+        long timestamp;
+        if (headerValues != null) {
+            timestamp = EventDeclaration.calculateTimestamp(headerValues.getTimestamp(), headerValues.getTimestampLength(), fLastTimestamp);
+        } else if (headerLayout != null && fHeaderTimestamp >= 0) {
+            timestamp = calculateTimestamp(headerLayout, fHeaderValues, fHeaderTimestamp, fLastTimestamp);
+        } else {
+            timestamp = event.calculateTimestamp(fLastTimestamp);
+        }
+        if (posStart == input.position()) {
+            throw new CTFIOException("Empty event not allowed, event: " + event.getDeclaration().getName()); //$NON-NLS-1$
+        }
+        fLastTimestamp = timestamp;
+        fTimestamp = timestamp;
+        fEvent = event;
+    }
+
+    /**
+     * Read an event that cannot be read without definitions, with a packet
+     * reader from the start of the event
+     */
+    private void readDefinition(BitBuffer input, ICTFPacketDescriptor packet, long posStart, @Nullable EventLayout layout) throws CTFException {
+        CTFPacketReader packetReader = fPacketReader;
+        if (packetReader == null) {
+            ICTFStream stream = fStreamInput.getStream();
+            CTFTrace trace = stream.getTrace();
+            packetReader = new CTFPacketReader(input, packet, fDeclarations, fEventHeaderDecl, stream.getEventContextDecl(), trace.getPacketHeaderDef(), trace);
+            fPacketReader = packetReader;
+        }
+        input.position(posStart);
+        packetReader.setLastTimestamp(fLastTimestamp);
+        IEventDefinition definition = packetReader.readNextEvent();
+        EventLayout event = layout;
+        if (event == null) {
+            Long id = definition.getDeclaration().getId();
+            int eventId = (id == null || id < 0) ? 0 : id.intValue();
+            event = getLayout(eventId, posStart, packet);
+        }
+        fLastTimestamp = definition.getTimestamp();
+        fTimestamp = definition.getTimestamp();
+        fDefinition = definition;
+        fEvent = event;
+    }
+
+    private EventLayout getLayout(int eventId, long posStart, ICTFPacketDescriptor packet) throws CTFIOException {
+        if (eventId < 0 || eventId >= fLayouts.length) {
+            throw new CTFIOException("Invalid event id : " + eventId + " File position : " + posStart / 8 + '/' + packet.getContentSizeBits() / 8); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        EventLayout layout = fLayouts[eventId];
+        if (layout == null) {
+            IEventDeclaration declaration = fDeclarations.get(eventId);
+            if (!(declaration instanceof EventDeclaration)) {
+                throw new CTFIOException("Invalid event id : " + eventId); //$NON-NLS-1$
+            }
+            StructLayout streamContextLayout = fStreamContextLayout;
+            layout = new EventLayout(declaration, streamContextLayout == null || streamContextLayout.isFlat());
+            fLayouts[eventId] = layout;
+        }
+        return layout;
+    }
+
+    private static long calculateTimestamp(StructLayout layout, long[] values, int index, long prevTimestamp) {
+        IDeclaration declaration = layout.getField(index);
+        if (layout.getKind(index) == INTEGER) {
+            return EventDeclaration.calculateTimestamp(values[index], ((IntegerDeclaration) declaration).getLength(), prevTimestamp);
+        }
+        return 0;
+    }
+
+    private static void align(BitBuffer input, long alignment) throws CTFException {
+        long mask = alignment - 1;
+        long pos = input.position();
+        if ((pos & mask) != 0) {
+            input.position((pos + mask) & ~mask);
+        }
+    }
+
+    /**
+     * The fields of a struct declaration, that are read in an array of longs
+     * when they are all integers, enumerations and strings. The value of a
+     * string is the position of its first character in the buffer.
+     */
+    private static final class StructLayout {
+
+        private final StructDeclaration fDeclaration;
+        private final String[] fNames;
+        private final IDeclaration[] fFields;
+        private final int[] fKinds;
+        private final boolean fFlat;
+
+        public StructLayout(StructDeclaration declaration) {
+            fDeclaration = declaration;
+            List<String> names = new ArrayList<>();
+            List<IDeclaration> fields = new ArrayList<>();
+            for (String name : declaration.getFieldsList()) {
+                IDeclaration field = declaration.getField(name);
+                if (field != null) {
+                    names.add(name);
+                    fields.add(field);
+                }
+            }
+            fNames = names.toArray(new String[names.size()]);
+            fFields = fields.toArray(new IDeclaration[fields.size()]);
+            fKinds = new int[fFields.length];
+            boolean flat = true;
+            for (int i = 0; i < fFields.length; i++) {
+                fKinds[i] = getKind(fFields[i]);
+                flat &= fKinds[i] != OTHER;
+            }
+            fFlat = flat;
+        }
+
+        private static int getKind(IDeclaration field) {
+            if (field instanceof IntegerDeclaration) {
+                return ((IntegerDeclaration) field).getLength() <= Long.SIZE ? INTEGER : OTHER;
+            }
+            if (field instanceof EnumDeclaration) {
+                return ENUM;
+            }
+            if (field instanceof StringDeclaration) {
+                return STRING;
+            }
+            return OTHER;
+        }
+
+        public boolean isFlat() {
+            return fFlat;
+        }
+
+        public int size() {
+            return fFields.length;
+        }
+
+        public int indexOf(String name) {
+            for (int i = 0; i < fNames.length; i++) {
+                if (fNames[i].equals(name)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        public String getName(int index) {
+            return fNames[index];
+        }
+
+        public IDeclaration getField(int index) {
+            return fFields[index];
+        }
+
+        public int getKind(int index) {
+            return fKinds[index];
+        }
+
+        public void read(BitBuffer input, long[] values) throws CTFException {
+            align(input, fDeclaration.getAlignment());
+            for (int i = 0; i < fFields.length; i++) {
+                switch (fKinds[i]) {
+                case INTEGER:
+                    values[i] = ((IntegerDeclaration) fFields[i]).readValue(input);
+                    break;
+                case ENUM:
+                    values[i] = ((EnumDeclaration) fFields[i]).readValue(input);
+                    break;
+                case STRING:
+                    values[i] = ((StringDeclaration) fFields[i]).skip(input);
+                    break;
+                default:
+                    throw new IllegalStateException("Cannot read field " + fNames[i] + " without a definition"); //$NON-NLS-1$ //$NON-NLS-2$
+                }
+            }
+        }
+    }
+
+    /**
+     * The layouts of the context and payload of an event declaration, with the
+     * values of the last event read
+     */
+    private static final class EventLayout {
+
+        private final IEventDeclaration fDeclaration;
+        private final @Nullable StructLayout fContext;
+        private final @Nullable StructLayout fFields;
+        private final long[] fContextValues;
+        private final long[] fValues;
+        private final int fContextTimestamp;
+        private final int fFieldsTimestamp;
+        private final boolean fFlat;
+
+        public EventLayout(IEventDeclaration declaration, boolean streamContextFlat) {
+            fDeclaration = declaration;
+            StructDeclaration context = declaration.getContext();
+            StructDeclaration fields = declaration.getFields();
+            StructLayout contextLayout = context == null ? null : new StructLayout(context);
+            StructLayout fieldsLayout = fields == null ? null : new StructLayout(fields);
+            fContext = contextLayout;
+            fFields = fieldsLayout;
+            fContextValues = new long[contextLayout == null ? 0 : contextLayout.size()];
+            fValues = new long[fieldsLayout == null ? 0 : fieldsLayout.size()];
+            fContextTimestamp = contextLayout == null ? -1 : contextLayout.indexOf(CTFStrings.TIMESTAMP);
+            fFieldsTimestamp = fieldsLayout == null ? -1 : fieldsLayout.indexOf(CTFStrings.TIMESTAMP);
+            fFlat = streamContextFlat && (contextLayout == null || contextLayout.isFlat()) && (fieldsLayout == null || fieldsLayout.isFlat());
+        }
+
+        public IEventDeclaration getDeclaration() {
+            return fDeclaration;
+        }
+
+        public @Nullable StructLayout getFields() {
+            return fFields;
+        }
+
+        public long[] getValues() {
+            return fValues;
+        }
+
+        public boolean isFlat() {
+            return fFlat;
+        }
+
+        public void read(BitBuffer input) throws CTFException {
+            StructLayout context = fContext;
+            if (context != null) {
+                context.read(input, fContextValues);
+            }
+            StructLayout fields = fFields;
+            if (fields != null) {
+                fields.read(input, fValues);
+            }
+        }
+
+        /**
+         * Calculate the timestamp of the event from its payload or its
+         * context, when its header has no timestamp
+         */
+        public long calculateTimestamp(long prevTimestamp) {
+            StructLayout fields = fFields;
+            if (fields != null && fFieldsTimestamp >= 0) {
+                return CTFEventCursor.calculateTimestamp(fields, fValues, fFieldsTimestamp, prevTimestamp);
+            }
+            StructLayout context = fContext;
+            if (context != null && fContextTimestamp >= 0) {
+                return CTFEventCursor.calculateTimestamp(context, fContextValues, fContextTimestamp, prevTimestamp);
+            }
+            return 0;
+        }
+    }
+}
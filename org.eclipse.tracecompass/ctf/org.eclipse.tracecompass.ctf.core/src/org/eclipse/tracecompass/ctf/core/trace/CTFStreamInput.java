@@ -20,6 +20,9 @@ import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileChannel.MapMode;
 import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import org.eclipse.core.runtime.IStatus;
@@ -39,6 +42,7 @@ import org.eclipse.tracecompass.internal.ctf.core.Activator;
 import org.eclipse.tracecompass.internal.ctf.core.SafeMappedByteBuffer;
 import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputPacketIndex;
 import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputPacketIndexEntry;
+import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputPacketIndexFile;
 import org.eclipse.tracecompass.internal.ctf.core.utils.Utils;
 
 /**
@@ -55,6 +59,11 @@ public class CTFStreamInput implements IDefinitionScope {
 
     private static final int MAP_SIZE = 4096;
 
+    /**
+     * Number of mappings of packets kept for the readers of the stream file
+     */
+    private static final int MAPPING_CACHE_SIZE = 16;
+
     /**
      * The associated Stream
      */
@@ -94,6 +103,44 @@ public class CTFStreamInput implements IDefinitionScope {
 
     private boolean fUUIDMismatchWarning = false;
 
+    /**
+     * Whether the packet index saved on disk matches the index
+     */
+    private boolean fIndexSaved = false;
+
+    /**
+     * Whether the stream file is still being written
+     */
+    private boolean fGrowing = false;
+
+    /**
+     * Lock of the file channel, of its users count and of the mappings
+     */
+    private final Object fFileLock = new Object();
+
+    /**
+     * The file channel shared by the readers of the stream file
+     */
+    private @Nullable FileChannel fFileChannel = null;
+
+    /**
+     * Number of readers using the shared file channel
+     */
+    private int fFileChannelUsers = 0;
+
+    /**
+     * The last mapped regions of the stream file, by their position in bytes.
+     * The readers that read the same packets share the mappings.
+     */
+    private final Map<Long, ByteBuffer> fMappings = new LinkedHashMap<Long, ByteBuffer>(MAPPING_CACHE_SIZE, 0.75f, true) {
+        private static final long serialVersionUID = -2286562232767424373L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.@Nullable Entry<Long, ByteBuffer> eldest) {
+            return size() > MAPPING_CACHE_SIZE;
+        }
+    };
+
     // ------------------------------------------------------------------------
     // Constructors
     // ------------------------------------------------------------------------
@@ -224,53 +271,262 @@ public class CTFStreamInput implements IDefinitionScope {
      * @throws CTFException
      *             If there was a problem reading the packed header
      */
-    public boolean addPacketHeaderIndex() throws CTFException {
-        long currentPosBits = 0L;
-        if (!fIndex.isEmpty()) {
-            ICTFPacketDescriptor pos = fIndex.lastElement();
-            if (pos == null) {
-                throw new IllegalStateException("Index contains null packet entries"); //$NON-NLS-1$
-            }
-            currentPosBits = pos.getOffsetBits() + pos.getPacketSizeBits();
-        }
+    public synchronized boolean addPacketHeaderIndex() throws CTFException {
+        long currentPosBits = getNextPacketOffsetBits();
         if (currentPosBits < getStreamSizeBits()) {
-            return fIndex.append(createPacketIndexEntry(currentPosBits));
+            try {
+                return appendPacket(currentPosBits);
+            } catch (CTFException e) {
+                if (fGrowing) {
+                    /* The last packet is still being written */
+                    return false;
+                }
+                throw e;
+            }
         }
+        savePacketIndex();
         return false;
     }
 
-    private long getStreamSizeBits() {
-        return fFile.length() * Byte.SIZE;
+    /**
+     * Index the complete packets appended to the stream file since it was
+     * last indexed, for a stream file that is still being written. A packet
+     * that is not completely written yet is indexed by a later call. From
+     * then on, the readers that reach that packet consider it as the end of
+     * the stream until it is complete.
+     *
+     * @return the number of packets added to the index
+     * @since 4.2
+     */
+    public synchronized int indexNewPackets() {
+        /* The index is only saved once the file is complete */
+        fGrowing = true;
+        int count = 0;
+        try {
+            long currentPosBits = getNextPacketOffsetBits();
+            while (currentPosBits < getStreamSizeBits() && appendPacket(currentPosBits)) {
+                count++;
+                currentPosBits = getNextPacketOffsetBits();
+            }
+        } catch (CTFException e) {
+            /* The last packet is still being written */
+        }
+        return count;
     }
 
-    private ICTFPacketDescriptor createPacketIndexEntry(long dataOffsetbits)
-            throws CTFException {
+    private long getNextPacketOffsetBits() {
+        if (fIndex.isEmpty()) {
+            return 0L;
+        }
+        ICTFPacketDescriptor pos = fIndex.lastElement();
+        if (pos == null) {
+            throw new IllegalStateException("Index contains null packet entries"); //$NON-NLS-1$
+        }
+        return pos.getOffsetBits() + pos.getPacketSizeBits();
+    }
 
-        try (FileChannel fc = FileChannel.open(fFile.toPath(), StandardOpenOption.READ)) {
-            if (fc == null) {
-                throw new IOException("Failed to create FileChannel"); //$NON-NLS-1$
+    private boolean appendPacket(long offsetBits) throws CTFException {
+        if (!fIndex.append(createPacketIndexEntry(offsetBits))) {
+            return false;
+        }
+        fIndexSaved = false;
+        return true;
+    }
+
+    /**
+     * Load the packet index saved in the packet index directory of the trace,
+     * if the stream file did not change since it was saved. Nothing is done
+     * if packets were already indexed.
+     */
+    void loadPacketIndex() {
+        File directory = getStream().getTrace().getPacketIndexDirectory();
+        if (directory == null || !fIndex.isEmpty()) {
+            return;
+        }
+        List<ICTFPacketDescriptor> entries = StreamInputPacketIndexFile.read(StreamInputPacketIndexFile.getIndexFile(directory, fFile), fFile);
+        if (entries == null || entries.isEmpty()) {
+            return;
+        }
+        fIndex.appendAll(entries);
+        for (ICTFPacketDescriptor entry : entries) {
+            fLostSoFar += entry.getLostEvents();
+        }
+        setTimestampEnd(entries.get(entries.size() - 1).getTimestampEnd());
+        fIndexSaved = true;
+    }
+
+    /**
+     * Get the file channel shared by the readers of the stream file, and
+     * open it if it is the first user. Each call must be followed by a call
+     * to {@link #releaseFileChannel()}.
+     *
+     * @return the shared file channel
+     * @throws IOException
+     *             if the file cannot be opened
+     */
+    FileChannel acquireFileChannel() throws IOException {
+        synchronized (fFileLock) {
+            FileChannel fc = getFileChannel();
+            fFileChannelUsers++;
+            return fc;
+        }
+    }
+
+    /**
+     * Release the shared file channel, it is closed when it has no more users
+     *
+     * @throws IOException
+     *             if the file cannot be closed
+     */
+    void releaseFileChannel() throws IOException {
+        synchronized (fFileLock) {
+            fFileChannelUsers--;
+            if (fFileChannelUsers > 0) {
+                return;
             }
-            BitBuffer bitBuffer = createBitBufferForPacketHeader(fc, dataOffsetbits);
-            /*
-             * Read the trace packet header if it exists.
-             */
-            parseTracePacketHeader(bitBuffer);
+            fFileChannelUsers = 0;
+            fMappings.clear();
+            FileChannel fc = fFileChannel;
+            fFileChannel = null;
+            if (fc != null) {
+                fc.close();
+            }
+        }
+    }
 
+    private FileChannel getFileChannel() throws IOException {
+        FileChannel fc = fFileChannel;
+        if (fc == null || !fc.isOpen()) {
             /*
-             * Read the stream packet context if it exists.
+             * Not opened yet, or closed because a thread using it was
+             * interrupted
              */
-            long size = fc.size();
-            ICTFPacketDescriptor packetIndex = parsePacketContext(dataOffsetbits, size, bitBuffer);
+            fc = FileChannel.open(fFile.toPath(), StandardOpenOption.READ);
+            if (fc == null) {
+                throw new IOException("Failed to create FileChannel"); //$NON-NLS-1$
+            }
+            fFileChannel = fc;
+        }
+        return fc;
+    }
 
-            /* Basic validation */
-            if (packetIndex.getContentSizeBits() > packetIndex.getPacketSizeBits()) {
-                throw new CTFException("Content size (" + packetIndex.getContentSizeBits() + ") > packet size (" + packetIndex.getPacketSizeBits() + ")"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+    /**
+     * Map a region of the stream file. The mappings of the last regions are
+     * shared by the readers, each caller gets its own view of the mapping,
+     * with its own position and byte order.
+     *
+     * @param position
+     *            the position of the region, in bytes
+     * @param size
+     *            the size of the region, in bytes
+     * @return the mapped region
+     * @throws CTFException
+     *             if the region cannot be mapped
+     * @throws IOException
+     *             if the file cannot be read, or if the stream file has no
+     *             reader anymore
+     */
+    ByteBuffer getMappedBuffer(long position, long size) throws CTFException, IOException {
+        synchronized (fFileLock) {
+            if (fFileChannelUsers <= 0) {
+                /*
+                 * The last reader was closed, do not open the file again, it
+                 * would never be closed. This happens when a packet decoding
+                 * task is still running after its reader was closed.
+                 */
+                throw new IOException("The stream file has no reader: " + fFile); //$NON-NLS-1$
+            }
+            ByteBuffer buffer = fMappings.get(position);
+            if (buffer == null || buffer.capacity() != size) {
+                buffer = SafeMappedByteBuffer.map(getFileChannel(), MapMode.READ_ONLY, position, size);
+                fMappings.put(position, buffer);
             }
+            ByteBuffer view = buffer.duplicate();
+            if (view == null) {
+                throw new IOException("Failed to duplicate the mapped buffer"); //$NON-NLS-1$
+            }
+            return view;
+        }
+    }
 
-            if (packetIndex.getPacketSizeBits() > ((size * Byte.SIZE - packetIndex.getOffsetBits()))) {
-                throw new CTFException("Not enough data remaining in the file for the size of this packet"); //$NON-NLS-1$
+    /**
+     * Save the packet index to the packet index directory of the trace, once
+     * the whole stream file is indexed
+     */
+    private synchronized void savePacketIndex() {
+        File directory = getStream().getTrace().getPacketIndexDirectory();
+        if (directory == null || fIndexSaved || fGrowing || fIndex.isEmpty()) {
+            return;
+        }
+        fIndexSaved = true;
+        try {
+            StreamInputPacketIndexFile.write(StreamInputPacketIndexFile.getIndexFile(directory, fFile), fFile, fIndex);
+        } catch (IOException e) {
+            Activator.log(IStatus.WARNING, "Cannot save the packet index of " + fFile + ": " + e.getMessage()); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+    }
+
+    /**
+     * Read the stream packet context of a packet again, for the packets whose
+     * index entry does not keep it
+     *
+     * @param packet
+     *            the packet descriptor
+     * @return the stream packet context definition
+     * @throws CTFException
+     *             if the packet cannot be read
+     */
+    StructDefinition readPacketContext(ICTFPacketDescriptor packet) throws CTFException {
+        try {
+            FileChannel fc = acquireFileChannel();
+            try {
+                BitBuffer bitBuffer = createBitBufferForPacketHeader(fc, packet.getOffsetBits());
+                parseTracePacketHeader(bitBuffer);
+                return fStreamPacketContextDecl.createDefinition(this, ILexicalScope.STREAM_PACKET_CONTEXT, bitBuffer);
+            } finally {
+                releaseFileChannel();
+            }
+        } catch (IOException e) {
+            throw new CTFException("Failed to read packet context", e); //$NON-NLS-1$
+        }
+    }
+
+    private long getStreamSizeBits() {
+        return fFile.length() * Byte.SIZE;
+    }
+
+    private ICTFPacketDescriptor createPacketIndexEntry(long dataOffsetbits)
+            throws CTFException {
+
+        try {
+            FileChannel fc = acquireFileChannel();
+            try {
+                BitBuffer bitBuffer = createBitBufferForPacketHeader(fc, dataOffsetbits);
+                /*
+                 * Read the trace packet header if it exists.
+                 */
+                parseTracePacketHeader(bitBuffer);
+
+                /*
+                 * Read the stream packet context if it exists.
+                 */
+                long size = fc.size();
+                ICTFPacketDescriptor packetIndex = parsePacketContext(dataOffsetbits, size, bitBuffer);
+
+                /* Basic validation */
+                if (packetIndex.getContentSizeBits() > packetIndex.getPacketSizeBits()) {
+                    throw new CTFException("Content size (" + packetIndex.getContentSizeBits() + ") > packet size (" + packetIndex.getPacketSizeBits() + ")"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                }
+
+                if (packetIndex.getPacketSizeBits() > ((size * Byte.SIZE - packetIndex.getOffsetBits()))) {
+                    throw new CTFException("Not enough data remaining in the file for the size of this packet"); //$NON-NLS-1$
+                }
+                fLostSoFar = packetIndex.getLostEvents() + fLostSoFar;
+                setTimestampEnd(packetIndex.getTimestampEnd());
+                return packetIndex;
+            } finally {
+                releaseFileChannel();
             }
-            return packetIndex;
         } catch (IOException e) {
             throw new CTFException("Failed to create packet index entry", e); //$NON-NLS-1$
         } catch (CTFException e) {
@@ -370,8 +626,6 @@ public class CTFStreamInput implements IDefinitionScope {
         ICTFPacketDescriptor packetIndex;
         StructDefinition streamPacketContextDef = fStreamPacketContextDecl.createDefinition(this, ILexicalScope.STREAM_PACKET_CONTEXT, bitBuffer);
         packetIndex = new StreamInputPacketIndexEntry(dataOffsetBits, streamPacketContextDef, fileSizeBytes, fLostSoFar, bitBuffer.position());
-        fLostSoFar = packetIndex.getLostEvents() + fLostSoFar;
-        setTimestampEnd(packetIndex.getTimestampEnd());
         return packetIndex;
     }
 
@@ -17,10 +17,11 @@ package org.eclipse.tracecompass.ctf.core.trace;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.nio.channels.FileChannel;
-import java.nio.channels.FileChannel.MapMode;
-import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -32,9 +33,10 @@ import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
 import org.eclipse.tracecompass.ctf.core.event.types.IDeclaration;
 import org.eclipse.tracecompass.ctf.core.event.types.StructDeclaration;
 import org.eclipse.tracecompass.internal.ctf.core.Activator;
-import org.eclipse.tracecompass.internal.ctf.core.SafeMappedByteBuffer;
 import org.eclipse.tracecompass.internal.ctf.core.trace.CTFPacketReader;
+import org.eclipse.tracecompass.internal.ctf.core.trace.DecodedPacketReader;
 import org.eclipse.tracecompass.internal.ctf.core.trace.NullPacketReader;
+import org.eclipse.tracecompass.internal.ctf.core.trace.PacketDecoderPool;
 
 /**
  * A CTF trace event reader. Reads the events of a trace file.
@@ -48,6 +50,19 @@ public class CTFStreamInputReader implements AutoCloseable {
 
     private static final int BITS_PER_BYTE = Byte.SIZE;
 
+    /**
+     * Number of packets decoded ahead of the current one, when the packets are
+     * decoded in parallel
+     */
+    private static final int PACKETS_AHEAD = 2;
+
+    /**
+     * Number of packets that must be read in a row, without seeking, before
+     * the next packets are decoded ahead. Random accesses only read a few
+     * events, they would waste the work of the decoders.
+     */
+    private static final int SEQUENTIAL_PACKETS_THRESHOLD = 2;
+
     // ------------------------------------------------------------------------
     // Attributes
     // ------------------------------------------------------------------------
@@ -59,7 +74,10 @@ public class CTFStreamInputReader implements AutoCloseable {
 
     private final CTFStreamInput fStreamInput;
 
-    private final @Nullable FileChannel fFileChannel;
+    /**
+     * Whether this reader uses the file channel of the stream input
+     */
+    private boolean fFileAcquired;
 
     /**
      * The packet reader used to read packets from this trace file.
@@ -84,6 +102,31 @@ public class CTFStreamInputReader implements AutoCloseable {
      */
     private boolean fLive = false;
 
+    /**
+     * Whether the next packets are decoded ahead by the packet decoder pool
+     */
+    private boolean fParallelDecoding = false;
+
+    /**
+     * Number of packets read in a row since the last seek
+     */
+    private int fSequentialPackets = 0;
+
+    /**
+     * The packets being decoded ahead, in order, with their index
+     */
+    private final Deque<PendingPacket> fPendingPackets = new ArrayDeque<>();
+
+    private static final class PendingPacket {
+        private final int fIndex;
+        private final Future<DecodedPacketReader> fReader;
+
+        public PendingPacket(int index, Future<DecodedPacketReader> reader) {
+            fIndex = index;
+            fReader = reader;
+        }
+    }
+
     // ------------------------------------------------------------------------
     // Constructors
     // ------------------------------------------------------------------------
@@ -99,7 +142,8 @@ public class CTFStreamInputReader implements AutoCloseable {
         fStreamInput = streamInput;
         fFile = fStreamInput.getFile();
         try {
-            fFileChannel = FileChannel.open(fFile.toPath(), StandardOpenOption.READ);
+            fStreamInput.acquireFileChannel();
+            fFileAcquired = true;
         } catch (IOException e) {
             throw new CTFIOException(e);
         }
@@ -138,10 +182,11 @@ public class CTFStreamInputReader implements AutoCloseable {
             if (size < 0) {
                 throw new CTFIOException("Cannot have negative sized buffers."); //$NON-NLS-1$
             }
+            CTFTrace trace = getStreamInput().getStream().getTrace();
             BitBuffer bitBuffer = new BitBuffer(getByteBufferAt(packet.getOffsetBits(), size));
             bitBuffer.position(packet.getPayloadStartBits());
+            bitBuffer.setStringDictionary(trace.getStringDictionary());
             IDeclaration eventHeaderDeclaration = getStreamInput().getStream().getEventHeaderDeclaration();
-            CTFTrace trace = getStreamInput().getStream().getTrace();
             ctfPacketReader = new CTFPacketReader(bitBuffer, packet, getEventDeclarations(), eventHeaderDeclaration, getStreamEventContextDecl(), trace.getPacketHeaderDef(), trace);
         }
         return ctfPacketReader;
@@ -162,23 +207,25 @@ public class CTFStreamInputReader implements AutoCloseable {
      */
     public ByteBuffer getByteBufferAt(long position, long size) throws CTFException {
         try {
-            return SafeMappedByteBuffer.map(fFileChannel, MapMode.READ_ONLY, position / BITS_PER_BYTE, (size + BITS_PER_BYTE - 1) / BITS_PER_BYTE);
+            return fStreamInput.getMappedBuffer(position / BITS_PER_BYTE, (size + BITS_PER_BYTE - 1) / BITS_PER_BYTE);
         } catch (IOException e) {
             throw new CTFIOException(e.getMessage(), e);
         }
     }
 
     /**
-     * Dispose the StreamInputReader, closes the file channel and its packet
-     * reader
+     * Dispose the StreamInputReader, releases the file channel it shares with
+     * the other readers of the stream input and closes its packet reader
      *
      * @throws IOException
      *             If an I/O error occurs
      */
     @Override
     public void close() throws IOException {
-        if (fFileChannel != null) {
-            fFileChannel.close();
+        cancelPendingPackets();
+        if (fFileAcquired) {
+            fFileAcquired = false;
+            fStreamInput.releaseFileChannel();
         }
         fPacketReader = NullPacketReader.INSTANCE;
     }
@@ -261,6 +308,9 @@ public class CTFStreamInputReader implements AutoCloseable {
      */
     public void setLive(boolean live) {
         fLive = live;
+        if (live) {
+            cancelPendingPackets();
+        }
     }
 
     /**
@@ -272,6 +322,33 @@ public class CTFStreamInputReader implements AutoCloseable {
         return fLive;
     }
 
+    /**
+     * Set whether the next packets of the stream are decoded ahead of time by
+     * a pool of worker threads, while the events of the current packet are
+     * read. The packets are only decoded ahead during sequential reads, after
+     * a few packets were read without seeking, and never for live traces.
+     *
+     * @param parallelDecoding
+     *            whether to decode the next packets in parallel
+     * @since 4.2
+     */
+    public void setParallelDecoding(boolean parallelDecoding) {
+        fParallelDecoding = parallelDecoding;
+        if (!parallelDecoding) {
+            cancelPendingPackets();
+        }
+    }
+
+    /**
+     * Get whether the next packets of the stream are decoded ahead of time
+     *
+     * @return whether the next packets are decoded in parallel
+     * @since 4.2
+     */
+    public boolean isParallelDecoding() {
+        return fParallelDecoding;
+    }
+
     /**
      * Get the event context of the stream
      *
@@ -305,7 +382,7 @@ public class CTFStreamInputReader implements AutoCloseable {
                     }
                     break;
                 }
-                goToNextPacket();
+                readNextPacket();
             }
 
             /*
@@ -322,6 +399,80 @@ public class CTFStreamInputReader implements AutoCloseable {
         }
     }
 
+    /**
+     * Change the current packet of the packet reader to the next one, during a
+     * sequential read. The packet is taken from the decoded packets when they
+     * are decoded in parallel.
+     *
+     * @throws CTFException
+     *             if an error occurs
+     */
+    private void readNextPacket() throws CTFException {
+        fSequentialPackets++;
+        if (!fParallelDecoding || fLive || fSequentialPackets < SEQUENTIAL_PACKETS_THRESHOLD) {
+            goToNextPacket();
+            return;
+        }
+        fPacketIndex++;
+        PendingPacket pending = fPendingPackets.peekFirst();
+        if (pending != null && pending.fIndex != fPacketIndex) {
+            cancelPendingPackets();
+        }
+        /* Decode the packets ahead, up to the last indexed one */
+        PendingPacket last = fPendingPackets.peekLast();
+        int nextIndex = (last == null) ? fPacketIndex : last.fIndex + 1;
+        while (fPendingPackets.size() <= PACKETS_AHEAD && indexPacket(nextIndex)) {
+            ICTFPacketDescriptor packet = fStreamInput.getIndex().getElement(nextIndex);
+            fPendingPackets.addLast(new PendingPacket(nextIndex, PacketDecoderPool.submit(() -> getCurrentPacketReader(packet))));
+            nextIndex++;
+        }
+        pending = fPendingPackets.pollFirst();
+        if (pending == null) {
+            /* The current packet does not exist, this is the end of the stream */
+            fPacketReader = NullPacketReader.INSTANCE;
+            return;
+        }
+        try {
+            fPacketReader = pending.fReader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CTFException("Interrupted while decoding packet", e); //$NON-NLS-1$
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof CTFException) {
+                throw (CTFException) cause;
+            }
+            throw new CTFException("Error decoding packet", cause); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Make sure a packet is in the index, indexing the packets up to it if
+     * needed
+     *
+     * @return whether the packet exists
+     */
+    private boolean indexPacket(int index) throws CTFException {
+        while (getPacketSize() <= index) {
+            if (!fStreamInput.addPacketHeaderIndex()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Cancel the decoding of the packets ahead, when the reader moves
+     * elsewhere in the stream
+     */
+    private void cancelPendingPackets() {
+        for (PendingPacket pending : fPendingPackets) {
+            pending.fReader.cancel(false);
+        }
+        fPendingPackets.clear();
+        fSequentialPackets = 0;
+    }
+
     /**
      * Change the current packet of the packet reader to the next one.
      *
@@ -410,6 +561,7 @@ public class CTFStreamInputReader implements AutoCloseable {
      *             if an error occurs
      */
     private void gotoPacket(long timestamp) throws CTFException {
+        cancelPendingPackets();
         fPacketIndex = fStreamInput.getIndex().search(timestamp) - 1;
         /*
          * Switch to this packet.
@@ -424,6 +576,7 @@ public class CTFStreamInputReader implements AutoCloseable {
      *             if an error occurs
      */
     public void goToLastEvent() throws CTFException {
+        cancelPendingPackets();
 
         /*
          * Go to the beginning of the trace
@@ -123,7 +123,8 @@ public class CTFStreamPacketOutputWriter {
                 context = ((StreamInputPacketIndexEntry) entry).getStreamPacketContextDef();
             }
             if (context == null) {
-                return;
+                /* The entry was read from a saved index */
+                context = fStreamInput.readPacketContext(entry);
             }
             ICompositeDefinition tracePacketHeader = currentPacketReader.getTracePacketHeader();
             writeCustomPacket(entry, fc, output, startOffsetBits, endOffsetBits, context, tracePacketHeader, entry.getTimestampBegin(), initialLost);
@@ -176,7 +177,8 @@ public class CTFStreamPacketOutputWriter {
                 context = ((StreamInputPacketIndexEntry) entry).getStreamPacketContextDef();
             }
             if (context == null) {
-                return;
+                /* The entry was read from a saved index */
+                context = fStreamInput.readPacketContext(entry);
             }
             boolean startIsSet = false;
             while (currentPacketReader.hasMoreEvents()) {
@@ -197,7 +199,7 @@ public class CTFStreamPacketOutputWriter {
                         StructDefinition structDefinition = (StructDefinition) eventHeader;
                         def = structDefinition.lookupDefinition(CTFStrings.TIMESTAMP);
                     }
-                    Definition definition = ((StreamInputPacketIndexEntry) entry).getStreamPacketContextDef().getDefinition(CTFStrings.TIMESTAMP_BEGIN);
+                    Definition definition = context.getDefinition(CTFStrings.TIMESTAMP_BEGIN);
                     if (definition != null && def != null && def.size() == definition.size()) {
                         lastLargeTimestamp = timestampInCycles;
                     }
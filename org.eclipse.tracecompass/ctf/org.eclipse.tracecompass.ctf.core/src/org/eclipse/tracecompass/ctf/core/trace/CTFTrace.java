@@ -32,6 +32,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
@@ -44,6 +45,7 @@ import org.eclipse.tracecompass.ctf.core.CTFStrings;
 import org.eclipse.tracecompass.ctf.core.event.CTFClock;
 import org.eclipse.tracecompass.ctf.core.event.IEventDeclaration;
 import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
+import org.eclipse.tracecompass.ctf.core.event.io.StringDictionary;
 import org.eclipse.tracecompass.ctf.core.event.metadata.DeclarationScope;
 import org.eclipse.tracecompass.ctf.core.event.scope.IDefinitionScope;
 import org.eclipse.tracecompass.ctf.core.event.scope.ILexicalScope;
@@ -142,6 +144,17 @@ public class CTFTrace implements IDefinitionScope {
      */
     private final Map<String, CTFClock> fClocks = new HashMap<>();
 
+    /**
+     * Dictionary of the strings read from the streams, null to decode every
+     * string
+     */
+    private @Nullable StringDictionary fStringDictionary = new StringDictionary();
+
+    /**
+     * Directory where the packet indexes of the streams are saved
+     */
+    private @Nullable File fPacketIndexDirectory = null;
+
     /** Handlers for the metadata files */
     private static final FileFilter METADATA_FILE_FILTER = new MetadataFileFilter();
     private static final Comparator<File> METADATA_COMPARATOR = new MetadataComparator();
@@ -452,6 +465,7 @@ public class CTFTrace implements IDefinitionScope {
          * index the trace
          */
         s.setupIndex();
+        s.loadPacketIndex();
     }
 
     /**
@@ -642,6 +656,49 @@ public class CTFTrace implements IDefinitionScope {
         openStreamInput(streamFile);
     }
 
+    /**
+     * Index the data appended to a trace that is still being written. The new
+     * stream files of the trace directory are opened and the new complete
+     * packets of each stream file are added to its index, a packet that is
+     * still being written is indexed by a later call. Only what was appended
+     * since the last call is read.
+     *
+     * @return whether new packets were indexed
+     * @since 4.2
+     */
+    public synchronized boolean indexNewPackets() {
+        File path = fPath;
+        if (path == null) {
+            return false;
+        }
+        File[] files = path.listFiles(METADATA_FILE_FILTER);
+        if (files != null) {
+            Set<File> knownFiles = new HashSet<>();
+            for (ICTFStream stream : getStreams()) {
+                for (CTFStreamInput streamInput : stream.getStreamInputs()) {
+                    knownFiles.add(streamInput.getFile());
+                }
+            }
+            Arrays.sort(files, METADATA_COMPARATOR);
+            for (File streamFile : files) {
+                if (!knownFiles.contains(streamFile)) {
+                    try {
+                        openStreamInput(streamFile);
+                    } catch (CTFException e) {
+                        /* The first packet header is still being written */
+                    }
+                }
+            }
+        }
+        boolean updated = false;
+        for (ICTFStream stream : getStreams()) {
+            for (CTFStreamInput streamInput : stream.getStreamInputs()) {
+                updated |= streamInput.indexNewPackets() > 0;
+            }
+        }
+        return updated;
+    }
+
     /**
      * Registers a new stream to the trace.
      *
@@ -886,6 +943,60 @@ public class CTFTrace implements IDefinitionScope {
         return fScope;
     }
 
+    /**
+     * Gets the dictionary of the strings read from the streams of this trace.
+     * The strings of the events are often repeated, like function or kernel
+     * names, so they are shared between the events instead of being decoded
+     * for each one.
+     *
+     * @return the string dictionary, or null if every string is decoded
+     * @since 4.2
+     */
+    public @Nullable StringDictionary getStringDictionary() {
+        return fStringDictionary;
+    }
+
+    /**
+     * Sets the dictionary of the strings read from the streams of this trace.
+     * It is used by the packets read after this call.
+     *
+     * @param dictionary
+     *            the string dictionary, or null to decode every string
+     * @since 4.2
+     */
+    public void setStringDictionary(@Nullable StringDictionary dictionary) {
+        fStringDictionary = dictionary;
+    }
+
+    /**
+     * Sets the directory where the packet index of each stream file is saved
+     * once it is fully indexed. The saved indexes of the stream files that did
+     * not change since are loaded, so their packet headers are not read again.
+     *
+     * @param directory
+     *            the directory of the packet indexes, or null to not save them
+     * @since 4.2
+     */
+    public void setPacketIndexDirectory(@Nullable File directory) {
+        fPacketIndexDirectory = directory;
+        for (ICTFStream stream : getStreams()) {
+            for (CTFStreamInput streamInput : stream.getStreamInputs()) {
+                streamInput.loadPacketIndex();
+            }
+        }
+    }
+
+    /**
+     * Gets the directory where the packet indexes of the streams are saved
+     *
+     * @return the directory of the packet indexes, or null if they are not
+     *         saved
+     * @since 4.2
+     */
+    public @Nullable File getPacketIndexDirectory() {
+        return fPacketIndexDirectory;
+    }
+
     /**
      * Gets the packet header definition (UUID, magic number and such)
      *
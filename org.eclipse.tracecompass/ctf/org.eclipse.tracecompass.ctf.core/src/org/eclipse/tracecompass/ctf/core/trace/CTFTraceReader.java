@@ -30,6 +30,7 @@ import org.eclipse.tracecompass.ctf.core.CTFException;
 import org.eclipse.tracecompass.ctf.core.event.IEventDeclaration;
 import org.eclipse.tracecompass.ctf.core.event.IEventDefinition;
 import org.eclipse.tracecompass.internal.ctf.core.Activator;
+import org.eclipse.tracecompass.internal.ctf.core.trace.PacketIndexerPool;
 import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputReaderTimestampComparator;
 
 /**
@@ -84,6 +85,11 @@ public class CTFTraceReader implements AutoCloseable {
      */
     private boolean fClosed = false;
 
+    /**
+     * Whether the stream input readers decode their next packets in parallel
+     */
+    private boolean fParallelDecoding = false;
+
     // ------------------------------------------------------------------------
     // Constructors
     // ------------------------------------------------------------------------
@@ -134,6 +140,7 @@ public class CTFTraceReader implements AutoCloseable {
         newReader = new CTFTraceReader(fTrace);
         newReader.fStartTime = fStartTime;
         newReader.fEndTime = fEndTime;
+        newReader.setParallelDecoding(fParallelDecoding);
         return newReader;
     }
 
@@ -226,6 +233,20 @@ public class CTFTraceReader implements AutoCloseable {
         fEventCountPerTraceFile = new long[fStreamInputReaders.size()];
     }
 
+    /**
+     * Index the packets of all the trace files concurrently, before the
+     * readers go through all of them. The errors are reported by the readers.
+     */
+    private void indexStreamInputs() {
+        List<CTFStreamInput> streamInputs = new ArrayList<>();
+        synchronized (fStreamInputReaders) {
+            for (CTFStreamInputReader reader : fStreamInputReaders) {
+                streamInputs.add(reader.getStreamInput());
+            }
+        }
+        PacketIndexerPool.indexAll(streamInputs);
+    }
+
     /**
      * Returns whether or not this CTFTraceReader has been closed
      *
@@ -254,6 +275,7 @@ public class CTFTraceReader implements AutoCloseable {
                 try (CTFStreamInputReader streamInputReader = new CTFStreamInputReader(checkNotNull(streamInput))) {
                     if (!fStreamInputReaders.contains(streamInputReader)) {
                         CTFStreamInputReader streamInputReaderToAdd = new CTFStreamInputReader(checkNotNull(streamInput));
+                        streamInputReaderToAdd.setParallelDecoding(fParallelDecoding);
                         streamInputReaderToAdd.readNextEvent();
                         fStreamInputReaders.add(streamInputReaderToAdd);
                         readers.add(streamInputReaderToAdd);
@@ -403,6 +425,7 @@ public class CTFTraceReader implements AutoCloseable {
      *             if an error occurs
      */
     public void goToLastEvent() throws CTFException {
+        indexStreamInputs();
         long endTime = Long.MIN_VALUE;
         for (CTFStreamInputReader sir : fPrio) {
             sir.goToLastEvent();
@@ -542,6 +565,37 @@ public class CTFTraceReader implements AutoCloseable {
         }
     }
 
+    /**
+     * Set whether the events are decoded in parallel. In this mode, a bounded
+     * pool of worker threads decodes the next packets of every stream ahead of
+     * time, while the events are merged on the caller thread. It speeds up the
+     * sequential reads of whole traces, and does not change the order of the
+     * events. The packets are not decoded ahead right after a seek, nor for
+     * live traces.
+     *
+     * @param parallelDecoding
+     *            whether to decode the packets in parallel
+     * @since 4.2
+     */
+    public void setParallelDecoding(boolean parallelDecoding) {
+        fParallelDecoding = parallelDecoding;
+        synchronized (fStreamInputReaders) {
+            for (CTFStreamInputReader reader : fStreamInputReaders) {
+                reader.setParallelDecoding(parallelDecoding);
+            }
+        }
+    }
+
+    /**
+     * Get whether the events are decoded in parallel
+     *
+     * @return whether the packets are decoded in parallel
+     * @since 4.2
+     */
+    public boolean isParallelDecoding() {
+        return fParallelDecoding;
+    }
+
     /**
      * Get if the trace is to read live or not
      *
@@ -612,6 +666,7 @@ public class CTFTraceReader implements AutoCloseable {
      * @since 1.0
      */
     public void populateIndex() throws CTFException {
+        indexStreamInputs();
         for (CTFStreamInputReader sir : fPrio) {
             sir.goToLastEvent();
         }
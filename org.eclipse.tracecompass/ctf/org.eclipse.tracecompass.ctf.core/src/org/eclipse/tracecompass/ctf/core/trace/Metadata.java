@@ -46,6 +46,7 @@ import org.eclipse.tracecompass.ctf.parser.CTFParser;
 import org.eclipse.tracecompass.ctf.parser.CTFParser.parse_return;
 import org.eclipse.tracecompass.internal.ctf.core.event.metadata.CtfAntlrException;
 import org.eclipse.tracecompass.internal.ctf.core.event.metadata.IOStructGen;
+import org.eclipse.tracecompass.internal.ctf.core.event.metadata.MetadataTreeCache;
 import org.eclipse.tracecompass.internal.ctf.core.event.metadata.ParseException;
 import org.eclipse.tracecompass.internal.ctf.core.utils.Utils;
 
@@ -152,19 +153,19 @@ public class Metadata {
     public void parseFile() throws CTFException {
 
         /*
-         * Reader. It will contain a StringReader if we are using packet-based metadata
-         * and it will contain a FileReader if we have text-based metadata.
+         * The metadata text. It is decoded from the packets if we are using
+         * packet-based metadata, and read as is if we have text-based metadata.
          */
 
         File metadataFile = new File(getMetadataPath());
         ByteOrder byteOrder = CTFTrace.startsWithMagicNumber(metadataFile, Utils.TSDL_MAGIC);
         fDetectedByteOrder = byteOrder;
         try (FileInputStream fis = new FileInputStream(metadataFile);
-                FileChannel metadataFileChannel = fis.getChannel();
-                /* Check if metadata is packet-based, if not it is text based */
-                Reader metadataTextInput = ( byteOrder!= null ? readBinaryMetaData(metadataFileChannel) : new FileReader(metadataFile));) {
+                FileChannel metadataFileChannel = fis.getChannel()) {
+            /* Check if metadata is packet-based, if not it is text based */
+            String metadataText = (byteOrder != null ? readBinaryMetaData(metadataFileChannel) : new String(Files.readAllBytes(metadataFile.toPath()), Charset.defaultCharset()));
 
-            readMetaDataText(metadataTextInput);
+            readMetaDataText(metadataText);
 
         } catch (FileNotFoundException e) {
             throw new CTFException("Cannot find metadata file!", e); //$NON-NLS-1$
@@ -178,7 +179,7 @@ public class Metadata {
 
     }
 
-    private Reader readBinaryMetaData(FileChannel metadataFileChannel) throws CTFException {
+    private String readBinaryMetaData(FileChannel metadataFileChannel) throws CTFException {
         /* Create StringBuffer to receive metadata text */
         StringBuffer metadataText = new StringBuffer();
 
@@ -192,8 +193,7 @@ public class Metadata {
                     metadataText);
         }
 
-        /* Wrap the metadata string with a StringReader */
-        return new StringReader(metadataText.toString());
+        return metadataText.toString();
     }
 
     /**
@@ -240,9 +240,8 @@ public class Metadata {
      *             parsing a TSDL file
      */
     public void parseText(String data) throws CTFException {
-        Reader metadataTextInput = new StringReader(data);
         try {
-            readMetaDataText(metadataTextInput);
+            readMetaDataText(data);
         } catch (IOException | ParseException e) {
             throw new CTFException(e);
         } catch (RecognitionException | RewriteCardinalityException e) {
@@ -251,8 +250,17 @@ public class Metadata {
 
     }
 
-    private void readMetaDataText(Reader metadataTextInput) throws IOException, RecognitionException, ParseException {
-        CommonTree tree = createAST(metadataTextInput);
+    private void readMetaDataText(String metadataText) throws IOException, RecognitionException, ParseException {
+        /*
+         * Traces with the same metadata share the tree parsed from it, only
+         * the declarations are generated for each trace
+         */
+        String key = MetadataTreeCache.getKey(metadataText);
+        CommonTree tree = MetadataTreeCache.get(key);
+        if (tree == null) {
+            tree = createAST(new StringReader(metadataText));
+            MetadataTreeCache.put(key, tree);
+        }
 
         /* Generate IO structures (declarations) */
         fTreeParser = new IOStructGen(tree, NonNullUtils.checkNotNull(fTrace));
@@ -382,7 +382,19 @@ public class EventDeclaration implements IEventDeclaration {
         return calculateTimestamp(value, len, lastTimestamp);
     }
 
-    private static long calculateTimestamp(final long value, int len, long prevTimestamp) {
+    /**
+     * Calculate the full timestamp of an event from the possibly truncated
+     * value of its timestamp field and the timestamp of the previous event
+     *
+     * @param value
+     *            the value of the timestamp field
+     * @param len
+     *            the length of the timestamp field in bits
+     * @param prevTimestamp
+     *            the timestamp of the previous event of the stream
+     * @return the timestamp of the event
+     */
+    public static long calculateTimestamp(final long value, int len, long prevTimestamp) {
         long newval;
         long majorasbitmask;
         long lastTimestamp = prevTimestamp;
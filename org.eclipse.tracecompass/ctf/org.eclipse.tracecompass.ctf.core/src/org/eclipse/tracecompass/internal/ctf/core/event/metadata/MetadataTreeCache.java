@@ -0,0 +1,357 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.event.metadata;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.antlr.runtime.CommonToken;
+import org.antlr.runtime.tree.CommonTree;
+import org.antlr.runtime.tree.CommonTreeAdaptor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.ctf.parser.CTFParser;
+import org.eclipse.tracecompass.internal.ctf.core.Activator;
+
+/**
+ * Cache of the syntax trees of the metadata of the traces, by the hash of the
+ * metadata text. Traces with the same metadata, like the traces of the ranks
+ * of a parallel application, are parsed once, the other traces generate their
+ * declarations from a copy of the cached tree.
+ *
+ * The trees are kept in memory for the last metadata parsed, and saved in a
+ * cache directory so they are also reused by the next sessions. The saved
+ * trees hold the token types of the parser, so they are only read back by a
+ * parser with the same tokens. The directory is bounded in size, the least
+ * recently used trees are deleted first.
+ */
+@NonNullByDefault
+public final class MetadataTreeCache {
+
+    private static final int MAGIC = 0x43544654; // "CTFT"
+    private static final int VERSION = 2;
+
+    /*
+     * The token types are the indexes of the token names in the generated
+     * parser, they change when the grammar changes
+     */
+    private static final int GRAMMAR_VERSION = Arrays.hashCode(CTFParser.tokenNames);
+
+    private static final String EXTENSION = ".tree"; //$NON-NLS-1$
+    private static final String TEMP_EXTENSION = ".tmp"; //$NON-NLS-1$
+    private static final String DIRECTORY_NAME = "metadata-cache"; //$NON-NLS-1$
+
+    /**
+     * Number of trees kept in memory
+     */
+    private static final int CACHE_SIZE = 16;
+
+    /**
+     * Default maximum size of the cache directory, in bytes
+     */
+    private static final long DEFAULT_DIRECTORY_SIZE = 16L * 1024 * 1024;
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray(); //$NON-NLS-1$
+
+    private static final Map<String, CommonTree> TREES = new LinkedHashMap<String, CommonTree>(CACHE_SIZE, 0.75f, true) {
+        private static final long serialVersionUID = 4389451787290563581L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.@Nullable Entry<String, CommonTree> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private static @Nullable File fDirectory = null;
+    private static boolean fDirectoryInitialized = false;
+    private static long fMaxDirectorySize = DEFAULT_DIRECTORY_SIZE;
+
+    private MetadataTreeCache() {
+        // Do nothing
+    }
+
+    /**
+     * Set the directory where the trees are saved. By default, it is in the
+     * state location of the plug-in, if it is running.
+     *
+     * @param directory
+     *            the directory, or null to only keep the trees in memory
+     */
+    public static synchronized void setDirectory(@Nullable File directory) {
+        fDirectory = directory;
+        fDirectoryInitialized = true;
+    }
+
+    /**
+     * Set the maximum size of the cache directory. When a tree is saved and
+     * the directory is larger, the least recently used trees are deleted.
+     *
+     * @param size
+     *            the maximum size in bytes
+     */
+    public static synchronized void setMaxDirectorySize(long size) {
+        fMaxDirectorySize = size;
+    }
+
+    private static synchronized long getMaxDirectorySize() {
+        return fMaxDirectorySize;
+    }
+
+    private static synchronized @Nullable File getDirectory() {
+        if (!fDirectoryInitialized) {
+            fDirectoryInitialized = true;
+            Activator plugin = Activator.getDefault();
+            if (plugin != null) {
+                try {
+                    fDirectory = plugin.getStateLocation().append(DIRECTORY_NAME).toFile();
+                } catch (IllegalStateException e) {
+                    /* No instance location, the trees are kept in memory only */
+                }
+            }
+        }
+        return fDirectory;
+    }
+
+    /**
+     * Clear the trees kept in memory
+     */
+    public static void clear() {
+        synchronized (TREES) {
+            TREES.clear();
+        }
+    }
+
+    /**
+     * Get the key of the tree of a metadata text
+     *
+     * @param metadata
+     *            the metadata text
+     * @return the key, the hexadecimal hash of the text
+     */
+    public static String getKey(String metadata) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(metadata.getBytes(StandardCharsets.UTF_8)); //$NON-NLS-1$
+            char[] key = new char[digest.length * 2];
+            for (int i = 0; i < digest.length; i++) {
+                key[i * 2] = HEX_DIGITS[(digest[i] >> 4) & 0xf];
+                key[i * 2 + 1] = HEX_DIGITS[digest[i] & 0xf];
+            }
+            return new String(key);
+        } catch (NoSuchAlgorithmException e) {
+            /* Every Java platform has SHA-256 */
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Get a copy of the tree of a metadata text, if it was already parsed in
+     * this session or in a previous one. The caller can modify the copy.
+     *
+     * @param key
+     *            the key of the metadata text, from {@link #getKey(String)}
+     * @return the copy of the tree, or null if it is not in the cache
+     */
+    public static @Nullable CommonTree get(String key) {
+        CommonTree tree;
+        synchronized (TREES) {
+            tree = TREES.get(key);
+        }
+        if (tree == null) {
+            tree = read(key);
+            if (tree == null) {
+                return null;
+            }
+            synchronized (TREES) {
+                TREES.put(key, tree);
+            }
+        }
+        return copy(tree);
+    }
+
+    /**
+     * Add the tree of a metadata text to the cache. The tree is copied, the
+     * caller can still modify it.
+     *
+     * @param key
+     *            the key of the metadata text, from {@link #getKey(String)}
+     * @param tree
+     *            the tree parsed from the metadata text
+     */
+    public static void put(String key, CommonTree tree) {
+        CommonTree copy = copy(tree);
+        synchronized (TREES) {
+            TREES.put(key, copy);
+        }
+        write(key, copy);
+    }
+
+    private static CommonTree copy(CommonTree tree) {
+        return (CommonTree) new CommonTreeAdaptor().dupTree(tree);
+    }
+
+    // ------------------------------------------------------------------------
+    // Files
+    // ------------------------------------------------------------------------
+
+    private static @Nullable CommonTree read(String key) {
+        File directory = getDirectory();
+        if (directory == null) {
+            return null;
+        }
+        File file = new File(directory, key + EXTENSION);
+        if (!file.isFile()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readInt() != GRAMMAR_VERSION) {
+                return null;
+            }
+            CommonTree tree = readNode(in);
+            /* The modification time orders the trees by their last use */
+            file.setLastModified(System.currentTimeMillis());
+            return tree;
+        } catch (IOException | IllegalArgumentException e) {
+            /* The file is truncated or corrupted, the metadata is parsed again */
+            return null;
+        }
+    }
+
+    private static CommonTree readNode(DataInputStream in) throws IOException {
+        CommonTree node;
+        if (in.readBoolean()) {
+            int type = in.readInt();
+            String text = in.readBoolean() ? readString(in) : null;
+            node = new CommonTree(new CommonToken(type, text));
+        } else {
+            node = new CommonTree();
+        }
+        int childCount = in.readInt();
+        if (childCount < 0) {
+            throw new IllegalArgumentException("Invalid number of children " + childCount); //$NON-NLS-1$
+        }
+        for (int i = 0; i < childCount; i++) {
+            node.addChild(readNode(in));
+        }
+        return node;
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new EOFException();
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void write(String key, CommonTree tree) {
+        File directory = getDirectory();
+        if (directory == null) {
+            return;
+        }
+        File file = new File(directory, key + EXTENSION);
+        File tempFile = new File(directory, key + TEMP_EXTENSION + Thread.currentThread().getId());
+        try {
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("Cannot create directory " + directory); //$NON-NLS-1$
+            }
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(GRAMMAR_VERSION);
+                writeNode(out, tree);
+            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Activator.log(IStatus.WARNING, "Cannot save the metadata tree to " + file + ": " + e.getMessage()); //$NON-NLS-1$ //$NON-NLS-2$
+            return;
+        }
+        trim(directory, file);
+    }
+
+    /**
+     * Delete the least recently used trees while the directory is larger than
+     * its maximum size. The tree just saved is kept.
+     */
+    private static void trim(File directory, File saved) {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(EXTENSION));
+        if (files == null) {
+            return;
+        }
+        long size = 0;
+        for (File file : files) {
+            size += file.length();
+        }
+        long maxSize = getMaxDirectorySize();
+        if (size <= maxSize) {
+            return;
+        }
+        /* Read the times once, another session may use the trees meanwhile */
+        long[] modified = new long[files.length];
+        Integer[] order = new Integer[files.length];
+        for (int i = 0; i < files.length; i++) {
+            modified[i] = files[i].lastModified();
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong(i -> modified[i]));
+        for (int i = 0; i < order.length && size > maxSize; i++) {
+            File file = files[order[i]];
+            long length = file.length();
+            if (!file.equals(saved) && file.delete()) {
+                size -= length;
+            }
+        }
+    }
+
+    private static void writeNode(DataOutputStream out, CommonTree node) throws IOException {
+        if (node.getToken() != null) {
+            out.writeBoolean(true);
+            out.writeInt(node.getType());
+            String text = node.getText();
+            out.writeBoolean(text != null);
+            if (text != null) {
+                writeString(out, text);
+            }
+        } else {
+            out.writeBoolean(false);
+        }
+        int childCount = node.getChildCount();
+        out.writeInt(childCount);
+        for (int i = 0; i < childCount; i++) {
+            writeNode(out, (CommonTree) node.getChild(i));
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
@@ -15,8 +15,9 @@ package org.eclipse.tracecompass.internal.ctf.core.event.types;
 
 import static org.eclipse.tracecompass.common.core.NonNullUtils.checkNotNull;
 
-import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
@@ -30,10 +31,8 @@ import org.eclipse.tracecompass.ctf.core.event.types.IDeclaration;
 import org.eclipse.tracecompass.ctf.core.event.types.IDefinition;
 import org.eclipse.tracecompass.ctf.core.event.types.IntegerDefinition;
 
-import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableList.Builder;
-import com.google.common.collect.Multimap;
 
 /**
  * A CTF sequence declaration.
@@ -51,7 +50,12 @@ public class SequenceDeclaration extends CompoundDeclaration {
 
     private final IDeclaration fElemType;
     private final String fLengthName;
-    private final transient Multimap<String, String> fPaths = ArrayListMultimap.create();
+    /*
+     * Cache of the element names of each field, the lists are immutable and
+     * only replaced by longer ones, the cache is shared by the threads decoding
+     * packets of the trace
+     */
+    private final transient Map<String, List<String>> fPaths = new ConcurrentHashMap<>();
 
     // ------------------------------------------------------------------------
     // Constructors
@@ -127,11 +131,10 @@ public class SequenceDeclaration extends CompoundDeclaration {
             input.get(data);
             return new ByteArrayDefinition(this, definitionScope, fieldName, data);
         }
-        Collection<String> collection = fPaths.get(fieldName);
-        while (collection.size() < length) {
-            fPaths.put(fieldName, fieldName + '[' + collection.size() + ']');
+        List<String> paths = fPaths.get(fieldName);
+        if (paths == null || paths.size() < length) {
+            paths = fPaths.compute(fieldName, (name, current) -> createPaths(name, current, (int) length));
         }
-        List<String> paths = (List<String>) fPaths.get(fieldName);
         Builder<@NonNull Definition> definitions = new ImmutableList.Builder<>();
         for (int i = 0; i < length; i++) {
             /* We should not have inserted any null values */
@@ -142,6 +145,22 @@ public class SequenceDeclaration extends CompoundDeclaration {
         return new ArrayDefinition(this, definitionScope, fieldName, list);
     }
 
+    private static List<String> createPaths(String fieldName, @Nullable List<String> current, int length) {
+        if (current != null && current.size() >= length) {
+            return current;
+        }
+        Builder<String> paths = new ImmutableList.Builder<>();
+        int size = 0;
+        if (current != null) {
+            paths.addAll(current);
+            size = current.size();
+        }
+        for (int i = size; i < length; i++) {
+            paths.add(fieldName + '[' + i + ']');
+        }
+        return paths.build();
+    }
+
     @Override
     public String toString() {
         /* Only used for debugging */
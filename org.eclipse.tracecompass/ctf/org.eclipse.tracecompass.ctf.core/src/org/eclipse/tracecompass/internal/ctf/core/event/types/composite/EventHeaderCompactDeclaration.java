@@ -152,6 +152,23 @@ public final class EventHeaderCompactDeclaration extends Declaration implements
 
     @Override
     public EventHeaderDefinition createDefinition(@Nullable IDefinitionScope definitionScope, String fieldName, BitBuffer input) throws CTFException {
+        EventHeaderValues values = new EventHeaderValues();
+        read(input, values);
+        return new EventHeaderDefinition(this, values.getId(), values.getTimestamp(), values.getTimestampLength());
+    }
+
+    /**
+     * Read the id and timestamp of an event header, without creating its
+     * definition
+     *
+     * @param input
+     *            the buffer to read, at the position of the header
+     * @param values
+     *            the values to set
+     * @throws CTFException
+     *             if the header cannot be read
+     */
+    public void read(BitBuffer input, EventHeaderValues values) throws CTFException {
         alignRead(input);
         ByteOrder bo = input.getByteOrder();
         input.setByteOrder(fByteOrder);
@@ -159,7 +176,8 @@ public final class EventHeaderCompactDeclaration extends Declaration implements
         if (enumId != EXTENDED_VALUE) {
             long timestamp2 = input.get(COMPACT_TS, false);
             input.setByteOrder(bo);
-            return new EventHeaderDefinition(this, enumId, timestamp2, COMPACT_TS);
+            values.set(enumId, timestamp2, COMPACT_TS);
+            return;
         }
         // needed since we read 5 bits
         input.position(input.position() + 3);
@@ -169,8 +187,7 @@ public final class EventHeaderCompactDeclaration extends Declaration implements
         }
         long timestampLong = input.get(FULL_TS, false);
         input.setByteOrder(bo);
-        return new EventHeaderDefinition(this, (int) id, timestampLong, FULL_TS);
-
+        values.set((int) id, timestampLong, FULL_TS);
     }
 
     @Override
@@ -179,6 +179,23 @@ public final class EventHeaderLargeDeclaration extends Declaration implements IE
 
     @Override
     public EventHeaderDefinition createDefinition(@Nullable IDefinitionScope definitionScope, String fieldName, BitBuffer input) throws CTFException {
+        EventHeaderValues values = new EventHeaderValues();
+        read(input, values);
+        return new EventHeaderDefinition(this, values.getId(), values.getTimestamp(), values.getTimestampLength());
+    }
+
+    /**
+     * Read the id and timestamp of an event header, without creating its
+     * definition
+     *
+     * @param input
+     *            the buffer to read, at the position of the header
+     * @param values
+     *            the values to set
+     * @throws CTFException
+     *             if the header cannot be read
+     */
+    public void read(BitBuffer input, EventHeaderValues values) throws CTFException {
         alignRead(input);
         ByteOrder bo = input.getByteOrder();
         input.setByteOrder(fByteOrder);
@@ -186,14 +203,15 @@ public final class EventHeaderLargeDeclaration extends Declaration implements IE
         long second = input.get(COMPACT_TS, false);
         if (first != EXTENDED_VALUE) {
             input.setByteOrder(bo);
-            return new EventHeaderDefinition(this, first, second, COMPACT_TS);
+            values.set(first, second, COMPACT_TS);
+            return;
         }
         long timestampLong = input.get(FULL_TS, false);
         input.setByteOrder(bo);
         if (second > Integer.MAX_VALUE) {
             throw new CTFException("ID " + second + " larger than " + Integer.MAX_VALUE + " is currently unsupported by the parser"); //$NON-NLS-1$//$NON-NLS-2$ //$NON-NLS-3$
         }
-        return new EventHeaderDefinition(this, (int) second, timestampLong, FULL_TS);
+        values.set((int) second, timestampLong, FULL_TS);
     }
 
     @Override
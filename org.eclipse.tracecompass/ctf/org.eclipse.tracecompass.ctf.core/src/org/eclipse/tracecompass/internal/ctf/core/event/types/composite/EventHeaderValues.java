@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.event.types.composite;
+
+/**
+ * Mutable values of an event header, read by the compact and large event
+ * header declarations. Unlike the {@link EventHeaderDefinition}, an instance
+ * can be reused to read the header of every event of a stream.
+ */
+public final class EventHeaderValues {
+
+    private int fId;
+    private long fTimestamp;
+    private int fTimestampLength;
+
+    /**
+     * Set the values of the header
+     *
+     * @param id
+     *            the event id
+     * @param timestamp
+     *            the timestamp, possibly truncated
+     * @param timestampLength
+     *            the length of the timestamp in bits
+     */
+    public void set(int id, long timestamp, int timestampLength) {
+        fId = id;
+        fTimestamp = timestamp;
+        fTimestampLength = timestampLength;
+    }
+
+    /**
+     * Gets the ID value
+     *
+     * @return the event id
+     */
+    public int getId() {
+        return fId;
+    }
+
+    /**
+     * Gets the timestamp value, possibly truncated
+     *
+     * @return the timestamp
+     */
+    public long getTimestamp() {
+        return fTimestamp;
+    }
+
+    /**
+     * Gets the length of the timestamp
+     *
+     * @return the length of the timestamp in bits
+     */
+    public int getTimestampLength() {
+        return fTimestampLength;
+    }
+}
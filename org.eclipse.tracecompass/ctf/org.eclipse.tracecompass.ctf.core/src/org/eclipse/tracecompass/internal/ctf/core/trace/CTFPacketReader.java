@@ -123,6 +123,18 @@ public final class CTFPacketReader implements IPacketReader, IDefinitionScope {
         return fHasLost || (fInput.position() < fPacketContext.getContentSizeBits());
     }
 
+    /**
+     * Set the timestamp of the previous event, to read the next event from a
+     * position of the input that was set by another reader. It is needed to
+     * compute the timestamp of the next event if it is truncated.
+     *
+     * @param timestamp
+     *            the timestamp of the previous event, in cycles
+     */
+    public void setLastTimestamp(long timestamp) {
+        fLastTimestamp = timestamp;
+    }
+
     @Override
     public EventDefinition readNextEvent() throws CTFException {
         int eventID = (int) IEventDeclaration.UNSET_EVENT_ID;
@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.trace;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.IEventDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.ICompositeDefinition;
+import org.eclipse.tracecompass.ctf.core.trace.CTFIOException;
+import org.eclipse.tracecompass.ctf.core.trace.ICTFPacketDescriptor;
+import org.eclipse.tracecompass.ctf.core.trace.IPacketReader;
+
+/**
+ * Packet reader over the events of a packet that were all decoded
+ * beforehand, typically by a worker thread of the {@link PacketDecoderPool}.
+ *
+ * If the decoding failed in the middle of the packet, the events before the
+ * error are returned and the error is thrown when the next event is read, as
+ * the {@link CTFPacketReader} would do.
+ */
+@NonNullByDefault
+public final class DecodedPacketReader implements IPacketReader {
+
+    private final ICTFPacketDescriptor fPacket;
+    private final int fCpu;
+    private final List<IEventDefinition> fEvents;
+    private final List<@Nullable ICompositeDefinition> fEventHeaders;
+    private final @Nullable CTFException fError;
+    private int fNext = 0;
+    private @Nullable ICompositeDefinition fEventHeader = null;
+
+    private DecodedPacketReader(ICTFPacketDescriptor packet, int cpu, List<IEventDefinition> events, List<@Nullable ICompositeDefinition> eventHeaders, @Nullable CTFException error) {
+        fPacket = packet;
+        fCpu = cpu;
+        fEvents = events;
+        fEventHeaders = eventHeaders;
+        fError = error;
+    }
+
+    /**
+     * Decode all the events of a packet
+     *
+     * @param reader
+     *            The reader of the packet, at its first event
+     * @return The reader of the decoded events
+     */
+    public static DecodedPacketReader decode(IPacketReader reader) {
+        List<IEventDefinition> events = new ArrayList<>();
+        List<@Nullable ICompositeDefinition> eventHeaders = new ArrayList<>();
+        CTFException error = null;
+        try {
+            while (reader.hasMoreEvents()) {
+                events.add(reader.readNextEvent());
+                eventHeaders.add(reader.getCurrentPacketEventHeader());
+            }
+        } catch (CTFException e) {
+            error = e;
+        }
+        return new DecodedPacketReader(reader.getCurrentPacket(), reader.getCPU(), events, eventHeaders, error);
+    }
+
+    @Override
+    public int getCPU() {
+        return fCpu;
+    }
+
+    @Override
+    public boolean hasMoreEvents() {
+        return fNext < fEvents.size() || (fNext == fEvents.size() && fError != null);
+    }
+
+    @Override
+    public IEventDefinition readNextEvent() throws CTFException {
+        int next = fNext++;
+        if (next < fEvents.size()) {
+            fEventHeader = fEventHeaders.get(next);
+            return fEvents.get(next);
+        }
+        CTFException error = fError;
+        if (error != null) {
+            throw error;
+        }
+        throw new CTFIOException("No more events in packet"); //$NON-NLS-1$
+    }
+
+    @Override
+    public ICTFPacketDescriptor getCurrentPacket() {
+        return fPacket;
+    }
+
+    @Override
+    public @Nullable ICompositeDefinition getCurrentPacketEventHeader() {
+        return fEventHeader;
+    }
+}
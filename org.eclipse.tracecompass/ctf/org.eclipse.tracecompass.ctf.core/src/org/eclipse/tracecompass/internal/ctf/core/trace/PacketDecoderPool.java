@@ -0,0 +1,59 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.trace;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.tracecompass.common.core.NonNullUtils;
+import org.eclipse.tracecompass.ctf.core.trace.IPacketReader;
+
+/**
+ * Bounded pool of worker threads shared by all the stream input readers that
+ * decode their next packets ahead of time. Packets are independent of each
+ * other once their index entry is known, so each one can be decoded by any
+ * thread into a {@link DecodedPacketReader}.
+ *
+ * The threads are daemons, so an idle pool does not keep the application
+ * alive.
+ */
+@NonNullByDefault
+public final class PacketDecoderPool {
+
+    private static final String THREAD_NAME = "CTF Packet Decoder"; //$NON-NLS-1$
+
+    private static final ExecutorService EXECUTOR = NonNullUtils.checkNotNull(Executors.newFixedThreadPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors() - 1), runnable -> {
+                Thread thread = new Thread(runnable, THREAD_NAME);
+                thread.setDaemon(true);
+                return thread;
+            }));
+
+    private PacketDecoderPool() {
+        // Do nothing
+    }
+
+    /**
+     * Decode a packet on a worker thread
+     *
+     * @param packetReader
+     *            The task that creates the reader of the packet, it is run on
+     *            the worker thread
+     * @return The future decoded packet
+     */
+    public static Future<DecodedPacketReader> submit(Callable<IPacketReader> packetReader) {
+        return NonNullUtils.checkNotNull(EXECUTOR.submit(() -> DecodedPacketReader.decode(packetReader.call())));
+    }
+}
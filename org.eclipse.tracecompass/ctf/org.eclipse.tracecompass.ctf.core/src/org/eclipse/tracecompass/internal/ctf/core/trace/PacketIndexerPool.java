@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.trace;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.tracecompass.common.core.NonNullUtils;
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.trace.CTFStreamInput;
+
+/**
+ * Bounded pool of worker threads that index the packets of the stream inputs
+ * of a trace. The stream inputs are independent files, so they are indexed
+ * concurrently, each one by a single thread.
+ *
+ * The threads are daemons, so an idle pool does not keep the application
+ * alive.
+ */
+@NonNullByDefault
+public final class PacketIndexerPool {
+
+    private static final String THREAD_NAME = "CTF Packet Indexer"; //$NON-NLS-1$
+
+    private static final ExecutorService EXECUTOR = NonNullUtils.checkNotNull(Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(), runnable -> {
+                Thread thread = new Thread(runnable, THREAD_NAME);
+                thread.setDaemon(true);
+                return thread;
+            }));
+
+    private PacketIndexerPool() {
+        // Do nothing
+    }
+
+    /**
+     * Index all the packets of stream inputs, and wait until they are
+     * indexed.
+     *
+     * A stream input that cannot be indexed up to its end is left partially
+     * indexed, the error is not reported here. The readers report it as
+     * before when they reach the packet that cannot be read.
+     *
+     * @param streamInputs
+     *            the stream inputs to index
+     */
+    public static void indexAll(Collection<CTFStreamInput> streamInputs) {
+        if (streamInputs.size() <= 1) {
+            /* Nothing to do in parallel, the readers index as they go */
+            return;
+        }
+        List<Future<?>> futures = new ArrayList<>(streamInputs.size());
+        for (CTFStreamInput streamInput : streamInputs) {
+            futures.add(EXECUTOR.submit(() -> {
+                try {
+                    while (streamInput.addPacketHeaderIndex()) {
+                        // Index the next packet
+                    }
+                } catch (CTFException e) {
+                    // The readers will report it
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                for (Future<?> other : futures) {
+                    other.cancel(false);
+                }
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                // Unexpected, the readers will index the stream input themselves
+            }
+        }
+    }
+}
@@ -213,6 +213,47 @@ public class StreamInputPacketIndexEntry implements ICTFPacketDescriptor {
         fLostEvents = entryToAdd.getLostEvents();
     }
 
+    /**
+     * Constructor of an entry read from a saved index, the packet context
+     * definition is not available.
+     *
+     * @param offsetBits
+     *            offset in the file of the start of the packet in bits
+     * @param packetSizeBits
+     *            packet size in bits
+     * @param contentSizeBits
+     *            content size in bits
+     * @param timestampBegin
+     *            begin timestamp
+     * @param timestampEnd
+     *            end timestamp
+     * @param lostEvents
+     *            number of events lost in this packet
+     * @param target
+     *            the traced target
+     * @param targetId
+     *            the traced target ID
+     * @param payloadStartBits
+     *            end of packet headers
+     * @param attributes
+     *            the attributes of the packet context
+     */
+    public StreamInputPacketIndexEntry(long offsetBits, long packetSizeBits, long contentSizeBits, long timestampBegin, long timestampEnd,
+            long lostEvents, String target, long targetId, long payloadStartBits, @NonNull Map<String, Object> attributes) {
+        fStreamPacketContextDef = null;
+        fEndPacketHeaderBits = payloadStartBits;
+        fAttributes = attributes;
+        fContentSizeBits = contentSizeBits;
+        fPacketSizeBits = packetSizeBits;
+        fTimestampBegin = timestampBegin;
+        fTimestampEnd = timestampEnd;
+        fOffsetBits = offsetBits;
+        fOffsetBytes = bitsToBytes(offsetBits);
+        fTarget = target;
+        fTargetID = targetId;
+        fLostEvents = lostEvents;
+    }
+
     private static @NonNull Map<String, Object> computeAttributeMap(StructDefinition streamPacketContextDef) {
         Builder<String, Object> attributeBuilder = ImmutableMap.<String, Object> builder();
         for (String field : streamPacketContextDef.getDeclaration().getFieldsList()) {
@@ -416,7 +457,8 @@ public class StreamInputPacketIndexEntry implements ICTFPacketDescriptor {
     /**
      * Get the backing stream packet context
      *
-     * @return the backing context definition
+     * @return the backing context definition, or null if the entry was read
+     *         from a saved index
      */
     public StructDefinition getStreamPacketContextDef() {
         return fStreamPacketContextDef;
@@ -0,0 +1,234 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.trace;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.ctf.core.trace.ICTFPacketDescriptor;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableMap.Builder;
+
+/**
+ * Packet index of a stream file saved to disk, so the packet headers of a
+ * trace do not need to be read again every time it is opened.
+ *
+ * The file starts with the size and the modification time of the stream
+ * file, it is only used if the stream file did not change since. It is
+ * followed by the scalar values of each packet and their attributes, in big
+ * endian order.
+ */
+@NonNullByDefault
+public final class StreamInputPacketIndexFile {
+
+    private static final int MAGIC = 0x43544649; // "CTFI"
+    private static final int VERSION = 1;
+    private static final String EXTENSION = ".idx"; //$NON-NLS-1$
+    private static final String TEMP_EXTENSION = ".tmp"; //$NON-NLS-1$
+
+    /* Types of the attribute values */
+    private static final byte LONG = 0;
+    private static final byte DOUBLE = 1;
+    private static final byte STRING = 2;
+    private static final byte ENUM = 3;
+
+    private StreamInputPacketIndexFile() {
+        // Do nothing
+    }
+
+    /**
+     * Get the index file of a stream file
+     *
+     * @param directory
+     *            the directory of the index files of the trace
+     * @param streamFile
+     *            the stream file
+     * @return the index file, it may not exist
+     */
+    public static File getIndexFile(File directory, File streamFile) {
+        return new File(directory, streamFile.getName() + EXTENSION);
+    }
+
+    /**
+     * Read the packet entries of an index file. The file is mapped in memory
+     * and read in one pass.
+     *
+     * @param indexFile
+     *            the index file
+     * @param streamFile
+     *            the stream file that was indexed
+     * @return the packet entries, or null if the file does not exist, is not
+     *         valid or if the stream file changed since it was written
+     */
+    public static @Nullable List<ICTFPacketDescriptor> read(File indexFile, File streamFile) {
+        if (!indexFile.isFile()) {
+            return null;
+        }
+        try (FileChannel fc = FileChannel.open(indexFile.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buffer = fc.map(MapMode.READ_ONLY, 0, fc.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return null;
+            }
+            if (buffer.getLong() != streamFile.length() || buffer.getLong() != streamFile.lastModified()) {
+                return null;
+            }
+            int count = buffer.getInt();
+            List<ICTFPacketDescriptor> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                entries.add(readEntry(buffer));
+            }
+            return entries;
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            /* The file is truncated or corrupted, the stream is indexed again */
+            return null;
+        }
+    }
+
+    private static ICTFPacketDescriptor readEntry(ByteBuffer buffer) {
+        long offsetBits = buffer.getLong();
+        long packetSizeBits = buffer.getLong();
+        long contentSizeBits = buffer.getLong();
+        long timestampBegin = buffer.getLong();
+        long timestampEnd = buffer.getLong();
+        long lostEvents = buffer.getLong();
+        long targetId = buffer.getLong();
+        long payloadStartBits = buffer.getLong();
+        @Nullable String target = buffer.get() != 0 ? readString(buffer) : null;
+        int attributeCount = buffer.getInt();
+        Builder<String, Object> attributes = ImmutableMap.builder();
+        for (int i = 0; i < attributeCount; i++) {
+            String key = readString(buffer);
+            byte type = buffer.get();
+            switch (type) {
+            case LONG:
+                attributes.put(key, buffer.getLong());
+                break;
+            case DOUBLE:
+                attributes.put(key, buffer.getDouble());
+                break;
+            case STRING:
+                attributes.put(key, readString(buffer));
+                break;
+            case ENUM:
+                String label = readString(buffer);
+                attributes.put(key, new AbstractMap.SimpleImmutableEntry<>(label, buffer.getLong()));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown attribute type " + type); //$NON-NLS-1$
+            }
+        }
+        return new StreamInputPacketIndexEntry(offsetBits, packetSizeBits, contentSizeBits, timestampBegin, timestampEnd,
+                lostEvents, target, targetId, payloadStartBits, attributes.build());
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Write the packet entries of a stream file to an index file. The file is
+     * written to a temporary file first, so a reader never sees a partial
+     * index.
+     *
+     * @param indexFile
+     *            the index file
+     * @param streamFile
+     *            the stream file that was indexed
+     * @param index
+     *            the packet index of the whole stream file
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public static void write(File indexFile, File streamFile, StreamInputPacketIndex index) throws IOException {
+        File directory = indexFile.getParentFile();
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create directory " + directory); //$NON-NLS-1$
+        }
+        File tempFile = new File(indexFile.getPath() + TEMP_EXTENSION);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(streamFile.length());
+            out.writeLong(streamFile.lastModified());
+            int count = index.size();
+            out.writeInt(count);
+            for (int i = 0; i < count; i++) {
+                writeEntry(out, index.getElement(i));
+            }
+        }
+        Files.move(tempFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeEntry(DataOutputStream out, ICTFPacketDescriptor entry) throws IOException {
+        out.writeLong(entry.getOffsetBits());
+        out.writeLong(entry.getPacketSizeBits());
+        out.writeLong(entry.getContentSizeBits());
+        out.writeLong(entry.getTimestampBegin());
+        out.writeLong(entry.getTimestampEnd());
+        out.writeLong(entry.getLostEvents());
+        out.writeLong(entry.getTargetId());
+        out.writeLong(entry.getPayloadStartBits());
+        String target = entry.getTarget();
+        out.writeBoolean(target != null);
+        if (target != null) {
+            writeString(out, target);
+        }
+        Map<String, Object> attributes = entry.getAttributes();
+        out.writeInt(attributes.size());
+        for (Entry<String, Object> attribute : attributes.entrySet()) {
+            writeString(out, attribute.getKey());
+            Object value = attribute.getValue();
+            if (value instanceof Long) {
+                out.writeByte(LONG);
+                out.writeLong((Long) value);
+            } else if (value instanceof Double) {
+                out.writeByte(DOUBLE);
+                out.writeDouble((Double) value);
+            } else if (value instanceof Entry) {
+                Entry<?, ?> enumValue = (Entry<?, ?>) value;
+                out.writeByte(ENUM);
+                writeString(out, String.valueOf(enumValue.getKey()));
+                out.writeLong(((Number) enumValue.getValue()).longValue());
+            } else {
+                out.writeByte(STRING);
+                writeString(out, String.valueOf(value));
+            }
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
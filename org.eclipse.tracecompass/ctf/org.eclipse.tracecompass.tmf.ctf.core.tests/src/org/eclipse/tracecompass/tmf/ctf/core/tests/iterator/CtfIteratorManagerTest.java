@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.tmf.ctf.core.tests.iterator;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.tracecompass.internal.tmf.ctf.core.trace.iterator.CtfIterator;
+import org.eclipse.tracecompass.internal.tmf.ctf.core.trace.iterator.CtfIteratorManager;
+import org.eclipse.tracecompass.testtraces.ctf.CtfTestTrace;
+import org.eclipse.tracecompass.tmf.ctf.core.context.CtfTmfContext;
+import org.eclipse.tracecompass.tmf.ctf.core.tests.shared.CtfTmfTestTraceUtils;
+import org.eclipse.tracecompass.tmf.ctf.core.trace.CtfTmfTrace;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test the replacement of the iterators of the {@link CtfIteratorManager}
+ * when it is full
+ */
+public class CtfIteratorManagerTest {
+
+    private static final @NonNull CtfTestTrace testTrace = CtfTestTrace.KERNEL;
+
+    private static final int MAX_SIZE = 3;
+
+    private CtfTmfTrace fTrace;
+    private CtfIteratorManager fManager;
+
+    /**
+     * Perform pre-test initialization.
+     */
+    @Before
+    public void setUp() {
+        fTrace = CtfTmfTestTraceUtils.getTrace(testTrace);
+        fManager = new CtfIteratorManager(fTrace, MAX_SIZE);
+    }
+
+    /**
+     * Perform post-test clean-up.
+     */
+    @After
+    public void tearDown() {
+        if (fManager != null) {
+            fManager.dispose();
+        }
+        if (fTrace != null) {
+            fTrace.dispose();
+        }
+    }
+
+    /**
+     * Test that a context keeps its iterator while the manager is not full
+     */
+    @Test
+    public void testHit() {
+        CtfTmfContext first = new CtfTmfContext(fTrace);
+        CtfTmfContext second = new CtfTmfContext(fTrace);
+        CtfIterator firstIterator = getIterator(first);
+        CtfIterator secondIterator = getIterator(second);
+        assertNotSame(firstIterator, secondIterator);
+        assertSame(firstIterator, getIterator(first));
+        assertSame(secondIterator, getIterator(second));
+    }
+
+    /**
+     * Test that the iterator of the least recently used context is given to
+     * a new context when the manager is full
+     */
+    @Test
+    public void testEvictionOrder() {
+        CtfTmfContext[] contexts = new CtfTmfContext[MAX_SIZE];
+        CtfIterator[] iterators = new CtfIterator[MAX_SIZE];
+        for (int i = 0; i < MAX_SIZE; i++) {
+            contexts[i] = new CtfTmfContext(fTrace);
+            iterators[i] = getIterator(contexts[i]);
+        }
+        /* Use the first context again, the second one is now the eldest */
+        assertSame(iterators[0], getIterator(contexts[0]));
+
+        CtfTmfContext newContext = new CtfTmfContext(fTrace);
+        assertSame(iterators[1], getIterator(newContext));
+        /* The new context keeps its iterator */
+        assertSame(iterators[1], getIterator(newContext));
+
+        /* The evicted context gets the iterator of the third one */
+        assertSame(iterators[2], getIterator(contexts[1]));
+
+        /* The first context is now the least recently used */
+        CtfTmfContext lastContext = new CtfTmfContext(fTrace);
+        assertSame(iterators[0], getIterator(lastContext));
+    }
+
+    /**
+     * Test that a removed context frees its place without evicting another
+     * context
+     */
+    @Test
+    public void testRemove() {
+        CtfTmfContext[] contexts = new CtfTmfContext[MAX_SIZE];
+        CtfIterator[] iterators = new CtfIterator[MAX_SIZE];
+        for (int i = 0; i < MAX_SIZE; i++) {
+            contexts[i] = new CtfTmfContext(fTrace);
+            iterators[i] = getIterator(contexts[i]);
+        }
+        fManager.removeIterator(contexts[1]);
+
+        CtfTmfContext newContext = new CtfTmfContext(fTrace);
+        CtfIterator newIterator = getIterator(newContext);
+        assertNotSame(iterators[0], newIterator);
+        assertNotSame(iterators[2], newIterator);
+        assertSame(iterators[0], getIterator(contexts[0]));
+        assertSame(iterators[2], getIterator(contexts[2]));
+    }
+
+    private CtfIterator getIterator(CtfTmfContext context) {
+        CtfIterator iterator = fManager.getIterator(context);
+        assertNotNull(iterator);
+        return iterator;
+    }
+}
@@ -77,6 +77,11 @@ public class CtfIterator extends CTFTraceReader
     public CtfIterator(CTFTrace ctfTrace, @NonNull CtfTmfTrace ctfTmfTrace) throws CTFException {
         super(ctfTrace);
         fTrace = ctfTmfTrace;
+        /*
+         * The requests mostly read the trace sequentially, the packets are only
+         * decoded ahead once a reader has read a few packets in a row.
+         */
+        setParallelDecoding(true);
         if (hasMoreEvents()) {
             fCurLocation = new CtfLocation(ctfTmfTrace.getStartTime());
             fCurRank = 0;
@@ -107,6 +112,7 @@ public class CtfIterator extends CTFTraceReader
         super(ctfTrace);
 
         this.fTrace = ctfTmfTrace;
+        setParallelDecoding(true);
         if (this.hasMoreEvents()) {
             this.fCurLocation = new CtfLocation(ctfLocationData);
             if (this.getCurrentEvent().getTimestamp().getValue() != ctfLocationData.getTimestamp()) {
@@ -14,17 +14,20 @@
 
 package org.eclipse.tracecompass.internal.tmf.ctf.core.trace.iterator;
 
-import static org.eclipse.tracecompass.common.core.NonNullUtils.checkNotNull;
-
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Random;
+import java.util.Map.Entry;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
+import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.common.core.log.TraceCompassLog;
+import org.eclipse.tracecompass.common.core.log.TraceCompassLogUtils;
+import org.eclipse.tracecompass.ctf.core.CTFException;
 import org.eclipse.tracecompass.internal.tmf.ctf.core.Activator;
 import org.eclipse.tracecompass.tmf.ctf.core.context.CtfLocationInfo;
 import org.eclipse.tracecompass.tmf.ctf.core.context.CtfTmfContext;
@@ -35,31 +38,41 @@ import org.eclipse.tracecompass.tmf.ctf.core.trace.CtfTmfTrace;
  *
  * Each instance of {@link CtfTmfTrace} should possess one of these, which will
  * manage the iterators that are opened to read that trace. This will allow
- * controlling the number of opened file handles per trace.
+ * controlling the number of iterators per trace. The iterators share the file
+ * handles of the stream files, so their number does not depend on the number
+ * of iterators.
  *
  * @author Matthew Khouzam
  */
 public class CtfIteratorManager {
+
+    private static final @NonNull Logger LOGGER = TraceCompassLog.getLogger(CtfIteratorManager.class);
+
     /*
-     * Cache size. Under 1023 on linux32 systems. Number of file handles
-     * created.
+     * Default cache size, the number of iterators kept for the contexts of the
+     * trace.
      */
     private static final int MAX_SIZE = 100;
 
-    /** The map of the cache */
-    private final Map<CtfTmfContext, CtfIterator> fMap;
+    /** The maximum number of iterators of the trace */
+    private final int fMaxSize;
 
-    /** An array pointing to the same cache. this allows fast "random" accesses */
-    private final List<CtfTmfContext> fRandomAccess;
+    /**
+     * The map of the cache, in the order of the last accesses, the least
+     * recently used context first
+     */
+    private final Map<CtfTmfContext, CtfIterator> fMap;
 
-    /** Lock for when we access the two previous data structures */
+    /** Lock for when we access the map */
     private final Lock fAccessLock = new ReentrantLock();
 
     /** The parent trace */
     private final CtfTmfTrace fTrace;
 
-    /** Random number generator */
-    private final Random fRnd;
+    /* Statistics of the cache, exported through the log */
+    private long fHits = 0;
+    private long fMisses = 0;
+    private long fEvictions = 0;
 
     /**
      * Constructor
@@ -68,9 +81,20 @@ public class CtfIteratorManager {
      *            The trace whose iterators this manager will manage
      */
     public CtfIteratorManager(CtfTmfTrace trace) {
-        fMap = new HashMap<>();
-        fRandomAccess = new ArrayList<>();
-        fRnd = new Random(System.nanoTime());
+        this(trace, MAX_SIZE);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param trace
+     *            The trace whose iterators this manager will manage
+     * @param maxSize
+     *            The maximum number of iterators of the trace
+     */
+    public CtfIteratorManager(CtfTmfTrace trace, int maxSize) {
+        fMaxSize = maxSize;
+        fMap = new LinkedHashMap<>(maxSize, 0.75f, true);
         fTrace = trace;
     }
 
@@ -80,51 +104,57 @@ public class CtfIteratorManager {
      * failed since there is a limit to how many file handles we can have opened
      * simultaneously. Then a round-robin scheme was implemented, this lead up to a
      * two competing contexts syncing up and using the same file handler, causing
-     * horrible slowdowns. Now a random replacement algorithm is selected. This is
-     * the same as used by arm processors, and it works quite well when many cores
-     * so this looks promising for very multi-threaded systems.
+     * horrible slowdowns. Then a random replacement algorithm was used, but with
+     * many concurrent queries, it evicted the iterators of the contexts that were
+     * still being read. Now the least recently used iterator is replaced: the
+     * contexts of the queries in progress are used often, so they keep their
+     * iterator, while the contexts of the finished queries are replaced first.
      *
      * @param context
      *            the context to look up
      * @return the iterator referring to the context or null in the case of an error
      */
     public @Nullable CtfIterator getIterator(final CtfTmfContext context) {
-        /*
-         * if the element is in the map, we don't need to do anything else.
-         */
-        CtfIterator iter = fMap.get(context);
-        if (iter == null) {
-
-            fAccessLock.lock();
-            try {
+        fAccessLock.lock();
+        try {
+            /*
+             * if the element is in the map, we don't need to do anything else.
+             */
+            CtfIterator iter = fMap.get(context);
+            if (iter != null) {
+                fHits++;
+                return iter;
+            }
+            fMisses++;
+            /*
+             * Assign an iterator to a context.
+             */
+            if (fMap.size() < fMaxSize) {
                 /*
-                 * Assign an iterator to a context.
+                 * if we're not full yet, just add an element.
                  */
-                if (fRandomAccess.size() < MAX_SIZE) {
-                    /*
-                     * if we're not full yet, just add an element.
-                     */
-                    iter = (CtfIterator) fTrace.createIterator();
-                    if (iter == null) {
-                        return null;
-                    }
-                    addElement(context, iter);
-
-                } else {
-                    /*
-                     * if we're full, randomly replace an element
-                     */
-                    iter = replaceRandomElement(context);
-                }
-                if (context.getLocation() != null) {
-                    final CtfLocationInfo location = (CtfLocationInfo) context.getLocation().getLocationInfo();
-                    iter.seek(location);
+                iter = (CtfIterator) fTrace.createIterator();
+                if (iter == null) {
+                    return null;
                 }
-            } finally {
-                fAccessLock.unlock();
+                fMap.put(context, iter);
+
+            } else {
+                /*
+                 * if we're full, replace the least recently used element
+                 */
+                iter = replaceEldestElement(context);
             }
+            TraceCompassLogUtils.traceCounter(LOGGER, Level.FINE, fTrace.getName(),
+                    "hits", fHits, "misses", fMisses, "evictions", fEvictions); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            if (context.getLocation() != null) {
+                final CtfLocationInfo location = (CtfLocationInfo) context.getLocation().getLocationInfo();
+                iter.seek(location);
+            }
+            return iter;
+        } finally {
+            fAccessLock.unlock();
         }
-        return iter;
     }
 
     /**
@@ -140,7 +170,6 @@ public class CtfIteratorManager {
             try (CtfIterator removed = fMap.remove(context)) {
                 // try with resource
             }
-            fRandomAccess.remove(context);
 
         } finally {
             fAccessLock.unlock();
@@ -148,62 +177,54 @@ public class CtfIteratorManager {
     }
 
     /**
-     * Add a pair of context and element to the hashmap and the arraylist.
+     * Replace the least recently used element. Must be called with the access
+     * lock held.
      *
      * @param context
-     *            the context
-     * @param elem
-     *            the iterator
+     *            the context to swap in
+     * @return the iterator of the removed elements.
      */
-    private void addElement(final CtfTmfContext context,
-            final CtfIterator elem) {
-        fAccessLock.lock();
-        try {
-            fMap.put(context, elem);
-            fRandomAccess.add(context);
-
-        } finally {
-            fAccessLock.unlock();
+    private CtfIterator replaceEldestElement(final CtfTmfContext context) {
+        /*
+         * The iteration order of the map is the access order, so the first
+         * entry is the least recently used.
+         */
+        Iterator<Entry<CtfTmfContext, CtfIterator>> entries = fMap.entrySet().iterator();
+        Entry<CtfTmfContext, CtfIterator> eldest = entries.next();
+        entries.remove();
+        CtfTmfContext victim = eldest.getKey();
+        CtfIterator elem = eldest.getValue();
+        fEvictions++;
+        if (elem.isClosed()) {
+            /*
+             * In case the iterator streams have been closed, we need to
+             * replace it by a fresh new one to access the trace. We also
+             * report that as an error as it should not happen.
+             */
+            Activator.getDefault().logError("Found closed iterator in iterator manager for trace " + victim.getTrace()); //$NON-NLS-1$
+
+            elem.dispose();
+            elem = (CtfIterator) fTrace.createIterator();
         }
+        fMap.put(context, elem);
+        victim.dispose();
+        return elem;
     }
 
     /**
-     * Replace a random element
-     *
-     * @param context
-     *            the context to swap in
-     * @return the iterator of the removed elements.
+     * Update the iterators to read the stream files that were added to the
+     * trace since they were created. The iterators must not be in use.
      */
-    private CtfIterator replaceRandomElement(final CtfTmfContext context) {
-        /*
-         * This needs some explanation too: We need to select a random victim
-         * and remove it. The order of the elements is not important, so instead
-         * of just calling arraylist.remove(element) which has an O(n)
-         * complexity, we pick an random number. The element is swapped out of
-         * the array and removed and replaced in the hashmap.
-         */
-        fAccessLock.lock(); // just in case, should only be called when already locked
+    public void update() {
+        fAccessLock.lock();
         try {
-            final int size = fRandomAccess.size();
-            final int pos = fRnd.nextInt(size);
-            final CtfTmfContext victim = fRandomAccess.get(pos);
-            fRandomAccess.set(pos, context);
-            CtfIterator elem = checkNotNull(fMap.remove(victim));
-            if (elem.isClosed()) {
-                /*
-                 * In case the iterator streams have been closed, we need to
-                 * replace it by a fresh new one to access the trace. We also
-                 * report that as an error as it should not happen.
-                 */
-                Activator.getDefault().logError("Found closed iterator in iterator manager for trace " + victim.getTrace()); //$NON-NLS-1$
-
-                elem.dispose();
-                elem = (CtfIterator) fTrace.createIterator();
+            for (CtfIterator iterator : fMap.values()) {
+                try {
+                    iterator.update();
+                } catch (CTFException e) {
+                    Activator.getDefault().logError(e.getMessage(), e);
+                }
             }
-            fMap.put(context, elem);
-            victim.dispose();
-            return elem;
-
         } finally {
             fAccessLock.unlock();
         }
@@ -220,7 +241,6 @@ public class CtfIteratorManager {
                 iterator.dispose();
             }
             fMap.clear();
-            fRandomAccess.clear();
 
         } finally {
             fAccessLock.unlock();
@@ -56,4 +56,12 @@ public interface CtfConstants {
      * The live session name persistent property.
      */
     QualifiedName LIVE_SESSION_NAME = new QualifiedName("org.eclipse.linuxtools.tmf.ctf.core", "live.session.name"); //$NON-NLS-1$//$NON-NLS-2$;
+
+    /**
+     * The persistent property of a trace that is still being written to its
+     * directory. The new data is read as the files grow.
+     *
+     * @since 4.3
+     */
+    QualifiedName LIVE_TAILING = new QualifiedName("org.eclipse.linuxtools.tmf.ctf.core", "live.tailing"); //$NON-NLS-1$//$NON-NLS-2$
 }
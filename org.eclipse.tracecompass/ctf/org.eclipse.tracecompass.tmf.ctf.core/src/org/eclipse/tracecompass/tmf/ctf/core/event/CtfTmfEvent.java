@@ -430,6 +430,19 @@ public class CtfTmfEvent extends TmfEvent
     public @Nullable ICompositeDefinition getEventContext() {
         return fEvent.getEventContext();
     }
+
+    /**
+     * Get the payload fields of the event, as read from the trace. Unlike
+     * {@link #getContent()}, this does not convert all the fields to event
+     * fields.
+     *
+     * @return the payload fields
+     * @since 4.3
+     */
+    public @Nullable ICompositeDefinition getEventFields() {
+        return fEvent.getFields();
+    }
+
     // ------------------------------------------------------------------------
     // Object
     // ------------------------------------------------------------------------
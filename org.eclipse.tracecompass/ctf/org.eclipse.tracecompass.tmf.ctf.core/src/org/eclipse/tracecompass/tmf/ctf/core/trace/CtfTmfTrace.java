@@ -18,6 +18,7 @@ package org.eclipse.tracecompass.tmf.ctf.core.trace;
 
 import static org.eclipse.tracecompass.common.core.NonNullUtils.checkNotNull;
 
+import java.io.File;
 import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.nio.file.Path;
@@ -38,6 +39,7 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.ctf.core.CTFException;
@@ -65,6 +67,7 @@ import org.eclipse.tracecompass.tmf.core.event.aspect.ITmfEventAspect;
 import org.eclipse.tracecompass.tmf.core.event.aspect.TmfBaseAspects;
 import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
 import org.eclipse.tracecompass.tmf.core.project.model.ITmfPropertiesProvider;
+import org.eclipse.tracecompass.tmf.core.signal.TmfTraceRangeUpdatedSignal;
 import org.eclipse.tracecompass.tmf.core.timestamp.ITmfTimestamp;
 import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimeRange;
 import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
@@ -73,6 +76,7 @@ import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTraceKnownSize;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTraceWithPreDefinedEvents;
 import org.eclipse.tracecompass.tmf.core.trace.TmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
 import org.eclipse.tracecompass.tmf.core.trace.TraceValidationStatus;
 import org.eclipse.tracecompass.tmf.core.trace.indexer.ITmfPersistentlyIndexable;
 import org.eclipse.tracecompass.tmf.core.trace.indexer.ITmfTraceIndexer;
@@ -159,6 +163,17 @@ public class CtfTmfTrace extends TmfTrace
      */
     private static final int CTF_AVG_EVENT_SIZE = 16;
 
+    /**
+     * Supplementary directory of the saved packet indexes of the stream files
+     */
+    private static final String PACKET_INDEX_DIRECTORY = "ctf-packet-index"; //$NON-NLS-1$
+
+    /**
+     * Delay between two reads of the new data of a trace that is still being
+     * written, in milliseconds
+     */
+    private static final long TAILING_DELAY = 1000;
+
     // -------------------------------------------
     // Fields
     // -------------------------------------------
@@ -174,6 +189,14 @@ public class CtfTmfTrace extends TmfTrace
 
     private UUID fUUID;
 
+    /** Job reading the new data of a trace that is still being written */
+    private @Nullable Job fTailingJob = null;
+
+    /** Time up to which all the streams of a tailed trace were read */
+    private long fTailingEndTime = Long.MIN_VALUE;
+
+    private final Object fTailingLock = new Object();
+
     // -------------------------------------------
     // Constructor
     // -------------------------------------------
@@ -225,6 +248,8 @@ public class CtfTmfTrace extends TmfTrace
 
         try {
             this.fTrace = new CTFTrace(path);
+            /* Reuse the packet indexes saved the last time the trace was opened */
+            fTrace.setPacketIndexDirectory(new File(TmfTraceManager.getSupplementaryFileDir(this), PACKET_INDEX_DIRECTORY));
             CtfTmfContext ctx;
             /* Set the start and (current) end times for this trace */
             ctx = (CtfTmfContext) seekEvent(0L);
@@ -284,6 +309,9 @@ public class CtfTmfTrace extends TmfTrace
             }
             ctx.dispose();
             fUUID = fTrace.getUUID();
+            if (isTailed()) {
+                startTailing();
+            }
         } catch (final CTFException e) {
             /*
              * If it failed at the init(), we can assume it's because the file was not found
@@ -296,6 +324,11 @@ public class CtfTmfTrace extends TmfTrace
 
     @Override
     public synchronized void dispose() {
+        Job tailingJob = fTailingJob;
+        if (tailingJob != null) {
+            tailingJob.cancel();
+            fTailingJob = null;
+        }
         fIteratorManager.dispose();
         fContainedEventTypes.clear();
         if (fTrace != null) {
@@ -790,6 +823,9 @@ public class CtfTmfTrace extends TmfTrace
 
     @Override
     public boolean isComplete() {
+        if (fTailingJob != null) {
+            return false;
+        }
         if (getResource() == null) {
             return true;
         }
@@ -810,6 +846,15 @@ public class CtfTmfTrace extends TmfTrace
         return host == null || port == null || sessionName == null;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A trace that is set as not complete is still being written to its
+     * directory. Its new packets and stream files are read periodically, and
+     * the range of the trace is extended to the time up to which all its
+     * streams were written, so the indexer and the analyses continue from
+     * where they stopped. Setting it back as complete reads it to its end.
+     */
     @Override
     public void setComplete(final boolean isComplete) {
         super.setComplete(isComplete);
@@ -818,10 +863,122 @@ public class CtfTmfTrace extends TmfTrace
                 getResource().setPersistentProperty(CtfConstants.LIVE_HOST, null);
                 getResource().setPersistentProperty(CtfConstants.LIVE_PORT, null);
                 getResource().setPersistentProperty(CtfConstants.LIVE_SESSION_NAME, null);
+                getResource().setPersistentProperty(CtfConstants.LIVE_TAILING, null);
+            } else if (getResource() != null) {
+                getResource().setPersistentProperty(CtfConstants.LIVE_TAILING, Boolean.TRUE.toString());
             }
         } catch (CoreException e) {
             Activator.getDefault().logError(e.getMessage(), e);
         }
+        if (isComplete) {
+            stopTailing();
+        } else {
+            startTailing();
+        }
+    }
+
+    private boolean isTailed() {
+        IResource resource = getResource();
+        if (resource == null) {
+            return false;
+        }
+        try {
+            return resource.getPersistentProperty(CtfConstants.LIVE_TAILING) != null;
+        } catch (CoreException e) {
+            Activator.getDefault().logError(e.getMessage(), e);
+            return false;
+        }
+    }
+
+    private synchronized void startTailing() {
+        if (fTailingJob != null) {
+            return;
+        }
+        Job job = new Job("Reading " + getName()) { //$NON-NLS-1$
+            @Override
+            protected IStatus run(final IProgressMonitor monitor) {
+                readNewData(false);
+                if (!monitor.isCanceled()) {
+                    schedule(TAILING_DELAY);
+                }
+                return Status.OK_STATUS;
+            }
+        };
+        job.setSystem(true);
+        fTailingJob = job;
+        job.schedule();
+    }
+
+    private void stopTailing() {
+        Job job;
+        synchronized (this) {
+            job = fTailingJob;
+            fTailingJob = null;
+        }
+        if (job != null) {
+            job.cancel();
+            readNewData(true);
+        }
+    }
+
+    /**
+     * Read the new data of a trace that is still being written, and extend
+     * the range of the trace if there is new data in all the streams. Only
+     * the new packets are read, so the cost does not depend on the size of
+     * the trace.
+     *
+     * @param complete
+     *            whether the trace is now complete, in which case the range
+     *            is extended to the end of the last packet of any stream
+     */
+    private void readNewData(boolean complete) {
+        synchronized (fTailingLock) {
+            CTFTrace trace = fTrace;
+            if (trace != null) {
+                readNewData(trace, complete);
+            }
+        }
+    }
+
+    private void readNewData(CTFTrace trace, boolean complete) {
+        int nbStreamInputs = getNbStreamInputs(trace);
+        if (!trace.indexNewPackets() && !complete) {
+            return;
+        }
+        if (getNbStreamInputs(trace) != nbStreamInputs) {
+            /* The iterators are only used while holding the trace lock */
+            synchronized (this) {
+                fIteratorManager.update();
+            }
+        }
+        /*
+         * Until the trace is complete, the range ends where the stream that is
+         * the least advanced ends, the other streams could still write events
+         * before that time.
+         */
+        long endTime = complete ? Long.MIN_VALUE : Long.MAX_VALUE;
+        for (ICTFStream stream : trace.getStreams()) {
+            for (CTFStreamInput streamInput : stream.getStreamInputs()) {
+                long streamEnd = streamInput.getTimestampEnd();
+                if (streamEnd != 0) {
+                    endTime = complete ? Math.max(endTime, streamEnd) : Math.min(endTime, streamEnd);
+                }
+            }
+        }
+        if (endTime == Long.MIN_VALUE || endTime == Long.MAX_VALUE || (endTime <= fTailingEndTime && !complete)) {
+            return;
+        }
+        fTailingEndTime = endTime;
+        TmfTimeRange range = new TmfTimeRange(getStartTime(), createTimestamp(trace.timestampCyclesToNanos(endTime)));
+        broadcastAsync(new TmfTraceRangeUpdatedSignal(this, this, range));
+    }
+
+    private static int getNbStreamInputs(CTFTrace trace) {
+        int count = 0;
+        for (ICTFStream stream : trace.getStreams()) {
+            count += stream.getStreamInputs().size();
+        }
+        return count;
     }
 
     /**
@@ -46,6 +46,30 @@ public class DiscreteTimeRangeConditionTest {
         new ArrayTimeRangeCondition(Collections.emptyList());
     }
 
+    /**
+     * Test the condition built from a sorted array, with duplicate times
+     */
+    @Test
+    public void testFromSortedArray() {
+        TimeRangeCondition condition = TimeRangeCondition.forSortedDiscreteRange(new long[] { LOW, LOW, HIGH / 2L, HIGH, HIGH });
+        assertEquals(LOW, condition.min());
+        assertEquals(HIGH, condition.max());
+        for (Long v : VALUES) {
+            assertTrue(condition.test(v));
+            assertFalse(condition.test(v + 1L));
+        }
+        assertTrue(condition.intersects(2L, 8L));
+        assertFalse(condition.intersects(6L, 9L));
+    }
+
+    /**
+     * Ensure that we cannot build a condition from an unsorted array.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testFromUnsortedArray() {
+        ArrayTimeRangeCondition.fromSortedArray(new long[] { HIGH, LOW });
+    }
+
     /**
      * Ensure that the minimum and maximum functions return the correct values.
      */
@@ -46,6 +46,35 @@ public class ArrayTimeRangeCondition implements TimeRangeCondition {
         Arrays.sort(fTimeArray);
     }
 
+    /**
+     * {@link ArrayTimeRangeCondition} from an array of times which is already
+     * sorted, to avoid boxing and sorting the sample times of a query. The
+     * array is copied, without its duplicate times.
+     *
+     * @param sortedTimes
+     *            Non empty array of times, in ascending order
+     * @return The condition
+     */
+    public static ArrayTimeRangeCondition fromSortedArray(long[] sortedTimes) {
+        if (sortedTimes.length == 0) {
+            throw new IllegalArgumentException("QuarkArrayRangeCondition requires a non empty array"); //$NON-NLS-1$
+        }
+        long[] times = new long[sortedTimes.length];
+        times[0] = sortedTimes[0];
+        int size = 1;
+        for (int i = 1; i < sortedTimes.length; i++) {
+            long time = sortedTimes[i];
+            if (time < times[size - 1]) {
+                throw new IllegalArgumentException("The times are not sorted"); //$NON-NLS-1$
+            }
+            if (time != times[size - 1]) {
+                times[size] = time;
+                size++;
+            }
+        }
+        return new ArrayTimeRangeCondition(size == times.length ? times : Arrays.copyOf(times, size));
+    }
+
     /**
      * internal sub condition constructor
      *
@@ -120,4 +120,16 @@ public interface TimeRangeCondition {
         return new ArrayTimeRangeCondition(times);
     }
 
+    /**
+     * Get a range condition representing a discrete time range, from times
+     * which are already sorted.
+     *
+     * @param sortedTimes
+     *            Array of times in ascending order, duplicates are ignored
+     * @return The corresponding range condition
+     */
+    static TimeRangeCondition forSortedDiscreteRange(long[] sortedTimes) {
+        return ArrayTimeRangeCondition.fromSortedArray(sortedTimes);
+    }
+
 }
@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.statesystem.core.tests.perf.attributetree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.eclipse.tracecompass.internal.statesystem.core.AttributeTree;
+import org.eclipse.tracecompass.internal.statesystem.core.StateSystem;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
+import org.eclipse.tracecompass.statesystem.core.backend.StateHistoryBackendFactory;
+import org.junit.Test;
+
+/**
+ * Benchmarks the quark lookups and the loading of an attribute tree with
+ * millions of attributes, laid out like the threads of a kernel state
+ * system.
+ */
+public class AttributeTreeBenchmark {
+
+    private static final @NonNull String TEST_PREFIX = "org.eclipse.tracecompass#Attribute Tree#";
+    private static final @NonNull String TEST_ADD_ID = "Add quarks";
+    private static final @NonNull String TEST_ADD_EXISTING_ID = "Add existing quarks";
+    private static final @NonNull String TEST_OPT_ID = "Get quarks";
+    private static final @NonNull String TEST_LOAD_ID = "Load";
+    private static final @NonNull String SSID = "test";
+    private static final @NonNull String THREADS = "Threads";
+    private static final @NonNull String STATUS = "Status";
+    private static final int NB_THREADS = 100000;
+    private static final int NB_CPUS = 10;
+    private static final int LOOP_COUNT = 5;
+
+    /**
+     * Benchmark getQuarkRelativeAndAdd and optQuarkRelative on more than 1M
+     * attributes, then the loading of the tree from a file
+     */
+    @Test
+    public void testBenchmark() {
+        Performance perf = Performance.getDefault();
+        PerformanceMeter pmAdd = perf.createPerformanceMeter(TEST_PREFIX + TEST_ADD_ID);
+        perf.tagAsSummary(pmAdd, "Attribute Tree " + TEST_ADD_ID, Dimension.CPU_TIME);
+        PerformanceMeter pmAddExisting = perf.createPerformanceMeter(TEST_PREFIX + TEST_ADD_EXISTING_ID);
+        perf.tagAsSummary(pmAddExisting, "Attribute Tree " + TEST_ADD_EXISTING_ID, Dimension.CPU_TIME);
+        PerformanceMeter pmOpt = perf.createPerformanceMeter(TEST_PREFIX + TEST_OPT_ID);
+        perf.tagAsSummary(pmOpt, "Attribute Tree " + TEST_OPT_ID, Dimension.CPU_TIME);
+        PerformanceMeter pmLoad = perf.createPerformanceMeter(TEST_PREFIX + TEST_LOAD_ID);
+        perf.tagAsSummary(pmLoad, "Attribute Tree " + TEST_LOAD_ID, Dimension.CPU_TIME);
+
+        String[] cpus = new String[NB_CPUS];
+        for (int cpu = 0; cpu < NB_CPUS; cpu++) {
+            cpus[cpu] = "CPU" + cpu;
+        }
+
+        for (int i = 0; i < LOOP_COUNT; i++) {
+            File file = null;
+            StateSystem ss = new StateSystem(StateHistoryBackendFactory.createNullBackend(SSID));
+            try {
+                file = File.createTempFile("AttributeTreeBenchmark", ".ht");
+
+                pmAdd.start();
+                int threadsQuark = ss.getQuarkAbsoluteAndAdd(THREADS);
+                for (int tid = 0; tid < NB_THREADS; tid++) {
+                    int threadQuark = ss.getQuarkRelativeAndAdd(threadsQuark, String.valueOf(tid));
+                    for (String cpu : cpus) {
+                        ss.getQuarkRelativeAndAdd(threadQuark, cpu, STATUS);
+                    }
+                }
+                pmAdd.stop();
+                assertEquals(1 + NB_THREADS * (1 + 2 * NB_CPUS), ss.getNbAttributes());
+
+                pmAddExisting.start();
+                for (int tid = 0; tid < NB_THREADS; tid++) {
+                    int threadQuark = ss.getQuarkRelativeAndAdd(threadsQuark, String.valueOf(tid));
+                    for (String cpu : cpus) {
+                        ss.getQuarkRelativeAndAdd(threadQuark, cpu, STATUS);
+                    }
+                }
+                pmAddExisting.stop();
+
+                pmOpt.start();
+                for (int tid = 0; tid < NB_THREADS; tid++) {
+                    int threadQuark = ss.optQuarkRelative(threadsQuark, String.valueOf(tid));
+                    for (String cpu : cpus) {
+                        if (ss.optQuarkRelative(threadQuark, cpu, STATUS) == ITmfStateSystem.INVALID_ATTRIBUTE) {
+                            fail("Missing attribute");
+                        }
+                    }
+                }
+                pmOpt.stop();
+
+                ss.getAttributeTree().writeSelf(file, 0);
+                StateSystem reopened = new StateSystem(StateHistoryBackendFactory.createNullBackend(SSID));
+                try (FileInputStream fis = new FileInputStream(file)) {
+                    pmLoad.start();
+                    AttributeTree tree = new AttributeTree(reopened, fis);
+                    pmLoad.stop();
+                    assertEquals(ss.getNbAttributes(), tree.getNbAttributes());
+                } finally {
+                    reopened.dispose();
+                }
+            } catch (IOException e) {
+                fail(e.getMessage());
+            } finally {
+                ss.dispose();
+                if (file != null) {
+                    file.delete();
+                }
+            }
+        }
+        pmAdd.commit();
+        pmAddExisting.commit();
+        pmOpt.commit();
+        pmLoad.commit();
+    }
+}
@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.statesystem.core.tests.perf.historytree;
+
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HTConfig.NodeCodec;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HistoryTreeBackend;
+import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+import org.eclipse.tracecompass.statesystem.core.statevalue.TmfStateValue;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Benchmarks the building and the querying of history trees with compressed
+ * nodes, against the uncompressed ones. The queries are done on the reopened
+ * file, with an empty node cache.
+ */
+@RunWith(Parameterized.class)
+public class HistoryTreeCompressionBenchmark {
+
+    private static final @NonNull String TEST_PREFIX = "org.eclipse.tracecompass#History Tree Compression#";
+    private static final @NonNull String TEST_BUILDING_ID = "Build: ";
+    private static final @NonNull String TEST_SINGLE_QUERY_ID = "Single Queries: ";
+    private static final @NonNull String TEST_FULL_QUERY_ID = "Full Queries: ";
+    private static final @NonNull String SSID = "test";
+    private static final int BLOCK_SIZE = 64 * 1024;
+    private static final int MAX_CHILDREN = 50;
+    private static final long SEED = 5575784704147L;
+    private static final int NB_ATTRIB = 1000;
+    private static final int NB_INTERVALS = 2000000;
+    private static final int QUERY_COUNT = 1000;
+    private static final int LOOP_COUNT = 5;
+
+    private final NodeCodec fCodec;
+
+    /**
+     * Constructor
+     *
+     * @param codec
+     *            The codec of the nodes
+     */
+    public HistoryTreeCompressionBenchmark(NodeCodec codec) {
+        fCodec = codec;
+    }
+
+    /**
+     * @return The codecs to benchmark
+     */
+    @Parameters(name = "{index}: {0}")
+    public static Iterable<Object[]> getParameters() {
+        return Arrays.asList(new Object[][] {
+                { NodeCodec.NONE },
+                { NodeCodec.DEFLATE },
+        });
+    }
+
+    /**
+     * Benchmark the building of a history tree, its size and the queries on
+     * the reopened file
+     */
+    @Test
+    public void testBenchmark() {
+        Performance perf = Performance.getDefault();
+        PerformanceMeter pmBuild = perf.createPerformanceMeter(TEST_PREFIX + TEST_BUILDING_ID + fCodec);
+        perf.tagAsSummary(pmBuild, "Compression " + TEST_BUILDING_ID + fCodec, Dimension.CPU_TIME);
+
+        PerformanceMeter pmSingleQuery = perf.createPerformanceMeter(TEST_PREFIX + TEST_SINGLE_QUERY_ID + fCodec);
+        perf.tagAsSummary(pmSingleQuery, "Compression " + TEST_SINGLE_QUERY_ID + fCodec, Dimension.CPU_TIME);
+
+        PerformanceMeter pmFullQuery = perf.createPerformanceMeter(TEST_PREFIX + TEST_FULL_QUERY_ID + fCodec);
+        perf.tagAsSummary(pmFullQuery, "Compression " + TEST_FULL_QUERY_ID + fCodec, Dimension.CPU_TIME);
+
+        for (int i = 0; i < LOOP_COUNT; i++) {
+            File file = null;
+            try {
+                file = File.createTempFile("HistoryTreeCompressionBenchmark", ".ht");
+                Random random = new Random(SEED);
+
+                /*
+                 * Contiguous intervals of random durations, with few distinct
+                 * values, like the states of the threads of a kernel trace
+                 */
+                pmBuild.start();
+                HistoryTreeBackend backend = new HistoryTreeBackend(SSID, file, 1, 0, BLOCK_SIZE, MAX_CHILDREN, fCodec);
+                long[] starts = new long[NB_ATTRIB];
+                long time = 0;
+                for (int j = 0; j < NB_INTERVALS; j++) {
+                    time += random.nextInt(100) + 1;
+                    int quark = random.nextInt(NB_ATTRIB);
+                    backend.insertPastState(starts[quark], time, quark, TmfStateValue.newValueInt(random.nextInt(8)));
+                    starts[quark] = time + 1;
+                }
+                backend.finishedBuilding(time);
+                pmBuild.stop();
+                long size = backend.getFileSize();
+                backend.dispose();
+
+                HistoryTreeBackend reopened = new HistoryTreeBackend(SSID, file, 1);
+                pmSingleQuery.start();
+                for (int j = 0; j < QUERY_COUNT; j++) {
+                    reopened.doSingularQuery(Math.floorMod(random.nextLong(), time), random.nextInt(NB_ATTRIB));
+                }
+                pmSingleQuery.stop();
+                reopened.dispose();
+
+                reopened = new HistoryTreeBackend(SSID, file, 1);
+                List<@Nullable ITmfStateInterval> stateInfo = new ArrayList<>(Collections.nCopies(NB_ATTRIB, null));
+                pmFullQuery.start();
+                for (int j = 0; j < QUERY_COUNT / 10; j++) {
+                    reopened.doQuery(stateInfo, Math.floorMod(random.nextLong(), time));
+                }
+                pmFullQuery.stop();
+                reopened.dispose();
+
+                if (i == 0) {
+                    System.out.println(fCodec + " history tree file size: " + FileUtils.byteCountToDisplaySize(size));
+                }
+            } catch (IOException | StateSystemDisposedException e) {
+                fail(e.getMessage());
+            } finally {
+                if (file != null) {
+                    file.delete();
+                }
+            }
+        }
+        pmBuild.commit();
+        pmSingleQuery.commit();
+        pmFullQuery.commit();
+    }
+}
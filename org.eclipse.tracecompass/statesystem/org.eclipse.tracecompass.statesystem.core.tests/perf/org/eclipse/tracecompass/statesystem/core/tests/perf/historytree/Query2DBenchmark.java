@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.statesystem.core.tests.perf.historytree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
+import org.eclipse.tracecompass.statesystem.core.StateSystemFactory;
+import org.eclipse.tracecompass.statesystem.core.backend.StateHistoryBackendFactory;
+import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+import org.junit.Test;
+
+/**
+ * Benchmarks the sequential and the parallel 2D queries over all the rows
+ * and the full time range of a state system shaped like the resources view of
+ * a machine with many CPUs, and the sampled query with one time per pixel.
+ * The queries are done on the reopened file.
+ */
+public class Query2DBenchmark {
+
+    private static final @NonNull String TEST_PREFIX = "org.eclipse.tracecompass#Query 2D#";
+    private static final @NonNull String TEST_SEQUENTIAL_ID = "Sequential";
+    private static final @NonNull String TEST_PARALLEL_ID = "Parallel";
+    private static final @NonNull String TEST_SAMPLED_ID = "Sampled";
+    private static final @NonNull String SSID = "test";
+    private static final long SEED = 5575784704147L;
+    private static final int NB_CPUS = 128;
+    private static final int NB_CHANGES = 4000000;
+    private static final int NB_PIXELS = 2000;
+    private static final int LOOP_COUNT = 5;
+
+    /**
+     * Benchmark the full width 2D queries
+     */
+    @Test
+    public void testBenchmark() {
+        Performance perf = Performance.getDefault();
+        PerformanceMeter pmSequential = perf.createPerformanceMeter(TEST_PREFIX + TEST_SEQUENTIAL_ID);
+        perf.tagAsSummary(pmSequential, "Query 2D " + TEST_SEQUENTIAL_ID, Dimension.CPU_TIME);
+        PerformanceMeter pmParallel = perf.createPerformanceMeter(TEST_PREFIX + TEST_PARALLEL_ID);
+        perf.tagAsSummary(pmParallel, "Query 2D " + TEST_PARALLEL_ID, Dimension.CPU_TIME);
+        PerformanceMeter pmSampled = perf.createPerformanceMeter(TEST_PREFIX + TEST_SAMPLED_ID);
+        perf.tagAsSummary(pmSampled, "Query 2D " + TEST_SAMPLED_ID, Dimension.CPU_TIME);
+
+        File file = null;
+        try {
+            file = File.createTempFile("Query2DBenchmark", ".ht");
+            ITmfStateSystemBuilder ss = StateSystemFactory.newStateSystem(
+                    StateHistoryBackendFactory.createHistoryTreeBackendNewFile(SSID, file, 1, 0, 0));
+            List<Integer> quarks = new ArrayList<>();
+            for (int cpu = 0; cpu < NB_CPUS; cpu++) {
+                quarks.add(ss.getQuarkAbsoluteAndAdd("CPUs", String.valueOf(cpu), "Status"));
+            }
+            Random random = new Random(SEED);
+            long time = 0;
+            for (int i = 0; i < NB_CHANGES; i++) {
+                time += random.nextInt(100) + 1;
+                ss.modifyAttribute(time, random.nextInt(4), quarks.get(random.nextInt(NB_CPUS)));
+            }
+            ss.closeHistory(time);
+            ss.dispose();
+
+            long[] samples = new long[NB_PIXELS];
+            for (int i = 0; i < NB_PIXELS; i++) {
+                samples[i] = time * i / (NB_PIXELS - 1);
+            }
+
+            for (int i = 0; i < LOOP_COUNT; i++) {
+                ITmfStateSystem reopened = StateSystemFactory.newStateSystem(
+                        StateHistoryBackendFactory.createHistoryTreeBackendExistingFile(SSID, file, 1), false);
+                pmSequential.start();
+                int count = count(reopened.query2D(quarks, 0, time));
+                pmSequential.stop();
+                reopened.dispose();
+
+                reopened = StateSystemFactory.newStateSystem(
+                        StateHistoryBackendFactory.createHistoryTreeBackendExistingFile(SSID, file, 1), false);
+                pmParallel.start();
+                int parallelCount = count(reopened.query2DParallel(quarks, 0, time));
+                pmParallel.stop();
+                reopened.dispose();
+
+                assertEquals(count, parallelCount);
+
+                reopened = StateSystemFactory.newStateSystem(
+                        StateHistoryBackendFactory.createHistoryTreeBackendExistingFile(SSID, file, 1), false);
+                pmSampled.start();
+                count(reopened.query2D(quarks, samples));
+                pmSampled.stop();
+                reopened.dispose();
+            }
+        } catch (IOException | StateSystemDisposedException e) {
+            fail(e.getMessage());
+        } finally {
+            if (file != null) {
+                file.delete();
+            }
+        }
+        pmSequential.commit();
+        pmParallel.commit();
+        pmSampled.commit();
+    }
+
+    private static int count(Iterable<@NonNull ITmfStateInterval> intervals) {
+        int count = 0;
+        for (ITmfStateInterval interval : intervals) {
+            if (interval.getValue() != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.statesystem.core.tests.perf.transientstate;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
+import org.eclipse.tracecompass.statesystem.core.StateSystemFactory;
+import org.eclipse.tracecompass.statesystem.core.backend.IStateHistoryBackend;
+import org.eclipse.tracecompass.statesystem.core.backend.StateHistoryBackendFactory;
+import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
+import org.junit.Test;
+
+/**
+ * Benchmarks the building of a state system while other threads query its
+ * ongoing state, as the views do while a trace is being indexed.
+ */
+public class ConcurrentQueryBenchmark {
+
+    private static final @NonNull String TEST_PREFIX = "org.eclipse.tracecompass#Concurrent Queries#";
+    private static final @NonNull String SSID = "test";
+    private static final int NB_ATTRIBUTES = 1000;
+    private static final int NB_CHANGES = 5000000;
+    private static final int NB_READERS = 4;
+    private static final int LOOP_COUNT = 5;
+
+    /**
+     * Benchmark the build without any reader
+     */
+    @Test
+    public void testNoReader() {
+        runTest(0, "No reader");
+    }
+
+    /**
+     * Benchmark the build with concurrent readers
+     */
+    @Test
+    public void testConcurrentReaders() {
+        runTest(NB_READERS, NB_READERS + " readers");
+    }
+
+    private static void runTest(int nbReaders, String testName) {
+        Performance perf = Performance.getDefault();
+        PerformanceMeter pm = perf.createPerformanceMeter(TEST_PREFIX + testName);
+        perf.tagAsSummary(pm, "Concurrent Queries " + testName, Dimension.CPU_TIME);
+
+        for (int i = 0; i < LOOP_COUNT; i++) {
+            File file = null;
+            try {
+                file = File.createTempFile("ConcurrentQueryBenchmark", ".ht");
+                IStateHistoryBackend backend = StateHistoryBackendFactory.createHistoryTreeBackendNewFile(SSID, file, 1, 0, 0);
+                ITmfStateSystemBuilder ss = StateSystemFactory.newStateSystem(backend);
+                int[] quarks = new int[NB_ATTRIBUTES];
+                for (int q = 0; q < NB_ATTRIBUTES; q++) {
+                    quarks[q] = ss.getQuarkAbsoluteAndAdd(String.valueOf(q));
+                }
+
+                List<Thread> readers = new ArrayList<>();
+                AtomicBoolean done = new AtomicBoolean();
+                AtomicReference<Throwable> failure = new AtomicReference<>();
+                for (int r = 0; r < nbReaders; r++) {
+                    Thread reader = new Thread(() -> query(ss, quarks, done, failure));
+                    reader.setDaemon(true);
+                    readers.add(reader);
+                    reader.start();
+                }
+
+                pm.start();
+                Random random = new Random(0);
+                for (int t = 1; t <= NB_CHANGES; t++) {
+                    ss.modifyAttribute(t, random.nextInt(10), quarks[random.nextInt(NB_ATTRIBUTES)]);
+                }
+                done.set(true);
+                for (Thread reader : readers) {
+                    reader.join();
+                }
+                ss.closeHistory(NB_CHANGES);
+                pm.stop();
+
+                Throwable cause = failure.get();
+                if (cause != null) {
+                    throw new AssertionError(cause);
+                }
+                ss.dispose();
+            } catch (IOException | InterruptedException e) {
+                fail(e.getMessage());
+            } finally {
+                if (file != null) {
+                    file.delete();
+                }
+            }
+        }
+        pm.commit();
+    }
+
+    /**
+     * Query the ongoing state and the state at the latest time until all the
+     * state changes are done
+     */
+    private static void query(ITmfStateSystemBuilder ss, int[] quarks, AtomicBoolean done, AtomicReference<Throwable> failure) {
+        Random random = new Random();
+        try {
+            while (!done.get()) {
+                int quark = quarks[random.nextInt(quarks.length)];
+                ss.queryOngoing(quark);
+                assertNotNull(ss.querySingleState(ss.getCurrentEndTime(), quark));
+            }
+        } catch (StateSystemDisposedException | RuntimeException | AssertionError e) {
+            failure.set(e);
+        }
+    }
+}
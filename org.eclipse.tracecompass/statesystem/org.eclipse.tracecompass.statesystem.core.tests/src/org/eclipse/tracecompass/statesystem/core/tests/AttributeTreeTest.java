@@ -20,7 +20,10 @@ import static org.junit.Assert.assertNotEquals;
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
 
 import org.eclipse.tracecompass.internal.statesystem.core.AttributeTree;
 import org.eclipse.tracecompass.internal.statesystem.core.StateSystem;
@@ -125,4 +128,41 @@ public class AttributeTreeTest {
             file.delete();
         }
     }
+
+    /**
+     * Test that attribute trees written with the original serialized format
+     * can still be read.
+     *
+     * @throws IOException
+     *             if there is an error accessing the test file
+     */
+    @Test
+    public void testAttributeTreeSerializedFormat() throws IOException {
+        File file = File.createTempFile("AttributeTreeTest", ".ht");
+        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(file))) {
+            /* Magic number, then the paths with repeated elements as "*" */
+            oos.writeInt(0x06EC3671);
+            ArrayList<String[]> list = new ArrayList<>();
+            list.add(new String[] { THREADS });
+            list.add(new String[] { "*", NAMES[2] });
+            list.add(new String[] { "*", "*", STATUS });
+            list.add(new String[] { "*", NAMES[6] });
+            list.add(new String[] { "*", "*", STATUS });
+            oos.writeObject(list);
+        }
+
+        IStateHistoryBackend backend = StateHistoryBackendFactory.createNullBackend("test");
+        StateSystem ss = new StateSystem(backend);
+        try (FileInputStream fis = new FileInputStream(file)) {
+            AttributeTree attributeTree = new AttributeTree(ss, fis);
+            assertEquals(5, attributeTree.getNbAttributes());
+            String[] path = new String[] { THREADS, NAMES[6], STATUS };
+            int quark = attributeTree.getQuarkDontAdd(ITmfStateSystem.ROOT_ATTRIBUTE, path);
+            assertEquals(4, quark);
+            assertArrayEquals(path, attributeTree.getFullAttributePathArray(quark));
+        } finally {
+            ss.dispose();
+            file.delete();
+        }
+    }
 }
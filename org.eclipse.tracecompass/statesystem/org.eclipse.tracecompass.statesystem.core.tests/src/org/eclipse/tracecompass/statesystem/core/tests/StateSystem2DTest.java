@@ -18,14 +18,19 @@ import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.tracecompass.common.core.NonNullUtils;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HistoryTreeBackend;
+import org.eclipse.tracecompass.statesystem.core.ICloseableIterable;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
 import org.eclipse.tracecompass.statesystem.core.StateSystemFactory;
@@ -214,6 +219,49 @@ public class StateSystem2DTest {
         testDiscrete(iterable, quarks, times, 8);
     }
 
+    /**
+     * Test the sampled 2D query method, with the times in an array.
+     *
+     * @throws AttributeNotFoundException
+     *             if the requested attribute simply did not exist in the
+     *             system.
+     * @throws StateSystemDisposedException
+     *             If the query is sent after the state system has been disposed
+     */
+    @Test
+    public void testSampled2DQuery() throws AttributeNotFoundException, StateSystemDisposedException {
+        ITmfStateSystem ss = fStateSystem;
+        assertNotNull(ss);
+        long end = ss.getCurrentEndTime();
+        Collection<Long> times = StateSystemUtils.getTimes(START_TIME, end, 30L);
+        long[] sampleTimes = times.stream().mapToLong(Long::longValue).toArray();
+
+        int stringQuark = fStateSystem.getQuarkAbsolute(STRING_ATTRIBUTE);
+        int integerQuark = fStateSystem.getQuarkAbsolute(INTEGER_ATTRIBUTE);
+        Collection<Integer> quarks = ImmutableList.of(stringQuark, integerQuark);
+        testDiscrete(ss.query2D(quarks, sampleTimes), quarks, times, 8);
+        testDiscrete(ss.query2DParallel(quarks, sampleTimes), quarks, times, 8);
+
+        /* Duplicate times are ignored */
+        long[] duplicates = new long[] { 60L, 60L, 95L, 95L };
+        testDiscrete(ss.query2D(quarks, duplicates), quarks, ImmutableList.of(60L, 95L), 4);
+
+        assertTrue(Iterables.isEmpty(ss.query2D(quarks, new long[0])));
+    }
+
+    /**
+     * Test that the sampled 2D query requires sorted times
+     *
+     * @throws StateSystemDisposedException
+     *             If the query is sent after the state system has been disposed
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testSampled2DQueryUnsorted() throws StateSystemDisposedException {
+        ITmfStateSystem ss = fStateSystem;
+        assertNotNull(ss);
+        ss.query2D(Collections.singleton(0), new long[] { 100L, 60L });
+    }
+
     /**
      * Test index out of bound queries
      *
@@ -339,4 +387,171 @@ public class StateSystem2DTest {
         testContinuous(iterable, quarks, START_TIME, end, 11);
     }
 
+    /**
+     * Test the parallel continuous and discrete 2D query methods.
+     *
+     * @throws AttributeNotFoundException
+     *             if the requested attribute simply did not exist in the
+     *             system.
+     * @throws StateSystemDisposedException
+     *             If the query is sent after the state system has been disposed
+     */
+    @Test
+    public void testParallel2DQuery() throws AttributeNotFoundException, StateSystemDisposedException {
+        ITmfStateSystem ss = fStateSystem;
+        assertNotNull(ss);
+        long end = ss.getCurrentEndTime();
+
+        int stringQuark = fStateSystem.getQuarkAbsolute(STRING_ATTRIBUTE);
+        Iterable<ITmfStateInterval> iterable = ss.query2DParallel(Collections.singleton(stringQuark), START_TIME, end);
+        testContinuous(iterable, Collections.singleton(stringQuark), START_TIME, end, 5);
+
+        int integerQuark = fStateSystem.getQuarkAbsolute(INTEGER_ATTRIBUTE);
+        Collection<Integer> quarks = ImmutableList.of(stringQuark, integerQuark);
+        iterable = ss.query2DParallel(quarks, START_TIME, end);
+        testContinuous(iterable, quarks, START_TIME, end, 11);
+
+        iterable = ss.query2DParallel(quarks, 100L, 135L);
+        testContinuous(iterable, quarks, 100L, 135L, 4);
+
+        Collection<Long> times = StateSystemUtils.getTimes(START_TIME, end, 30L);
+        iterable = ss.query2DParallel(quarks, times);
+        testDiscrete(iterable, quarks, times, 8);
+    }
+
+    /**
+     * Test that the parallel 2D query returns the same intervals as the
+     * sequential one on a history tree with many nodes.
+     *
+     * @throws IOException
+     *             If the state system file could not be created
+     * @throws StateSystemDisposedException
+     *             If the query is sent after the state system has been disposed
+     */
+    @Test
+    public void testParallel2DQueryManyNodes() throws IOException, StateSystemDisposedException {
+        IStateHistoryBackend backend = StateHistoryBackendFactory.createHistoryTreeBackendNewFile("test",
+                NonNullUtils.checkNotNull(File.createTempFile("2Dtest", "ht")), 0, START_TIME, 0);
+        ITmfStateSystemBuilder ss = StateSystemFactory.newStateSystem(NonNullUtils.checkNotNull(backend));
+        try {
+            List<Integer> quarks = fillManyNodes(ss);
+            List<Integer> queried = quarks.subList(10, 30);
+            long start = START_TIME + 25000;
+            long end = START_TIME + 75000;
+            int expected = Iterables.size(ss.query2D(queried, start, end));
+            testContinuous(ss.query2DParallel(queried, start, end), queried, start, end, expected);
+        } finally {
+            ss.dispose();
+            ss.removeFiles();
+        }
+    }
+
+    /**
+     * Test that closing a parallel 2D query which is not consumed entirely
+     * ends its iterators, and that the following queries are not affected.
+     *
+     * @throws IOException
+     *             If the state system file could not be created
+     * @throws StateSystemDisposedException
+     *             If the query is sent after the state system has been disposed
+     */
+    @Test
+    public void testParallel2DQueryClose() throws IOException, StateSystemDisposedException {
+        ITmfStateSystemBuilder ss = createSmallNodesStateSystem();
+        try {
+            List<Integer> quarks = fillManyNodes(ss);
+            long end = ss.getCurrentEndTime();
+            int expected = Iterables.size(ss.query2D(quarks, START_TIME, end));
+
+            /* Stop after a few intervals, the search is ahead of the consumer */
+            for (int i = 0; i < 10; i++) {
+                Iterator<ITmfStateInterval> iterator;
+                try (ICloseableIterable<ITmfStateInterval> iterable = ss.query2DParallel(quarks, START_TIME, end)) {
+                    iterator = iterable.iterator();
+                    for (int j = 0; j < 10; j++) {
+                        assertTrue(iterator.hasNext());
+                        iterator.next();
+                    }
+                }
+                assertFalse("A closed query should return no more intervals", iterator.hasNext());
+            }
+
+            /* An iterable which was closed does not start a new search */
+            ICloseableIterable<ITmfStateInterval> iterable = ss.query2DParallel(quarks, START_TIME, end);
+            iterable.close();
+            assertFalse(iterable.iterator().hasNext());
+
+            /* Closing an iterable which was consumed entirely has no effect */
+            try (ICloseableIterable<ITmfStateInterval> complete = ss.query2DParallel(quarks, START_TIME, end)) {
+                assertEquals(expected, Iterables.size(complete));
+            }
+        } finally {
+            ss.dispose();
+            ss.removeFiles();
+        }
+    }
+
+    /**
+     * Test that a parallel 2D query consumed slower than the history is
+     * searched still returns all the intervals.
+     *
+     * @throws IOException
+     *             If the state system file could not be created
+     * @throws StateSystemDisposedException
+     *             If the query is sent after the state system has been disposed
+     * @throws InterruptedException
+     *             If the test is interrupted
+     */
+    @Test
+    public void testParallel2DQuerySlowConsumer() throws IOException, StateSystemDisposedException, InterruptedException {
+        ITmfStateSystemBuilder ss = createSmallNodesStateSystem();
+        try {
+            List<Integer> quarks = fillManyNodes(ss);
+            long end = ss.getCurrentEndTime();
+            int expected = Iterables.size(ss.query2D(quarks, START_TIME, end));
+
+            try (ICloseableIterable<ITmfStateInterval> iterable = ss.query2DParallel(quarks, START_TIME, end)) {
+                Iterator<ITmfStateInterval> iterator = iterable.iterator();
+                assertTrue(iterator.hasNext());
+                /* Let the search fill the queue of batches */
+                Thread.sleep(500);
+                int count = 0;
+                while (iterator.hasNext()) {
+                    iterator.next();
+                    count++;
+                }
+                assertEquals(expected, count);
+            }
+        } finally {
+            ss.dispose();
+            ss.removeFiles();
+        }
+    }
+
+    /**
+     * Create a state system whose history tree has small nodes, so that a
+     * parallel query finds more batches than it keeps ahead of the consumer
+     */
+    private static ITmfStateSystemBuilder createSmallNodesStateSystem() throws IOException {
+        IStateHistoryBackend backend = new HistoryTreeBackend("test",
+                NonNullUtils.checkNotNull(File.createTempFile("2Dtest", "ht")), 0, START_TIME, 4096, 16);
+        return StateSystemFactory.newStateSystem(backend);
+    }
+
+    /**
+     * Fill a state system with enough intervals for its history tree to have
+     * many nodes, and close its history
+     */
+    private static List<Integer> fillManyNodes(ITmfStateSystemBuilder ss) {
+        int nbQuarks = 64;
+        List<Integer> quarks = new ArrayList<>();
+        for (int i = 0; i < nbQuarks; i++) {
+            quarks.add(ss.getQuarkAbsoluteAndAdd(String.valueOf(i)));
+        }
+        for (long t = START_TIME; t < START_TIME + 100000; t++) {
+            ss.modifyAttribute(t, (int) t, quarks.get((int) (t % nbQuarks)));
+        }
+        ss.closeHistory(START_TIME + 100000);
+        return quarks;
+    }
 }
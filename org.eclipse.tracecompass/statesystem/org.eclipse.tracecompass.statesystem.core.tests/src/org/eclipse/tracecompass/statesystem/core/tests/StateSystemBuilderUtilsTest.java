@@ -14,13 +14,19 @@ package org.eclipse.tracecompass.statesystem.core.tests;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 
+import java.io.File;
+import java.io.IOException;
+
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
 import org.eclipse.tracecompass.statesystem.core.StateSystemBuilderUtils;
 import org.eclipse.tracecompass.statesystem.core.StateSystemFactory;
 import org.eclipse.tracecompass.statesystem.core.backend.IStateHistoryBackend;
 import org.eclipse.tracecompass.statesystem.core.backend.StateHistoryBackendFactory;
+import org.eclipse.tracecompass.statesystem.core.exceptions.AttributeNotFoundException;
+import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
 import org.eclipse.tracecompass.statesystem.core.exceptions.StateValueTypeException;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
 import org.eclipse.tracecompass.statesystem.core.statevalue.ITmfStateValue;
 import org.eclipse.tracecompass.statesystem.core.statevalue.TmfStateValue;
 import org.junit.Before;
@@ -118,4 +124,80 @@ public class StateSystemBuilderUtilsTest {
         value = ss.queryOngoingState(quark);
         assertEquals(TmfStateValue.newValueInt(increment + increment2 + increment3), value);
     }
+
+    /**
+     * Test the
+     * {@link StateSystemBuilderUtils#appendSpooledHistory(ITmfStateSystemBuilder, org.eclipse.tracecompass.statesystem.core.ITmfStateSystem, IStateHistoryBackend, long)}
+     * method, by appending two consecutive slices of a history
+     *
+     * @throws IOException
+     *             If the spool files cannot be written
+     * @throws StateSystemDisposedException
+     *             If the state system was disposed
+     * @throws AttributeNotFoundException
+     *             If an attribute was not appended
+     */
+    @Test
+    public void testAppendSpooledHistory() throws IOException, StateSystemDisposedException, AttributeNotFoundException {
+        ITmfStateSystemBuilder ss = fStateSystem;
+        long sliceStart = START_TIME + 10 * TIME_INCREMENT;
+        File file1 = File.createTempFile("spool", ".slice0");
+        File file2 = File.createTempFile("spool", ".slice1");
+        IStateHistoryBackend spool1 = StateHistoryBackendFactory.createSpoolBackend(DUMMY_STRING, file1, START_TIME);
+        IStateHistoryBackend spool2 = StateHistoryBackendFactory.createSpoolBackend(DUMMY_STRING, file2, sliceStart);
+        try {
+            /* First slice */
+            ITmfStateSystemBuilder slice1 = StateSystemFactory.newStateSystem(spool1);
+            int a1 = slice1.getQuarkAbsoluteAndAdd("a");
+            int b1 = slice1.getQuarkAbsoluteAndAdd("b");
+            slice1.modifyAttribute(START_TIME + TIME_INCREMENT, 1, a1);
+            slice1.modifyAttribute(START_TIME + 2 * TIME_INCREMENT, DUMMY_STRING, b1);
+            slice1.modifyAttribute(START_TIME + 5 * TIME_INCREMENT, 2, a1);
+            slice1.closeHistory(START_TIME + 8 * TIME_INCREMENT);
+
+            /* Second slice, seeded with the state at its start, new attributes first */
+            ITmfStateSystemBuilder slice2 = StateSystemFactory.newStateSystem(spool2);
+            int c2 = slice2.getQuarkAbsoluteAndAdd("c");
+            int b2 = slice2.getQuarkAbsoluteAndAdd("b");
+            int a2 = slice2.getQuarkAbsoluteAndAdd("a");
+            slice2.modifyAttribute(sliceStart, 2, a2);
+            slice2.modifyAttribute(sliceStart, DUMMY_STRING, b2);
+            slice2.modifyAttribute(sliceStart + TIME_INCREMENT, 3L, c2);
+            slice2.modifyAttribute(sliceStart + 2 * TIME_INCREMENT, (Object) null, b2);
+            slice2.closeHistory(sliceStart + 4 * TIME_INCREMENT);
+
+            StateSystemBuilderUtils.appendSpooledHistory(ss, slice1, spool1, sliceStart - 1);
+            StateSystemBuilderUtils.appendSpooledHistory(ss, slice2, spool2, Long.MAX_VALUE);
+            ss.closeHistory(slice2.getCurrentEndTime());
+
+            int a = ss.getQuarkAbsolute("a");
+            int b = ss.getQuarkAbsolute("b");
+            int c = ss.getQuarkAbsolute("c");
+            assertEquals(3, ss.getNbAttributes());
+
+            /* The intervals with the same value on both sides are merged */
+            ITmfStateInterval interval = ss.querySingleState(sliceStart, a);
+            assertEquals(START_TIME + 5 * TIME_INCREMENT, interval.getStartTime());
+            assertEquals(sliceStart + 4 * TIME_INCREMENT, interval.getEndTime());
+            assertEquals(2, interval.getValue());
+
+            interval = ss.querySingleState(sliceStart, b);
+            assertEquals(START_TIME + 2 * TIME_INCREMENT, interval.getStartTime());
+            assertEquals(sliceStart + 2 * TIME_INCREMENT - 1, interval.getEndTime());
+            assertEquals(DUMMY_STRING, interval.getValue());
+
+            interval = ss.querySingleState(START_TIME + TIME_INCREMENT, a);
+            assertEquals(START_TIME + TIME_INCREMENT, interval.getStartTime());
+            assertEquals(START_TIME + 5 * TIME_INCREMENT - 1, interval.getEndTime());
+            assertEquals(1, interval.getValue());
+
+            interval = ss.querySingleState(sliceStart + 3 * TIME_INCREMENT, c);
+            assertEquals(sliceStart + TIME_INCREMENT, interval.getStartTime());
+            assertEquals(3L, interval.getValue());
+            assertEquals(null, ss.querySingleState(sliceStart, c).getValue());
+        } finally {
+            spool1.removeFiles();
+            spool2.removeFiles();
+        }
+    }
 }
@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.statesystem.core.tests.backend;
+
+import static org.eclipse.tracecompass.common.core.NonNullUtils.checkNotNull;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HTConfig.NodeCodec;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HistoryTreeBackend;
+import org.eclipse.tracecompass.statesystem.core.backend.IStateHistoryBackend;
+
+/**
+ * Test the {@link HistoryTreeBackend} class with the nodes compressed in the
+ * history tree file.
+ */
+public class CompressedHistoryTreeBackendTest extends HistoryTreeBackendTest {
+
+    /**
+     * Constructor
+     *
+     * @param reOpen
+     *            True if the backend should be disposed and re-opened as a new
+     *            backend from the file, or false to use the backend as-is
+     */
+    public CompressedHistoryTreeBackendTest(Boolean reOpen) {
+        super(reOpen);
+    }
+
+    @Override
+    protected IStateHistoryBackend getBackendForBuilding(long startTime) throws IOException {
+        File historyTreeFile = checkNotNull(File.createTempFile("CompressedHistoryTreeBackendTest", ".ht"));
+        fHistoryTreeFiles.add(historyTreeFile);
+        HistoryTreeBackend backend = new HistoryTreeBackend(SSID, historyTreeFile, PROVIDER_VERSION, startTime, fBlockSize, fMaxChildren, NodeCodec.DEFLATE);
+        fBackendMap.put(backend, historyTreeFile);
+        return backend;
+    }
+}
@@ -12,23 +12,35 @@
 package org.eclipse.tracecompass.statesystem.core.tests.backend;
 
 import static org.eclipse.tracecompass.common.core.NonNullUtils.checkNotNull;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HT_IO;
 import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HistoryTreeBackend;
 import org.eclipse.tracecompass.statesystem.core.backend.IStateHistoryBackend;
+import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+import org.eclipse.tracecompass.statesystem.core.interval.TmfStateInterval;
 import org.junit.After;
+import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.junit.runners.Parameterized.Parameters;
 
+import com.google.common.cache.CacheStats;
+
 /**
  * Test the {@link HistoryTreeBackend} class.
  *
@@ -117,4 +129,84 @@ public class HistoryTreeBackendTest extends StateHistoryBackendTestBase {
         fBackendMap.put(reOpenedBackend, historyTreeFile);
         return reOpenedBackend;
     }
+
+    /**
+     * Test that a backend over its quota in the node cache evicts its own
+     * nodes, instead of the nodes of another one.
+     *
+     * @throws StateSystemDisposedException
+     *             Shouldn't happen
+     */
+    @Test
+    public void testNodeCacheIsolation() throws StateSystemDisposedException {
+        final int nbAttr = 10;
+        final long startTime = 0;
+        final long endTime = 5000;
+        List<ITmfStateInterval> intervals = createCacheTestIntervals(startTime, endTime, nbAttr);
+
+        HistoryTreeBackend first = (HistoryTreeBackend) buildAndQueryFullRange(startTime, endTime, nbAttr, intervals, false);
+        HistoryTreeBackend second = (HistoryTreeBackend) prepareBackend(startTime, endTime, intervals);
+        assertNotNull(second);
+        /* Only one node of the second backend fits in its quota */
+        second.setNodeCacheQuota(fBlockSize);
+
+        CacheStats firstStats = first.getNodeCacheStats();
+        for (long t = startTime; t <= endTime; t++) {
+            second.doSingularQuery(t, (int) t % nbAttr);
+        }
+        assertEquals(firstStats, first.getNodeCacheStats());
+        assertTrue(second.getNodeCacheStats().evictionCount() > 0);
+    }
+
+    /**
+     * Test that the nodes of all the backends stay within the global budget of
+     * the node cache, evicting the least recently used nodes of any backend.
+     *
+     * @throws StateSystemDisposedException
+     *             Shouldn't happen
+     */
+    @Test
+    public void testNodeCacheBudget() throws StateSystemDisposedException {
+        final int nbAttr = 10;
+        final long startTime = 0;
+        final long endTime = 5000;
+        List<ITmfStateInterval> intervals = createCacheTestIntervals(startTime, endTime, nbAttr);
+
+        long budget = HT_IO.getCacheBudget();
+        try {
+            HistoryTreeBackend first = (HistoryTreeBackend) buildAndQueryFullRange(startTime, endTime, nbAttr, intervals, false);
+            HistoryTreeBackend second = (HistoryTreeBackend) prepareBackend(startTime, endTime, intervals);
+            assertNotNull(second);
+            long newBudget = HT_IO.getCachedSize() / 2;
+            assertTrue(newBudget > 0);
+
+            /* The nodes of the first backend were used the least recently */
+            long firstEvictions = first.getNodeCacheStats().evictionCount();
+            long secondEvictions = second.getNodeCacheStats().evictionCount();
+            HistoryTreeBackend.setNodeCacheBudget(newBudget);
+            assertTrue(HT_IO.getCachedSize() <= newBudget);
+            assertTrue(first.getNodeCacheStats().evictionCount() > firstEvictions);
+            assertEquals(secondEvictions, second.getNodeCacheStats().evictionCount());
+
+            for (long t = startTime; t <= endTime; t++) {
+                second.doSingularQuery(t, (int) t % nbAttr);
+            }
+            assertTrue(HT_IO.getCachedSize() <= newBudget);
+        } finally {
+            HistoryTreeBackend.setNodeCacheBudget(budget);
+        }
+    }
+
+    private static List<ITmfStateInterval> createCacheTestIntervals(long startTime, long endTime, int nbAttr) {
+        final long duration = 10;
+        List<ITmfStateInterval> intervals = new ArrayList<>();
+        for (long t = startTime + 1; t <= endTime + duration; t++) {
+            intervals.add(new TmfStateInterval(
+                    Math.max(startTime, t - duration),
+                    Math.min(endTime, t - 1),
+                    (int) t % nbAttr,
+                    t));
+        }
+        return intervals;
+    }
 }
@@ -0,0 +1,55 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.statesystem.core.tests.backend;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HistoryTreeBackend;
+import org.eclipse.tracecompass.statesystem.core.backend.IStateHistoryBackend;
+
+/**
+ * Test the {@link HistoryTreeBackend} class when the existing history tree
+ * files are mapped in memory.
+ */
+public class MappedHistoryTreeBackendTest extends HistoryTreeBackendTest {
+
+    /**
+     * Constructor
+     *
+     * @param reOpen
+     *            True if the backend should be disposed and re-opened as a new
+     *            mapped backend from the file, or false to use the backend
+     *            as-is
+     */
+    public MappedHistoryTreeBackendTest(Boolean reOpen) {
+        super(reOpen);
+    }
+
+    @Override
+    protected IStateHistoryBackend getBackendForQuerying(IStateHistoryBackend backend) throws IOException {
+        if (!fReOpen) {
+            return backend;
+        }
+
+        File historyTreeFile = fBackendMap.remove(backend);
+
+        if (historyTreeFile == null) {
+            throw new IllegalStateException();
+        }
+
+        backend.dispose();
+        HistoryTreeBackend reOpenedBackend = new HistoryTreeBackend(SSID, historyTreeFile, PROVIDER_VERSION, true);
+        fBackendMap.put(reOpenedBackend, historyTreeFile);
+        return reOpenedBackend;
+    }
+}
@@ -17,24 +17,33 @@
 
 package org.eclipse.tracecompass.internal.statesystem.core;
 
-import static org.eclipse.tracecompass.common.core.NonNullUtils.checkNotNull;
 import static org.eclipse.tracecompass.statesystem.core.ITmfStateSystem.INVALID_ATTRIBUTE;
 import static org.eclipse.tracecompass.statesystem.core.ITmfStateSystem.ROOT_ATTRIBUTE;
 
 import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.PrintWriter;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
 
 /**
@@ -42,6 +51,11 @@ import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
  * Each node of this tree is both like a file and a directory in the
  * "file system".
  *
+ * The tree is stored in flat arrays indexed by node, where node 0 is the root
+ * and node n + 1 is the attribute of quark n. The names are interned, and a
+ * single open-addressing hash table maps a (parent node, name id) pair to the
+ * child node, so looking up a path element does not need any per-node map.
+ *
  * @author alexmont
  *
  */
@@ -50,17 +64,65 @@ public final class AttributeTree {
     /* "Magic number" for attribute tree files or file sections */
     private static final int ATTRIB_TREE_MAGIC_NUMBER = 0x06EC3671;
 
+    /*
+     * "Magic number" and version of the binary attribute tree format. The
+     * section is laid out as:
+     *
+     * <pre>
+     * int magic, int version, int nbNames, int nbAttributes,
+     * int[nbNames + 1] offsets of the names in the name table,
+     * int[nbAttributes] parent quarks, int[nbAttributes] name ids,
+     * byte[] name table (UTF-8)
+     * </pre>
+     *
+     * All the fixed-size fields come first, so the section can be mapped and
+     * any name read directly from its offset.
+     */
+    private static final int ATTRIB_TREE_BINARY_MAGIC_NUMBER = 0x06EC3672;
+    private static final int ATTRIB_TREE_BINARY_VERSION = 1;
+    private static final int BINARY_HEADER_SIZE = 4 * Integer.BYTES;
+
+    /* Mapping files on Windows prevents them from being deleted */
+    private static final boolean IS_WIN32 = System.getProperty("os.name").startsWith("Windows"); //$NON-NLS-1$//$NON-NLS-2$
+
     /**
      * Character used to indicate an attribute path element is the same as the
-     * previous attribute. Used for serialization.
+     * previous attribute. Used by the original serialization format.
      */
     private static final String SERIALIZATION_WILDCARD = "*"; //$NON-NLS-1$
 
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int ROOT_NODE = 0;
+    private static final int NO_NODE = -1;
+
     private final StateSystem fSs;
-    private final List<Attribute> fAttributeList;
-    private final Attribute fAttributeTreeRoot;
     private final ReentrantReadWriteLock fLock = new ReentrantReadWriteLock();
 
+    /* Number of nodes, including the root */
+    private int fNbNodes = 1;
+    private int[] fParents = new int[INITIAL_CAPACITY];
+    private int[] fNameIds = new int[INITIAL_CAPACITY];
+    private int[] fFirstChild = new int[INITIAL_CAPACITY];
+    private int[] fLastChild = new int[INITIAL_CAPACITY];
+    private int[] fNextSibling = new int[INITIAL_CAPACITY];
+
+    /*
+     * Open-addressing hash table of the nodes, keyed by their parent and name
+     * id. Empty slots contain the root node, which is never a child.
+     */
+    private int[] fChildTable = new int[2 * INITIAL_CAPACITY];
+
+    /*
+     * The interned names. When read from a file, the names are only decoded
+     * from the name table when they are needed.
+     */
+    private int fNbNames = 0;
+    private @Nullable String[] fNames = new String[INITIAL_CAPACITY];
+    private volatile @Nullable Map<String, Integer> fNameIdMap = new HashMap<>();
+    private @Nullable ByteBuffer fNameTable = null;
+    private int fNameOffsetsPos;
+    private int fNamesPos;
+
     /**
      * Standard constructor, create a new empty Attribute Tree
      *
@@ -69,8 +131,10 @@ public final class AttributeTree {
      */
     public AttributeTree(StateSystem ss) {
         fSs = ss;
-        fAttributeList = new ArrayList<>();
-        fAttributeTreeRoot = new Attribute(null, "root", ROOT_ATTRIBUTE); //$NON-NLS-1$
+        fParents[ROOT_NODE] = NO_NODE;
+        fFirstChild[ROOT_NODE] = NO_NODE;
+        fLastChild[ROOT_NODE] = NO_NODE;
+        fNextSibling[ROOT_NODE] = NO_NODE;
     }
 
     /**
@@ -87,6 +151,85 @@ public final class AttributeTree {
      */
     public AttributeTree(StateSystem ss, FileInputStream fis) throws IOException {
         this(ss);
+        FileChannel fc = fis.getChannel();
+        long pos = fc.position();
+        ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES);
+        fc.read(magic, pos);
+        magic.flip();
+        if (magic.remaining() == Integer.BYTES && magic.getInt() == ATTRIB_TREE_BINARY_MAGIC_NUMBER) {
+            readBinary(fc, pos);
+        } else {
+            readSerialized(fis);
+        }
+    }
+
+    /**
+     * Read the binary format. Only the parent and name id arrays are read,
+     * the names are decoded from the name table when they are first needed.
+     */
+    private void readBinary(FileChannel fc, long pos) throws IOException {
+        long size = fc.size() - pos;
+        ByteBuffer buffer;
+        if (IS_WIN32) {
+            buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && fc.read(buffer, pos + buffer.position()) >= 0) {
+                /* Keep reading until the end of the file */
+            }
+            buffer.flip();
+        } else {
+            buffer = fc.map(MapMode.READ_ONLY, pos, size);
+        }
+
+        try {
+            buffer.getInt(); /* Magic number */
+            int version = buffer.getInt();
+            if (version != ATTRIB_TREE_BINARY_VERSION) {
+                throw new IOException("Unsupported attribute tree version: " + version); //$NON-NLS-1$
+            }
+            int nbNames = buffer.getInt();
+            int nbAttributes = buffer.getInt();
+            int offsetsPos = BINARY_HEADER_SIZE;
+            int parentsPos = offsetsPos + (nbNames + 1) * Integer.BYTES;
+            int nameIdsPos = parentsPos + nbAttributes * Integer.BYTES;
+            int namesPos = nameIdsPos + nbAttributes * Integer.BYTES;
+            if (nbNames < 0 || nbAttributes < 0 || namesPos > buffer.limit()) {
+                throw new IOException("The attribute tree file section is either invalid or corrupted."); //$NON-NLS-1$
+            }
+
+            int[] parents = new int[nbAttributes];
+            int[] nameIds = new int[nbAttributes];
+            ByteBuffer arrays = buffer.duplicate();
+            arrays.position(parentsPos);
+            arrays.asIntBuffer().get(parents);
+            arrays.position(nameIdsPos);
+            arrays.asIntBuffer().get(nameIds);
+
+            fNameTable = buffer;
+            fNameOffsetsPos = offsetsPos;
+            fNamesPos = namesPos;
+            fNbNames = nbNames;
+            fNames = new String[nbNames];
+            /* Built on the first lookup by name */
+            fNameIdMap = null;
+
+            ensureCapacity(nbAttributes + 1);
+            for (int i = 0; i < nbAttributes; i++) {
+                int parentQuark = parents[i];
+                int nameId = nameIds[i];
+                if (parentQuark >= i || parentQuark < ROOT_ATTRIBUTE || nameId < 0 || nameId >= nbNames) {
+                    throw new IOException("Invalid attribute " + i + " in the attribute tree"); //$NON-NLS-1$ //$NON-NLS-2$
+                }
+                addNode(parentQuark + 1, nameId);
+            }
+        } catch (IndexOutOfBoundsException | BufferUnderflowException e) {
+            throw new IOException("The attribute tree file section is either invalid or corrupted.", e); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Read the original format, a serialized list of encoded paths
+     */
+    private void readSerialized(FileInputStream fis) throws IOException {
         ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(fis));
 
         /* Read the header of the Attribute Tree file (or file section) */
@@ -118,7 +261,8 @@ public final class AttributeTree {
     }
 
     /**
-     * Tell the Attribute Tree to write itself somewhere in a file.
+     * Tell the Attribute Tree to write itself somewhere in a file, in the
+     * binary format.
      *
      * @param file
      *            The file to write to
@@ -130,22 +274,41 @@ public final class AttributeTree {
         try (FileOutputStream fos = new FileOutputStream(file, true);
                 FileChannel fc = fos.getChannel();) {
             fc.position(pos);
-            try (ObjectOutputStream oos = new ObjectOutputStream(fos)) {
-
-                /* Write the almost-magic number */
-                oos.writeInt(ATTRIB_TREE_MAGIC_NUMBER);
-
-                /* Compute the serialized list of attributes and write it */
-                List<String[]> list = new ArrayList<>(fAttributeList.size());
-                String[] prevFullAttribute = null;
-                for (Attribute entry : fAttributeList) {
-                    String[] curFullAttribute = entry.getFullAttribute();
-                    String[] curEncodedAttribute = encodeFullAttribute(prevFullAttribute, entry.getFullAttribute());
-                    list.add(curEncodedAttribute);
-                    prevFullAttribute = curFullAttribute;
+
+            /* Only write the names that are used, in order of first appearance */
+            int nbAttributes = fNbNodes - 1;
+            int[] nameIdMapping = new int[fNbNames];
+            Arrays.fill(nameIdMapping, -1);
+            List<byte[]> names = new ArrayList<>();
+            for (int node = 1; node < fNbNodes; node++) {
+                int nameId = fNameIds[node];
+                if (nameIdMapping[nameId] < 0) {
+                    nameIdMapping[nameId] = names.size();
+                    names.add(getName(nameId).getBytes(StandardCharsets.UTF_8));
                 }
-                oos.writeObject(list);
             }
+
+            DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(fos));
+            dos.writeInt(ATTRIB_TREE_BINARY_MAGIC_NUMBER);
+            dos.writeInt(ATTRIB_TREE_BINARY_VERSION);
+            dos.writeInt(names.size());
+            dos.writeInt(nbAttributes);
+            int offset = 0;
+            for (byte[] name : names) {
+                dos.writeInt(offset);
+                offset += name.length;
+            }
+            dos.writeInt(offset);
+            for (int node = 1; node < fNbNodes; node++) {
+                dos.writeInt(fParents[node] - 1);
+            }
+            for (int node = 1; node < fNbNodes; node++) {
+                dos.writeInt(nameIdMapping[fNameIds[node]]);
+            }
+            for (byte[] name : names) {
+                dos.write(name);
+            }
+            dos.flush();
         } catch (IOException e) {
             Activator.getDefault().logError("Error writing the file " + file, e); //$NON-NLS-1$
         } finally {
@@ -154,35 +317,8 @@ public final class AttributeTree {
     }
 
     /**
-     * Avoid repeating path elements that are the same from one attribute to the
-     * next, and replace identical path elements with "*".
-     *
-     * @param prevPath
-     *            The previous attribute's full attribute path
-     * @param curPath
-     *            The current attribute's full attribute path
-     * @return An encoded version of the current entry's full attribute path
-     *         where subpaths[i] equal to that of prevEntry's subpaths[i] is
-     *         replaced by "*" or curPath if prevPath is null.
-     */
-    private static String[] encodeFullAttribute(String[] prevPath, String[] curPath) {
-        if (prevPath == null) {
-            return curPath;
-        }
-        String[] diff = new String[curPath.length];
-        for (int i = 0; i < curPath.length; i++) {
-            if (i < prevPath.length && prevPath[i].equals(curPath[i])) {
-                diff[i] = SERIALIZATION_WILDCARD;
-            } else {
-                diff[i] = curPath[i];
-            }
-        }
-        return diff;
-    }
-
-    /**
-     * Decode a full attribute path that was encoded by
-     * {@link #encodeFullAttribute}.
+     * Decode a full attribute path of the original format, where path
+     * elements equal to those of the previous attribute are replaced by "*".
      *
      * @param prevPath
      *            The previous attribute's decoded full attribute path
@@ -207,6 +343,161 @@ public final class AttributeTree {
         return diff;
     }
 
+    // ------------------------------------------------------------------------
+    // Flat tree and name table
+    // ------------------------------------------------------------------------
+
+    private void ensureCapacity(int nbNodes) {
+        int capacity = fParents.length;
+        if (nbNodes <= capacity) {
+            return;
+        }
+        while (capacity < nbNodes) {
+            capacity *= 2;
+        }
+        fParents = Arrays.copyOf(fParents, capacity);
+        fNameIds = Arrays.copyOf(fNameIds, capacity);
+        fFirstChild = Arrays.copyOf(fFirstChild, capacity);
+        fLastChild = Arrays.copyOf(fLastChild, capacity);
+        fNextSibling = Arrays.copyOf(fNextSibling, capacity);
+
+        /* Keep the hash table at most half full */
+        int[] oldTable = fChildTable;
+        fChildTable = new int[2 * capacity];
+        for (int node : oldTable) {
+            if (node != ROOT_NODE) {
+                insertInTable(node);
+            }
+        }
+    }
+
+    private static int hash(int parent, int nameId) {
+        int h = parent * 0x9E3779B1 + nameId * 0x85EBCA77;
+        return h ^ (h >>> 16);
+    }
+
+    private void insertInTable(int node) {
+        int mask = fChildTable.length - 1;
+        int slot = hash(fParents[node], fNameIds[node]) & mask;
+        while (fChildTable[slot] != ROOT_NODE) {
+            slot = (slot + 1) & mask;
+        }
+        fChildTable[slot] = node;
+    }
+
+    /**
+     * Find the child node of a node with a given name id
+     *
+     * @return The child node, or {@link #NO_NODE} if there is none
+     */
+    private int findChild(int parent, int nameId) {
+        int[] table = fChildTable;
+        int mask = table.length - 1;
+        int slot = hash(parent, nameId) & mask;
+        int node = table[slot];
+        while (node != ROOT_NODE) {
+            if (fParents[node] == parent && fNameIds[node] == nameId) {
+                return node;
+            }
+            slot = (slot + 1) & mask;
+            node = table[slot];
+        }
+        return NO_NODE;
+    }
+
+    /**
+     * Add a new node as the last child of its parent. Must be called with the
+     * write lock held, or from the constructor.
+     */
+    private int addNode(int parent, int nameId) {
+        ensureCapacity(fNbNodes + 1);
+        int node = fNbNodes;
+        fParents[node] = parent;
+        fNameIds[node] = nameId;
+        fFirstChild[node] = NO_NODE;
+        fLastChild[node] = NO_NODE;
+        fNextSibling[node] = NO_NODE;
+        if (fLastChild[parent] == NO_NODE) {
+            fFirstChild[parent] = node;
+        } else {
+            fNextSibling[fLastChild[parent]] = node;
+        }
+        fLastChild[parent] = node;
+        fNbNodes++;
+        insertInTable(node);
+        fSs.addEmptyAttribute();
+        return node;
+    }
+
+    private @NonNull String getName(int nameId) {
+        String name = fNames[nameId];
+        if (name == null) {
+            /* Decode it from the name table, names are immutable */
+            ByteBuffer table = Objects.requireNonNull(fNameTable);
+            int start = table.getInt(fNameOffsetsPos + nameId * Integer.BYTES);
+            int end = table.getInt(fNameOffsetsPos + (nameId + 1) * Integer.BYTES);
+            byte[] bytes = new byte[end - start];
+            ByteBuffer slice = table.duplicate();
+            slice.position(fNamesPos + start);
+            slice.get(bytes);
+            name = new String(bytes, StandardCharsets.UTF_8);
+            fNames[nameId] = name;
+        }
+        return name;
+    }
+
+    /**
+     * Get the map of the name ids, decoding the whole name table the first
+     * time if it was read from a file.
+     */
+    private Map<String, Integer> getNameIdMap() {
+        Map<String, Integer> map = fNameIdMap;
+        if (map == null) {
+            synchronized (this) {
+                map = fNameIdMap;
+                if (map == null) {
+                    map = new HashMap<>();
+                    for (int i = 0; i < fNbNames; i++) {
+                        map.put(getName(i), i);
+                    }
+                    fNameIdMap = map;
+                }
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Get the id of a name, interning it if it is new. Must be called with
+     * the write lock held.
+     */
+    private int internName(@NonNull String name) {
+        Map<String, Integer> map = getNameIdMap();
+        Integer nameId = map.get(name);
+        if (nameId != null) {
+            return nameId;
+        }
+        int newId = fNbNames;
+        if (newId == fNames.length) {
+            fNames = Arrays.copyOf(fNames, Math.max(INITIAL_CAPACITY, 2 * newId));
+        }
+        fNames[newId] = name;
+        fNbNames++;
+        map.put(name, newId);
+        return newId;
+    }
+
+    private int toNode(int quark) {
+        if (quark < ROOT_ATTRIBUTE || quark >= fNbNodes - 1) {
+            throw new IndexOutOfBoundsException("Invalid quark: " + quark); //$NON-NLS-1$
+        }
+        return quark + 1;
+    }
+
+    // ------------------------------------------------------------------------
+    // Accessors
+    // ------------------------------------------------------------------------
+
     /**
      * Return the number of attributes this system as seen so far. Note that
      * this also equals the integer value (quark) the next added attribute will
@@ -217,7 +508,7 @@ public final class AttributeTree {
     public int getNbAttributes() {
         fLock.readLock().lock();
         try {
-            return fAttributeList.size();
+            return fNbNodes - 1;
         } finally {
             fLock.readLock().unlock();
         }
@@ -248,10 +539,19 @@ public final class AttributeTree {
 
         fLock.readLock().lock();
         try {
-
-            /* Get the "starting node" */
-            Attribute startingNode = getAttribute(startingNodeQuark);
-            return startingNode.getSubAttributeQuark(subPath);
+            Map<String, Integer> nameIds = getNameIdMap();
+            int node = toNode(startingNodeQuark);
+            for (String element : subPath) {
+                Integer nameId = nameIds.get(element);
+                if (nameId == null) {
+                    return INVALID_ATTRIBUTE;
+                }
+                node = findChild(node, nameId);
+                if (node == NO_NODE) {
+                    return INVALID_ATTRIBUTE;
+                }
+            }
+            return node - 1;
         } finally {
             fLock.readLock().unlock();
         }
@@ -275,31 +575,17 @@ public final class AttributeTree {
     public int getQuarkAndAdd(int startingNodeQuark, String... subPath) {
         fLock.writeLock().lock();
         try {
-            /* Get the "starting node" */
-            Attribute prevNode = getAttribute(startingNodeQuark);
-
-            int knownQuark = prevNode.getSubAttributeQuark(subPath);
-            if (knownQuark == INVALID_ATTRIBUTE) {
-                /*
-                 * The attribute was not in the table previously, and we want to add it
-                 */
-                for (String curDirectory : subPath) {
-                    Attribute nextNode = prevNode.getSubAttributeNode(curDirectory);
-                    if (nextNode == null) {
-                        /* This is where we need to start adding */
-                        nextNode = new Attribute(prevNode, checkNotNull(curDirectory), fAttributeList.size());
-                        prevNode.addSubAttribute(nextNode);
-                        fAttributeList.add(nextNode);
-                        fSs.addEmptyAttribute();
-                    }
-                    prevNode = nextNode;
+            int node = toNode(startingNodeQuark);
+            for (String element : subPath) {
+                int nameId = internName(Objects.requireNonNull(element));
+                int child = findChild(node, nameId);
+                if (child == NO_NODE) {
+                    /* This is where we need to start adding */
+                    child = addNode(node, nameId);
                 }
-                return fAttributeList.size() - 1;
+                node = child;
             }
-            /*
-             * The attribute already existed, return the quark of that attribute
-             */
-            return knownQuark;
+            return node - 1;
         } finally {
             fLock.writeLock().unlock();
         }
@@ -322,23 +608,20 @@ public final class AttributeTree {
         fLock.readLock().lock();
         try {
             List<@NonNull Integer> listOfChildren = new ArrayList<>();
-            /* Set up the node from which we'll start the search */
-            Attribute startingAttribute = getAttribute(attributeQuark);
-
-            /* Iterate through the sub-attributes and add them to the list */
-            addSubAttributes(listOfChildren, startingAttribute, recursive);
-
+            addSubAttributes(listOfChildren, toNode(attributeQuark), recursive);
             return listOfChildren;
         } finally {
             fLock.readLock().unlock();
         }
     }
 
-    private Attribute getAttribute(int startingNodeQuark) {
-        if (startingNodeQuark == ROOT_ATTRIBUTE) {
-            return fAttributeTreeRoot;
+    private void addSubAttributes(List<@NonNull Integer> list, int node, boolean recursive) {
+        for (int child = fFirstChild[node]; child != NO_NODE; child = fNextSibling[child]) {
+            list.add(child - 1);
+            if (recursive) {
+                addSubAttributes(list, child, true);
+            }
         }
-        return fAttributeList.get(startingNodeQuark);
     }
 
     /**
@@ -358,22 +641,12 @@ public final class AttributeTree {
         }
         fLock.readLock().lock();
         try {
-            return fAttributeList.get(quark).getParentAttributeQuark();
+            return fParents[toNode(quark)] - 1;
         } finally {
             fLock.readLock().unlock();
         }
     }
 
-    private void addSubAttributes(List<Integer> list, Attribute curAttribute,
-            boolean recursive) {
-        for (Attribute childNode : curAttribute.getSubAttributes()) {
-            list.add(childNode.getQuark());
-            if (recursive) {
-                addSubAttributes(list, childNode, true);
-            }
-        }
-    }
-
     /**
      * Get then base name of an attribute specified by a quark.
      *
@@ -386,7 +659,7 @@ public final class AttributeTree {
     public @NonNull String getAttributeName(int quark) {
         fLock.readLock().lock();
         try {
-            return fAttributeList.get(quark).getName();
+            return getName(fNameIds[toNode(quark)]);
         } finally {
             fLock.readLock().unlock();
         }
@@ -402,12 +675,7 @@ public final class AttributeTree {
      *             If the quark is out of range
      */
     public @NonNull String getFullAttributeName(int quark) {
-        fLock.readLock().lock();
-        try {
-            return fAttributeList.get(quark).getFullAttributeName();
-        } finally {
-            fLock.readLock().unlock();
-        }
+        return Objects.requireNonNull(String.join("/", getFullAttributePathArray(quark))); //$NON-NLS-1$
     }
 
     /**
@@ -423,7 +691,15 @@ public final class AttributeTree {
     public String @NonNull [] getFullAttributePathArray(int quark) {
         fLock.readLock().lock();
         try {
-            return fAttributeList.get(quark).getFullAttribute();
+            int depth = 0;
+            for (int node = toNode(quark); node != ROOT_NODE; node = fParents[node]) {
+                depth++;
+            }
+            @NonNull String[] path = new @NonNull String[depth];
+            for (int node = toNode(quark); node != ROOT_NODE; node = fParents[node]) {
+                path[--depth] = getName(fNameIds[node]);
+            }
+            return path;
         } finally {
             fLock.readLock().unlock();
         }
@@ -438,10 +714,25 @@ public final class AttributeTree {
     public void debugPrint(PrintWriter writer) {
         fLock.readLock().lock();
         try {
-            fAttributeTreeRoot.debugPrint(writer);
+            /* Only used for debugging, shouldn't be externalized */
+            writer.println("------------------------------"); //$NON-NLS-1$
+            writer.println("Attribute tree: (quark)\n"); //$NON-NLS-1$
+            writer.println("root (" + ROOT_ATTRIBUTE + ')'); //$NON-NLS-1$
+            debugPrint(writer, ROOT_NODE, 1);
+            writer.print('\n');
         } finally {
             fLock.readLock().unlock();
         }
     }
 
+    private void debugPrint(PrintWriter writer, int node, int depth) {
+        for (int child = fFirstChild[node]; child != NO_NODE; child = fNextSibling[child]) {
+            for (int j = 0; j < depth; j++) {
+                writer.print("  "); //$NON-NLS-1$
+            }
+            writer.println(getName(fNameIds[child]) + " (" + (child - 1) + ')'); //$NON-NLS-1$
+            debugPrint(writer, child, depth + 1);
+        }
+    }
+
 }
@@ -36,6 +36,7 @@ import org.eclipse.tracecompass.common.core.log.TraceCompassLogUtils;
 import org.eclipse.tracecompass.common.core.log.TraceCompassLogUtils.ScopeLog;
 import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.IntegerRangeCondition;
 import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.TimeRangeCondition;
+import org.eclipse.tracecompass.statesystem.core.ICloseableIterable;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
 import org.eclipse.tracecompass.statesystem.core.backend.IStateHistoryBackend;
 import org.eclipse.tracecompass.statesystem.core.exceptions.AttributeNotFoundException;
@@ -635,6 +636,20 @@ public class StateSystem implements ITmfStateSystemBuilder {
         return query2D(quarks, timeCondition, false);
     }
 
+    @Override
+    public Iterable<@NonNull ITmfStateInterval> query2D(Collection<@NonNull Integer> quarks, long[] times)
+            throws StateSystemDisposedException, TimeRangeException, IndexOutOfBoundsException {
+        if (isDisposed) {
+            throw new StateSystemDisposedException();
+        }
+        if (times.length == 0) {
+            return Collections.emptyList();
+        }
+
+        TimeRangeCondition timeCondition = TimeRangeCondition.forSortedDiscreteRange(times);
+        return query2D(quarks, timeCondition, false);
+    }
+
     @Override
     public Iterable<@NonNull ITmfStateInterval> query2D(Collection<@NonNull Integer> quarks, long start, long end)
             throws StateSystemDisposedException, TimeRangeException, IndexOutOfBoundsException {
@@ -647,25 +662,91 @@ public class StateSystem implements ITmfStateSystemBuilder {
         return query2D(quarks, timeCondition, reverse);
     }
 
+    @Override
+    public ICloseableIterable<@NonNull ITmfStateInterval> query2DParallel(Collection<@NonNull Integer> quarks, Collection<@NonNull Long> times)
+            throws StateSystemDisposedException, TimeRangeException, IndexOutOfBoundsException {
+        if (isDisposed) {
+            throw new StateSystemDisposedException();
+        }
+        if (times.isEmpty()) {
+            return ICloseableIterable.of(Collections.emptyList());
+        }
+
+        TimeRangeCondition timeCondition = TimeRangeCondition.forDiscreteRange(times);
+        return query2DParallel(quarks, timeCondition);
+    }
+
+    @Override
+    public ICloseableIterable<@NonNull ITmfStateInterval> query2DParallel(Collection<@NonNull Integer> quarks, long[] times)
+            throws StateSystemDisposedException, TimeRangeException, IndexOutOfBoundsException {
+        if (isDisposed) {
+            throw new StateSystemDisposedException();
+        }
+        if (times.length == 0) {
+            return ICloseableIterable.of(Collections.emptyList());
+        }
+
+        TimeRangeCondition timeCondition = TimeRangeCondition.forSortedDiscreteRange(times);
+        return query2DParallel(quarks, timeCondition);
+    }
+
+    @Override
+    public ICloseableIterable<@NonNull ITmfStateInterval> query2DParallel(Collection<@NonNull Integer> quarks, long start, long end)
+            throws StateSystemDisposedException, TimeRangeException, IndexOutOfBoundsException {
+        if (isDisposed) {
+            throw new StateSystemDisposedException();
+        }
+
+        TimeRangeCondition timeCondition = TimeRangeCondition.forContinuousRange(Math.min(start, end), Math.max(start, end));
+        return query2DParallel(quarks, timeCondition);
+    }
+
     private Iterable<@NonNull ITmfStateInterval> query2D(@NonNull Collection<@NonNull Integer> quarks, TimeRangeCondition timeCondition, boolean reverse)
             throws TimeRangeException, IndexOutOfBoundsException {
+        IntegerRangeCondition quarkCondition = getQuarkCondition(quarks, timeCondition);
+        if (quarkCondition == null) {
+            return Collections.emptyList();
+        }
+
+        Iterable<@NonNull ITmfStateInterval> transStateIterable = transState.query2D(quarks, timeCondition);
+        Iterable<@NonNull ITmfStateInterval> backendIterable = backend.query2D(quarkCondition, timeCondition, reverse);
+
+        return Iterables.concat(transStateIterable, backendIterable);
+    }
+
+    private ICloseableIterable<@NonNull ITmfStateInterval> query2DParallel(@NonNull Collection<@NonNull Integer> quarks, TimeRangeCondition timeCondition)
+            throws TimeRangeException, IndexOutOfBoundsException {
+        IntegerRangeCondition quarkCondition = getQuarkCondition(quarks, timeCondition);
+        if (quarkCondition == null) {
+            return ICloseableIterable.of(Collections.emptyList());
+        }
+
+        Iterable<@NonNull ITmfStateInterval> transStateIterable = transState.query2D(quarks, timeCondition);
+        ICloseableIterable<@NonNull ITmfStateInterval> backendIterable = backend.query2DParallel(quarkCondition, timeCondition);
+
+        return ICloseableIterable.of(Iterables.concat(transStateIterable, backendIterable), backendIterable::close);
+    }
+
+    /**
+     * Check the conditions of a 2D query and get the condition on its quarks
+     *
+     * @return The quark condition, or null if there are no quarks to query
+     */
+    private @Nullable IntegerRangeCondition getQuarkCondition(@NonNull Collection<@NonNull Integer> quarks, TimeRangeCondition timeCondition)
+            throws TimeRangeException, IndexOutOfBoundsException {
         if (timeCondition.min() < getStartTime()) {
             throw new TimeRangeException("Time conditions " + timeCondition.min() + " is lower than state system start time: " + getStartTime());  //$NON-NLS-1$ //$NON-NLS-2$
         }
 
         if (quarks.isEmpty()) {
-            return Collections.emptyList();
+            return null;
         }
 
         IntegerRangeCondition quarkCondition = IntegerRangeCondition.forDiscreteRange(quarks);
         if (quarkCondition.min() < 0 || quarkCondition.max() >= getNbAttributes()) {
             throw new IndexOutOfBoundsException();
         }
-
-        Iterable<@NonNull ITmfStateInterval> transStateIterable = transState.query2D(quarks, timeCondition);
-        Iterable<@NonNull ITmfStateInterval> backendIterable = backend.query2D(quarkCondition, timeCondition, reverse);
-
-        return Iterables.concat(transStateIterable, backendIterable);
+        return quarkCondition;
     }
 
     @Override
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2016 Ericsson
+ * Copyright (c) 2012, 2026 Ericsson
  * Copyright (c) 2010, 2011 École Polytechnique de Montréal
  * Copyright (c) 2010, 2011 Alexandre Montplaisir <alexandre.montplaisir@gmail.com>
  *
@@ -19,11 +19,12 @@ package org.eclipse.tracecompass.internal.statesystem.core;
 
 import java.io.PrintWriter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -48,6 +49,14 @@ import org.eclipse.tracecompass.statesystem.core.interval.TmfStateInterval;
  * of the interval will be the recorded time we have here, and the "end time"
  * will be the timestamp of the new state-changing event we just read.
  *
+ * The ongoing state of each attribute is an immutable {@link OngoingState}
+ * slot, which the builder replaces on every state change. The modifications
+ * are serialized, but the queries read the slots without taking any lock, so
+ * that they never block the thread building the state system. An interval is
+ * always inserted in the back-end before the slot replacing it is published,
+ * so a query which does not find its time in the transient state will find it
+ * in the back-end.
+ *
  * @author Alexandre Montplaisir
  */
 @NonNullByDefault
@@ -55,18 +64,53 @@ public class TransientState {
 
     private static final Logger LOGGER = TraceCompassLog.getLogger(TransientState.class);
 
+    private static final int INITIAL_CAPACITY = 64;
+
     /* Indicates where to insert state changes that we generate */
     private final IStateHistoryBackend fBackend;
 
-    private final ReentrantReadWriteLock fRWLock = new ReentrantReadWriteLock(false);
+    /* Serializes the modifications, the queries do not use it */
+    private final Object fWriteLock = new Object();
 
     private volatile boolean fIsActive;
     private volatile long fLatestTime;
 
-    /* A method accessing these arrays will have to go through the lock */
-    private List<@Nullable Object> fOngoingStateInfo;
-    private List<Long> fOngoingStateStartTimes;
-    private List<@Nullable Class<?>> fStateValueTypes;
+    /* The slots of the attributes, replaced when an attribute is added */
+    private volatile Slots fSlots;
+
+    /**
+     * The state of an attribute since a given time, replaced as a whole when
+     * either changes
+     */
+    private static final class OngoingState {
+        private final long fStartTime;
+        private final @Nullable Object fValue;
+
+        public OngoingState(long startTime, @Nullable Object value) {
+            fStartTime = startTime;
+            fValue = value;
+        }
+    }
+
+    /**
+     * The slots of the attributes with their number, published together so
+     * that the readers always see a number of attributes matching the array.
+     * The holder is replaced when the attributes change, the ongoing states
+     * in the array are replaced in place.
+     */
+    private static final class Slots {
+        /* The ongoing state of each attribute, null past the number of attributes */
+        private final AtomicReferenceArray<@Nullable OngoingState> fStates;
+        /* The type of the values of each attribute, only accessed with the write lock */
+        private final @Nullable Class<?>[] fTypes;
+        private final int fSize;
+
+        public Slots(AtomicReferenceArray<@Nullable OngoingState> states, @Nullable Class<?>[] types, int size) {
+            fStates = states;
+            fTypes = types;
+            fSize = size;
+        }
+    }
 
     /**
      * Constructor
@@ -77,9 +121,7 @@ public class TransientState {
     public TransientState(IStateHistoryBackend backend) {
         fBackend = backend;
         fIsActive = true;
-        fOngoingStateInfo = new ArrayList<>();
-        fOngoingStateStartTimes = new ArrayList<>();
-        fStateValueTypes = new ArrayList<>();
+        fSlots = new Slots(new AtomicReferenceArray<>(INITIAL_CAPACITY), new @Nullable Class<?>[INITIAL_CAPACITY], 0);
 
         fLatestTime = backend.getStartTime();
     }
@@ -93,6 +135,30 @@ public class TransientState {
         return fLatestTime;
     }
 
+    /**
+     * Get the ongoing state of an attribute, without locking.
+     *
+     * @throws IndexOutOfBoundsException
+     *             If the quark is out of range
+     */
+    private OngoingState getOngoingState(int quark) {
+        OngoingState state = fSlots.fStates.get(quark);
+        if (state == null) {
+            throw new IndexOutOfBoundsException("Quark " + quark + " is out of range"); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        return state;
+    }
+
+    /**
+     * Publish the new ongoing state of an attribute. Must be called with the
+     * write lock. The release semantics of lazySet make everything written
+     * before, including the interval inserted in the back-end, visible to the
+     * readers who see the new slot.
+     */
+    private void setOngoingState(int quark, OngoingState state) {
+        fSlots.fStates.lazySet(quark, state);
+    }
+
     /**
      * Retrieve the ongoing state value for a given index (attribute quark).
      *
@@ -103,12 +169,7 @@ public class TransientState {
      *             If the quark is out of range
      */
     public @Nullable Object getOngoingStateValue(int quark) {
-        fRWLock.readLock().lock();
-        try {
-            return fOngoingStateInfo.get(quark);
-        } finally {
-            fRWLock.readLock().unlock();
-        }
+        return getOngoingState(quark).fValue;
     }
 
     /**
@@ -117,12 +178,12 @@ public class TransientState {
      * @return The list of state values
      */
     public List<@Nullable Object> getOngoingStateValues() {
-        fRWLock.readLock().lock();
-        try {
-            return new ArrayList<>(fOngoingStateInfo);
-        } finally {
-            fRWLock.readLock().unlock();
+        Slots slots = fSlots;
+        List<@Nullable Object> values = new ArrayList<>(slots.fSize);
+        for (int i = 0; i < slots.fSize; i++) {
+            values.add(Objects.requireNonNull(slots.fStates.get(i)).fValue);
         }
+        return values;
     }
 
     /**
@@ -135,12 +196,7 @@ public class TransientState {
      *             If the quark is out of range
      */
     public long getOngoingStartTime(int quark) {
-        fRWLock.readLock().lock();
-        try {
-            return fOngoingStateStartTimes.get(quark);
-        } finally {
-            fRWLock.readLock().unlock();
-        }
+        return getOngoingState(quark).fStartTime;
     }
 
     /**
@@ -155,11 +211,8 @@ public class TransientState {
      *             If the quark is out of range
      */
     public void changeOngoingStateValue(int quark, @Nullable Object newValue) {
-        fRWLock.writeLock().lock();
-        try {
-            fOngoingStateInfo.set(quark, newValue);
-        } finally {
-            fRWLock.writeLock().unlock();
+        synchronized (fWriteLock) {
+            setOngoingState(quark, new OngoingState(getOngoingState(quark).fStartTime, newValue));
         }
     }
 
@@ -175,13 +228,8 @@ public class TransientState {
      *             If the quark is out of range
      */
     public ITmfStateInterval getOngoingInterval(int quark) {
-        fRWLock.readLock().lock();
-        try {
-            return new TmfStateInterval(fOngoingStateStartTimes.get(quark), fLatestTime,
-                    quark, fOngoingStateInfo.get(quark));
-        } finally {
-            fRWLock.readLock().unlock();
-        }
+        OngoingState state = getOngoingState(quark);
+        return new TmfStateInterval(state.fStartTime, fLatestTime, quark, state.fValue);
     }
 
     /**
@@ -199,16 +247,23 @@ public class TransientState {
      *             If the quark is out of range
      */
     public @Nullable ITmfStateInterval getIntervalAt(long time, int quark) {
-        fRWLock.readLock().lock();
-        try {
-            if (!isActive() || time < fOngoingStateStartTimes.get(quark)) {
-                return null;
-            }
-            return new TmfStateInterval(fOngoingStateStartTimes.get(quark),
-                    fLatestTime, quark, fOngoingStateInfo.get(quark));
-        } finally {
-            fRWLock.readLock().unlock();
+        /* Read the slots before the flag, which is cleared before them */
+        AtomicReferenceArray<@Nullable OngoingState> states = fSlots.fStates;
+        if (!isActive()) {
+            return null;
         }
+        return getIntervalAt(states, time, quark);
+    }
+
+    private @Nullable ITmfStateInterval getIntervalAt(AtomicReferenceArray<@Nullable OngoingState> states, long time, int quark) {
+        OngoingState state = states.get(quark);
+        if (state == null) {
+            throw new IndexOutOfBoundsException("Quark " + quark + " is out of range"); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        if (time < state.fStartTime) {
+            return null;
+        }
+        return new TmfStateInterval(state.fStartTime, fLatestTime, quark, state.fValue);
     }
 
     /**
@@ -224,22 +279,19 @@ public class TransientState {
      */
     public void replaceOngoingState(List<ITmfStateInterval> newStateIntervals) {
         final int size = newStateIntervals.size();
+        final int capacity = Math.max(INITIAL_CAPACITY, size);
 
-        fRWLock.writeLock().lock();
-        try {
-            fOngoingStateInfo = new ArrayList<>(size);
-            fOngoingStateStartTimes = new ArrayList<>(size);
-            fStateValueTypes = new ArrayList<>(size);
+        synchronized (fWriteLock) {
+            AtomicReferenceArray<@Nullable OngoingState> states = new AtomicReferenceArray<>(capacity);
+            @Nullable Class<?>[] types = new @Nullable Class<?>[capacity];
 
-            for (ITmfStateInterval interval : newStateIntervals) {
+            for (int i = 0; i < size; i++) {
+                ITmfStateInterval interval = newStateIntervals.get(i);
                 Object value = interval.getValue();
-                fOngoingStateInfo.add(value);
-                fOngoingStateStartTimes.add(interval.getStartTime());
-                Class<?> objectClass = value != null ? value.getClass() : null;
-                fStateValueTypes.add(objectClass);
+                states.set(i, new OngoingState(interval.getStartTime(), value));
+                types[i] = value != null ? value.getClass() : null;
             }
-        } finally {
-            fRWLock.writeLock().unlock();
+            fSlots = new Slots(states, types, size);
         }
     }
 
@@ -249,20 +301,29 @@ public class TransientState {
      * attribute tree, namely when we add sub-path attributes.
      */
     public void addEmptyEntry() {
-        fRWLock.writeLock().lock();
-        try {
+        synchronized (fWriteLock) {
+            Slots slots = fSlots;
+            int quark = slots.fSize;
+            AtomicReferenceArray<@Nullable OngoingState> states = slots.fStates;
+            @Nullable Class<?>[] types = slots.fTypes;
+            if (quark == states.length()) {
+                /* Grow the arrays, the copies are published with the new size */
+                AtomicReferenceArray<@Nullable OngoingState> newStates = new AtomicReferenceArray<>(quark * 2);
+                for (int i = 0; i < quark; i++) {
+                    newStates.lazySet(i, states.get(i));
+                }
+                states = newStates;
+                types = Arrays.copyOf(types, quark * 2);
+            }
             /*
              * Since this is a new attribute, we suppose it was in the
              * "null state" since the beginning (so we can have intervals
              * covering for all timestamps). A null interval will then get added
              * at the first state change.
              */
-            fOngoingStateInfo.add(null);
-            fStateValueTypes.add(null);
-
-            fOngoingStateStartTimes.add(fBackend.getStartTime());
-        } finally {
-            fRWLock.writeLock().unlock();
+            types[quark] = null;
+            states.lazySet(quark, new OngoingState(fBackend.getStartTime(), null));
+            fSlots = new Slots(states, types, quark + 1);
         }
     }
 
@@ -289,9 +350,10 @@ public class TransientState {
             return;
         }
 
-        fRWLock.writeLock().lock();
-        try {
-            Class<?> expectedSvType = fStateValueTypes.get(quark);
+        synchronized (fWriteLock) {
+            OngoingState ongoing = getOngoingState(quark);
+            @Nullable Class<?>[] types = fSlots.fTypes;
+            Class<?> expectedSvType = types[quark];
 
             /*
              * Make sure the state value type we're inserting is the same as the
@@ -302,7 +364,7 @@ public class TransientState {
                  * The value hasn't been used yet, set it to the value we're
                  * currently inserting (which might be null/-1 again).
                  */
-                fStateValueTypes.set(quark, value != null ? value.getClass() : null);
+                types[quark] = value != null ? value.getClass() : null;
             } else if ((value != null) && (value.getClass() != expectedSvType)) {
                 /*
                  * We authorize inserting null values in any type of attribute,
@@ -312,7 +374,7 @@ public class TransientState {
                 throw new StateValueTypeException(fBackend.getSSID() + " Quark:" + quark + ", Type:" + value.getClass() + ", Expected:" + expectedSvType); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
             }
 
-            if (Objects.equals(fOngoingStateInfo.get(quark),value)) {
+            if (Objects.equals(ongoing.fValue, value)) {
                 /*
                  * This is the case where the new value and the one already
                  * present in the Builder are the same. We do not need to create
@@ -321,27 +383,29 @@ public class TransientState {
                 return;
             }
 
-            if (fOngoingStateStartTimes.get(quark) < eventTime) {
+            long startTime = ongoing.fStartTime;
+            if (startTime < eventTime) {
                 /*
                  * These two conditions are necessary to create an interval and
                  * update ongoingStateInfo.
                  */
-                fBackend.insertPastState(fOngoingStateStartTimes.get(quark),
+                fBackend.insertPastState(startTime,
                         eventTime - 1, /* End Time */
                         quark, /* attribute quark */
-                        fOngoingStateInfo.get(quark)); /* StateValue */
+                        ongoing.fValue); /* StateValue */
 
-                fOngoingStateStartTimes.set(quark, eventTime);
+                startTime = eventTime;
             }
-            fOngoingStateInfo.set(quark, value);
 
-            /* Update the Transient State's lastestTime, if needed */
+            /*
+             * Update the Transient State's lastestTime, if needed, before
+             * publishing the new state, so that readers never see an ongoing
+             * interval ending before it starts.
+             */
             if (fLatestTime < eventTime) {
                 fLatestTime = eventTime;
             }
-
-        } finally {
-            fRWLock.writeLock().unlock();
+            setOngoingState(quark, new OngoingState(startTime, value));
         }
     }
 
@@ -355,28 +419,25 @@ public class TransientState {
      *            The requested timestamp
      */
     public void doQuery(List<@Nullable ITmfStateInterval> stateInfo, long t) {
-        fRWLock.readLock().lock();
-        try {
-            if (!this.fIsActive) {
-                return;
-            }
-            if (stateInfo.size() > fOngoingStateInfo.size()) {
-                throw new IllegalArgumentException();
-            }
+        Slots slots = fSlots;
+        if (!this.fIsActive) {
+            return;
+        }
+        if (stateInfo.size() > slots.fSize) {
+            throw new IllegalArgumentException();
+        }
+        AtomicReferenceArray<@Nullable OngoingState> states = slots.fStates;
 
-            for (int i = 0; i < stateInfo.size(); i++) {
-                /*
-                 * We build a dummy interval whose end time =
-                 * "current transient state end time" to put in the answer to
-                 * the query.
-                 */
-                final ITmfStateInterval interval = getIntervalAt(t, i);
-                if (interval != null) {
-                    stateInfo.set(i, interval);
-                }
+        for (int i = 0; i < stateInfo.size(); i++) {
+            /*
+             * We build a dummy interval whose end time =
+             * "current transient state end time" to put in the answer to the
+             * query.
+             */
+            final ITmfStateInterval interval = getIntervalAt(states, t, i);
+            if (interval != null) {
+                stateInfo.set(i, interval);
             }
-        } finally {
-            fRWLock.readLock().unlock();
         }
     }
 
@@ -392,25 +453,23 @@ public class TransientState {
      * @since 2.1
      */
     public Iterable<ITmfStateInterval> query2D(Collection<Integer> quarks, TimeRangeCondition timeCondition) {
-        fRWLock.readLock().lock();
         try (TraceCompassLogUtils.ScopeLog log = new TraceCompassLogUtils.ScopeLog(LOGGER, Level.FINEST, "TransientState:query2D", //$NON-NLS-1$
                 "ssid", fBackend.getSSID(), //$NON-NLS-1$
                 "quarks", quarks, //$NON-NLS-1$
                 "time", timeCondition)) { //$NON-NLS-1$
+            AtomicReferenceArray<@Nullable OngoingState> states = fSlots.fStates;
             if (!fIsActive) {
                 return Collections.emptyList();
             }
             long end = timeCondition.max();
             Collection<ITmfStateInterval> iterable = new ArrayList<>();
             for (Integer quark : quarks) {
-                ITmfStateInterval interval = getIntervalAt(end, quark);
+                ITmfStateInterval interval = getIntervalAt(states, end, quark);
                 if (interval != null) {
                     iterable.add(interval);
                 }
             }
             return iterable;
-        } finally {
-            fRWLock.readLock().unlock();
         }
     }
 
@@ -429,10 +488,11 @@ public class TransientState {
             return;
         }
 
-        fRWLock.writeLock().lock();
-        try {
-            for (int i = 0; i < fOngoingStateInfo.size(); i++) {
-                if (fOngoingStateStartTimes.get(i) > endTime) {
+        synchronized (fWriteLock) {
+            Slots slots = fSlots;
+            for (int i = 0; i < slots.fSize; i++) {
+                OngoingState state = Objects.requireNonNull(slots.fStates.get(i));
+                if (state.fStartTime > endTime) {
                     /*
                      * Handle the cases where trace end > timestamp of last
                      * state change. This can happen when inserting "future"
@@ -441,10 +501,10 @@ public class TransientState {
                     continue;
                 }
                 try {
-                    fBackend.insertPastState(fOngoingStateStartTimes.get(i),
+                    fBackend.insertPastState(state.fStartTime,
                             endTime, /* End Time */
                             i, /* attribute quark */
-                            fOngoingStateInfo.get(i)); /* StateValue */
+                            state.fValue); /* StateValue */
 
                 } catch (TimeRangeException e) {
                     /*
@@ -455,12 +515,12 @@ public class TransientState {
                 }
             }
 
-            fOngoingStateInfo.clear();
-            fOngoingStateStartTimes.clear();
+            /*
+             * Deactivate before dropping the slots, readers which still see
+             * the old slots answer from them, the others go to the back-end.
+             */
             this.fIsActive = false;
-
-        } finally {
-            fRWLock.writeLock().unlock();
+            fSlots = new Slots(new AtomicReferenceArray<>(0), new @Nullable Class<?>[0], 0);
         }
     }
 
@@ -496,10 +556,12 @@ public class TransientState {
             return;
         }
         writer.println("\nAttribute\tStateValue\tValid since time"); //$NON-NLS-1$
-        for (int i = 0; i < fOngoingStateInfo.size(); i++) {
+        Slots slots = fSlots;
+        for (int i = 0; i < slots.fSize; i++) {
+            OngoingState state = Objects.requireNonNull(slots.fStates.get(i));
             writer.format("%d\t\t", i); //$NON-NLS-1$
-            writer.print(String.valueOf(fOngoingStateInfo.get(i)) + "\t\t"); //$NON-NLS-1$
-            writer.println(fOngoingStateStartTimes.get(i).toString());
+            writer.print(String.valueOf(state.fValue) + "\t\t"); //$NON-NLS-1$
+            writer.println(state.fStartTime);
         }
         writer.println('\n');
         return;
@@ -0,0 +1,238 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.statesystem.core.backend;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.IntegerRangeCondition;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.TimeRangeCondition;
+import org.eclipse.tracecompass.internal.statesystem.core.Activator;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HTInterval;
+import org.eclipse.tracecompass.statesystem.core.backend.IStateHistoryBackend;
+import org.eclipse.tracecompass.statesystem.core.exceptions.TimeRangeException;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+
+/**
+ * A write-only state history back-end which appends the intervals it receives
+ * to a file, in the order they are inserted. The intervals can then be read
+ * back in that same order with {@link #replay(Consumer)}, for example to copy
+ * them into another state system. Like the {@link NullBackend}, no past
+ * queries can be done on it.
+ */
+public class SpoolBackend implements IStateHistoryBackend {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int RECORD_HEADER_SIZE = Integer.BYTES;
+
+    private final @NonNull String fSsid;
+    private final File fFile;
+    private final long fStartTime;
+    private final FileChannel fChannel;
+    private final ByteBuffer fBuffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+    private volatile long fEndTime;
+
+    /**
+     * Constructor
+     *
+     * @param ssid
+     *            The state system's id
+     * @param file
+     *            The file where to write the intervals. It will be
+     *            overwritten if it exists.
+     * @param startTime
+     *            The start time of the state system and backend
+     * @throws IOException
+     *             If the file cannot be created
+     */
+    public SpoolBackend(@NonNull String ssid, File file, long startTime) throws IOException {
+        fSsid = ssid;
+        fFile = file;
+        fStartTime = startTime;
+        fEndTime = startTime;
+        fChannel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.READ, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    @Override
+    public String getSSID() {
+        return fSsid;
+    }
+
+    @Override
+    public long getStartTime() {
+        return fStartTime;
+    }
+
+    @Override
+    public long getEndTime() {
+        return fEndTime;
+    }
+
+    @Override
+    public synchronized void insertPastState(long stateStartTime, long stateEndTime,
+            int quark, Object value) {
+        HTInterval interval = new HTInterval(stateStartTime, stateEndTime, quark, value);
+        int size = interval.getSizeOnDisk(0);
+        try {
+            ByteBuffer buffer = fBuffer;
+            if (size + RECORD_HEADER_SIZE > buffer.remaining()) {
+                flush();
+                if (size + RECORD_HEADER_SIZE > buffer.capacity()) {
+                    buffer = ByteBuffer.allocate(size + RECORD_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                }
+            }
+            buffer.putInt(size);
+            interval.writeInterval(buffer, 0);
+            if (buffer != fBuffer) {
+                buffer.flip();
+                writeFully(buffer);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot write to spool file " + fFile, e); //$NON-NLS-1$
+        }
+        fEndTime = Math.max(fEndTime, stateEndTime);
+    }
+
+    private void flush() throws IOException {
+        fBuffer.flip();
+        writeFully(fBuffer);
+        fBuffer.clear();
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            fChannel.write(buffer);
+        }
+    }
+
+    @Override
+    public synchronized void finishedBuilding(long endTime) {
+        fEndTime = Math.max(fEndTime, endTime);
+        try {
+            flush();
+        } catch (IOException e) {
+            Activator.getDefault().logError("Cannot flush spool file " + fFile, e); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Read back all the intervals inserted in this backend, in the order in
+     * which they were inserted. This should only be called once the backend
+     * has finished building.
+     *
+     * @param consumer
+     *            The consumer to receive each interval
+     * @throws IOException
+     *             If the spool file cannot be read
+     */
+    public synchronized void replay(Consumer<ITmfStateInterval> consumer) throws IOException {
+        long size = fChannel.size();
+        long pos = 0;
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.flip();
+        while (buffer.hasRemaining() || pos < size) {
+            int needed = RECORD_HEADER_SIZE;
+            if (buffer.remaining() >= RECORD_HEADER_SIZE) {
+                needed += buffer.getInt(buffer.position());
+            }
+            if (buffer.remaining() < needed) {
+                /* Refill the buffer, growing it for the odd large record */
+                if (buffer.capacity() < needed) {
+                    buffer = ByteBuffer.allocate(needed).order(ByteOrder.LITTLE_ENDIAN).put(buffer);
+                } else {
+                    buffer.compact();
+                }
+                while (buffer.hasRemaining() && pos < size) {
+                    pos += fChannel.read(buffer, pos);
+                }
+                buffer.flip();
+                if (buffer.remaining() < needed) {
+                    throw new IOException("Truncated spool file " + fFile); //$NON-NLS-1$
+                }
+                continue;
+            }
+            int next = buffer.position() + needed;
+            buffer.position(buffer.position() + RECORD_HEADER_SIZE);
+            consumer.accept(HTInterval.readFrom(buffer, 0));
+            buffer.position(next);
+        }
+    }
+
+    @Override
+    public FileInputStream supplyAttributeTreeReader() {
+        return null;
+    }
+
+    @Override
+    public File supplyAttributeTreeWriterFile() {
+        return null;
+    }
+
+    @Override
+    public long supplyAttributeTreeWriterFilePosition() {
+        return -1;
+    }
+
+    @Override
+    public void removeFiles() {
+        dispose();
+        if (!fFile.delete()) {
+            Activator.getDefault().logWarning("Cannot delete spool file " + fFile); //$NON-NLS-1$
+        }
+    }
+
+    @Override
+    public void dispose() {
+        try {
+            fChannel.close();
+        } catch (IOException e) {
+            Activator.getDefault().logError("Cannot close spool file " + fFile, e); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Spool back-ends cannot run queries. Nothing will be put in
+     * currentStateInfo.
+     */
+    @Override
+    public void doQuery(List<ITmfStateInterval> currentStateInfo, long t) {
+        /* Cannot do past queries */
+    }
+
+    /**
+     * Spool back-ends cannot run queries. 'null' will be returned.
+     *
+     * @return Always returns null.
+     */
+    @Override
+    public ITmfStateInterval doSingularQuery(long t, int attributeQuark) {
+        /* Cannot do past queries */
+        return null;
+    }
+
+    @Override
+    public Iterable<@NonNull ITmfStateInterval> query2D(IntegerRangeCondition quarks,
+            TimeRangeCondition times) throws TimeRangeException {
+        return Collections.emptyList();
+    }
+}
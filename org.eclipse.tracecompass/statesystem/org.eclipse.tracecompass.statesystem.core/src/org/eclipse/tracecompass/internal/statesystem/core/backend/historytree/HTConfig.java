@@ -16,6 +16,8 @@ package org.eclipse.tracecompass.internal.statesystem.core.backend.historytree;
 
 import java.io.File;
 
+import org.eclipse.jdt.annotation.Nullable;
+
 /**
  * Configuration object for the {@link IHistoryTree}.
  *
@@ -23,6 +25,51 @@ import java.io.File;
  */
 public final class HTConfig {
 
+    /**
+     * The codecs to compress the nodes in the history file. The id of the
+     * codec is saved in the header of the file.
+     */
+    public enum NodeCodec {
+        /** The nodes are saved as is, in blocks of the same size */
+        NONE(0),
+        /**
+         * The nodes are compressed with the deflate algorithm of the JDK, and
+         * saved one after the other, with an index of their positions
+         */
+        DEFLATE(1);
+
+        private final int fId;
+
+        private NodeCodec(int id) {
+            fId = id;
+        }
+
+        /**
+         * Get the id of this codec, saved in the history file
+         *
+         * @return The id of the codec
+         */
+        public int getId() {
+            return fId;
+        }
+
+        /**
+         * Get the codec of an id saved in a history file
+         *
+         * @param id
+         *            The id of the codec
+         * @return The codec, or null if the id is unknown
+         */
+        public static @Nullable NodeCodec fromId(int id) {
+            for (NodeCodec codec : values()) {
+                if (codec.fId == id) {
+                    return codec;
+                }
+            }
+            return null;
+        }
+    }
+
     private static final int DEFAULT_BLOCKSIZE = 64 * 1024;
     private static final int DEFAULT_MAXCHILDREN = 50;
 
@@ -31,6 +78,7 @@ public final class HTConfig {
     private final int maxChildren;
     private final int providerVersion;
     private final long treeStart;
+    private final NodeCodec codec;
 
     /**
      * Full constructor.
@@ -52,11 +100,37 @@ public final class HTConfig {
      */
     public HTConfig(File newStateFile, int blockSize, int maxChildren,
             int providerVersion, long startTime) {
+        this(newStateFile, blockSize, maxChildren, providerVersion, startTime, NodeCodec.NONE);
+    }
+
+    /**
+     * Full constructor, with the codec of the nodes.
+     *
+     * @param newStateFile
+     *            The name of the history file
+     * @param blockSize
+     *            The size of each "block" on disk. One node will always fit in
+     *            one block, before it is compressed.
+     * @param maxChildren
+     *            The maximum number of children allowed per core (non-leaf)
+     *            node.
+     * @param providerVersion
+     *            The version of the state provider. If a file already exists,
+     *            and their versions match, the history file will not be rebuilt
+     *            uselessly.
+     * @param startTime
+     *            The start time of the history
+     * @param codec
+     *            The codec to compress the nodes in the file
+     */
+    public HTConfig(File newStateFile, int blockSize, int maxChildren,
+            int providerVersion, long startTime, NodeCodec codec) {
         this.stateFile = newStateFile;
         this.blockSize = blockSize;
         this.maxChildren = maxChildren;
         this.providerVersion = providerVersion;
         this.treeStart = startTime;
+        this.codec = codec;
     }
 
     /**
@@ -124,4 +198,13 @@ public final class HTConfig {
     public long getTreeStart() {
         return treeStart;
     }
+
+    /**
+     * Get the codec to compress the nodes in the history file
+     *
+     * @return The codec of the nodes
+     */
+    public NodeCodec getCodec() {
+        return codec;
+    }
 }
@@ -243,6 +243,57 @@ public final class HTInterval implements ITmfStateInterval {
         }
     }
 
+    /**
+     * Skip an interval in a ByteBuffer, without decoding its value. It is used
+     * to find the intervals of a node that is decoded on demand.
+     *
+     * @param buffer
+     *            The ByteBuffer, positioned at the start of the interval. It is
+     *            positioned after the interval when this method returns.
+     * @param nodeStart
+     *            The start time of the node this interval is linked to
+     * @return The end time of the interval
+     * @throws IOException
+     *             If the interval is not valid
+     */
+    public static final long skip(ByteBuffer buffer, long nodeStart) throws IOException {
+        long intervalStart = HTVarInt.readLong(buffer) + nodeStart;
+        long intervalEnd = HTVarInt.readLong(buffer) + intervalStart;
+        /* Attribute */
+        buffer.position(buffer.position() + Integer.BYTES);
+
+        int valueSize;
+        byte valueType = buffer.get();
+        switch (valueType) {
+        case TYPE_NULL:
+            valueSize = 0;
+            break;
+        case TYPE_INTEGER:
+            valueSize = Integer.BYTES;
+            break;
+        case TYPE_STRING:
+            /* The size, the string and the 0'ed byte at the end */
+            valueSize = buffer.getShort() + 1;
+            break;
+        case TYPE_LONG:
+            valueSize = Long.BYTES;
+            break;
+        case TYPE_DOUBLE:
+            valueSize = Double.BYTES;
+            break;
+        case TYPE_CUSTOM:
+            valueSize = buffer.getShort();
+            break;
+        default:
+            throw new IOException(errMsg);
+        }
+        if (valueSize < 0 || valueSize > buffer.remaining() || intervalStart > intervalEnd) {
+            throw new IOException(errMsg);
+        }
+        buffer.position(buffer.position() + valueSize);
+        return intervalEnd;
+    }
+
     /**
      * Antagonist of the previous constructor, write the Data entry
      * corresponding to this interval in a ByteBuffer (mapped to a block in the
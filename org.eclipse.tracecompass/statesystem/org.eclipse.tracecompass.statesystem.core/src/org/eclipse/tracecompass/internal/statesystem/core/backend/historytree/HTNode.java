@@ -22,16 +22,22 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.channels.FileChannel;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.common.core.log.TraceCompassLog;
 import org.eclipse.tracecompass.common.core.log.TraceCompassLogUtils;
+import org.eclipse.tracecompass.datastore.core.encoding.HTVarInt;
 import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.IntegerRangeCondition;
 import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.TimeRangeCondition;
 import org.eclipse.tracecompass.statesystem.core.exceptions.TimeRangeException;
@@ -116,6 +122,12 @@ public abstract class HTNode {
             + 3 * Integer.BYTES
             + 2 * Integer.BYTES;
 
+    private static final int[] EMPTY_OFFSETS = new int[0];
+    private static final long[] EMPTY_END_TIMES = new long[0];
+
+    /* Room for the headers of the deflate stream, if the node does not compress */
+    private static final int COMPRESSION_MARGIN = 64;
+
     // ------------------------------------------------------------------------
     // Attributes
     // ------------------------------------------------------------------------
@@ -142,6 +154,18 @@ public abstract class HTNode {
     /* Vector containing all the intervals contained in this node */
     private final List<HTInterval> fIntervals;
 
+    /*
+     * Block of this node in the mapped history file, when the intervals are
+     * decoded on demand instead of being read in fIntervals
+     */
+    private @Nullable ByteBuffer fMappedBlock = null;
+
+    /* Position in the block of each interval, in the node order */
+    private int[] fOffsets = EMPTY_OFFSETS;
+
+    /* End time of each interval, in the node order */
+    private long[] fEndTimes = EMPTY_END_TIMES;
+
     /* Lock used to protect the accesses to intervals, nodeEnd and such */
     private final ReentrantReadWriteLock fRwl = new ReentrantReadWriteLock(false);
 
@@ -182,26 +206,55 @@ public abstract class HTNode {
      * @param config
      *            Configuration of the History Tree
      * @param fc
-     *            FileChannel to the history file, ALREADY SEEKED at the start
-     *            of the node.
+     *            FileChannel to the history file. Its position is not used nor
+     *            changed, so several threads can read nodes at the same time.
+     * @param position
+     *            The position of the node in the file
      * @param nodeFactory
      *            The factory to create the nodes for this tree
      * @return The node object
      * @throws IOException
      *             If there was an error reading from the file channel
      */
-    public static final @NonNull HTNode readNode(HTConfig config, FileChannel fc, IHistoryTree.IHTNodeFactory nodeFactory)
+    public static final @NonNull HTNode readNode(HTConfig config, FileChannel fc, long position, IHistoryTree.IHTNodeFactory nodeFactory)
             throws IOException {
-        HTNode newNode = null;
-
         ByteBuffer buffer = ByteBuffer.allocate(config.getBlockSize());
         buffer.order(ByteOrder.LITTLE_ENDIAN);
         buffer.clear();
-        int res = fc.read(buffer);
-        if (res != config.getBlockSize()) {
-            throw new IOException("Expected " + config.getBlockSize() + " block size, but got " + res);  //$NON-NLS-1$//$NON-NLS-2$
-        }
+        readFully(fc, buffer, position);
         buffer.flip();
+        return readNode(config, buffer, nodeFactory, false);
+    }
+
+    /**
+     * Reader factory method for a block of a history file mapped in memory.
+     * Only the position and the end time of the intervals are read, the
+     * intervals are decoded from the block by the queries that need them.
+     *
+     * @param config
+     *            Configuration of the History Tree
+     * @param block
+     *            The block of the node in the mapped history file. It must
+     *            not be modified while the node is used.
+     * @param nodeFactory
+     *            The factory to create the nodes for this tree
+     * @return The node object
+     * @throws IOException
+     *             If the block does not contain a valid node
+     */
+    public static final @NonNull HTNode readMappedNode(HTConfig config, ByteBuffer block, IHistoryTree.IHTNodeFactory nodeFactory)
+            throws IOException {
+        if (block.remaining() != config.getBlockSize()) {
+            throw new IOException("Expected " + config.getBlockSize() + " block size, but got " + block.remaining());  //$NON-NLS-1$//$NON-NLS-2$
+        }
+        ByteBuffer buffer = block.duplicate();
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return readNode(config, buffer, nodeFactory, true);
+    }
+
+    private static @NonNull HTNode readNode(HTConfig config, ByteBuffer buffer, IHistoryTree.IHTNodeFactory nodeFactory, boolean mapped)
+            throws IOException {
+        HTNode newNode = null;
 
         /* Read the common header part */
         byte typeByte = buffer.get();
@@ -237,10 +290,27 @@ public abstract class HTNode {
          * At this point, we should be done reading the header and 'buffer'
          * should only have the intervals left
          */
-        for (int i = 0; i < intervalCount; i++) {
-            HTInterval interval = HTInterval.readFrom(buffer, start);
-            newNode.fIntervals.add(interval);
-            newNode.fSizeOfIntervalSection += interval.getSizeOnDisk();
+        if (mapped) {
+            if (intervalCount < 0) {
+                throw new IOException("Invalid interval count " + intervalCount); //$NON-NLS-1$
+            }
+            int[] offsets = new int[intervalCount];
+            long[] endTimes = new long[intervalCount];
+            int dataStart = buffer.position();
+            for (int i = 0; i < intervalCount; i++) {
+                offsets[i] = buffer.position();
+                endTimes[i] = HTInterval.skip(buffer, start);
+            }
+            newNode.fSizeOfIntervalSection = buffer.position() - dataStart;
+            newNode.fMappedBlock = buffer;
+            newNode.fOffsets = offsets;
+            newNode.fEndTimes = endTimes;
+        } else {
+            for (int i = 0; i < intervalCount; i++) {
+                HTInterval interval = HTInterval.readFrom(buffer, start);
+                newNode.fIntervals.add(interval);
+                newNode.fSizeOfIntervalSection += interval.getSizeOnDisk();
+            }
         }
 
         /* Assign the node's other information we have read previously */
@@ -252,6 +322,60 @@ public abstract class HTNode {
         return newNode;
     }
 
+    /**
+     * Reader factory method for a node compressed in the history file.
+     *
+     * @param config
+     *            Configuration of the History Tree
+     * @param fc
+     *            FileChannel to the history file. Its position is not used nor
+     *            changed, so several threads can read nodes at the same time.
+     * @param position
+     *            The position of the compressed node in the file
+     * @param length
+     *            The length of the compressed node in the file
+     * @param nodeFactory
+     *            The factory to create the nodes for this tree
+     * @return The node object
+     * @throws IOException
+     *             If there was an error reading from the file channel, or if
+     *             the data is not a valid compressed node
+     */
+    public static final @NonNull HTNode readCompressedNode(HTConfig config, FileChannel fc, long position, int length, IHistoryTree.IHTNodeFactory nodeFactory)
+            throws IOException {
+        ByteBuffer compressed = ByteBuffer.allocate(length);
+        readFully(fc, compressed, position);
+        byte[] block = new byte[config.getBlockSize()];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed.array());
+            inflater.inflate(block);
+            if (!inflater.finished()) {
+                throw new IOException("Compressed node larger than the block size " + config.getBlockSize()); //$NON-NLS-1$
+            }
+        } catch (DataFormatException e) {
+            throw new IOException(e);
+        } finally {
+            inflater.end();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(block);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return readNode(config, buffer, nodeFactory, false);
+    }
+
+    /**
+     * Fill a buffer from a file channel at a given position, with positional
+     * reads that do not change the position of the channel
+     */
+    private static void readFully(FileChannel fc, ByteBuffer buffer, long position) throws IOException {
+        int size = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            if (fc.read(buffer, position + size - buffer.remaining()) < 0) {
+                throw new IOException("Expected " + size + " bytes, but got " + (size - buffer.remaining())); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+        }
+    }
+
     /**
      * Write this node to the given file channel.
      *
@@ -262,6 +386,72 @@ public abstract class HTNode {
      *             If there was an error writing
      */
     public final void writeSelf(FileChannel fc) throws IOException {
+        final int blockSize = fConfig.getBlockSize();
+
+        ByteBuffer buffer = ByteBuffer.allocate(blockSize);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.clear();
+        writeBlock(buffer);
+
+        /* Finally, write everything in the Buffer to disk */
+        buffer.position(0);
+        buffer.limit(blockSize);
+        int res = fc.write(buffer);
+        if (res != blockSize) {
+            throw new IllegalStateException("Wrong size of block written: Actual: " + res + ", Expected: " + blockSize); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        fIsOnDisk = true;
+    }
+
+    /**
+     * Write this node, compressed, to the given file channel. Only the used
+     * part of the block is compressed, the rest is filled with zeros when the
+     * node is read.
+     *
+     * @param fc
+     *            The file channel to write to (should be sought to be correct
+     *            position)
+     * @return The length of the compressed node written
+     * @throws IOException
+     *             If there was an error writing
+     */
+    public final int writeCompressed(FileChannel fc) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(fConfig.getBlockSize());
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.clear();
+        writeBlock(buffer);
+        int used = buffer.position();
+
+        /* The intervals are already delta and varint encoded */
+        byte[] compressed = new byte[used + COMPRESSION_MARGIN];
+        int length = 0;
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(buffer.array(), 0, used);
+            deflater.finish();
+            while (!deflater.finished()) {
+                if (length == compressed.length) {
+                    compressed = Arrays.copyOf(compressed, compressed.length * 2);
+                }
+                length += deflater.deflate(compressed, length, compressed.length - length);
+            }
+        } finally {
+            deflater.end();
+        }
+
+        ByteBuffer out = ByteBuffer.wrap(compressed, 0, length);
+        while (out.hasRemaining()) {
+            fc.write(out);
+        }
+        fIsOnDisk = true;
+        return length;
+    }
+
+    /**
+     * Write the block of this node in a buffer. The used part of the block
+     * is written, the buffer is positioned at its end.
+     */
+    private void writeBlock(ByteBuffer buffer) {
         /*
          * Yes, we are taking the *read* lock here, because we are reading the
          * information in the node to write it to disk.
@@ -270,10 +460,6 @@ public abstract class HTNode {
         try {
             final int blockSize = fConfig.getBlockSize();
 
-            ByteBuffer buffer = ByteBuffer.allocate(blockSize);
-            buffer.order(ByteOrder.LITTLE_ENDIAN);
-            buffer.clear();
-
             /* Write the common header part */
             buffer.put(getNodeType().toByte());
             buffer.putLong(fNodeStart);
@@ -282,36 +468,23 @@ public abstract class HTNode {
             buffer.putInt(fMaxQuark);
             buffer.putInt(fSequenceNumber);
             buffer.putInt(fParentSequenceNumber);
-            buffer.putInt(fIntervals.size());
+            List<HTInterval> intervals = getIntervals();
+            buffer.putInt(intervals.size());
 
             /* Now call the inner method to write the specific header part */
             writeSpecificHeader(buffer);
 
             /* Back to us, we write the intervals */
-            for (HTInterval interval : fIntervals) {
+            for (HTInterval interval : intervals) {
                 interval.writeInterval(buffer, fNodeStart);
             }
             if (blockSize - buffer.position() != getNodeFreeSpace()) {
                 throw new IllegalStateException("Wrong free space: Actual: " + (blockSize - buffer.position()) + ", Expected: " + getNodeFreeSpace()); //$NON-NLS-1$ //$NON-NLS-2$
             }
-            /*
-             * Fill the rest with zeros
-             */
-            while (buffer.position() < blockSize) {
-                buffer.put((byte) 0);
-            }
-
-            /* Finally, write everything in the Buffer to disk */
-            buffer.flip();
-            int res = fc.write(buffer);
-            if (res != blockSize) {
-                throw new IllegalStateException("Wrong size of block written: Actual: " + res + ", Expected: " + blockSize); //$NON-NLS-1$ //$NON-NLS-2$
-            }
-
+            /* The rest of the block is already filled with zeros */
         } finally {
             fRwl.readLock().unlock();
         }
-        fIsOnDisk = true;
     }
 
     // ------------------------------------------------------------------------
@@ -474,6 +647,21 @@ public abstract class HTNode {
         /* This is from a state system query, we are "reading" this node */
         fRwl.readLock().lock();
         try {
+            ByteBuffer block = fMappedBlock;
+            if (block != null) {
+                /* Only decode the intervals that intersect t */
+                ByteBuffer buffer = getView(block);
+                for (int i = getStartIndexFor(t); i < fOffsets.length; i++) {
+                    buffer.position(fOffsets[i]);
+                    long start = HTVarInt.readLong(buffer) + fNodeStart;
+                    HTVarInt.readLong(buffer);
+                    int attribute = buffer.getInt();
+                    if (t >= start && attribute < stateInfo.size()) {
+                        stateInfo.set(attribute, decodeInterval(buffer, i));
+                    }
+                }
+                return;
+            }
             for (int i = getStartIndexFor(t); i < fIntervals.size(); i++) {
                 /*
                  * Now we only have to compare the Start times, since we now the
@@ -512,6 +700,20 @@ public abstract class HTNode {
         try (TraceCompassLogUtils.ScopeLog log = new TraceCompassLogUtils.ScopeLog(LOGGER, Level.FINEST, "HTNode:singleQuery", //$NON-NLS-1$
                 "time", t, //$NON-NLS-1$
                 "attribute", key)) { //$NON-NLS-1$
+            ByteBuffer block = fMappedBlock;
+            if (block != null) {
+                /* Only decode the interval that is found */
+                ByteBuffer buffer = getView(block);
+                for (int i = getStartIndexFor(t); i < fOffsets.length; i++) {
+                    buffer.position(fOffsets[i]);
+                    long start = HTVarInt.readLong(buffer) + fNodeStart;
+                    HTVarInt.readLong(buffer);
+                    if (buffer.getInt() == key && start <= t) {
+                        return decodeInterval(buffer, i);
+                    }
+                }
+                return null;
+            }
             for (int i = getStartIndexFor(t); i < fIntervals.size(); i++) {
                 HTInterval curInterval = fIntervals.get(i);
                 if (curInterval.getAttribute() == key
@@ -544,6 +746,20 @@ public abstract class HTNode {
                 "quarks", quarks, //$NON-NLS-1$
                 "times", times)) { //$NON-NLS-1$
             List<HTInterval> intervals = new ArrayList<>();
+            ByteBuffer block = fMappedBlock;
+            if (block != null) {
+                /* Only decode the intervals that match the conditions */
+                ByteBuffer buffer = getView(block);
+                for (int i = getStartIndexFor(times.min()); i < fOffsets.length; i++) {
+                    buffer.position(fOffsets[i]);
+                    long start = HTVarInt.readLong(buffer) + fNodeStart;
+                    HTVarInt.readLong(buffer);
+                    if (quarks.test(buffer.getInt()) && times.intersects(start, fEndTimes[i])) {
+                        intervals.add(decodeInterval(buffer, i));
+                    }
+                }
+                return intervals;
+            }
             for (HTInterval interval : fIntervals.subList(getStartIndexFor(times.min()), fIntervals.size())) {
                 if (quarks.test(interval.getAttribute())
                         && times.intersects(interval.getStartTime(), interval.getEndTime())) {
@@ -559,6 +775,21 @@ public abstract class HTNode {
     private int getStartIndexFor(long t) throws TimeRangeException {
         /* Should only be called by methods with the readLock taken */
 
+        if (fMappedBlock != null) {
+            /* Find the first interval that ends at or after 't' */
+            int low = 0;
+            int high = fEndTimes.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (fEndTimes[mid] < t) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
         if (fIntervals.isEmpty()) {
             return 0;
         }
@@ -576,6 +807,42 @@ public abstract class HTNode {
         return (index >= 0 ? index : -index - 1);
     }
 
+    /**
+     * Get a view of the mapped block, with its own position
+     */
+    private static ByteBuffer getView(ByteBuffer block) {
+        ByteBuffer buffer = block.duplicate();
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    private HTInterval decodeInterval(ByteBuffer buffer, int index) {
+        buffer.position(fOffsets[index]);
+        try {
+            return HTInterval.readFrom(buffer, fNodeStart);
+        } catch (IOException e) {
+            /* The intervals were checked when the node was read */
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Get all the intervals of this node, they are decoded if this node is
+     * mapped. Should only be called by methods with the readLock taken.
+     */
+    private List<HTInterval> getIntervals() {
+        ByteBuffer block = fMappedBlock;
+        if (block == null) {
+            return fIntervals;
+        }
+        ByteBuffer buffer = getView(block);
+        List<HTInterval> intervals = new ArrayList<>(fOffsets.length);
+        for (int i = 0; i < fOffsets.length; i++) {
+            intervals.add(decodeInterval(buffer, i));
+        }
+        return intervals;
+    }
+
     /**
      * Return the total header size of this node (will depend on the node type).
      *
@@ -668,7 +935,7 @@ public abstract class HTNode {
                 fSequenceNumber,
                 (fParentSequenceNumber == -1) ? "Root" : "Parent #" + fParentSequenceNumber,
                 toStringSpecific(),
-                fIntervals.size(),
+                (fMappedBlock != null) ? fOffsets.length : fIntervals.size(),
                 getNodeUsagePercent(),
                 fNodeStart,
                 (fIsOnDisk || fNodeEnd != 0) ? fNodeEnd : "...");
@@ -701,8 +968,13 @@ public abstract class HTNode {
 
         /* List of intervals in the node */
         writer.println("  Intervals contained:");
-        for (int i = 0; i < fIntervals.size(); i++) {
-            writer.println(fIntervals.get(i).toString());
+        fRwl.readLock().lock();
+        try {
+            for (HTInterval interval : getIntervals()) {
+                writer.println(interval.toString());
+            }
+        } finally {
+            fRwl.readLock().unlock();
         }
         writer.println('\n');
     }
@@ -0,0 +1,379 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.statesystem.core.backend.historytree;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.google.common.cache.CacheStats;
+
+/**
+ * Cache of the nodes read from the files of all the history trees, in a
+ * global budget of bytes. Each node weighs the block size of its tree. When
+ * the budget is exceeded, the least recently used node of any tree is
+ * evicted.
+ * <p>
+ * Each tree also has a quota in the budget. When a tree exceeds its quota, its
+ * own least recently used node is evicted instead, so a tree that reads many
+ * nodes, like a large analysis being queried, cannot take the whole budget
+ * from the trees of the other views.
+ * </p>
+ * <p>
+ * The nodes of each tree are guarded by the lock of their tree, so the
+ * queries of different trees do not contend. Only the weight of all the nodes
+ * is shared. When it exceeds the budget, the tree whose least recently used
+ * node is the oldest is found by looking at each tree in turn, without
+ * holding two locks at once.
+ * </p>
+ */
+final class HTNodeCache {
+
+    /**
+     * System property to set the global budget in bytes of the node cache
+     */
+    static final String BUDGET_PROPERTY = "org.eclipse.tracecompass.statesystem.core.htCacheSize"; //$NON-NLS-1$
+
+    /**
+     * System property to set the default quota in bytes of each history tree
+     * in the budget
+     */
+    static final String QUOTA_PROPERTY = "org.eclipse.tracecompass.statesystem.core.htCacheQuota"; //$NON-NLS-1$
+
+    /* 64 MiB, 1024 nodes of the default 64 KiB block size */
+    private static final long DEFAULT_BUDGET = 64L * 1024 * 1024;
+
+    /* 16 MiB, 256 nodes of the default 64 KiB block size */
+    private static final long DEFAULT_QUOTA = 16L * 1024 * 1024;
+
+    /** The cache of the nodes of all the history trees */
+    static final HTNodeCache INSTANCE = new HTNodeCache();
+
+    /* The trees that are not closed */
+    private final Set<TreeCache> fTrees = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong fWeight = new AtomicLong();
+    private volatile long fBudget = Long.getLong(BUDGET_PROPERTY, DEFAULT_BUDGET);
+    private volatile long fDefaultQuota = Long.getLong(QUOTA_PROPERTY, DEFAULT_QUOTA);
+
+    private HTNodeCache() {
+        /* Use the instance */
+    }
+
+    /**
+     * Create the cache of a history tree, which holds its nodes in this cache
+     *
+     * @param blockSize
+     *            The block size of the tree, the weight of each of its nodes
+     * @return The cache of the tree
+     */
+    TreeCache createTreeCache(int blockSize) {
+        TreeCache tree = new TreeCache(blockSize, fDefaultQuota);
+        fTrees.add(tree);
+        return tree;
+    }
+
+    /**
+     * Set the global budget of the cache. The least recently used nodes are
+     * evicted if the cache is now larger.
+     *
+     * @param budget
+     *            The budget in bytes
+     */
+    void setBudget(long budget) {
+        fBudget = budget;
+        evictOverBudget();
+    }
+
+    /**
+     * Get the global budget of the cache
+     *
+     * @return The budget in bytes
+     */
+    long getBudget() {
+        return fBudget;
+    }
+
+    /**
+     * Set the default quota of the trees created afterwards
+     *
+     * @param quota
+     *            The quota in bytes
+     */
+    void setDefaultQuota(long quota) {
+        fDefaultQuota = quota;
+    }
+
+    /**
+     * Get the weight of all the cached nodes
+     *
+     * @return The weight in bytes
+     */
+    long getWeight() {
+        return fWeight.get();
+    }
+
+    /**
+     * Evict the least recently used nodes of all the trees until the weight is
+     * in the budget. The trees are looked at one at a time, so their nodes may
+     * be used or evicted by other threads meanwhile, then the oldest node is
+     * looked for again.
+     */
+    private void evictOverBudget() {
+        while (fWeight.get() > fBudget) {
+            TreeCache oldestTree = null;
+            long oldest = Long.MAX_VALUE;
+            for (TreeCache tree : fTrees) {
+                long lastUse = tree.getEldestUse();
+                if (lastUse < oldest) {
+                    oldest = lastUse;
+                    oldestTree = tree;
+                }
+            }
+            if (oldestTree == null) {
+                return;
+            }
+            oldestTree.evictEldest();
+        }
+    }
+
+    /**
+     * The nodes of a history tree in the cache, with their statistics
+     */
+    final class TreeCache {
+
+        private final int fBlockSize;
+
+        /*
+         * The cached nodes by sequence number, from the least to the most
+         * recently used, guarded by this tree
+         */
+        private final Map<Integer, CachedNode> fNodes = new LinkedHashMap<>(16, 0.75f, true);
+
+        private long fQuota;
+        private long fTreeWeight = 0;
+        private boolean fClosed = false;
+
+        private long fHitCount = 0;
+        private long fMissCount = 0;
+        private long fLoadSuccessCount = 0;
+        private long fLoadExceptionCount = 0;
+        private long fTotalLoadTime = 0;
+        private long fEvictionCount = 0;
+
+        private TreeCache(int blockSize, long quota) {
+            fBlockSize = blockSize;
+            fQuota = quota;
+        }
+
+        /* The quota holds at least one node */
+        private long getQuota() {
+            return Math.max(fQuota, fBlockSize);
+        }
+
+        /**
+         * Get a node of the tree, counting a hit or a miss
+         *
+         * @param seqNumber
+         *            The sequence number of the node
+         * @return The node, or null if it is not cached and must be loaded
+         */
+        synchronized @Nullable HTNode get(int seqNumber) {
+            CachedNode cached = fNodes.get(seqNumber);
+            if (cached == null) {
+                fMissCount++;
+                return null;
+            }
+            fHitCount++;
+            cached.fLastUse = System.nanoTime();
+            return cached.fNode;
+        }
+
+        /**
+         * Get a node of the tree if it is cached, without counting a hit or a
+         * miss
+         *
+         * @param seqNumber
+         *            The sequence number of the node
+         * @return The node, or null if it is not cached
+         */
+        synchronized @Nullable HTNode getIfPresent(int seqNumber) {
+            CachedNode cached = fNodes.get(seqNumber);
+            if (cached == null) {
+                return null;
+            }
+            cached.fLastUse = System.nanoTime();
+            return cached.fNode;
+        }
+
+        /**
+         * Add a node loaded after a miss. If the node was loaded at the same
+         * time by another thread, the node already cached is kept.
+         *
+         * @param seqNumber
+         *            The sequence number of the node
+         * @param node
+         *            The node loaded
+         * @param loadTime
+         *            The time taken to load the node, in nanoseconds
+         * @return The cached node
+         */
+        HTNode loaded(int seqNumber, HTNode node, long loadTime) {
+            synchronized (this) {
+                fLoadSuccessCount++;
+                fTotalLoadTime += loadTime;
+                CachedNode cached = fNodes.get(seqNumber);
+                if (cached != null) {
+                    return cached.fNode;
+                }
+                if (fClosed) {
+                    return node;
+                }
+                add(seqNumber, node);
+            }
+            evictOverBudget();
+            return node;
+        }
+
+        /**
+         * Count a node which could not be loaded
+         *
+         * @param loadTime
+         *            The time spent trying to load the node, in nanoseconds
+         */
+        synchronized void loadFailed(long loadTime) {
+            fLoadExceptionCount++;
+            fTotalLoadTime += loadTime;
+        }
+
+        /**
+         * Add or replace a node written to the file
+         *
+         * @param seqNumber
+         *            The sequence number of the node
+         * @param node
+         *            The node
+         */
+        void put(int seqNumber, HTNode node) {
+            synchronized (this) {
+                CachedNode cached = fNodes.get(seqNumber);
+                if (cached != null) {
+                    cached.fNode = node;
+                    cached.fLastUse = System.nanoTime();
+                    return;
+                }
+                if (fClosed) {
+                    return;
+                }
+                add(seqNumber, node);
+            }
+            evictOverBudget();
+        }
+
+        private void add(int seqNumber, HTNode node) {
+            fNodes.put(seqNumber, new CachedNode(node));
+            fTreeWeight += fBlockSize;
+            fWeight.addAndGet(fBlockSize);
+            evictOverQuota();
+        }
+
+        private void evictOverQuota() {
+            Iterator<CachedNode> iterator = fNodes.values().iterator();
+            while (fTreeWeight > getQuota() && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+                evicted();
+            }
+        }
+
+        private void evicted() {
+            fTreeWeight -= fBlockSize;
+            fWeight.addAndGet(-fBlockSize);
+            fEvictionCount++;
+        }
+
+        /**
+         * Get the last use of the least recently used node of this tree
+         *
+         * @return The time of the last use, from {@link System#nanoTime()}, or
+         *         {@link Long#MAX_VALUE} if the tree has no node
+         */
+        private synchronized long getEldestUse() {
+            Iterator<CachedNode> iterator = fNodes.values().iterator();
+            return iterator.hasNext() ? iterator.next().fLastUse : Long.MAX_VALUE;
+        }
+
+        /**
+         * Evict the least recently used node of this tree, if it has any
+         */
+        private synchronized void evictEldest() {
+            Iterator<CachedNode> iterator = fNodes.values().iterator();
+            if (iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+                evicted();
+            }
+        }
+
+        /**
+         * Set the quota of the tree in the global budget. Its least recently
+         * used nodes are evicted if it now exceeds its quota.
+         *
+         * @param quota
+         *            The quota in bytes
+         */
+        synchronized void setQuota(long quota) {
+            fQuota = quota;
+            evictOverQuota();
+        }
+
+        /**
+         * Remove all the nodes of the tree when its file is closed, and do not
+         * cache its nodes anymore. They do not count as evictions.
+         */
+        synchronized void close() {
+            fClosed = true;
+            fTrees.remove(this);
+            fNodes.clear();
+            fWeight.addAndGet(-fTreeWeight);
+            fTreeWeight = 0;
+        }
+
+        /**
+         * Get the statistics of the nodes of this tree
+         *
+         * @return The statistics
+         */
+        synchronized CacheStats stats() {
+            return new CacheStats(fHitCount, fMissCount, fLoadSuccessCount, fLoadExceptionCount, fTotalLoadTime, fEvictionCount);
+        }
+    }
+
+    /**
+     * A cached node and the time of its last use, from
+     * {@link System#nanoTime()}, to compare the least recently used nodes of
+     * the trees
+     */
+    private static final class CachedNode {
+        private HTNode fNode;
+        private long fLastUse = System.nanoTime();
+
+        public CachedNode(HTNode node) {
+            fNode = node;
+        }
+    }
+}
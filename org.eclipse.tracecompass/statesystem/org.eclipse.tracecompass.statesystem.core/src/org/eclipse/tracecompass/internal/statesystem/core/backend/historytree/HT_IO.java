@@ -18,26 +18,29 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.nio.file.Files;
+import java.util.Arrays;
 import java.util.Deque;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.ExecutionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.eclipse.jdt.annotation.NonNull;
-import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.common.core.log.TraceCompassLog;
 import org.eclipse.tracecompass.common.core.log.TraceCompassLogUtils;
 import org.eclipse.tracecompass.internal.statesystem.core.Activator;
 import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.IHistoryTree.IHTNodeFactory;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import com.google.common.cache.CacheStats;
 
 /**
  * This class abstracts inputs/outputs of the HistoryTree nodes.
@@ -55,61 +58,32 @@ public class HT_IO {
     private static final @NonNull Logger LOGGER = TraceCompassLog.getLogger(HT_IO.class);
 
     // ------------------------------------------------------------------------
-    // Global cache of nodes
+    // Cache of nodes
     // ------------------------------------------------------------------------
 
-    private static final class CacheKey {
-
-        public final HT_IO fStateHistory;
-        public final int fSeqNumber;
-
-        public CacheKey(HT_IO stateHistory,  int seqNumber) {
-            fStateHistory = stateHistory;
-            fSeqNumber = seqNumber;
-        }
-
-        @Override
-        public int hashCode() {
-            return Objects.hash(fStateHistory.fConfig.getStateFile().getAbsolutePath(), fSeqNumber);
-        }
-
-        @Override
-        public boolean equals(@Nullable Object obj) {
-            if (this == obj) {
-                return true;
-            }
-            if (obj == null) {
-                return false;
-            }
-            if (getClass() != obj.getClass()) {
-                return false;
-            }
-            CacheKey other = (CacheKey) obj;
-            return (fStateHistory.equals(other.fStateHistory) &&
-                    fSeqNumber == other.fSeqNumber);
-        }
-    }
-
-    private static final int CACHE_SIZE = 200;
-
-    private static final CacheLoader<CacheKey, HTNode> NODE_LOADER = new CacheLoader<CacheKey, HTNode>() {
-        @Override
-        public HTNode load(CacheKey key) throws IOException {
-            HT_IO io = key.fStateHistory;
-            int seqNb = key.fSeqNumber;
+    /**
+     * System property to set the global budget in bytes of the node cache,
+     * shared by all the history trees
+     */
+    public static final String CACHE_SIZE_PROPERTY = HTNodeCache.BUDGET_PROPERTY;
 
-            TraceCompassLogUtils.traceInstant(LOGGER, Level.FINEST, "Ht_Io:CacheMiss", "seqNum", seqNb); //$NON-NLS-1$ //$NON-NLS-2$
+    /**
+     * System property to set the default quota in bytes of each history tree
+     * in the node cache
+     */
+    public static final String CACHE_QUOTA_PROPERTY = HTNodeCache.QUOTA_PROPERTY;
 
-            synchronized (io) {
-                io.seekFCToNodePos(io.fFileChannelIn, seqNb);
-                return HTNode.readNode(io.fConfig, io.fFileChannelIn, key.fStateHistory.fNodeFactory);
-            }
-        }
-    };
+    /*
+     * The files cannot be deleted while they are mapped on Windows, so they are
+     * always read through the file channel.
+     */
+    private static final boolean IS_WIN32 = System.getProperty("os.name").startsWith("Windows"); //$NON-NLS-1$//$NON-NLS-2$
 
-    private static final LoadingCache<CacheKey, HTNode> NODE_CACHE = CacheBuilder.newBuilder()
-            .maximumSize(CACHE_SIZE).build(NODE_LOADER);
+    /* Position and length of a compressed node in the index of the file */
+    private static final int NODE_INDEX_ENTRY_SIZE = Long.BYTES + Integer.BYTES;
 
+    /* The nodes of this tree in the global cache */
+    private final HTNodeCache.TreeCache fNodeCache;
 
     // ------------------------------------------------------------------------
     // Instance fields
@@ -126,6 +100,20 @@ public class HT_IO {
 
     private final IHTNodeFactory fNodeFactory;
 
+    /* Fields related to the reading of the nodes from a mapped file */
+    private final boolean fMapped;
+    private final int fNodesPerMapping;
+    private final Map<Integer, MappedByteBuffer> fMappings = new HashMap<>();
+
+    /*
+     * Fields related to the compressed nodes, which are written one after the
+     * other as they are closed, followed by the index of their positions
+     */
+    private final boolean fCompressed;
+    private long[] fNodePositions = new long[0];
+    private int[] fNodeLengths = new int[0];
+    private long fEndOfNodes = IHistoryTree.TREE_HEADER_SIZE;
+
     // ------------------------------------------------------------------------
     // Methods
     // ------------------------------------------------------------------------
@@ -146,7 +134,35 @@ public class HT_IO {
      *             An exception can be thrown when file cannot be accessed
      */
     public HT_IO(HTConfig config, boolean newFile, IHTNodeFactory nodeFactory) throws IOException {
+        this(config, newFile, nodeFactory, false);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param config
+     *            The configuration object for the StateHistoryTree
+     * @param newFile
+     *            Flag indicating that the file must be created from scratch
+     * @param nodeFactory
+     *            The factory to create new nodes for this tree
+     * @param mapped
+     *            Whether the file is mapped in memory to read the nodes. The
+     *            intervals of the nodes read are then decoded on demand from
+     *            the mapped file, instead of being copied and decoded when
+     *            the node is read.
+     *
+     * @throws IOException
+     *             An exception can be thrown when file cannot be accessed
+     */
+    public HT_IO(HTConfig config, boolean newFile, IHTNodeFactory nodeFactory, boolean mapped) throws IOException {
         fConfig = config;
+        fNodeCache = HTNodeCache.INSTANCE.createTreeCache(config.getBlockSize());
+        fCompressed = config.getCodec() != HTConfig.NodeCodec.NONE;
+        /* The compressed nodes are not mapped, they are decompressed to the heap */
+        fMapped = mapped && !IS_WIN32 && !fCompressed;
+        /* A mapping is at most 2 GiB, it contains a whole number of nodes */
+        fNodesPerMapping = Integer.MAX_VALUE / config.getBlockSize();
 
         File historyTreeFile = config.getStateFile();
         if (newFile) {
@@ -179,6 +195,93 @@ public class HT_IO {
         fNodeFactory = nodeFactory;
     }
 
+    /**
+     * Set the global budget in bytes of the node cache, shared by all the
+     * history trees. It is initialized with the value of the
+     * {@link #CACHE_SIZE_PROPERTY} system property.
+     *
+     * @param size
+     *            The size of the cache in bytes
+     */
+    public static void setCacheBudget(long size) {
+        HTNodeCache.INSTANCE.setBudget(size);
+    }
+
+    /**
+     * Get the global budget in bytes of the node cache
+     *
+     * @return The size of the cache in bytes
+     */
+    public static long getCacheBudget() {
+        return HTNodeCache.INSTANCE.getBudget();
+    }
+
+    /**
+     * Set the default quota in bytes of the history trees opened or created
+     * afterwards in the node cache. It is initialized with the value of the
+     * {@link #CACHE_QUOTA_PROPERTY} system property.
+     *
+     * @param quota
+     *            The quota in bytes
+     */
+    public static void setDefaultCacheQuota(long quota) {
+        HTNodeCache.INSTANCE.setDefaultQuota(quota);
+    }
+
+    /**
+     * Get the size in bytes of the nodes of all the history trees in the node
+     * cache
+     *
+     * @return The size of the cached nodes in bytes
+     */
+    public static long getCachedSize() {
+        return HTNodeCache.INSTANCE.getWeight();
+    }
+
+    /**
+     * Set the quota in bytes of this history tree in the node cache. When the
+     * nodes of this tree exceed the quota, its least recently used nodes are
+     * evicted before those of the other trees. The quota can be larger for
+     * the trees that are queried the most.
+     *
+     * @param quota
+     *            The quota in bytes
+     */
+    public void setCacheQuota(long quota) {
+        fNodeCache.setQuota(quota);
+    }
+
+    /**
+     * Get the statistics of the nodes of this history tree in the node cache
+     *
+     * @return The hit, miss and eviction counts of the nodes of this tree
+     */
+    public CacheStats getCacheStats() {
+        return fNodeCache.stats();
+    }
+
+    private HTNode loadNode(int seqNb) throws IOException {
+        TraceCompassLogUtils.traceInstant(LOGGER, Level.FINEST, "Ht_Io:CacheMiss", "seqNum", seqNb); //$NON-NLS-1$ //$NON-NLS-2$
+        CacheStats stats = fNodeCache.stats();
+        TraceCompassLogUtils.traceCounter(LOGGER, Level.FINE, "Ht_Io:" + fConfig.getStateFile().getName(), //$NON-NLS-1$
+                "hits", stats.hitCount(), "misses", stats.missCount(), "evictions", stats.evictionCount()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+        if (fMapped) {
+            return HTNode.readMappedNode(fConfig, getMappedBlock(seqNb), fNodeFactory);
+        }
+        /* Positional reads, the threads that load nodes do not wait for each other */
+        if (fCompressed) {
+            long position;
+            int length;
+            synchronized (this) {
+                position = getNodePosition(seqNb);
+                length = fNodeLengths[seqNb];
+            }
+            return HTNode.readCompressedNode(fConfig, fFileChannelIn, position, length, fNodeFactory);
+        }
+        return HTNode.readNode(fConfig, fFileChannelIn, getNodeBlockPosition(seqNb), fNodeFactory);
+    }
+
     /**
      * Read a node from the file on disk.
      *
@@ -193,22 +296,25 @@ public class HT_IO {
     public @NonNull HTNode readNode(int seqNumber) throws ClosedChannelException {
         /* Do a cache lookup. If it's not present it will be loaded from disk */
         TraceCompassLogUtils.traceInstant(LOGGER, Level.FINEST, "Ht_Io:CacheLookup", "seqNum", seqNumber); //$NON-NLS-1$ //$NON-NLS-2$
-        CacheKey key = new CacheKey(this, seqNumber);
+        HTNode node = fNodeCache.get(seqNumber);
+        if (node != null) {
+            return node;
+        }
+        long start = System.nanoTime();
         try {
-            return Objects.requireNonNull(NODE_CACHE.get(key));
-
-        } catch (ExecutionException e) {
-            /* Get the inner exception that was generated */
-            Throwable cause = e.getCause();
-            if (cause instanceof ClosedChannelException) {
-                throw (ClosedChannelException) cause;
-            }
+            node = loadNode(seqNumber);
+        } catch (ClosedChannelException e) {
+            fNodeCache.loadFailed(System.nanoTime() - start);
+            throw e;
+        } catch (IOException e) {
+            fNodeCache.loadFailed(System.nanoTime() - start);
             /*
              * Other types of IOExceptions shouldn't happen at this point though.
              */
             Activator.getDefault().logError(e.getMessage(), e);
             throw new IllegalStateException(e);
         }
+        return fNodeCache.loaded(seqNumber, node, System.nanoTime() - start);
     }
 
     /**
@@ -230,8 +336,7 @@ public class HT_IO {
         Iterator<Integer> iterator = queue.iterator();
         while (iterator.hasNext()) {
             Integer seqNumber = iterator.next();
-            CacheKey key = new CacheKey(this, seqNumber);
-            HTNode node = NODE_CACHE.getIfPresent(key);
+            HTNode node = fNodeCache.getIfPresent(seqNumber);
             if (node != null) {
                 iterator.remove();
                 return node;
@@ -241,6 +346,37 @@ public class HT_IO {
         return readNode(queue.pop());
     }
 
+    /**
+     * Get the block of a node in the mapped file. The file is mapped by
+     * regions of many nodes, the regions are mapped when they are first read.
+     *
+     * @param seqNumber
+     *            the sequence number of the node
+     * @return the block of the node
+     * @throws IOException
+     *             if the file cannot be mapped or is too small
+     */
+    private synchronized ByteBuffer getMappedBlock(int seqNumber) throws IOException {
+        int blockSize = fConfig.getBlockSize();
+        int region = seqNumber / fNodesPerMapping;
+        int offset = (seqNumber % fNodesPerMapping) * blockSize;
+        MappedByteBuffer mapping = fMappings.get(region);
+        if (mapping == null || mapping.capacity() < offset + blockSize) {
+            /* Not mapped yet, or the file was smaller when it was mapped */
+            long regionStart = IHistoryTree.TREE_HEADER_SIZE + (long) region * fNodesPerMapping * blockSize;
+            long regionSize = Math.min((long) fNodesPerMapping * blockSize, fFileChannelIn.size() - regionStart);
+            if (regionSize < offset + blockSize) {
+                throw new IOException("Node " + seqNumber + " is beyond the end of the file"); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+            mapping = fFileChannelIn.map(MapMode.READ_ONLY, regionStart, regionSize);
+            fMappings.put(region, mapping);
+        }
+        ByteBuffer block = mapping.duplicate();
+        block.position(offset);
+        block.limit(offset + blockSize);
+        return Objects.requireNonNull(block.slice());
+    }
+
     /**
      * Write the given node to disk.
      *
@@ -252,13 +388,19 @@ public class HT_IO {
             int seqNumber = node.getSequenceNumber();
 
             /* "Write-back" the node into the cache */
-            CacheKey key = new CacheKey(this, seqNumber);
-            NODE_CACHE.put(key, node);
+            fNodeCache.put(seqNumber, node);
 
             /* Position ourselves at the start of the node and write it */
             synchronized (this) {
-                seekFCToNodePos(fFileChannelOut, seqNumber);
-                node.writeSelf(fFileChannelOut);
+                if (fCompressed) {
+                    fFileChannelOut.position(fEndOfNodes);
+                    int length = node.writeCompressed(fFileChannelOut);
+                    setNodePosition(seqNumber, fEndOfNodes, length);
+                    fEndOfNodes += length;
+                } else {
+                    seekFCToNodePos(fFileChannelOut, seqNumber);
+                    node.writeSelf(fFileChannelOut);
+                }
             }
         } catch (IOException e) {
             /* If we were able to open the file, we should be fine now... */
@@ -266,6 +408,103 @@ public class HT_IO {
         }
     }
 
+    /**
+     * Write the index of the positions of the compressed nodes, after the
+     * nodes. Nothing is written if the nodes are not compressed.
+     *
+     * @param nodeCount
+     *            The number of nodes in the tree
+     * @return The position of the index in the file, to save in the header, or
+     *         0 if the nodes are not compressed
+     * @throws IOException
+     *             If there was an error writing
+     */
+    public synchronized long writeNodeIndex(int nodeCount) throws IOException {
+        if (!fCompressed) {
+            return 0;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(nodeCount * NODE_INDEX_ENTRY_SIZE);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < nodeCount; i++) {
+            buffer.putLong(getNodePosition(i));
+            buffer.putInt(fNodeLengths[i]);
+        }
+        buffer.flip();
+        fFileChannelOut.position(fEndOfNodes);
+        while (buffer.hasRemaining()) {
+            fFileChannelOut.write(buffer);
+        }
+        return fEndOfNodes;
+    }
+
+    /**
+     * Read the index of the positions of the compressed nodes of an existing
+     * file. It must be called before any node is read.
+     *
+     * @param position
+     *            The position of the index in the file, from the header
+     * @param nodeCount
+     *            The number of nodes in the tree
+     * @throws IOException
+     *             If the index cannot be read
+     */
+    public synchronized void readNodeIndex(long position, int nodeCount) throws IOException {
+        if (!fCompressed) {
+            return;
+        }
+        if (position < IHistoryTree.TREE_HEADER_SIZE || nodeCount < 0) {
+            throw new IOException("Invalid node index at " + position + " for " + nodeCount + " nodes"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(nodeCount * NODE_INDEX_ENTRY_SIZE);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (fFileChannelIn.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Truncated node index"); //$NON-NLS-1$
+            }
+        }
+        buffer.flip();
+        fNodePositions = new long[nodeCount];
+        fNodeLengths = new int[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            fNodePositions[i] = buffer.getLong();
+            fNodeLengths[i] = buffer.getInt();
+        }
+        fEndOfNodes = position;
+    }
+
+    /**
+     * Get the position in the file after all the nodes, where the attribute
+     * tree is written.
+     *
+     * @param nodeCount
+     *            The number of nodes in the tree
+     * @return The position after the nodes, and their index if they are
+     *         compressed
+     */
+    public synchronized long getEndOfNodes(int nodeCount) {
+        if (fCompressed) {
+            return fEndOfNodes + (long) nodeCount * NODE_INDEX_ENTRY_SIZE;
+        }
+        return IHistoryTree.TREE_HEADER_SIZE + (long) nodeCount * fConfig.getBlockSize();
+    }
+
+    private void setNodePosition(int seqNumber, long position, int length) {
+        if (seqNumber >= fNodePositions.length) {
+            int size = Math.max(seqNumber + 1, fNodePositions.length * 2);
+            fNodePositions = Arrays.copyOf(fNodePositions, size);
+            fNodeLengths = Arrays.copyOf(fNodeLengths, size);
+        }
+        fNodePositions[seqNumber] = position;
+        fNodeLengths[seqNumber] = length;
+    }
+
+    private long getNodePosition(int seqNumber) throws IOException {
+        if (seqNumber < 0 || seqNumber >= fNodePositions.length || fNodeLengths[seqNumber] <= 0) {
+            throw new IOException("Node " + seqNumber + " is not in the file"); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        return fNodePositions[seqNumber];
+    }
+
     /**
      * Get the output file channel, used for writing.
      *
@@ -289,7 +528,9 @@ public class HT_IO {
              * Position ourselves at the start of the Mapping section in the
              * file (which is right after the Blocks)
              */
-            seekFCToNodePos(fFileChannelIn, nodeOffset);
+            synchronized (this) {
+                fFileChannelIn.position(getEndOfNodes(nodeOffset));
+            }
         } catch (IOException e) {
             Activator.getDefault().logError(e.getMessage(), e);
         }
@@ -300,6 +541,8 @@ public class HT_IO {
      * Close all file channels and streams.
      */
     public synchronized void closeFile() {
+        fNodeCache.close();
+        fMappings.clear();
         try {
             fFileInputStream.close();
             fFileOutputStream.close();
@@ -334,8 +577,18 @@ public class HT_IO {
      */
     private void seekFCToNodePos(FileChannel fc, long seqNumber)
             throws IOException {
-        fc.position(IHistoryTree.TREE_HEADER_SIZE
-                + seqNumber * fConfig.getBlockSize());
+        fc.position(getNodeBlockPosition(seqNumber));
+    }
+
+    /**
+     * Get the position in the file of the block of an uncompressed node
+     *
+     * @param seqNumber
+     *            the node sequence number
+     * @return the position of the node in the file
+     */
+    private long getNodeBlockPosition(long seqNumber) {
+        return IHistoryTree.TREE_HEADER_SIZE + seqNumber * fConfig.getBlockSize();
     }
 
 }
@@ -35,12 +35,15 @@ import org.eclipse.tracecompass.common.core.log.TraceCompassLogUtils;
 import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.IntegerRangeCondition;
 import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.TimeRangeCondition;
 import org.eclipse.tracecompass.internal.statesystem.core.Activator;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HTConfig.NodeCodec;
+import org.eclipse.tracecompass.statesystem.core.ICloseableIterable;
 import org.eclipse.tracecompass.statesystem.core.backend.IStateHistoryBackend;
 import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
 import org.eclipse.tracecompass.statesystem.core.exceptions.TimeRangeException;
 import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.CacheStats;
 
 /**
  * History Tree backend for storing a state history. This is the basic version
@@ -110,9 +113,44 @@ public class HistoryTreeBackend implements IStateHistoryBackend {
             long startTime,
             int blockSize,
             int maxChildren) throws IOException {
+        this(ssid, newStateFile, providerVersion, startTime, blockSize, maxChildren, NodeCodec.NONE);
+    }
+
+    /**
+     * Constructor for new history files, with the codec to compress the nodes
+     * in the file.
+     *
+     * @param ssid
+     *            The state system's ID
+     * @param newStateFile
+     *            The filename/location where to store the state history (Should
+     *            end in .ht)
+     * @param providerVersion
+     *            Version of of the state provider. We will only try to reopen
+     *            existing files if this version matches the one in the
+     *            framework.
+     * @param startTime
+     *            The earliest time stamp that will be stored in the history
+     * @param blockSize
+     *            The size of the blocks in the history file, before they are
+     *            compressed. This should be a multiple of 4096.
+     * @param maxChildren
+     *            The maximum number of children each core node can have
+     * @param codec
+     *            The codec to compress the nodes in the file
+     * @throws IOException
+     *             Thrown if we can't create the file for some reason
+     */
+    public HistoryTreeBackend(@NonNull String ssid,
+            File newStateFile,
+            int providerVersion,
+            long startTime,
+            int blockSize,
+            int maxChildren,
+            NodeCodec codec) throws IOException {
         fSsid = ssid;
         final HTConfig conf = new HTConfig(newStateFile, blockSize, maxChildren,
-                providerVersion, startTime);
+                providerVersion, startTime, codec);
         fSht = initializeSHT(conf);
     }
 
@@ -162,6 +200,32 @@ public class HistoryTreeBackend implements IStateHistoryBackend {
         fFinishedBuilding = true;
     }
 
+    /**
+     * Existing history constructor. Use this to open an existing state-file,
+     * optionally mapped in memory.
+     *
+     * @param ssid
+     *            The state system's id
+     * @param existingStateFile
+     *            Filename/location of the history we want to load
+     * @param providerVersion
+     *            Expected version of of the state provider plugin.
+     * @param mapped
+     *            Whether the file is mapped in memory. The nodes are then read
+     *            without being copied, and the queries only decode the
+     *            intervals they return.
+     * @throws IOException
+     *             If we can't read the file, if it doesn't exist, is not
+     *             recognized, or if the version of the file does not match the
+     *             expected providerVersion.
+     */
+    public HistoryTreeBackend(@NonNull String ssid, @NonNull File existingStateFile, int providerVersion, boolean mapped)
+            throws IOException {
+        fSsid = ssid;
+        fSht = HistoryTreeFactory.createFromFile(existingStateFile.toPath(), providerVersion, mapped);
+        fFinishedBuilding = true;
+    }
+
     /**
      * New-tree initializer for the History Tree wrapped by this backend. Can be
      * overriden to use different implementations.
@@ -409,6 +473,11 @@ public class HistoryTreeBackend implements IStateHistoryBackend {
         }
     }
 
+    @Override
+    public ICloseableIterable<@NonNull ITmfStateInterval> query2DParallel(IntegerRangeCondition quarks, TimeRangeCondition times) {
+        return ParallelQuery2D.iterable(getSHT(), quarks, times);
+    }
+
     /**
      * Return the size of the tree history file
      *
@@ -418,6 +487,40 @@ public class HistoryTreeBackend implements IStateHistoryBackend {
         return getSHT().getFileSize();
     }
 
+    /**
+     * Set the quota in bytes of this backend in the cache of the nodes, which
+     * all the backends share. When the nodes of this backend exceed the quota,
+     * its least recently used nodes are evicted before those of the other
+     * backends, so the quota can be larger for the backends that are queried
+     * the most.
+     *
+     * @param quota
+     *            The quota in bytes
+     */
+    public void setNodeCacheQuota(long quota) {
+        getSHT().setCacheQuota(quota);
+    }
+
+    /**
+     * Set the global budget in bytes of the cache of the nodes, which all the
+     * backends share
+     *
+     * @param size
+     *            The size of the cache in bytes
+     */
+    public static void setNodeCacheBudget(long size) {
+        HT_IO.setCacheBudget(size);
+    }
+
+    /**
+     * Get the statistics of the nodes of this backend in the cache
+     *
+     * @return The hit, miss and eviction counts of the nodes of this backend
+     */
+    public CacheStats getNodeCacheStats() {
+        return getSHT().getCacheStats();
+    }
+
     /**
      * Return the average node usage as a percentage (between 0 and 100)
      *
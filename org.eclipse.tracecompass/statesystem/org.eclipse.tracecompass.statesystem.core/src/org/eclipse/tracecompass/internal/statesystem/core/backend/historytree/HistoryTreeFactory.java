@@ -61,6 +61,25 @@ public final class HistoryTreeFactory {
      *             If an error happens reading the file
      */
     public static IHistoryTree createFromFile(Path existingStateFile, int expectedProviderVersion) throws IOException {
+        return createFromFile(existingStateFile, expectedProviderVersion, false);
+    }
+
+    /**
+     * "Reader" factory : instantiate a SHTree from an existing tree file on
+     * disk
+     *
+     * @param existingStateFile
+     *            Path/filename of the history-file we are to open
+     * @param expectedProviderVersion
+     *            The expected version of the state provider
+     * @param mapped
+     *            Whether the file is mapped in memory to read the nodes, their
+     *            intervals are then decoded on demand by the queries
+     * @return The history tree
+     * @throws IOException
+     *             If an error happens reading the file
+     */
+    public static IHistoryTree createFromFile(Path existingStateFile, int expectedProviderVersion, boolean mapped) throws IOException {
         /*
          * Check the file exists and has a positive length. These verifications
          * will also be done in the HT's constructor.
@@ -87,7 +106,7 @@ public final class HistoryTreeFactory {
         int magicNumber = buffer.getInt();
         switch (magicNumber) {
         case HistoryTreeClassic.HISTORY_FILE_MAGIC_NUMBER:
-            return new HistoryTreeClassic(existingStateFile.toFile(), expectedProviderVersion);
+            return new HistoryTreeClassic(existingStateFile.toFile(), expectedProviderVersion, mapped);
         default:
             throw new IOException("Not a known history tree file"); //$NON-NLS-1$
         }
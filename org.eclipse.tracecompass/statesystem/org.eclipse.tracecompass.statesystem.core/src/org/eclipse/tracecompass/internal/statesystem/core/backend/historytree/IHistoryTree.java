@@ -19,6 +19,8 @@ import java.util.Deque;
 
 import org.eclipse.tracecompass.statesystem.core.exceptions.TimeRangeException;
 
+import com.google.common.cache.CacheStats;
+
 /**
  * Meta-container for the History Tree. This structure contains all the
  * high-level data relevant to the tree.
@@ -190,6 +192,23 @@ public interface IHistoryTree {
      */
     void deleteFile();
 
+    /**
+     * Set the quota in bytes of this tree in the cache of the nodes read from
+     * the history files, which all the trees share
+     *
+     * @param quota
+     *            The quota in bytes
+     */
+    void setCacheQuota(long quota);
+
+    /**
+     * Get the statistics of the nodes of this tree in the cache of the nodes
+     * read from the history files
+     *
+     * @return The hit, miss and eviction counts of the nodes of this tree
+     */
+    CacheStats getCacheStats();
+
     // ------------------------------------------------------------------------
     // Operations
     // ------------------------------------------------------------------------
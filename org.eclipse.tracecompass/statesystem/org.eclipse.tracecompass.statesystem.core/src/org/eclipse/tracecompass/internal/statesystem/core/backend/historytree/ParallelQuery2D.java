@@ -0,0 +1,295 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.statesystem.core.backend.historytree;
+
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.common.core.log.TraceCompassLog;
+import org.eclipse.tracecompass.common.core.log.TraceCompassLogUtils;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.IntegerRangeCondition;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.TimeRangeCondition;
+import org.eclipse.tracecompass.statesystem.core.ICloseableIterable;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+
+/**
+ * Iterator over the intervals of a 2D query on a history tree, whose nodes are
+ * read and searched by the tasks of a fork-join pool. Each task forks the
+ * tasks of the node's matching children before searching its own node, so
+ * that the children are read while the node is decoded. The intervals of
+ * each node are sent as one batch to the iterator, which returns them as they
+ * arrive. The tasks wait when the consumer is too many batches behind, and
+ * stop when the query is closed.
+ */
+final class ParallelQuery2D implements Iterator<@NonNull ITmfStateInterval> {
+
+    private static final Logger LOGGER = TraceCompassLog.getLogger(ParallelQuery2D.class);
+
+    /*
+     * Shared by the queries of all the history trees. The nodes may be read
+     * from the disk, so use at least two threads even on a single CPU.
+     */
+    private static final ForkJoinPool POOL = new ForkJoinPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+
+    /* Marks the end of the batches, compared by identity */
+    private static final Iterable<@NonNull HTInterval> END = new ArrayList<>(0);
+
+    /* The number of node batches found ahead of the consumer */
+    private static final int MAX_BATCHES = 64;
+
+    /* How often a task waiting to publish a batch checks if it was closed */
+    private static final long CLOSED_POLL_MS = 10;
+
+    private final IHistoryTree fTree;
+    private final IntegerRangeCondition fQuarks;
+    private final TimeRangeCondition fTimes;
+    private final BlockingQueue<Iterable<@NonNull HTInterval>> fBatches = new ArrayBlockingQueue<>(MAX_BATCHES);
+
+    /* Closed by the consumer */
+    private volatile boolean fClosed = false;
+    /* Stopped because the tree was closed */
+    private volatile boolean fStopped = false;
+    private volatile @Nullable RuntimeException fFailure = null;
+
+    private Iterator<@NonNull HTInterval> fCurrent = Collections.emptyIterator();
+    private boolean fDone = false;
+
+    /**
+     * Get an iterable over the intervals of a 2D query, whose iterators each
+     * start a search of the tree. Closing the iterable stops the searches of
+     * all its iterators.
+     *
+     * @param tree
+     *            The history tree to query
+     * @param quarks
+     *            Condition on the quarks of the intervals
+     * @param times
+     *            Condition on the times of the intervals
+     * @return The closeable iterable
+     */
+    public static ICloseableIterable<@NonNull ITmfStateInterval> iterable(IHistoryTree tree, IntegerRangeCondition quarks, TimeRangeCondition times) {
+        return new QueryIterable(tree, quarks, times);
+    }
+
+    /**
+     * Constructor, starts the search in the pool
+     *
+     * @param tree
+     *            The history tree to query
+     * @param quarks
+     *            Condition on the quarks of the intervals
+     * @param times
+     *            Condition on the times of the intervals
+     */
+    public ParallelQuery2D(IHistoryTree tree, IntegerRangeCondition quarks, TimeRangeCondition times) {
+        fTree = tree;
+        fQuarks = quarks;
+        fTimes = times;
+        int root = tree.getRootNode().getSequenceNumber();
+        POOL.execute(() -> {
+            try (TraceCompassLogUtils.ScopeLog log = new TraceCompassLogUtils.ScopeLog(LOGGER, Level.FINER, "ParallelQuery2D", //$NON-NLS-1$
+                    "quarks", quarks, //$NON-NLS-1$
+                    "timeCondition", times)) { //$NON-NLS-1$
+                new NodeTask(root).invoke();
+            } catch (RuntimeException e) {
+                fFailure = e;
+            } finally {
+                publish(END);
+            }
+        });
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!fCurrent.hasNext() || fClosed) {
+            if (fDone || fClosed) {
+                return false;
+            }
+            Iterable<@NonNull HTInterval> batch;
+            try {
+                batch = fBatches.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+                return false;
+            }
+            if (batch == END) {
+                fDone = true;
+                RuntimeException failure = fFailure;
+                if (failure != null && !fClosed) {
+                    throw failure;
+                }
+                return false;
+            }
+            fCurrent = batch.iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public @NonNull ITmfStateInterval next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return fCurrent.next();
+    }
+
+    /**
+     * Stop the search and end the iteration. The tasks of the search return
+     * as soon as they see it, without reading more nodes.
+     */
+    public void close() {
+        fClosed = true;
+        /*
+         * Unblock the tasks waiting for room in the queue, then the consumer
+         * if it is waiting for a batch on another thread.
+         */
+        do {
+            fBatches.clear();
+        } while (!fBatches.offer(END));
+    }
+
+    /**
+     * Send a batch to the consumer, waiting while the queue is full. The pool
+     * is told that the task is blocked, so it may start other threads for
+     * the tasks that are not. The batch is dropped if the query is closed.
+     */
+    private void publish(Iterable<@NonNull HTInterval> batch) {
+        try {
+            ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+                private boolean fPublished = false;
+
+                @Override
+                public boolean block() throws InterruptedException {
+                    while (!isReleasable()) {
+                        fPublished = fBatches.offer(batch, CLOSED_POLL_MS, TimeUnit.MILLISECONDS);
+                    }
+                    return true;
+                }
+
+                @Override
+                public boolean isReleasable() {
+                    if (!fPublished && !fClosed) {
+                        fPublished = fBatches.offer(batch);
+                    }
+                    return fPublished || fClosed;
+                }
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fClosed = true;
+        }
+    }
+
+    /**
+     * Task searching a node and, through its sub-tasks, its matching children
+     */
+    private class NodeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int fSeqNumber;
+
+        public NodeTask(int seqNumber) {
+            fSeqNumber = seqNumber;
+        }
+
+        @Override
+        protected void compute() {
+            if (fClosed || fStopped) {
+                return;
+            }
+            HTNode node;
+            try {
+                node = fTree.readNode(fSeqNumber);
+            } catch (ClosedChannelException e) {
+                /* The tree was closed, end the query like the sequential one */
+                fStopped = true;
+                return;
+            }
+            TimeRangeCondition subTimes = fTimes.subCondition(node.getNodeStart(), node.getNodeEnd());
+            /*
+             * During the SHT construction, the bounds of the children are not
+             * final, so some nodes which don't overlap the query may be here.
+             */
+            if (subTimes == null || !fQuarks.intersects(node.getMinQuark(), node.getMaxQuark())) {
+                return;
+            }
+            List<NodeTask> children = Collections.emptyList();
+            if (node.getNodeType() == HTNode.NodeType.CORE) {
+                Deque<Integer> seqNumbers = new ArrayDeque<>();
+                ((ParentNode) node).queueNextChildren2D(fQuarks, subTimes, seqNumbers, false);
+                children = new ArrayList<>(seqNumbers.size());
+                for (Integer seqNumber : seqNumbers) {
+                    NodeTask child = new NodeTask(seqNumber);
+                    child.fork();
+                    children.add(child);
+                }
+            }
+            Iterable<@NonNull HTInterval> intervals = node.iterable2D(fQuarks, subTimes);
+            if (intervals.iterator().hasNext()) {
+                publish(intervals);
+            }
+            for (NodeTask child : children) {
+                child.join();
+            }
+        }
+    }
+
+    /**
+     * Iterable starting a query for each iterator, keeping them to close them
+     */
+    private static final class QueryIterable implements ICloseableIterable<@NonNull ITmfStateInterval> {
+        private final IHistoryTree fTree;
+        private final IntegerRangeCondition fQuarks;
+        private final TimeRangeCondition fTimes;
+        private final List<ParallelQuery2D> fQueries = new ArrayList<>();
+        private boolean fIterableClosed = false;
+
+        public QueryIterable(IHistoryTree tree, IntegerRangeCondition quarks, TimeRangeCondition times) {
+            fTree = tree;
+            fQuarks = quarks;
+            fTimes = times;
+        }
+
+        @Override
+        public synchronized Iterator<@NonNull ITmfStateInterval> iterator() {
+            if (fIterableClosed) {
+                return Collections.emptyIterator();
+            }
+            ParallelQuery2D query = new ParallelQuery2D(fTree, fQuarks, fTimes);
+            fQueries.add(query);
+            return query;
+        }
+
+        @Override
+        public synchronized void close() {
+            fIterableClosed = true;
+            fQueries.forEach(ParallelQuery2D::close);
+            fQueries.clear();
+        }
+    }
+}
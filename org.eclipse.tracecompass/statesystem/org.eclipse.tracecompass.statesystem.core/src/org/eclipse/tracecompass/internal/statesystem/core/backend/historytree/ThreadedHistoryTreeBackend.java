@@ -29,6 +29,8 @@ import org.eclipse.tracecompass.common.core.log.TraceCompassLogUtils;
 import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.IntegerRangeCondition;
 import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.TimeRangeCondition;
 import org.eclipse.tracecompass.internal.statesystem.core.Activator;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HTConfig.NodeCodec;
+import org.eclipse.tracecompass.statesystem.core.ICloseableIterable;
 import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
 import org.eclipse.tracecompass.statesystem.core.exceptions.TimeRangeException;
 import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
@@ -91,7 +93,47 @@ public final class ThreadedHistoryTreeBackend extends HistoryTreeBackend
             int blockSize,
             int maxChildren)
                     throws IOException {
-        super(ssid, newStateFile, providerVersion, startTime, blockSize, maxChildren);
+        this(ssid, newStateFile, providerVersion, startTime, queueSize, blockSize, maxChildren, NodeCodec.NONE);
+    }
+
+    /**
+     * New state history constructor, with the codec to compress the nodes in
+     * the file.
+     *
+     * @param ssid
+     *            The state system's id
+     * @param newStateFile
+     *            The name of the history file that will be created. Should end
+     *            in ".ht"
+     * @param providerVersion
+     *            Version of of the state provider. We will only try to reopen
+     *            existing files if this version matches the one in the
+     *            framework.
+     * @param startTime
+     *            The earliest timestamp stored in the history
+     * @param queueSize
+     *            The size of the interval insertion queue. 2000 - 10000 usually
+     *            works well
+     * @param blockSize
+     *            The size of the blocks in the file, before they are
+     *            compressed
+     * @param maxChildren
+     *            The maximum number of children allowed for each core node
+     * @param codec
+     *            The codec to compress the nodes in the file
+     * @throws IOException
+     *             If there was a problem opening the history file for writing
+     */
+    public ThreadedHistoryTreeBackend(@NonNull String ssid,
+            File newStateFile,
+            int providerVersion,
+            long startTime,
+            int queueSize,
+            int blockSize,
+            int maxChildren,
+            NodeCodec codec)
+                    throws IOException {
+        super(ssid, newStateFile, providerVersion, startTime, blockSize, maxChildren, codec);
         fEndTime = startTime;
 
         intervalQueue = new BufferedBlockingQueue<>(queueSize / CHUNK_SIZE, CHUNK_SIZE);
@@ -308,10 +350,19 @@ public final class ThreadedHistoryTreeBackend extends HistoryTreeBackend
              * HistoryTreeBackend is consumed and if the construction still
              * isn't done.
              */
-            Iterable<@NonNull HTInterval> queuedIntervals = Iterables.filter(intervalQueue,
-                    interval -> !isFinishedBuilding() && quarks.test(interval.getAttribute())
-                            && times.intersects(interval.getStartTime(), interval.getEndTime()));
-            return Iterables.concat(super.query2D(quarks, times), queuedIntervals);
+            return Iterables.concat(super.query2D(quarks, times), getQueuedIntervals(quarks, times));
         }
     }
+
+    @Override
+    public ICloseableIterable<@NonNull ITmfStateInterval> query2DParallel(IntegerRangeCondition quarks, TimeRangeCondition times) {
+        ICloseableIterable<@NonNull ITmfStateInterval> treeIterable = super.query2DParallel(quarks, times);
+        return ICloseableIterable.of(Iterables.concat(treeIterable, getQueuedIntervals(quarks, times)), treeIterable::close);
+    }
+
+    private Iterable<@NonNull HTInterval> getQueuedIntervals(IntegerRangeCondition quarks, TimeRangeCondition times) {
+        return Iterables.filter(intervalQueue,
+                interval -> !isFinishedBuilding() && quarks.test(interval.getAttribute())
+                        && times.intersects(interval.getStartTime(), interval.getEndTime()));
+    }
 }
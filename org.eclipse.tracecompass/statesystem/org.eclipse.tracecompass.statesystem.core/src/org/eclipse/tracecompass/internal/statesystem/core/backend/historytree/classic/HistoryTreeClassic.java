@@ -30,6 +30,7 @@ import java.util.List;
 
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HTConfig;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HTConfig.NodeCodec;
 import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HTInterval;
 import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HTNode;
 import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HT_IO;
@@ -40,6 +41,7 @@ import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
 import org.eclipse.tracecompass.statesystem.core.exceptions.TimeRangeException;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.ImmutableList;
 
 /**
@@ -58,6 +60,12 @@ public class HistoryTreeClassic implements IHistoryTree {
     /** File format version. Increment when breaking compatibility. */
     private static final int FILE_VERSION = 11;
 
+    /**
+     * File format version of the files with compressed nodes, so the previous
+     * versions do not try to read them.
+     */
+    private static final int COMPRESSED_FILE_VERSION = 12;
+
     private static final IHTNodeFactory CLASSIC_NODE_FACTORY = new IHTNodeFactory() {
 
         @Override
@@ -143,6 +151,23 @@ public class HistoryTreeClassic implements IHistoryTree {
      *             If an error happens reading the file
      */
     public HistoryTreeClassic(File existingStateFile, int expProviderVersion) throws IOException {
+        this(existingStateFile, expProviderVersion, false);
+    }
+
+    /**
+     * "Reader" constructor : instantiate a SHTree from an existing tree file on
+     * disk
+     *
+     * @param existingStateFile
+     *            Path/filename of the history-file we are to open
+     * @param expProviderVersion
+     *            The expected version of the state provider
+     * @param mapped
+     *            Whether the file is mapped in memory to read the nodes
+     * @throws IOException
+     *             If an error happens reading the file
+     */
+    public HistoryTreeClassic(File existingStateFile, int expProviderVersion, boolean mapped) throws IOException {
         /*
          * Open the file ourselves, get the tree header information we need,
          * then pass on the descriptor to the TreeIO object.
@@ -150,6 +175,7 @@ public class HistoryTreeClassic implements IHistoryTree {
         int rootNodeSeqNb, res;
         int bs, maxc;
         long startTime;
+        long nodeIndexPosition;
 
         /* Java I/O mumbo jumbo... */
         if (!existingStateFile.exists()) {
@@ -183,7 +209,7 @@ public class HistoryTreeClassic implements IHistoryTree {
             }
 
             res = buffer.getInt(); /* File format version number */
-            if (res != FILE_VERSION) {
+            if (res != FILE_VERSION && res != COMPRESSED_FILE_VERSION) {
                 throw new IOException("Mismatching History Tree file format versions"); //$NON-NLS-1$
             }
 
@@ -207,7 +233,18 @@ public class HistoryTreeClassic implements IHistoryTree {
             rootNodeSeqNb = buffer.getInt();
             startTime = buffer.getLong();
 
-            fConfig = new HTConfig(existingStateFile, bs, maxc, expProviderVersion, startTime);
+            /*
+             * Codec of the nodes and position of their index. The files
+             * written before the codecs have zeros here, for uncompressed
+             * nodes.
+             */
+            NodeCodec codec = NodeCodec.fromId(buffer.getInt());
+            if (codec == null) {
+                throw new IOException("Unknown codec of the nodes"); //$NON-NLS-1$
+            }
+            nodeIndexPosition = buffer.getLong();
+
+            fConfig = new HTConfig(existingStateFile, bs, maxc, expProviderVersion, startTime, codec);
         }
 
         /*
@@ -215,7 +252,8 @@ public class HistoryTreeClassic implements IHistoryTree {
          * file, not extremely elegant. But how to pass the information here to
          * the SHT otherwise?
          */
-        fTreeIO = new HT_IO(fConfig, false, CLASSIC_NODE_FACTORY);
+        fTreeIO = new HT_IO(fConfig, false, CLASSIC_NODE_FACTORY, mapped);
+        fTreeIO.readNodeIndex(nodeIndexPosition, fNodeCount);
 
         fLatestBranch = buildLatestBranch(rootNodeSeqNb);
         fTreeEnd = getRootNode().getNodeEnd();
@@ -271,6 +309,9 @@ public class HistoryTreeClassic implements IHistoryTree {
             closeBranch(0, requestedEndTime);
 
             try (FileChannel fc = fTreeIO.getFcOut();) {
+                /* The index of the compressed nodes goes after the nodes */
+                long nodeIndexPosition = fTreeIO.writeNodeIndex(fNodeCount);
+
                 ByteBuffer buffer = ByteBuffer.allocate(TREE_HEADER_SIZE);
                 buffer.order(ByteOrder.LITTLE_ENDIAN);
                 buffer.clear();
@@ -280,7 +321,7 @@ public class HistoryTreeClassic implements IHistoryTree {
 
                 buffer.putInt(HISTORY_FILE_MAGIC_NUMBER);
 
-                buffer.putInt(FILE_VERSION);
+                buffer.putInt(fConfig.getCodec() == NodeCodec.NONE ? FILE_VERSION : COMPRESSED_FILE_VERSION);
                 buffer.putInt(fConfig.getProviderVersion());
 
                 buffer.putInt(fConfig.getBlockSize());
@@ -294,6 +335,10 @@ public class HistoryTreeClassic implements IHistoryTree {
                 /* start time of this history */
                 buffer.putLong(fLatestBranch.get(0).getNodeStart());
 
+                /* codec of the nodes and position of their index */
+                buffer.putInt(fConfig.getCodec().getId());
+                buffer.putLong(nodeIndexPosition);
+
                 buffer.flip();
                 int res = fc.write(buffer);
 
@@ -394,8 +439,7 @@ public class HistoryTreeClassic implements IHistoryTree {
 
     @Override
     public long supplyATWriterFilePos() {
-        return IHistoryTree.TREE_HEADER_SIZE
-                + ((long) getNodeCount() * fConfig.getBlockSize());
+        return fTreeIO.getEndOfNodes(getNodeCount());
     }
 
     @Override
@@ -443,6 +487,16 @@ public class HistoryTreeClassic implements IHistoryTree {
         fTreeIO.deleteFile();
     }
 
+    @Override
+    public void setCacheQuota(long quota) {
+        fTreeIO.setCacheQuota(quota);
+    }
+
+    @Override
+    public CacheStats getCacheStats() {
+        return fTreeIO.getCacheStats();
+    }
+
     // ------------------------------------------------------------------------
     // Operations
     // ------------------------------------------------------------------------
@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.statesystem.core;
+
+import java.util.Iterator;
+
+/**
+ * An iterable whose iterators may hold resources, like the threads searching
+ * the history of a parallel query, until they are consumed entirely. A
+ * consumer that stops iterating before the end should close the iterable, for
+ * example with a try-with-resources statement, to release them. After it is
+ * closed, the iterators of the iterable return no more elements.
+ *
+ * @param <T>
+ *            The type of the elements
+ * @since 5.1
+ */
+public interface ICloseableIterable<T> extends Iterable<T>, AutoCloseable {
+
+    /**
+     * Stop the iterators of this iterable and release their resources. It can
+     * be called more than once.
+     */
+    @Override
+    void close();
+
+    /**
+     * Get a closeable iterable over the elements of an iterable which holds no
+     * resources, so closing it does nothing.
+     *
+     * @param iterable
+     *            The iterable to wrap
+     * @return The closeable iterable
+     */
+    static <T> ICloseableIterable<T> of(Iterable<T> iterable) {
+        return of(iterable, () -> {
+            /* Nothing to release */
+        });
+    }
+
+    /**
+     * Get a closeable iterable over the elements of an iterable, which runs an
+     * action when it is closed.
+     *
+     * @param iterable
+     *            The iterable to wrap
+     * @param onClose
+     *            The action releasing the resources of the iterable's
+     *            iterators
+     * @return The closeable iterable
+     */
+    static <T> ICloseableIterable<T> of(Iterable<T> iterable, Runnable onClose) {
+        return new ICloseableIterable<T>() {
+            @Override
+            public Iterator<T> iterator() {
+                return iterable.iterator();
+            }
+
+            @Override
+            public void close() {
+                onClose.run();
+            }
+        };
+    }
+}
@@ -505,6 +505,41 @@ public interface ITmfStateSystem {
     Iterable<@NonNull ITmfStateInterval> query2D(@NonNull Collection<Integer> quarks,
             @NonNull Collection<Long> times) throws StateSystemDisposedException, IndexOutOfBoundsException, TimeRangeException;
 
+    /**
+     * Sampled multiple attribute iterable query, for example with one time per
+     * pixel of a view. Iterates over the intervals from attributes in the
+     * quarks collection that contain at least one of the sample times, with
+     * no guaranteed order. Only the parts of the history containing a sample
+     * time are searched, so the cost depends on the number of samples rather
+     * than on the number of intervals in the time range.
+     * <p>
+     * This is the same query as {@link #query2D(Collection, Collection)}, but
+     * the times are given as a sorted array, which is not boxed nor sorted
+     * again.
+     * </p>
+     *
+     * @param quarks
+     *            a collection of quarks for which we want information
+     * @param times
+     *            the sample times, in ascending order. Duplicate times are
+     *            ignored.
+     * @return a lazily evaluated un-ordered iterable over the queried intervals
+     * @throws StateSystemDisposedException
+     *             If the query is sent after the state system has been disposed
+     * @throws IndexOutOfBoundsException
+     *             If the smallest attribute is {@literal <} 0 or if the largest
+     *             is {@literal >=} to the number of attributes.
+     * @throws TimeRangeException
+     *             If the smallest time is before the state system start time.
+     * @throws IllegalArgumentException
+     *             If the times are not sorted
+     * @since 5.1
+     */
+    default Iterable<@NonNull ITmfStateInterval> query2D(@NonNull Collection<Integer> quarks,
+            long @NonNull [] times) throws StateSystemDisposedException, IndexOutOfBoundsException, TimeRangeException {
+        return query2D(quarks, StateSystemUtils.toDistinctTimes(times));
+    }
+
     /**
      * Multiple attribute and time range iterable query, Iterates over intervals
      * from attributes in the quarks collection that intersect the [start, end]
@@ -534,4 +569,93 @@ public interface ITmfStateSystem {
      */
     Iterable<@NonNull ITmfStateInterval> query2D(@NonNull Collection<Integer> quarks,
             long start, long end) throws StateSystemDisposedException, IndexOutOfBoundsException, TimeRangeException;
+
+    /**
+     * Same as {@link #query2D(Collection, long, long)}, but the nodes of the
+     * history are read and searched by several threads in parallel, and the
+     * intervals are returned in batches as they are found. This is faster for
+     * queries over many quarks and a large time range, such as a zoomed-out
+     * view of many rows, but has no benefit for the small queries.
+     * <p>
+     * The search starts when the iterator is requested and continues in the
+     * background, a few batches ahead of the consumer, until all the intervals
+     * are found. A consumer that stops before the end, for example when its
+     * monitor is canceled, must close the returned iterable to stop the
+     * search.
+     * </p>
+     *
+     * @param quarks
+     *            a collection of quarks for which we want information
+     * @param start
+     *            lower bound for the query
+     * @param end
+     *            upper bound for the query
+     * @return an un-ordered iterable over the queried intervals, to close when
+     *         the consumer is done with it
+     * @throws StateSystemDisposedException
+     *             If the query is sent after the state system has been disposed
+     * @throws IndexOutOfBoundsException
+     *             If the smallest attribute is {@literal <} 0 or if the largest
+     *             is {@literal >=} to the number of attributes.
+     * @throws TimeRangeException
+     *             If the smallest time is before the state system start time.
+     * @since 5.1
+     */
+    default ICloseableIterable<@NonNull ITmfStateInterval> query2DParallel(@NonNull Collection<Integer> quarks,
+            long start, long end) throws StateSystemDisposedException, IndexOutOfBoundsException, TimeRangeException {
+        return ICloseableIterable.of(query2D(quarks, start, end));
+    }
+
+    /**
+     * Same as {@link #query2D(Collection, Collection)}, but the nodes of the
+     * history are read and searched by several threads in parallel, like
+     * {@link #query2DParallel(Collection, long, long)}.
+     *
+     * @param quarks
+     *            a collection of quarks for which we want information
+     * @param times
+     *            the timestamps at which we want the states
+     * @return an un-ordered iterable over the queried intervals, to close when
+     *         the consumer is done with it
+     * @throws StateSystemDisposedException
+     *             If the query is sent after the state system has been disposed
+     * @throws IndexOutOfBoundsException
+     *             If the smallest attribute is <0 or if the largest is >= to
+     *             the number of attributes.
+     * @throws TimeRangeException
+     *             If the smallest time is before the state system start time.
+     * @since 5.1
+     */
+    default ICloseableIterable<@NonNull ITmfStateInterval> query2DParallel(@NonNull Collection<Integer> quarks,
+            @NonNull Collection<Long> times) throws StateSystemDisposedException, IndexOutOfBoundsException, TimeRangeException {
+        return ICloseableIterable.of(query2D(quarks, times));
+    }
+
+    /**
+     * Same as {@link #query2D(Collection, long[])}, but the nodes of the
+     * history are read and searched by several threads in parallel, like
+     * {@link #query2DParallel(Collection, long, long)}.
+     *
+     * @param quarks
+     *            a collection of quarks for which we want information
+     * @param times
+     *            the sample times, in ascending order. Duplicate times are
+     *            ignored.
+     * @return an un-ordered iterable over the queried intervals, to close when
+     *         the consumer is done with it
+     * @throws StateSystemDisposedException
+     *             If the query is sent after the state system has been disposed
+     * @throws IndexOutOfBoundsException
+     *             If the smallest attribute is {@literal <} 0 or if the largest
+     *             is {@literal >=} to the number of attributes.
+     * @throws TimeRangeException
+     *             If the smallest time is before the state system start time.
+     * @throws IllegalArgumentException
+     *             If the times are not sorted
+     * @since 5.1
+     */
+    default ICloseableIterable<@NonNull ITmfStateInterval> query2DParallel(@NonNull Collection<Integer> quarks,
+            long @NonNull [] times) throws StateSystemDisposedException, IndexOutOfBoundsException, TimeRangeException {
+        return query2DParallel(quarks, StateSystemUtils.toDistinctTimes(times));
+    }
 }
\ No newline at end of file
@@ -11,7 +11,12 @@
 
 package org.eclipse.tracecompass.statesystem.core;
 
+import java.io.IOException;
+
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.SpoolBackend;
+import org.eclipse.tracecompass.statesystem.core.backend.IStateHistoryBackend;
+import org.eclipse.tracecompass.statesystem.core.backend.StateHistoryBackendFactory;
 import org.eclipse.tracecompass.statesystem.core.exceptions.StateValueTypeException;
 
 /**
@@ -78,4 +83,42 @@ public final class StateSystemBuilderUtils {
         ssb.modifyAttribute(t, prevValue + increment, attributeQuark);
     }
 
+    /**
+     * Append the history of a state system built on a spool backend to
+     * another state system. The attributes are matched by their full path,
+     * and each spooled interval becomes a state change at its start time in
+     * the target, so consecutive intervals with the same value are merged.
+     * The target must not have any state change after the start of the
+     * spooled history for the attributes it has in common with it.
+     *
+     * @param target
+     *            The state system to which to append the history
+     * @param source
+     *            The state system that was built with the spool backend,
+     *            after its history was closed
+     * @param spool
+     *            The backend of the source state system, created with
+     *            {@link StateHistoryBackendFactory#createSpoolBackend}
+     * @param endTime
+     *            The spooled intervals starting after this time are ignored
+     * @throws IOException
+     *             If the spooled intervals cannot be read
+     * @since 5.1
+     */
+    public static void appendSpooledHistory(ITmfStateSystemBuilder target, ITmfStateSystem source,
+            IStateHistoryBackend spool, long endTime) throws IOException {
+        if (!(spool instanceof SpoolBackend)) {
+            throw new IllegalArgumentException("Not a spool backend: " + spool.getClass().getName()); //$NON-NLS-1$
+        }
+        int[] quarks = new int[source.getNbAttributes()];
+        for (int i = 0; i < quarks.length; i++) {
+            quarks[i] = target.getQuarkAbsoluteAndAdd(source.getFullAttributePathArray(i));
+        }
+        ((SpoolBackend) spool).replay(interval -> {
+            if (interval.getStartTime() <= endTime) {
+                target.modifyAttribute(interval.getStartTime(), interval.getValue(), quarks[interval.getAttribute()]);
+            }
+        });
+    }
+
 }
@@ -704,4 +704,27 @@ public final class StateSystemUtils {
         return times;
     }
 
+    /**
+     * Box the sorted sample times of a query, for the state systems which only
+     * support the queries on collections of times.
+     *
+     * @param times
+     *            the sample times, in ascending order
+     * @return the list of the distinct times
+     * @throws IllegalArgumentException
+     *             If the times are not sorted
+     */
+    static List<Long> toDistinctTimes(long[] times) {
+        List<Long> list = new ArrayList<>(times.length);
+        for (int i = 0; i < times.length; i++) {
+            if (i > 0 && times[i] < times[i - 1]) {
+                throw new IllegalArgumentException("The times are not sorted"); //$NON-NLS-1$
+            }
+            if (i == 0 || times[i] != times[i - 1]) {
+                list.add(times[i]);
+            }
+        }
+        return list;
+    }
+
 }
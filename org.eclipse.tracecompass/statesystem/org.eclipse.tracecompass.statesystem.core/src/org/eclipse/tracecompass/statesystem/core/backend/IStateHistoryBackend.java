@@ -22,6 +22,7 @@ import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.IntegerRangeCondition;
 import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.TimeRangeCondition;
+import org.eclipse.tracecompass.statesystem.core.ICloseableIterable;
 import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
 import org.eclipse.tracecompass.statesystem.core.exceptions.TimeRangeException;
 import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
@@ -225,4 +226,26 @@ public interface IStateHistoryBackend {
             throws TimeRangeException {
         return query2D(quarkCondition, timeCondition);
     }
+
+    /**
+     * Generalized 2D iterable query method, for which the backend may search
+     * its storage with several threads in parallel. Iterates over intervals
+     * that match the conditions on quarks and times with no guaranteed order.
+     * The default implementation is the sequential
+     * {@link #query2D(IntegerRangeCondition, TimeRangeCondition)}.
+     *
+     * @param quarkCondition
+     *            Condition on the quarks for returned intervals.
+     * @param timeCondition
+     *            Condition on the times for returned intervals
+     * @return An un-ordered iterable over the queried intervals, which stops
+     *         the search of its iterators when it is closed
+     * @throws TimeRangeException
+     *             if the time bounds are outside the range of the HistoryTree
+     * @since 5.1
+     */
+    default ICloseableIterable<@NonNull ITmfStateInterval> query2DParallel(IntegerRangeCondition quarkCondition, TimeRangeCondition timeCondition)
+            throws TimeRangeException {
+        return ICloseableIterable.of(query2D(quarkCondition, timeCondition));
+    }
 }
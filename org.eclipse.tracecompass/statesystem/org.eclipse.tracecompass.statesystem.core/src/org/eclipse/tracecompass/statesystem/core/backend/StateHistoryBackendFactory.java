@@ -20,6 +20,8 @@ import java.io.IOException;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.tracecompass.internal.statesystem.core.backend.InMemoryBackend;
 import org.eclipse.tracecompass.internal.statesystem.core.backend.NullBackend;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.SpoolBackend;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HTConfig.NodeCodec;
 import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HistoryTreeBackend;
 import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.ThreadedHistoryTreeBackend;
 
@@ -33,6 +35,10 @@ import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.Th
 @NonNullByDefault
 public final class StateHistoryBackendFactory {
 
+    /* Default configuration of the history trees */
+    private static final int BLOCK_SIZE = 64 * 1024;
+    private static final int MAX_CHILDREN = 50;
+
     private StateHistoryBackendFactory() {}
 
     /**
@@ -61,6 +67,27 @@ public final class StateHistoryBackendFactory {
         return new InMemoryBackend(ssid, startTime);
     }
 
+    /**
+     * Create a new spool backend. This backend appends the intervals to a
+     * file in the order they are received, and cannot be queried. The
+     * intervals can later be copied into another state system with
+     * {@link org.eclipse.tracecompass.statesystem.core.StateSystemBuilderUtils#appendSpooledHistory}.
+     *
+     * @param ssid
+     *            The ID for this state system
+     * @param file
+     *            The file where to write the intervals
+     * @param startTime
+     *            The start time of the state system and backend
+     * @return The state system backend
+     * @throws IOException
+     *             Thrown if we can't create the file for some reason
+     * @since 5.1
+     */
+    public static IStateHistoryBackend createSpoolBackend(String ssid, File file, long startTime) throws IOException {
+        return new SpoolBackend(ssid, file, startTime);
+    }
+
     /**
      * Create a new backend using a History Tree. This backend stores all its
      * intervals on disk.
@@ -96,6 +123,44 @@ public final class StateHistoryBackendFactory {
         return new HistoryTreeBackend(ssid, stateFile, providerVersion, startTime);
     }
 
+    /**
+     * Create a new backend using a History Tree, optionally with the nodes
+     * compressed in the file. The compressed files are smaller on disk and in
+     * the page cache, and each node is still read independently of the
+     * others, but each node read from the disk must be decompressed.
+     *
+     * @param ssid
+     *            The state system's id
+     * @param stateFile
+     *            The filename/location where to store the state history (Should
+     *            end in .ht)
+     * @param providerVersion
+     *            Version of of the state provider. We will only try to reopen
+     *            existing files if this version matches the one in the
+     *            framework.
+     * @param startTime
+     *            The earliest time stamp that will be stored in the history
+     * @param queueSize
+     *            The size of the interval insertion queue between the receiver
+     *            and writer threads. 2000 - 10000 usually works well. If 0 is
+     *            specified, no queue is used and the writes happen in the same
+     *            thread.
+     * @param compressed
+     *            Whether the nodes are compressed in the file
+     * @return The state system backend
+     * @throws IOException
+     *             Thrown if we can't create the file for some reason
+     * @since 5.1
+     */
+    public static IStateHistoryBackend createHistoryTreeBackendNewFile(String ssid,
+            File stateFile, int providerVersion, long startTime, int queueSize, boolean compressed) throws IOException {
+        NodeCodec codec = compressed ? NodeCodec.DEFLATE : NodeCodec.NONE;
+        if (queueSize > 0) {
+            return new ThreadedHistoryTreeBackend(ssid, stateFile, providerVersion, startTime, queueSize, BLOCK_SIZE, MAX_CHILDREN, codec);
+        }
+        return new HistoryTreeBackend(ssid, stateFile, providerVersion, startTime, BLOCK_SIZE, MAX_CHILDREN, codec);
+    }
+
     /**
      * Create a new History Tree backend, but attempt to open an existing file
      * on disk. If the file cannot be found or recognized, an IOException will
@@ -117,4 +182,34 @@ public final class StateHistoryBackendFactory {
             int providerVersion) throws IOException {
         return new HistoryTreeBackend(ssid, stateFile, providerVersion);
     }
+
+    /**
+     * Create a new History Tree backend, but attempt to open an existing file
+     * on disk. If the file cannot be found or recognized, an IOException will
+     * be thrown.
+     *
+     * The file can be mapped in memory: the nodes are then read from the
+     * mapped file without being copied, and the queries only decode the
+     * intervals they return. It is faster for the queries that read many
+     * nodes that are not cached yet.
+     *
+     * @param ssid
+     *            The state system's id
+     * @param stateFile
+     *            Filename/location of the history we want to load
+     * @param providerVersion
+     *            Expected version of of the state provider plugin.
+     * @param mapped
+     *            Whether the file is mapped in memory
+     * @return The state system backend
+     * @throws IOException
+     *             If we can't read the file, if it doesn't exist, is not
+     *             recognized, or if the version of the file does not match the
+     *             expected providerVersion.
+     * @since 5.1
+     */
+    public static IStateHistoryBackend createHistoryTreeBackendExistingFile(String ssid, File stateFile,
+            int providerVersion, boolean mapped) throws IOException {
+        return new HistoryTreeBackend(ssid, stateFile, providerVersion, mapped);
+    }
 }
@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.tmf.core.tests.perf.statesystem;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.function.Consumer;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.eclipse.tracecompass.internal.tmf.core.statesystem.TimeSlicedHistoryBuilder;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
+import org.eclipse.tracecompass.statesystem.core.StateSystemFactory;
+import org.eclipse.tracecompass.statesystem.core.backend.StateHistoryBackendFactory;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.request.ITmfEventRequest;
+import org.eclipse.tracecompass.tmf.core.request.TmfEventRequest;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimeRange;
+import org.eclipse.tracecompass.tmf.tests.stubs.analysis.TestTimeSlicedStateProvider;
+import org.eclipse.tracecompass.tmf.tests.stubs.trace.xml.TmfXmlTraceStub;
+import org.eclipse.tracecompass.tmf.tests.stubs.trace.xml.TmfXmlTraceStubNs;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Benchmark of the full history build of a time-sliced state provider,
+ * sequentially and in parallel time slices, on a generated trace where one
+ * event out of {@link #SEED_INTERVAL} is a seed event.
+ *
+ * The costly variants add some work to the handling of each event, for a
+ * provider that costs more than the parsing of its events.
+ */
+public class TimeSlicedHistoryBenchmark {
+
+    private static final String TEST_ID = "org.eclipse.tracecompass#Time sliced history#";
+    private static final String SSID = "benchmark";
+
+    private static final int NB_EVENTS = 20000;
+    private static final int SEED_INTERVAL = 100;
+    private static final int LOOP_COUNT = 3;
+    private static final int QUEUE_SIZE = 10000;
+
+    /* Iterations of the work done for each event by the costly variants */
+    private static final int EVENT_WORK = 20000;
+
+    private static File fDirectory;
+    private static TmfXmlTraceStub fTrace;
+    private static volatile long fSink;
+
+    /**
+     * Generate and open the trace
+     *
+     * @throws IOException
+     *             If the trace cannot be written
+     */
+    @BeforeClass
+    public static void setUpClass() throws IOException {
+        fDirectory = Files.createTempDirectory("timeSlicedBenchmark").toFile();
+        File traceFile = new File(fDirectory, "trace.xml");
+        try (PrintWriter writer = new PrintWriter(traceFile, StandardCharsets.UTF_8.name())) {
+            writer.println("<trace>");
+            for (int i = 1; i <= NB_EVENTS; i++) {
+                String name = (i % SEED_INTERVAL == 0) ? TestTimeSlicedStateProvider.SEED_EVENT : "tick";
+                writer.println("<event timestamp=\"" + i + "\" name=\"" + name + "\">");
+                writer.println("<field name=\"cpu\" value=\"" + (i % 4) + "\" type=\"int\" />");
+                writer.println("</event>");
+            }
+            writer.println("</trace>");
+        }
+        TmfXmlTraceStub trace = TmfXmlTraceStubNs.setupTrace(new Path(traceFile.getAbsolutePath()));
+        trace.indexTrace(true);
+        fTrace = trace;
+    }
+
+    /**
+     * Dispose the trace and delete its directory
+     *
+     * @throws IOException
+     *             If the directory cannot be deleted
+     */
+    @AfterClass
+    public static void tearDownClass() throws IOException {
+        fTrace.dispose();
+        FileUtils.deleteDirectory(fDirectory);
+    }
+
+    /**
+     * Benchmark the build of a provider that does little for each event
+     *
+     * @throws Exception
+     *             If a build fails
+     */
+    @Test
+    public void testCheapEvents() throws Exception {
+        runBenchmarks("Cheap events", event -> {
+            /* Nothing more to do */
+        });
+    }
+
+    /**
+     * Benchmark the build of a provider that does more work for each event
+     * than parsing it
+     *
+     * @throws Exception
+     *             If a build fails
+     */
+    @Test
+    public void testCostlyEvents() throws Exception {
+        runBenchmarks("Costly events", event -> {
+            long value = event.getTimestamp().toNanos();
+            for (int i = 0; i < EVENT_WORK; i++) {
+                value = value * 6364136223846793005L + 1442695040888963407L;
+            }
+            fSink = value;
+        });
+    }
+
+    private static void runBenchmarks(String name, @NonNull Consumer<ITmfEvent> work) throws Exception {
+        runBenchmark(name + ": sequential", work, 0);
+        for (int nbSlices : new int[] { 2, 4 }) {
+            runBenchmark(name + ": " + nbSlices + " time slices", work, nbSlices);
+        }
+    }
+
+    private static void runBenchmark(String testName, @NonNull Consumer<ITmfEvent> work, int nbSlices) throws Exception {
+        Performance perf = Performance.getDefault();
+        PerformanceMeter pm = perf.createPerformanceMeter(TEST_ID + testName);
+        perf.tagAsSummary(pm, "Time sliced history: " + testName, Dimension.CPU_TIME);
+
+        for (int i = 0; i < LOOP_COUNT; i++) {
+            File htFile = new File(fDirectory, SSID + ".ht");
+            ITmfStateSystemBuilder ss = StateSystemFactory.newStateSystem(StateHistoryBackendFactory.createHistoryTreeBackendNewFile(
+                    SSID, htFile, 1, fTrace.getStartTime().toNanos(), QUEUE_SIZE));
+            TestTimeSlicedStateProvider provider = new TestTimeSlicedStateProvider(fTrace, work);
+
+            pm.start();
+            if (nbSlices == 0) {
+                buildSequential(provider, ss);
+            } else {
+                assertTrue(new TimeSlicedHistoryBuilder(provider, ss, htFile, nbSlices, 0).build());
+            }
+            pm.stop();
+
+            ss.dispose();
+            ss.removeFiles();
+        }
+        pm.commit();
+    }
+
+    private static void buildSequential(TestTimeSlicedStateProvider provider, ITmfStateSystemBuilder ss) throws InterruptedException {
+        provider.assignTargetStateSystem(ss);
+        TmfEventRequest request = new TmfEventRequest(ITmfEvent.class, TmfTimeRange.ETERNITY, 0,
+                ITmfEventRequest.ALL_DATA, ITmfEventRequest.ExecutionType.BACKGROUND) {
+            @Override
+            public void handleData(ITmfEvent event) {
+                super.handleData(event);
+                provider.processEvent(event);
+            }
+        };
+        fTrace.sendRequest(request);
+        request.waitForCompletion();
+        provider.dispose();
+        ss.waitUntilBuilt();
+    }
+}
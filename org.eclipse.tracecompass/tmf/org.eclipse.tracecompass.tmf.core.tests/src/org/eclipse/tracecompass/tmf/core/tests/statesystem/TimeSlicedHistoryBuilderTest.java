@@ -0,0 +1,258 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.tmf.core.tests.statesystem;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.tracecompass.internal.tmf.core.statesystem.TimeSlicedHistoryBuilder;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
+import org.eclipse.tracecompass.statesystem.core.StateSystemFactory;
+import org.eclipse.tracecompass.statesystem.core.StateSystemUtils;
+import org.eclipse.tracecompass.statesystem.core.backend.StateHistoryBackendFactory;
+import org.eclipse.tracecompass.statesystem.core.exceptions.AttributeNotFoundException;
+import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.request.ITmfEventRequest;
+import org.eclipse.tracecompass.tmf.core.request.TmfEventRequest;
+import org.eclipse.tracecompass.tmf.core.tests.TmfCoreTestPlugin;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimeRange;
+import org.eclipse.tracecompass.tmf.tests.stubs.analysis.TestTimeSlicedStateProvider;
+import org.eclipse.tracecompass.tmf.tests.stubs.trace.xml.TmfXmlTraceStub;
+import org.eclipse.tracecompass.tmf.tests.stubs.trace.xml.TmfXmlTraceStubNs;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.junit.rules.Timeout;
+
+/**
+ * Test the {@link TimeSlicedHistoryBuilder}, which must build the same history
+ * as a sequential build
+ */
+public class TimeSlicedHistoryBuilderTest {
+
+    /** Time-out tests after 1 minute. */
+    @Rule
+    public TestRule globalTimeout = new Timeout(1, TimeUnit.MINUTES);
+
+    private static final String XML_TRACE = "testfiles/stub_xml_traces/valid/time_sliced.xml";
+    private static final String SSID = "test";
+
+    /* A tick event in the third of 4 slices, after a seed event */
+    private static final long HOOK_TIME = 125;
+
+    private TmfXmlTraceStub fTrace;
+    private File fSpoolDir;
+
+    /**
+     * Setup the test trace
+     *
+     * @throws IOException
+     *             If the spool directory cannot be created
+     */
+    @Before
+    public void setUp() throws IOException {
+        TmfXmlTraceStub trace = TmfXmlTraceStubNs.setupTrace(TmfCoreTestPlugin.getAbsoluteFilePath(XML_TRACE));
+        trace.indexTrace(true);
+        fTrace = trace;
+        fSpoolDir = Files.createTempDirectory("timeSliced").toFile();
+    }
+
+    /**
+     * Dispose the trace and remove the spool directory
+     *
+     * @throws IOException
+     *             If the spool directory cannot be removed
+     */
+    @After
+    public void tearDown() throws IOException {
+        fTrace.dispose();
+        FileUtils.deleteDirectory(fSpoolDir);
+    }
+
+    /**
+     * Test that the sliced builds give the same intervals as a sequential
+     * build, for numbers of slices which do or do not divide the trace evenly
+     *
+     * @throws Exception
+     *             If the builds fail
+     */
+    @Test
+    public void testSameIntervals() throws Exception {
+        ITmfStateSystemBuilder expected = buildSequential(new TestTimeSlicedStateProvider(fTrace));
+        try {
+            for (int nbSlices : new int[] { 1, 2, 3, 4, 7 }) {
+                ITmfStateSystemBuilder actual = createTarget();
+                TimeSlicedHistoryBuilder builder = new TimeSlicedHistoryBuilder(new TestTimeSlicedStateProvider(fTrace), actual, getSpoolPrefix(), nbSlices, 0);
+                assertTrue(builder.build());
+                assertEquals(Long.MAX_VALUE, builder.getLatestSafeTime());
+                assertSameHistory(String.valueOf(nbSlices), expected, actual);
+                assertSpoolRemoved();
+                actual.dispose();
+            }
+        } finally {
+            expected.dispose();
+        }
+    }
+
+    /**
+     * Test that a cancelled build returns false, closes the target and removes
+     * the spool files
+     *
+     * @throws Exception
+     *             If the build fails
+     */
+    @Test
+    public void testCancel() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TestTimeSlicedStateProvider provider = new TestTimeSlicedStateProvider(fTrace, event -> {
+            if (event.getTimestamp().toNanos() == HOOK_TIME) {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        ITmfStateSystemBuilder target = createTarget();
+        TimeSlicedHistoryBuilder builder = new TimeSlicedHistoryBuilder(provider, target, getSpoolPrefix(), 4, 0);
+        FutureTask<Boolean> build = new FutureTask<>(builder::build);
+        new Thread(build).start();
+
+        assertTrue(blocked.await(10, TimeUnit.SECONDS));
+        builder.cancel();
+        release.countDown();
+        assertFalse(build.get());
+        assertTrue(target.waitUntilBuilt(0));
+        assertTrue(builder.getLatestSafeTime() < HOOK_TIME);
+        assertSpoolRemoved();
+        target.dispose();
+    }
+
+    /**
+     * Test that the failure of a slice's provider fails the build
+     *
+     * @throws Exception
+     *             If the build fails in another way
+     */
+    @Test
+    public void testSliceFailure() throws Exception {
+        testFailure(HOOK_TIME);
+    }
+
+    /**
+     * Test that the failure of the seed pass fails the build
+     *
+     * @throws Exception
+     *             If the build fails in another way
+     */
+    @Test
+    public void testSeedFailure() throws Exception {
+        testFailure(60);
+    }
+
+    private void testFailure(long failureTime) throws Exception {
+        String message = "Failure at " + failureTime;
+        TestTimeSlicedStateProvider provider = new TestTimeSlicedStateProvider(fTrace, event -> {
+            if (event.getTimestamp().toNanos() == failureTime) {
+                throw new IllegalStateException(message);
+            }
+        });
+        ITmfStateSystemBuilder target = createTarget();
+        TimeSlicedHistoryBuilder builder = new TimeSlicedHistoryBuilder(provider, target, getSpoolPrefix(), 4, 0);
+        FutureTask<Boolean> build = new FutureTask<>(builder::build);
+        new Thread(build).start();
+        try {
+            build.get();
+            fail("The build should fail");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+            assertEquals(message, e.getCause().getMessage());
+        }
+        assertTrue(target.waitUntilBuilt(0));
+        assertSpoolRemoved();
+        target.dispose();
+    }
+
+    private @NonNull ITmfStateSystemBuilder createTarget() {
+        return StateSystemFactory.newStateSystem(StateHistoryBackendFactory.createInMemoryBackend(SSID, fTrace.getStartTime().toNanos()));
+    }
+
+    private File getSpoolPrefix() {
+        return new File(fSpoolDir, SSID + ".ht");
+    }
+
+    private void assertSpoolRemoved() {
+        assertArrayEquals(new String[0], fSpoolDir.list());
+    }
+
+    private @NonNull ITmfStateSystemBuilder buildSequential(TestTimeSlicedStateProvider provider) throws InterruptedException {
+        ITmfStateSystemBuilder ss = createTarget();
+        provider.assignTargetStateSystem(ss);
+        TmfEventRequest request = new TmfEventRequest(ITmfEvent.class, TmfTimeRange.ETERNITY, 0,
+                ITmfEventRequest.ALL_DATA, ITmfEventRequest.ExecutionType.BACKGROUND) {
+            @Override
+            public void handleData(ITmfEvent event) {
+                super.handleData(event);
+                provider.processEvent(event);
+            }
+        };
+        fTrace.sendRequest(request);
+        request.waitForCompletion();
+        provider.dispose();
+        return ss;
+    }
+
+    private static void assertSameHistory(String msg, ITmfStateSystem expected, ITmfStateSystem actual)
+            throws AttributeNotFoundException, StateSystemDisposedException {
+        assertEquals(msg, expected.getNbAttributes(), actual.getNbAttributes());
+        assertEquals(msg, expected.getStartTime(), actual.getStartTime());
+        assertEquals(msg, expected.getCurrentEndTime(), actual.getCurrentEndTime());
+        long start = expected.getStartTime();
+        long end = expected.getCurrentEndTime();
+        for (int quark = 0; quark < expected.getNbAttributes(); quark++) {
+            String[] path = expected.getFullAttributePathArray(quark);
+            String attributeMsg = msg + ' ' + Arrays.toString(path);
+            List<ITmfStateInterval> expectedIntervals = StateSystemUtils.queryHistoryRange(expected, quark, start, end);
+            List<ITmfStateInterval> actualIntervals = StateSystemUtils.queryHistoryRange(actual, actual.getQuarkAbsolute(path), start, end);
+            assertEquals(attributeMsg, expectedIntervals.size(), actualIntervals.size());
+            for (int i = 0; i < expectedIntervals.size(); i++) {
+                ITmfStateInterval expectedInterval = expectedIntervals.get(i);
+                ITmfStateInterval actualInterval = actualIntervals.get(i);
+                assertEquals(attributeMsg, expectedInterval.getStartTime(), actualInterval.getStartTime());
+                assertEquals(attributeMsg, expectedInterval.getEndTime(), actualInterval.getEndTime());
+                assertEquals(attributeMsg, expectedInterval.getValue(), actualInterval.getValue());
+            }
+        }
+    }
+}
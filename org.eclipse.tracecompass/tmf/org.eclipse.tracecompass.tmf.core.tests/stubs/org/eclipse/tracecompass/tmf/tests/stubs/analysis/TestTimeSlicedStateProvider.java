@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.tmf.tests.stubs.analysis;
+
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.statesystem.AbstractTmfStateProvider;
+import org.eclipse.tracecompass.tmf.core.statesystem.ITmfStateProvider;
+import org.eclipse.tracecompass.tmf.core.statesystem.ITmfTimeSlicedStateProvider;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+
+/**
+ * Stub of a state provider that can be built in time slices, for the
+ * "time_sliced.xml" trace.
+ *
+ * Attribute tree:
+ *
+ * <pre>
+ * |- count -> Number of seed events so far
+ * |- cpus
+ * |   |- <cpu> -> Time of the last seed event of this cpu
+ * |- current -> count * 1000 + the time of the event
+ * </pre>
+ *
+ * The seed events update the count and the cpus, which the following events
+ * read or leave unchanged. All the events update the current value, which
+ * reads the count.
+ */
+public class TestTimeSlicedStateProvider extends AbstractTmfStateProvider implements ITmfTimeSlicedStateProvider {
+
+    /** Name of the seed events */
+    public static final String SEED_EVENT = "switch";
+
+    private static final int VERSION = 1;
+
+    private final @NonNull Consumer<ITmfEvent> fEventHook;
+
+    /**
+     * Constructor
+     *
+     * @param trace
+     *            The trace this state provider is for
+     */
+    public TestTimeSlicedStateProvider(@NonNull ITmfTrace trace) {
+        this(trace, event -> {
+            /* Nothing to do */
+        });
+    }
+
+    /**
+     * Constructor with an action run by all the instances of this provider
+     * before handling each event, to block or fail the build
+     *
+     * @param trace
+     *            The trace this state provider is for
+     * @param eventHook
+     *            The action to run before handling each event
+     */
+    public TestTimeSlicedStateProvider(@NonNull ITmfTrace trace, @NonNull Consumer<ITmfEvent> eventHook) {
+        super(trace, "Stub Time Sliced State System");
+        fEventHook = eventHook;
+    }
+
+    @Override
+    public int getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    public @NonNull ITmfStateProvider getNewInstance() {
+        return new TestTimeSlicedStateProvider(getTrace(), fEventHook);
+    }
+
+    @Override
+    public boolean isSeedEvent(@NonNull ITmfEvent event) {
+        return SEED_EVENT.equals(event.getName());
+    }
+
+    @Override
+    protected void eventHandle(@NonNull ITmfEvent event) {
+        fEventHook.accept(event);
+        ITmfStateSystemBuilder ss = getStateSystemBuilder();
+        if (ss == null) {
+            return;
+        }
+        long ts = event.getTimestamp().toNanos();
+        int countQuark = ss.getQuarkAbsoluteAndAdd("count");
+        Object value = ss.queryOngoing(countQuark);
+        int count = (value instanceof Integer) ? (Integer) value : 0;
+        if (isSeedEvent(event)) {
+            count++;
+            ss.modifyAttribute(ts, count, countQuark);
+            ss.modifyAttribute(ts, ts, ss.getQuarkAbsoluteAndAdd("cpus", String.valueOf(ts / 10 % 4)));
+        }
+        ss.modifyAttribute(ts, count * 1000L + ts, ss.getQuarkAbsoluteAndAdd("current"));
+    }
+}
@@ -11,6 +11,7 @@
 
 package org.eclipse.tracecompass.internal.tmf.core.model.tree;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -263,6 +264,24 @@ public abstract class AbstractTreeDataProvider<A extends TmfStateSystemAnalysisM
         return times;
     }
 
+    /**
+     * Get the sorted times from the filter in the desired time range, for the
+     * sampled queries of the state system which take an array of times.
+     *
+     * @param filter
+     *            {@link TimeQueryFilter}
+     * @param start
+     *            lower bound
+     * @param end
+     *            upper bound
+     * @return the sorted times in the time range
+     */
+    protected static long[] getSampleTimes(TimeQueryFilter filter, long start, long end) {
+        return Arrays.stream(filter.getTimesRequested())
+                .filter(time -> start <= time && time <= end)
+                .toArray();
+    }
+
     @Override
     public final TmfModelResponse<TmfTreeModel<M>> fetchTree(Map<String, Object> fetchParameters, @Nullable IProgressMonitor monitor) {
         fLock.readLock().lock();
@@ -0,0 +1,422 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.tmf.core.statesystem;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.common.core.log.TraceCompassLog;
+import org.eclipse.tracecompass.common.core.log.TraceCompassLogUtils.ScopeLog;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
+import org.eclipse.tracecompass.statesystem.core.StateSystemBuilderUtils;
+import org.eclipse.tracecompass.statesystem.core.StateSystemFactory;
+import org.eclipse.tracecompass.statesystem.core.backend.IStateHistoryBackend;
+import org.eclipse.tracecompass.statesystem.core.backend.StateHistoryBackendFactory;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.request.ITmfEventRequest;
+import org.eclipse.tracecompass.tmf.core.request.TmfEventRequest;
+import org.eclipse.tracecompass.tmf.core.statesystem.AbstractTmfStateProvider;
+import org.eclipse.tracecompass.tmf.core.statesystem.ITmfStateProvider;
+import org.eclipse.tracecompass.tmf.core.statesystem.ITmfTimeSlicedStateProvider;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimeRange;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.experiment.TmfExperiment;
+
+/**
+ * Builds the full history of a {@link ITmfTimeSlicedStateProvider} by
+ * processing time slices of the trace in parallel.
+ *
+ * Each slice gets its own provider instance, whose intervals are written to a
+ * spool file. The first slice starts right away. A seed pass sends the seed
+ * events to another provider instance, writing to a state system that keeps
+ * no history, and runs at the same time as the slices: when it reaches the
+ * start of a slice, that slice is seeded with the current state of the seed
+ * pass and started. The seed pass stops at the start of the last slice. The
+ * spooled histories are appended, slice by slice, to the target state system.
+ */
+@NonNullByDefault
+public class TimeSlicedHistoryBuilder {
+
+    private static final Logger LOGGER = TraceCompassLog.getLogger(TimeSlicedHistoryBuilder.class);
+
+    private final ITmfTimeSlicedStateProvider fProvider;
+    private final ITmfStateSystemBuilder fTarget;
+    private final File fSpoolPrefix;
+    private final int fNbSlices;
+    private final int fDependencyLevel;
+    private final List<ITmfEventRequest> fRequests = new ArrayList<>();
+
+    private volatile long fSafeTime;
+    private volatile boolean fCancelled = false;
+
+    /**
+     * Constructor
+     *
+     * @param provider
+     *            The state provider, which will process the first slice. The
+     *            other slices and the seed pass use new instances.
+     * @param target
+     *            The state system in which to write the full history. The
+     *            provider must not be assigned to it.
+     * @param spoolPrefix
+     *            The prefix of the temporary files for the slices
+     * @param nbSlices
+     *            The number of slices
+     * @param dependencyLevel
+     *            The dependency level of the event requests
+     */
+    public TimeSlicedHistoryBuilder(ITmfTimeSlicedStateProvider provider, ITmfStateSystemBuilder target,
+            File spoolPrefix, int nbSlices, int dependencyLevel) {
+        fProvider = provider;
+        fTarget = target;
+        fSpoolPrefix = spoolPrefix;
+        fNbSlices = nbSlices;
+        fDependencyLevel = dependencyLevel;
+        fSafeTime = provider.getStartTime() - 1;
+    }
+
+    /**
+     * Get the latest time up to which the target state system is complete
+     *
+     * @return The latest safe time
+     */
+    public long getLatestSafeTime() {
+        return fSafeTime;
+    }
+
+    /**
+     * Cancel the build
+     */
+    public void cancel() {
+        fCancelled = true;
+        synchronized (fRequests) {
+            fRequests.forEach(ITmfEventRequest::cancel);
+        }
+    }
+
+    /**
+     * Build the history and close the target state system. This method
+     * blocks until the build is complete. The target is closed even if the
+     * build fails or is cancelled, in which case its files should be removed.
+     *
+     * @return False if the build was cancelled, true otherwise
+     * @throws IOException
+     *             If the slices cannot be written to or read from disk
+     * @throws InterruptedException
+     *             If the thread was interrupted while waiting for the slices
+     */
+    public boolean build() throws IOException, InterruptedException {
+        ITmfTrace trace = fProvider.getTrace();
+        long start = trace.getStartTime().toNanos();
+        long end = trace.getEndTime().toNanos();
+        long[] bounds = new long[fNbSlices + 1];
+        for (int i = 0; i < fNbSlices; i++) {
+            bounds[i] = start + (long) ((end - start) * ((double) i / fNbSlices));
+        }
+        bounds[fNbSlices] = end + 1;
+
+        ITmfStateSystemBuilder seedSs = StateSystemFactory.newStateSystem(
+                StateHistoryBackendFactory.createNullBackend(fTarget.getSSID()));
+        ITmfStateProvider seedProvider = null;
+        SeedRequest seedRequest = null;
+        List<Slice> slices = new ArrayList<>();
+        boolean closed = false;
+        try {
+            for (int i = 0; i < fNbSlices; i++) {
+                ITmfStateProvider provider = (i == 0) ? fProvider : fProvider.getNewInstance();
+                slices.add(new Slice(provider, new File(fSpoolPrefix.getPath() + ".slice" + i), bounds[i], bounds[i + 1] - 1)); //$NON-NLS-1$
+            }
+            slices.get(0).start();
+
+            /* The seed pass starts the other slices as it reaches them */
+            if (fNbSlices > 1) {
+                seedProvider = fProvider.getNewInstance();
+                seedProvider.assignTargetStateSystem(seedSs);
+                seedRequest = new SeedRequest(seedProvider, seedSs, slices.subList(1, fNbSlices),
+                        new TmfTimeRange(TmfTimestamp.fromNanos(start), TmfTimestamp.fromNanos(bounds[fNbSlices - 1] - 1)));
+                if (!sendRequest(seedRequest)) {
+                    return false;
+                }
+                try (ScopeLog log = new ScopeLog(LOGGER, Level.FINE, "TimeSlicedHistoryBuilder:seedPass")) { //$NON-NLS-1$
+                    for (Slice slice : slices.subList(1, fNbSlices)) {
+                        if (!slice.waitForSeed()) {
+                            seedRequest.waitForCompletion();
+                            checkFailure(seedProvider, seedRequest);
+                            return false;
+                        }
+                        slice.start();
+                    }
+                    seedRequest.waitForCompletion();
+                    checkFailure(seedProvider, seedRequest);
+                }
+            }
+
+            /* Append the slices in order as they complete */
+            long endTime = start;
+            for (Slice slice : slices) {
+                boolean completed = slice.waitForCompletion();
+                if (!completed || fCancelled) {
+                    return false;
+                }
+                try (ScopeLog log = new ScopeLog(LOGGER, Level.FINE, "TimeSlicedHistoryBuilder:append", "start", slice.fStart)) { //$NON-NLS-1$ //$NON-NLS-2$
+                    StateSystemBuilderUtils.appendSpooledHistory(fTarget, slice.fSs, slice.fSpool, slice.fEnd);
+                }
+                endTime = Math.max(endTime, slice.fSs.getCurrentEndTime());
+                fSafeTime = slice.fEnd;
+            }
+            fTarget.closeHistory(endTime);
+            closed = true;
+            fSafeTime = Long.MAX_VALUE;
+            return true;
+        } finally {
+            if (seedRequest != null && !seedRequest.isCompleted()) {
+                seedRequest.cancel();
+            }
+            if (seedProvider != null) {
+                seedProvider.dispose();
+            }
+            for (Slice slice : slices) {
+                slice.dispose();
+            }
+            seedSs.dispose();
+            if (!closed) {
+                /* Close the partial history so that its files can be removed */
+                fTarget.closeHistory(fTarget.getCurrentEndTime());
+            }
+        }
+    }
+
+    /*
+     * Send a request unless the build is cancelled, in which case it will be
+     * cancelled with the others
+     */
+    private boolean sendRequest(ITmfEventRequest request) {
+        synchronized (fRequests) {
+            if (fCancelled) {
+                return false;
+            }
+            fRequests.add(request);
+        }
+        fProvider.getTrace().sendRequest(request);
+        return true;
+    }
+
+    private static void checkFailure(ITmfStateProvider provider, ITmfEventRequest request) throws IOException {
+        Throwable cause = provider.getFailureCause();
+        if (cause == null && request.isFailed()) {
+            cause = request.getFailureCause();
+            if (cause == null) {
+                cause = new RuntimeException("Event request failed without a cause"); //$NON-NLS-1$
+            }
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause != null) {
+            throw new IOException(cause);
+        }
+    }
+
+    private static void processEvent(ITmfStateProvider provider, ITmfEvent event, ITmfTrace tmfTrace) {
+        if (event.getTrace() == tmfTrace) {
+            provider.processEvent(event);
+        } else if (tmfTrace instanceof TmfExperiment) {
+            for (ITmfTrace childTrace : ((TmfExperiment) tmfTrace).getTraces()) {
+                processEvent(provider, event, childTrace);
+            }
+        }
+    }
+
+    /**
+     * A time slice being built by its own provider instance
+     */
+    private class Slice {
+        private final ITmfStateProvider fSliceProvider;
+        private final IStateHistoryBackend fSpool;
+        private final ITmfStateSystemBuilder fSs;
+        private final long fStart;
+        private final long fEnd;
+        /* Taken by the seed pass, either to seed this slice or to abandon it */
+        private final AtomicBoolean fClaimed = new AtomicBoolean();
+        private final CountDownLatch fSeedLatch = new CountDownLatch(1);
+        private volatile boolean fSeeded = false;
+        private @Nullable SliceRequest fRequest = null;
+        private boolean fDisposed = false;
+
+        public Slice(ITmfStateProvider provider, File spoolFile, long start, long end) throws IOException {
+            fSliceProvider = provider;
+            fSpool = StateHistoryBackendFactory.createSpoolBackend(fTarget.getSSID(), spoolFile, start);
+            fSs = StateSystemFactory.newStateSystem(fSpool);
+            fStart = start;
+            fEnd = end;
+        }
+
+        /**
+         * Set the state of this slice's state system to the current state of
+         * the seed state system, whose provider has processed all the seed
+         * events before the slice. The attributes are created in the same
+         * order as in the seed.
+         */
+        public void seed(ITmfStateSystemBuilder seedSs) {
+            if (!fClaimed.compareAndSet(false, true)) {
+                return;
+            }
+            int nbAttributes = seedSs.getNbAttributes();
+            for (int quark = 0; quark < nbAttributes; quark++) {
+                int sliceQuark = fSs.getQuarkAbsoluteAndAdd(seedSs.getFullAttributePathArray(quark));
+                Object value = seedSs.queryOngoing(quark);
+                if (value != null) {
+                    fSs.modifyAttribute(fStart, value, sliceQuark);
+                }
+            }
+            fSeeded = true;
+            fSeedLatch.countDown();
+        }
+
+        /**
+         * Release the thread waiting for the seed of this slice, when the seed
+         * pass fails or is cancelled before reaching it
+         */
+        public void abandon() {
+            if (fClaimed.compareAndSet(false, true)) {
+                fSeedLatch.countDown();
+            }
+        }
+
+        public boolean waitForSeed() throws InterruptedException {
+            fSeedLatch.await();
+            return fSeeded;
+        }
+
+        public void start() {
+            fSliceProvider.assignTargetStateSystem(fSs);
+            SliceRequest request = new SliceRequest(fSliceProvider, new TmfTimeRange(TmfTimestamp.fromNanos(fStart), TmfTimestamp.fromNanos(fEnd)));
+            fRequest = request;
+            synchronized (fRequests) {
+                fRequests.add(request);
+                if (fCancelled) {
+                    request.cancel();
+                }
+            }
+            fSliceProvider.getTrace().sendRequest(request);
+        }
+
+        public boolean waitForCompletion() throws InterruptedException, IOException {
+            SliceRequest request = fRequest;
+            if (request == null) {
+                return false;
+            }
+            request.waitForCompletion();
+            /* Closes the slice's state system once its events are processed */
+            fSliceProvider.dispose();
+            fDisposed = true;
+            checkFailure(fSliceProvider, request);
+            return !request.isCancelled();
+        }
+
+        public void dispose() {
+            if (!fDisposed) {
+                SliceRequest request = fRequest;
+                if (request != null) {
+                    request.cancel();
+                    fSliceProvider.dispose();
+                }
+                fDisposed = true;
+            }
+            fSpool.removeFiles();
+        }
+    }
+
+    /**
+     * Request sending the events of a time range to a slice's provider
+     */
+    private class SliceRequest extends TmfEventRequest {
+        private final ITmfStateProvider fRequestProvider;
+
+        public SliceRequest(ITmfStateProvider provider, TmfTimeRange range) {
+            super(ITmfEvent.class, range, 0, ITmfEventRequest.ALL_DATA,
+                    ITmfEventRequest.ExecutionType.BACKGROUND, fDependencyLevel);
+            fRequestProvider = provider;
+        }
+
+        @Override
+        public void handleData(final ITmfEvent event) {
+            super.handleData(event);
+            processEvent(fRequestProvider, event, fRequestProvider.getTrace());
+        }
+    }
+
+    /**
+     * Request sending the seed events to the seed provider, up to the start of
+     * the last slice. Before the first event of each slice, it waits for the
+     * seed provider to process the previous events, then seeds the slice.
+     */
+    private class SeedRequest extends TmfEventRequest {
+        private final ITmfStateProvider fSeedProvider;
+        private final ITmfStateSystemBuilder fSeedSs;
+        private final List<Slice> fSlices;
+        private int fNextSlice = 0;
+
+        public SeedRequest(ITmfStateProvider provider, ITmfStateSystemBuilder seedSs, List<Slice> slices, TmfTimeRange range) {
+            super(ITmfEvent.class, range, 0, ITmfEventRequest.ALL_DATA,
+                    ITmfEventRequest.ExecutionType.BACKGROUND, fDependencyLevel);
+            fSeedProvider = provider;
+            fSeedSs = seedSs;
+            fSlices = slices;
+        }
+
+        @Override
+        public void handleData(final ITmfEvent event) {
+            super.handleData(event);
+            long time = event.getTimestamp().toNanos();
+            if (fNextSlice < fSlices.size() && time >= fSlices.get(fNextSlice).fStart) {
+                waitForSeedProvider();
+                while (fNextSlice < fSlices.size() && time >= fSlices.get(fNextSlice).fStart) {
+                    fSlices.get(fNextSlice++).seed(fSeedSs);
+                }
+            }
+            if (fProvider.isSeedEvent(event)) {
+                processEvent(fSeedProvider, event, fSeedProvider.getTrace());
+            }
+        }
+
+        @Override
+        public void handleCompleted() {
+            /* The slices after the last seed event start from the final seed */
+            if (!isCancelled() && !isFailed() && fSeedProvider.getFailureCause() == null) {
+                waitForSeedProvider();
+                for (Slice slice : fSlices) {
+                    slice.seed(fSeedSs);
+                }
+            }
+            for (Slice slice : fSlices) {
+                slice.abandon();
+            }
+            super.handleCompleted();
+        }
+
+        private void waitForSeedProvider() {
+            if (fSeedProvider instanceof AbstractTmfStateProvider) {
+                ((AbstractTmfStateProvider) fSeedProvider).waitForEmptyQueue();
+            }
+        }
+    }
+}
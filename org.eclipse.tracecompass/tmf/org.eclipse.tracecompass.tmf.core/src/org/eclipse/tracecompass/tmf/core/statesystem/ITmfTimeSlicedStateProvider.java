@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.tmf.core.statesystem;
+
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+
+/**
+ * A state provider whose full history can be built in parallel, by splitting
+ * the trace in time slices that are each processed by a new instance of the
+ * provider.
+ *
+ * A first, sequential pass sends only the seed events (see
+ * {@link #isSeedEvent(ITmfEvent)}) to a new instance of the provider, to
+ * obtain the full state at the start of each slice. Each slice's provider
+ * then starts from that state and receives all the events of its slice, and
+ * the histories of the slices are appended one after the other in the final
+ * state system.
+ *
+ * For the result to be the same as a sequential build, the provider must keep
+ * all of its state in the state system, not in fields of the provider, and
+ * it must not add future events past the end of the slice being processed.
+ * Only the providers extending {@link AbstractTmfStateProvider} are built in
+ * time slices.
+ *
+ * The seed pass and the slices all read the trace, whose parsing is
+ * sequential. A provider only gains from the slices if its seed events are a
+ * small part of the events it handles, and its handling of the other events
+ * costs more than parsing them. The time slices are only used when their
+ * number is set with the
+ * <code>org.eclipse.tracecompass.tmf.core.statesystem.timeSlices</code>
+ * system property.
+ *
+ * @since 6.2
+ */
+public interface ITmfTimeSlicedStateProvider extends ITmfStateProvider {
+
+    /**
+     * Get whether an event must be sent to the seed pass. Processing only the
+     * seed events must give, at any time, the same value as a full build for
+     * every attribute that the events of the following slice may read or
+     * leave unchanged. The seed pass is sequential, so the fewer seed events,
+     * the more the build benefits from the parallel slices.
+     *
+     * @param event
+     *            The event
+     * @return Whether the event is needed to reconstruct the state at the
+     *         start of a slice
+     */
+    boolean isSeedEvent(ITmfEvent event);
+
+}
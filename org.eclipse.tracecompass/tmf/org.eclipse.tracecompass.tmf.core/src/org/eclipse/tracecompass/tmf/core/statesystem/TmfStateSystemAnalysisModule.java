@@ -37,6 +37,7 @@ import org.eclipse.tracecompass.common.core.NonNullUtils;
 import org.eclipse.tracecompass.common.core.log.TraceCompassLog;
 import org.eclipse.tracecompass.common.core.log.TraceCompassLogUtils.ScopeLog;
 import org.eclipse.tracecompass.internal.tmf.core.Activator;
+import org.eclipse.tracecompass.internal.tmf.core.statesystem.TimeSlicedHistoryBuilder;
 import org.eclipse.tracecompass.internal.tmf.core.statesystem.backends.partial.PartialHistoryBackend;
 import org.eclipse.tracecompass.internal.tmf.core.statesystem.backends.partial.PartialStateSystem;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
@@ -81,6 +82,13 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
 
     private static final Logger LOGGER = TraceCompassLog.getLogger(TmfStateSystemAnalysisModule.class);
 
+    /**
+     * System property to set the number of time slices built in parallel by
+     * time-sliced state providers. By default, they are built sequentially
+     * like the other providers.
+     */
+    private static final String TIME_SLICES_PROPERTY = "org.eclipse.tracecompass.tmf.core.statesystem.timeSlices"; //$NON-NLS-1$
+
     private static final String EXTENSION = ".ht"; //$NON-NLS-1$
 
     private final CountDownLatch fInitialized = new CountDownLatch(1);
@@ -94,6 +102,7 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
     private boolean fInitializationSucceeded;
 
     private volatile @Nullable ITmfStateProvider fStateProvider;
+    private volatile @Nullable TimeSlicedHistoryBuilder fSlicedBuilder;
     private @Nullable Integer fProviderVersion = null;
 
     /**
@@ -223,6 +232,10 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
          * Return true if there is no state provider available (the analysis is not
          * being built)
          */
+        TimeSlicedHistoryBuilder slicedBuilder = fSlicedBuilder;
+        if (slicedBuilder != null) {
+            return ts <= slicedBuilder.getLatestSafeTime();
+        }
         ITmfStateProvider provider = fStateProvider;
         if (provider == null) {
             return true;
@@ -323,6 +336,10 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
         if ((req != null) && (!req.isCompleted())) {
             req.cancel();
         }
+        TimeSlicedHistoryBuilder slicedBuilder = fSlicedBuilder;
+        if (slicedBuilder != null) {
+            slicedBuilder.cancel();
+        }
     }
 
     @Override
@@ -352,7 +369,7 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
             final int version = provider.getVersion();
             try {
                 IStateHistoryBackend backend = StateHistoryBackendFactory.createHistoryTreeBackendExistingFile(
-                        id, htFile, version);
+                        id, htFile, version, true);
                 fStateSystem = StateSystemFactory.newStateSystem(backend, false);
                 analysisReady(true);
                 return;
@@ -372,6 +389,10 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
             IStateHistoryBackend backend = StateHistoryBackendFactory.createHistoryTreeBackendNewFile(
                     id, htFile, provider.getVersion(), provider.getStartTime(), QUEUE_SIZE);
             fStateSystem = StateSystemFactory.newStateSystem(backend);
+            if (provider instanceof ITmfTimeSlicedStateProvider && canBuildInTimeSlices(provider)) {
+                buildInTimeSlices((ITmfTimeSlicedStateProvider) provider, htFile);
+                return;
+            }
             provider.assignTargetStateSystem(fStateSystem);
             build(provider);
         } catch (IOException e) {
@@ -383,6 +404,55 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
         }
     }
 
+    /*
+     * A time-sliced build needs the whole trace to be known in advance, and
+     * cannot start from a state dump. Its seed pass waits for the queue of an
+     * abstract state provider to be empty.
+     */
+    private boolean canBuildInTimeSlices(ITmfStateProvider provider) {
+        ITmfTrace trace = provider.getTrace();
+        int timeSlices = getTimeSlices();
+        if (timeSlices < 2 || !(provider instanceof AbstractTmfStateProvider) || !isCompleteTrace(trace)
+                || trace.getEndTime().toNanos() - trace.getStartTime().toNanos() < timeSlices) {
+            return false;
+        }
+        File path = new File(trace.getPath());
+        path = path.isDirectory() ? path : path.getParentFile();
+        return path == null || StateSnapshot.read(path.toPath(), getId()) == null;
+    }
+
+    private static int getTimeSlices() {
+        return Integer.getInteger(TIME_SLICES_PROPERTY, 1);
+    }
+
+    /*
+     * Build the full history by processing time slices of the trace in
+     * parallel, each with its own instance of the state provider.
+     */
+    private void buildInTimeSlices(ITmfTimeSlicedStateProvider provider, File htFile) {
+        ITmfStateSystemBuilder ss = Objects.requireNonNull(fStateSystem);
+        int timeSlices = getTimeSlices();
+        TimeSlicedHistoryBuilder builder = new TimeSlicedHistoryBuilder(provider, ss, htFile, timeSlices, getDependencyLevel());
+        fSlicedBuilder = builder;
+        analysisReady(true);
+
+        boolean deleteFiles = true;
+        try (ScopeLog log = new ScopeLog(LOGGER, Level.FINE, "StateSystemAnalysis:buildInTimeSlices", "slices", timeSlices)) { //$NON-NLS-1$ //$NON-NLS-2$
+            deleteFiles = !builder.build();
+        } catch (IOException | RuntimeException e) {
+            fail(e);
+        } catch (InterruptedException e) {
+            fail(e);
+            Thread.currentThread().interrupt();
+        } finally {
+            fSlicedBuilder = null;
+            if (deleteFiles) {
+                ss.removeFiles();
+            }
+            completingBuild(deleteFiles);
+        }
+    }
+
     /*
      * Create a new state system backed with a partial history. A partial history is
      * similar to a "full" one (which you get with {@link #newFullHistory}), except